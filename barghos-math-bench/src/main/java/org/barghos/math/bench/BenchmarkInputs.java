@@ -0,0 +1,175 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.bench;
+
+import java.util.Random;
+
+import org.barghos.math.boundary.OBB3f;
+import org.barghos.math.geometry.PointSet3f;
+import org.barghos.math.matrix.Mat4f;
+import org.barghos.math.point.Point3f;
+import org.barghos.math.quat.Quatf;
+import org.barghos.math.vec3.Vec3f;
+
+/**
+ * Deterministic input generators shared by all suites.
+ * Every generator understands the three input kinds that are used as JMH parameters:
+ * 
+ * <ul>
+ * <li>{@link #RANDOM}: uniformly distributed, well conditioned values.</li>
+ * <li>{@link #DEGENERATE}: singular matrices, zero length quaternions, flat boxes and coincident points.</li>
+ * <li>{@link #IDENTITY}: identity matrices and quaternions, unit boxes and the unit cube.</li>
+ * </ul>
+ * 
+ * @author picatrix1899
+ */
+public final class BenchmarkInputs
+{
+	public static final String RANDOM = "random";
+	public static final String DEGENERATE = "degenerate";
+	public static final String IDENTITY = "identity";
+	
+	public static final long SEED = 0x5EED_BA56_0000L;
+	
+	private BenchmarkInputs() { }
+	
+	public static Random random()
+	{
+		return new Random(SEED);
+	}
+	
+	public static Mat4f matrix(String kind, Random rnd)
+	{
+		Mat4f m = new Mat4f();
+		
+		switch(kind)
+		{
+			case RANDOM:
+			{
+				m.initTransformMatrix3D(vector(rnd, 10.0f), rotationQuat(rnd), new Vec3f(0.5f + rnd.nextFloat(), 0.5f + rnd.nextFloat(), 0.5f + rnd.nextFloat()));
+				
+				break;
+			}
+			case DEGENERATE:
+			{
+				// rank deficient: the third row is the sum of the first two.
+				float a = rnd.nextFloat(), b = rnd.nextFloat(), c = rnd.nextFloat(), d = rnd.nextFloat();
+				float e = rnd.nextFloat(), f = rnd.nextFloat(), g = rnd.nextFloat(), h = rnd.nextFloat();
+				
+				m.setRow(0, a, b, c, d);
+				m.setRow(1, e, f, g, h);
+				m.setRow(2, a + e, b + f, c + g, d + h);
+				m.setRow(3, 0.0f, 0.0f, 0.0f, 1.0f);
+				
+				break;
+			}
+			case IDENTITY:
+			{
+				m.initIdentity();
+				
+				break;
+			}
+			default: throw new IllegalArgumentException(kind);
+		}
+		
+		// The kernel benchmarks measure the general paths, not the shortcuts taken for known properties.
+		m.setProperties(0);
+		
+		return m;
+	}
+	
+	public static Quatf quat(String kind, Random rnd)
+	{
+		switch(kind)
+		{
+			case RANDOM: return rotationQuat(rnd);
+			case DEGENERATE: return new Quatf(0.0f, 0.0f, 0.0f, 0.0f);
+			case IDENTITY: return new Quatf();
+			default: throw new IllegalArgumentException(kind);
+		}
+	}
+	
+	public static OBB3f obb(String kind, Random rnd)
+	{
+		switch(kind)
+		{
+			case RANDOM:
+			{
+				Vec3f c = vector(rnd, 2.0f);
+				
+				return new OBB3f(c.getX(), c.getY(), c.getZ(), 0.25f + rnd.nextFloat(), 0.25f + rnd.nextFloat(), 0.25f + rnd.nextFloat(), rotationMatrix(rnd));
+			}
+			case DEGENERATE: return new OBB3f(0.0f, 0.0f, 0.0f, 0.0f, 0.0f, 0.0f, Mat4f.identity());
+			case IDENTITY: return new OBB3f(0.0f, 0.0f, 0.0f, 1.0f, 1.0f, 1.0f, Mat4f.identity());
+			default: throw new IllegalArgumentException(kind);
+		}
+	}
+	
+	public static PointSet3f pointSet(String kind, int count, Random rnd)
+	{
+		Point3f[] points = new Point3f[count];
+		
+		for(int i = 0; i < count; i++)
+		{
+			switch(kind)
+			{
+				case RANDOM: points[i] = new Point3f(vector(rnd, 100.0f)); break;
+				case DEGENERATE: points[i] = new Point3f(1.0f, 1.0f, 1.0f); break;
+				case IDENTITY: points[i] = new Point3f((i & 1) == 0 ? -1.0f : 1.0f, (i & 2) == 0 ? -1.0f : 1.0f, (i & 4) == 0 ? -1.0f : 1.0f); break;
+				default: throw new IllegalArgumentException(kind);
+			}
+		}
+		
+		return new PointSet3f(points);
+	}
+	
+	public static Vec3f vector(Random rnd, float range)
+	{
+		return new Vec3f((rnd.nextFloat() * 2.0f - 1.0f) * range, (rnd.nextFloat() * 2.0f - 1.0f) * range, (rnd.nextFloat() * 2.0f - 1.0f) * range);
+	}
+	
+	public static Vec3f axis(Random rnd)
+	{
+		Vec3f v;
+		
+		do
+		{
+			v = vector(rnd, 1.0f);
+		}
+		while(v.squaredLength() < 0.01f);
+		
+		return v.normal();
+	}
+	
+	public static Quatf rotationQuat(Random rnd)
+	{
+		return Quatf.getFromAxis(axis(rnd), rnd.nextFloat() * 360.0f);
+	}
+	
+	public static Mat4f rotationMatrix(Random rnd)
+	{
+		return Mat4f.rotation3D(axis(rnd), rnd.nextFloat() * 360.0f);
+	}
+}
@@ -0,0 +1,122 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.bench.boundary;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.barghos.math.bench.BenchmarkInputs;
+import org.barghos.math.boundary.ContactManifold3f;
+import org.barghos.math.boundary.OBB3f;
+import org.barghos.math.boundary.OBBOBBContactResolver;
+import org.barghos.math.boundary.OBBOBBResolver;
+import org.barghos.math.matrix.Mat4f;
+import org.barghos.math.vec3.Vec3f;
+
+/**
+ * Measures the throughput of {@link OBBOBBContactResolver#cOBBOBB3f(OBB3f, OBB3f, ContactManifold3f)} in box pairs per second,
+ * next to the face axis only {@link OBBOBBResolver#rOBBOBB3f(OBB3f, OBB3f)}.
+ * The random input contains a mix of intersecting and separated pairs, the resting input only pairs of stacked boxes,
+ * which always take the clipping path and produce four contacts.
+ * 
+ * @author picatrix1899
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class OBBOBBContactBenchmark
+{
+	public static final String RESTING = "resting";
+	
+	private static final int PAIRS = 64;
+	
+	@Param({BenchmarkInputs.RANDOM, RESTING})
+	public String input;
+	
+	private OBB3f[] a;
+	private OBB3f[] b;
+	
+	private final ContactManifold3f manifold = new ContactManifold3f();
+	
+	private int index;
+	
+	@Setup
+	public void setup()
+	{
+		Random rnd = BenchmarkInputs.random();
+		
+		this.a = new OBB3f[PAIRS];
+		this.b = new OBB3f[PAIRS];
+		
+		for(int i = 0; i < PAIRS; i++)
+		{
+			if(RESTING.equals(this.input))
+			{
+				Vec3f offset = BenchmarkInputs.vector(rnd, 0.5f);
+				
+				this.a[i] = new OBB3f(0.0f, 0.0f, 0.0f, 1.0f, 1.0f, 1.0f, Mat4f.identity());
+				this.b[i] = new OBB3f(offset.getX(), 1.95f, offset.getZ(), 1.0f, 1.0f, 1.0f, Mat4f.identity());
+			}
+			else
+			{
+				this.a[i] = BenchmarkInputs.obb(this.input, rnd);
+				this.b[i] = BenchmarkInputs.obb(this.input, rnd);
+			}
+		}
+	}
+	
+	@Benchmark
+	public ContactManifold3f contacts()
+	{
+		int i = this.index++ & (PAIRS - 1);
+		
+		OBBOBBContactResolver.cOBBOBB3f(this.a[i], this.b[i], this.manifold);
+		
+		return this.manifold;
+	}
+	
+	@Benchmark
+	public Vec3f faceAxesMTV()
+	{
+		int i = this.index++ & (PAIRS - 1);
+		
+		return OBBOBBResolver.rOBBOBB3f(this.a[i], this.b[i]);
+	}
+}
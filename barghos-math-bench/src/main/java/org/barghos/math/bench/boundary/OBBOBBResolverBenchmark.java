@@ -0,0 +1,156 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.bench.boundary;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.barghos.math.bench.BenchmarkInputs;
+import org.barghos.math.boundary.OBB3f;
+import org.barghos.math.boundary.OBBOBBResolver;
+import org.barghos.math.geometry.PointSet3f;
+import org.barghos.math.matrix.Mat4f;
+import org.barghos.math.pool.MathStack;
+import org.barghos.math.vec3.Vec3f;
+import org.barghos.math.vec4.Vec4f;
+
+/**
+ * Compares the separating axis test {@link OBBOBBResolver#iOBBOBB3f(OBB3f, OBB3f)} with the former
+ * corner based test {@link #faceAxes(OBB3f, OBB3f)}, which transforms the eight corners of both boxes into the space
+ * of each box and only checks the six face axes. The random input contains a mix of intersecting and separated pairs.
+ * 
+ * @author picatrix1899
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class OBBOBBResolverBenchmark
+{
+	private static final int PAIRS = 64;
+	
+	@Param({BenchmarkInputs.RANDOM, BenchmarkInputs.DEGENERATE, BenchmarkInputs.IDENTITY})
+	public String input;
+	
+	private OBB3f[] a;
+	private OBB3f[] b;
+	
+	private int index;
+	
+	@Setup
+	public void setup()
+	{
+		Random rnd = BenchmarkInputs.random();
+		
+		this.a = new OBB3f[PAIRS];
+		this.b = new OBB3f[PAIRS];
+		
+		for(int i = 0; i < PAIRS; i++)
+		{
+			this.a[i] = BenchmarkInputs.obb(this.input, rnd);
+			this.b[i] = BenchmarkInputs.obb(this.input, rnd);
+		}
+	}
+	
+	@Benchmark
+	public boolean intersects()
+	{
+		int i = this.index++ & (PAIRS - 1);
+		
+		return OBBOBBResolver.iOBBOBB3f(this.a[i], this.b[i]);
+	}
+	
+	@Benchmark
+	public boolean intersectsFaceAxes()
+	{
+		int i = this.index++ & (PAIRS - 1);
+		
+		return faceAxes(this.a[i], this.b[i]);
+	}
+	
+	/**
+	 * The former implementation of {@link OBBOBBResolver#iOBBOBB3f(OBB3f, OBB3f)}, kept as the baseline.
+	 */
+	private static boolean faceAxes(OBB3f a, OBB3f b)
+	{
+		try(MathStack s = MathStack.push())
+		{
+			Vec3f aCenter = a.getCenter(s.vec3());
+			Vec3f bCenter = b.getCenter(s.vec3());
+			
+			Mat4f modelSpaceA = a.getModelSpaceMatrix();
+			Mat4f modelSpaceB = b.getModelSpaceMatrix();
+			
+			if(!overlaps(a.getTransformedPointSet(modelSpaceA), b.getTransformedPointSet(modelSpaceA), aCenter, bCenter, modelSpaceA, s)) return false;
+			
+			return overlaps(a.getTransformedPointSet(modelSpaceB), b.getTransformedPointSet(modelSpaceB), aCenter, bCenter, modelSpaceB, s);
+		}
+	}
+	
+	private static boolean overlaps(PointSet3f a, PointSet3f b, Vec3f aCenter, Vec3f bCenter, Mat4f modelSpace, MathStack s)
+	{
+		Vec4f t1 = modelSpace.getRow(0, s.vec4());
+		Vec4f t2 = modelSpace.getRow(1, s.vec4());
+		Vec4f t3 = modelSpace.getRow(2, s.vec4());
+		
+		// verbatim, including the else that binds to the inner if.
+		if(aCenter.dot(t1) < bCenter.dot(t1))
+			if(!(a.getMaxX() > b.getMinX()))
+				return false;
+		else
+			if(!(b.getMaxX() > a.getMinX()))
+				return false;
+		
+		if(aCenter.dot(t2) < bCenter.dot(t2))
+			if(!(a.getMaxY() > b.getMinY()))
+				return false;
+		else
+			if(!(b.getMaxY() > a.getMinY()))
+				return false;
+		
+		if(aCenter.dot(t3) < bCenter.dot(t3))
+			if(!(a.getMaxZ() > b.getMinZ()))
+				return false;
+		else
+			if(!(b.getMaxZ() > a.getMinZ()))
+				return false;
+		
+		return true;
+	}
+}
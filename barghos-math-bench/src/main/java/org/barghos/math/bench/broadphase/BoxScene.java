@@ -0,0 +1,91 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.bench.broadphase;
+
+import java.util.Random;
+
+/**
+ * A scene of moving cubes with a constant density, shared by the broad phase benchmarks.
+ * Every cube has an edge length between 0.5 and 1.5, moves by up to 0.05 per axis and step and is reflected
+ * at the bounds of the scene. The scene grows with the cube root of the count, so every cube overlaps about
+ * the same number of others regardless of the count.
+ * 
+ * @author picatrix1899
+ */
+final class BoxScene
+{
+	final int count;
+	final float extend;
+	
+	/**
+	 * minX, minY, minZ, maxX, maxY, maxZ per cube.
+	 */
+	final float[] boxes;
+	
+	private final float[] velocities;
+	
+	BoxScene(int count, Random rnd)
+	{
+		this.count = count;
+		this.extend = (float)Math.cbrt(count) * 4.0f;
+		
+		this.boxes = new float[count * 6];
+		this.velocities = new float[count * 3];
+		
+		for(int i = 0; i < count; i++)
+		{
+			float size = 0.5f + rnd.nextFloat();
+			
+			for(int k = 0; k < 3; k++)
+			{
+				float min = rnd.nextFloat() * this.extend;
+				
+				this.boxes[i * 6 + k] = min;
+				this.boxes[i * 6 + k + 3] = min + size;
+				this.velocities[i * 3 + k] = (rnd.nextFloat() - 0.5f) * 0.1f;
+			}
+		}
+	}
+	
+	void step()
+	{
+		float[] b = this.boxes;
+		float[] v = this.velocities;
+		
+		for(int i = 0; i < this.count; i++)
+		{
+			for(int k = 0; k < 3; k++)
+			{
+				int o = i * 6 + k;
+				float d = v[i * 3 + k];
+				
+				b[o] += d;
+				b[o + 3] += d;
+				
+				if(b[o] < 0.0f || b[o + 3] > this.extend) v[i * 3 + k] = -d;
+			}
+		}
+	}
+}
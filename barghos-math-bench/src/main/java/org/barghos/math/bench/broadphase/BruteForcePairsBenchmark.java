@@ -0,0 +1,92 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.bench.broadphase;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.barghos.math.bench.BenchmarkInputs;
+
+/**
+ * The quadratic baseline for {@link SweepAndPrune3fBenchmark}: one simulation tick of the same {@link BoxScene},
+ * finding the overlapping pairs by testing every pair of boxes. Stops at 100k boxes, where a single tick already
+ * takes seconds.
+ * 
+ * @author picatrix1899
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class BruteForcePairsBenchmark
+{
+	@Param({"1000", "10000", "100000"})
+	public int count;
+	
+	private BoxScene scene;
+	
+	@Setup
+	public void setup()
+	{
+		this.scene = new BoxScene(this.count, BenchmarkInputs.random());
+	}
+	
+	@Benchmark
+	public int tick()
+	{
+		this.scene.step();
+		
+		float[] b = this.scene.boxes;
+		int pairs = 0;
+		
+		for(int i = 0; i < this.count; i++)
+		{
+			int oi = i * 6;
+			
+			for(int j = i + 1; j < this.count; j++)
+			{
+				int oj = j * 6;
+				
+				if(b[oi] <= b[oj + 3] && b[oj] <= b[oi + 3] && b[oi + 1] <= b[oj + 4] && b[oj + 1] <= b[oi + 4] && b[oi + 2] <= b[oj + 5] && b[oj + 2] <= b[oi + 5])
+					pairs++;
+			}
+		}
+		
+		return pairs;
+	}
+}
@@ -0,0 +1,217 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.bench.broadphase;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.barghos.math.bench.BenchmarkInputs;
+import org.barghos.math.broadphase.DynamicAABBTree3f;
+import org.barghos.math.matrix.Mat4f;
+
+/**
+ * Measures the operations of {@link DynamicAABBTree3f} on scenes of up to 100k boxes with a constant density:
+ * moving every box a small step as in one simulation tick, enumerating all overlapping pairs, box and frustum queries
+ * and ray casts that report every hit.
+ * 
+ * @author picatrix1899
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class DynamicAABBTree3fBenchmark
+{
+	private static final int QUERIES = 64;
+	
+	@Param({"1000", "10000", "100000"})
+	public int count;
+	
+	private DynamicAABBTree3f tree;
+	
+	private int[] proxies;
+	private float[] positions;
+	private float[] velocities;
+	private float[] sizes;
+	
+	private float extend;
+	
+	private float[] queries;
+	private float[] rays;
+	private float[] planes;
+	
+	private int found;
+	private float closest;
+	
+	private DynamicAABBTree3f.PairCallback pairCallback;
+	private DynamicAABBTree3f.QueryCallback queryCallback;
+	private DynamicAABBTree3f.RayCallback rayCallback;
+	
+	@Setup
+	public void setup()
+	{
+		Random rnd = BenchmarkInputs.random();
+		
+		this.extend = (float)Math.cbrt(this.count) * 4.0f;
+		
+		this.tree = new DynamicAABBTree3f();
+		
+		this.proxies = new int[this.count];
+		this.positions = new float[this.count * 3];
+		this.velocities = new float[this.count * 3];
+		this.sizes = new float[this.count];
+		
+		for(int i = 0; i < this.count; i++)
+		{
+			for(int k = 0; k < 3; k++)
+			{
+				this.positions[i * 3 + k] = rnd.nextFloat() * this.extend;
+				this.velocities[i * 3 + k] = (rnd.nextFloat() - 0.5f) * 0.1f;
+			}
+			
+			this.sizes[i] = 0.5f + rnd.nextFloat();
+			
+			float x = this.positions[i * 3], y = this.positions[i * 3 + 1], z = this.positions[i * 3 + 2], s = this.sizes[i];
+			
+			this.proxies[i] = this.tree.insert(x, y, z, x + s, y + s, z + s, i);
+		}
+		
+		this.queries = new float[QUERIES * 3];
+		this.rays = new float[QUERIES * 6];
+		
+		for(int i = 0; i < QUERIES * 3; i++)
+			this.queries[i] = rnd.nextFloat() * this.extend;
+		
+		for(int i = 0; i < QUERIES; i++)
+		{
+			this.rays[i * 6] = rnd.nextFloat() * this.extend;
+			this.rays[i * 6 + 1] = rnd.nextFloat() * this.extend;
+			this.rays[i * 6 + 2] = -1.0f;
+			this.rays[i * 6 + 3] = rnd.nextFloat() - 0.5f;
+			this.rays[i * 6 + 4] = rnd.nextFloat() - 0.5f;
+			this.rays[i * 6 + 5] = 1.0f;
+		}
+		
+		// a camera in front of the scene looking along -z towards its center.
+		float c = this.extend * 0.5f;
+		
+		Mat4f viewProjection = Mat4f.translation3D(-c, -c, -this.extend * 1.5f).mul(new Mat4f().initPerspective(16.0f, 9.0f, 40.0f, 0.1f, this.extend * 2.0f), new Mat4f());
+		
+		this.planes = viewProjection.getFrustumPlanes(null);
+		
+		this.pairCallback = (a, b) -> this.found++;
+		this.queryCallback = (proxy) -> { this.found++; return true; };
+		this.rayCallback = (proxy, maxFraction) -> { this.found++; return maxFraction; };
+	}
+	
+	@Benchmark
+	public int update()
+	{
+		int moved = 0;
+		
+		float[] p = this.positions;
+		float[] v = this.velocities;
+		
+		for(int i = 0; i < this.count; i++)
+		{
+			int o = i * 3;
+			
+			for(int k = 0; k < 3; k++)
+			{
+				p[o + k] += v[o + k];
+				
+				if(p[o + k] < 0.0f || p[o + k] > this.extend) v[o + k] = -v[o + k];
+			}
+			
+			float s = this.sizes[i];
+			
+			if(this.tree.move(this.proxies[i], p[o], p[o + 1], p[o + 2], p[o] + s, p[o + 1] + s, p[o + 2] + s, v[o], v[o + 1], v[o + 2])) moved++;
+		}
+		
+		return moved;
+	}
+	
+	@Benchmark
+	public int pairs()
+	{
+		this.found = 0;
+		
+		this.tree.queryPairs(this.pairCallback);
+		
+		return this.found;
+	}
+	
+	@Benchmark
+	public int query()
+	{
+		this.found = 0;
+		
+		for(int i = 0; i < QUERIES; i++)
+		{
+			float x = this.queries[i * 3], y = this.queries[i * 3 + 1], z = this.queries[i * 3 + 2];
+			
+			this.tree.query(x, y, z, x + 4.0f, y + 4.0f, z + 4.0f, this.queryCallback);
+		}
+		
+		return this.found;
+	}
+	
+	@Benchmark
+	public int raycast()
+	{
+		this.found = 0;
+		
+		float[] r = this.rays;
+		
+		for(int i = 0; i < QUERIES; i++)
+			this.tree.raycast(r[i * 6], r[i * 6 + 1], r[i * 6 + 2], r[i * 6 + 3], r[i * 6 + 4], r[i * 6 + 5], this.extend + 2.0f, this.rayCallback);
+		
+		return this.found;
+	}
+	
+	@Benchmark
+	public int frustum()
+	{
+		this.found = 0;
+		
+		this.tree.queryFrustum(this.planes, 6, this.queryCallback);
+		
+		return this.found;
+	}
+}
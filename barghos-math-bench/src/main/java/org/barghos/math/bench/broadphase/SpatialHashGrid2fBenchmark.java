@@ -0,0 +1,193 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.bench.broadphase;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.barghos.math.bench.BenchmarkInputs;
+import org.barghos.math.broadphase.SpatialHashGrid2f;
+
+/**
+ * Measures {@link SpatialHashGrid2f} on 2D scenes of up to 100k moving circles with a constant density:
+ * a full-frame refresh that moves every circle and rebuilds the buckets, sequentially and on the common pool,
+ * and radius queries around some of the circles compared with testing every circle.
+ * 
+ * @author picatrix1899
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SpatialHashGrid2fBenchmark
+{
+	private static final int QUERIES = 256;
+	private static final float QUERY_RADIUS = 2.0f;
+	
+	@Param({"1000", "10000", "100000"})
+	public int count;
+	
+	private SpatialHashGrid2f grid;
+	
+	private int[] handles;
+	private float[] positions;
+	private float[] velocities;
+	private float[] radii;
+	
+	private float extend;
+	
+	private int[] result;
+	
+	@Setup
+	public void setup()
+	{
+		Random rnd = BenchmarkInputs.random();
+		
+		this.extend = (float)Math.sqrt(this.count) * 4.0f;
+		
+		this.grid = new SpatialHashGrid2f(2.0f, this.count);
+		
+		this.handles = new int[this.count];
+		this.positions = new float[this.count * 2];
+		this.velocities = new float[this.count * 2];
+		this.radii = new float[this.count];
+		
+		for(int i = 0; i < this.count; i++)
+		{
+			float x = rnd.nextFloat() * this.extend;
+			float y = rnd.nextFloat() * this.extend;
+			float r = 0.25f + rnd.nextFloat() * 0.5f;
+			
+			this.positions[i * 2] = x;
+			this.positions[i * 2 + 1] = y;
+			this.velocities[i * 2] = (rnd.nextFloat() - 0.5f) * 0.1f;
+			this.velocities[i * 2 + 1] = (rnd.nextFloat() - 0.5f) * 0.1f;
+			this.radii[i] = r;
+			
+			this.handles[i] = this.grid.insert(x - r, y - r, x + r, y + r, i);
+		}
+		
+		this.grid.rebuild();
+		
+		this.result = new int[this.count];
+	}
+	
+	@Benchmark
+	public int refresh()
+	{
+		move();
+		
+		this.grid.rebuild();
+		
+		return this.grid.getLooseCount();
+	}
+	
+	@Benchmark
+	public int refreshParallel()
+	{
+		move();
+		
+		this.grid.rebuild(ForkJoinPool.commonPool());
+		
+		return this.grid.getLooseCount();
+	}
+	
+	@Benchmark
+	public int queryRadius()
+	{
+		int found = 0;
+		
+		for(int i = 0; i < QUERIES; i++)
+			found += this.grid.queryRadius(this.positions[i * 2], this.positions[i * 2 + 1], QUERY_RADIUS, this.result);
+		
+		return found;
+	}
+	
+	@Benchmark
+	public int queryRadiusBruteForce()
+	{
+		int found = 0;
+		
+		float[] p = this.positions;
+		
+		for(int i = 0; i < QUERIES; i++)
+		{
+			float x = p[i * 2], y = p[i * 2 + 1];
+			
+			int n = 0;
+			
+			for(int k = 0; k < this.count; k++)
+			{
+				float r = this.radii[k];
+				
+				float dx = Math.max(Math.max(p[k * 2] - r - x, x - p[k * 2] - r), 0.0f);
+				float dy = Math.max(Math.max(p[k * 2 + 1] - r - y, y - p[k * 2 + 1] - r), 0.0f);
+				
+				if(dx * dx + dy * dy <= QUERY_RADIUS * QUERY_RADIUS) this.result[n++] = k;
+			}
+			
+			found += n;
+		}
+		
+		return found;
+	}
+	
+	private void move()
+	{
+		float[] p = this.positions;
+		float[] v = this.velocities;
+		
+		for(int i = 0; i < this.count; i++)
+		{
+			int o = i * 2;
+			
+			for(int k = 0; k < 2; k++)
+			{
+				p[o + k] += v[o + k];
+				
+				if(p[o + k] < 0.0f || p[o + k] > this.extend) v[o + k] = -v[o + k];
+			}
+			
+			float r = this.radii[i];
+			
+			this.grid.update(this.handles[i], p[o] - r, p[o + 1] - r, p[o] + r, p[o + 1] + r);
+		}
+	}
+}
@@ -0,0 +1,116 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.bench.broadphase;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.barghos.math.bench.BenchmarkInputs;
+import org.barghos.math.broadphase.SweepAndPrune3f;
+
+/**
+ * Measures one simulation tick of {@link SweepAndPrune3f}: moving every box of a {@link BoxScene} a small step
+ * and updating the broad phase, which reports the begin and end overlap events. Compare with
+ * {@link BruteForcePairsBenchmark}, which tests every pair of the same scenes.
+ * 
+ * @author picatrix1899
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SweepAndPrune3fBenchmark
+{
+	@Param({"1000", "10000", "100000", "1000000"})
+	public int count;
+	
+	@Param({"ALL", "VARIANCE"})
+	public SweepAndPrune3f.AxisMode mode;
+	
+	private BoxScene scene;
+	private SweepAndPrune3f sap;
+	
+	private int events;
+	
+	@Setup
+	public void setup()
+	{
+		this.scene = new BoxScene(this.count, BenchmarkInputs.random());
+		this.sap = new SweepAndPrune3f(this.mode, this.count);
+		
+		this.sap.setListener(new SweepAndPrune3f.OverlapListener()
+		{
+			@Override
+			public void begin(int a, int b)
+			{
+				SweepAndPrune3fBenchmark.this.events++;
+			}
+			
+			@Override
+			public void end(int a, int b)
+			{
+				SweepAndPrune3fBenchmark.this.events++;
+			}
+		});
+		
+		float[] b = this.scene.boxes;
+		
+		for(int i = 0; i < this.count; i++)
+			this.sap.add(b[i * 6], b[i * 6 + 1], b[i * 6 + 2], b[i * 6 + 3], b[i * 6 + 4], b[i * 6 + 5], i);
+		
+		this.sap.update();
+	}
+	
+	@Benchmark
+	public int tick()
+	{
+		this.scene.step();
+		
+		float[] b = this.scene.boxes;
+		
+		// the handles equal the indices, since all boxes were added to an empty broad phase.
+		for(int i = 0; i < this.count; i++)
+			this.sap.move(i, b[i * 6], b[i * 6 + 1], b[i * 6 + 2], b[i * 6 + 3], b[i * 6 + 4], b[i * 6 + 5]);
+		
+		this.events = 0;
+		
+		this.sap.update();
+		
+		return this.events;
+	}
+}
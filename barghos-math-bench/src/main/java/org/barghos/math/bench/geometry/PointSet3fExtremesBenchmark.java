@@ -0,0 +1,90 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.bench.geometry;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.barghos.math.bench.BenchmarkInputs;
+import org.barghos.math.geometry.PointSet3f;
+import org.barghos.math.point.Point3f;
+
+/**
+ * Measures the recalculation of the extremes of a {@link PointSet3f}.
+ * Adding an empty array marks the set dirty without changing its content,
+ * so the first getter call of every invocation runs the full calculation.
+ * 
+ * @author picatrix1899
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class PointSet3fExtremesBenchmark
+{
+	private static final Point3f[] NO_POINTS = new Point3f[0];
+	
+	@Param({BenchmarkInputs.RANDOM, BenchmarkInputs.DEGENERATE, BenchmarkInputs.IDENTITY})
+	public String input;
+	
+	@Param({"8", "1024"})
+	public int size;
+	
+	private PointSet3f set;
+	
+	@Setup
+	public void setup()
+	{
+		this.set = BenchmarkInputs.pointSet(this.input, this.size, BenchmarkInputs.random());
+	}
+	
+	@Benchmark
+	public void calculateExtremes(Blackhole bh)
+	{
+		this.set.add(NO_POINTS);
+		
+		bh.consume(this.set.getMinX());
+		bh.consume(this.set.getMinY());
+		bh.consume(this.set.getMinZ());
+		bh.consume(this.set.getMaxX());
+		bh.consume(this.set.getMaxY());
+		bh.consume(this.set.getMaxZ());
+	}
+}
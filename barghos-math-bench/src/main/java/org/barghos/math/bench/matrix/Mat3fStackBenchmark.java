@@ -0,0 +1,127 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.bench.matrix;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.barghos.math.bench.BenchmarkInputs;
+import org.barghos.math.matrix.Mat3f;
+import org.barghos.math.matrix.Mat3fStack;
+
+/**
+ * Pushes {@code depth} matrices, reads the product after every push and pops them again.
+ * "rebuild" is the former {@link Mat3fStack} algorithm, which multiplied the whole stack from identity
+ * on every read and returned a copy.
+ * 
+ * @author picatrix1899
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class Mat3fStackBenchmark
+{
+	@Param({"4", "16"})
+	public int depth;
+	
+	private Mat3f[] matrices;
+	
+	private Mat3fStack stack;
+	private Mat3f res;
+	
+	private Deque<Mat3f> deque;
+	
+	@Setup
+	public void setup()
+	{
+		Random rnd = BenchmarkInputs.random();
+		
+		this.matrices = new Mat3f[this.depth];
+		
+		for(int i = 0; i < this.depth; i++)
+			this.matrices[i] = Mat3f.rotation2D(rnd.nextFloat() * 360.0f).mul(Mat3f.translation2D(rnd.nextFloat(), rnd.nextFloat()));
+		
+		this.stack = new Mat3fStack();
+		this.res = new Mat3f();
+		
+		this.deque = new ArrayDeque<>();
+	}
+	
+	@Benchmark
+	public Mat3f cumulative()
+	{
+		for(int i = 0; i < this.depth; i++)
+		{
+			this.stack.push(this.matrices[i]);
+			this.stack.get(this.res);
+		}
+		
+		for(int i = 0; i < this.depth; i++)
+			this.stack.pop();
+		
+		return this.res;
+	}
+	
+	@Benchmark
+	public Mat3f rebuild()
+	{
+		Mat3f last = null;
+		
+		for(int i = 0; i < this.depth; i++)
+		{
+			this.deque.push(this.matrices[i]);
+			
+			Mat3f result = Mat3f.identity();
+			
+			for(Iterator<Mat3f> it = this.deque.descendingIterator(); it.hasNext();)
+				Mat3f.mul(it.next(), result, result);
+			
+			last = result.clone();
+		}
+		
+		for(int i = 0; i < this.depth; i++)
+			this.deque.pop();
+		
+		return last;
+	}
+}
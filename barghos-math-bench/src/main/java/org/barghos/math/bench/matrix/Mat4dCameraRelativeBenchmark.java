@@ -0,0 +1,121 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.bench.matrix;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.barghos.math.bench.BenchmarkInputs;
+import org.barghos.math.matrix.Mat4d;
+import org.barghos.math.matrix.Mat4f;
+
+/**
+ * Compares the camera relative double to float kernel of {@link Mat4d} with transforming in double
+ * and with narrowing the camera relative matrix first and transforming in float.
+ * The world is placed about 10^7 units away from the origin, where float positions have a resolution of one unit.
+ * 
+ * @author picatrix1899
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class Mat4dCameraRelativeBenchmark
+{
+	private static final double WORLD_OFFSET = 1.0e7;
+	
+	@Param({"1024", "100000"})
+	public int count;
+	
+	private Mat4d world;
+	private double eyeX;
+	private double eyeY;
+	private double eyeZ;
+	
+	private double[] points;
+	private double[] doubleRes;
+	private float[] floatPoints;
+	private float[] floatRes;
+	
+	private Mat4f relative;
+	
+	@Setup
+	public void setup()
+	{
+		Random rnd = BenchmarkInputs.random();
+		
+		this.world = new Mat4d().initRotation(rnd.nextDouble() * 360.0, rnd.nextDouble() * 360.0, rnd.nextDouble() * 360.0)
+				.translate(WORLD_OFFSET + rnd.nextDouble(), WORLD_OFFSET + rnd.nextDouble(), WORLD_OFFSET + rnd.nextDouble());
+		
+		this.eyeX = WORLD_OFFSET + rnd.nextDouble() * 100.0;
+		this.eyeY = WORLD_OFFSET + rnd.nextDouble() * 100.0;
+		this.eyeZ = WORLD_OFFSET + rnd.nextDouble() * 100.0;
+		
+		this.points = new double[this.count * 3];
+		this.doubleRes = new double[this.count * 3];
+		this.floatPoints = new float[this.count * 3];
+		this.floatRes = new float[this.count * 3];
+		
+		for(int i = 0; i < this.points.length; i++)
+		{
+			this.points[i] = rnd.nextDouble() * 200.0 - 100.0;
+			this.floatPoints[i] = (float)this.points[i];
+		}
+		
+		this.relative = new Mat4f();
+	}
+	
+	@Benchmark
+	public double[] transformDouble()
+	{
+		return this.world.transform(this.points, 0, this.doubleRes, 0, this.count, true);
+	}
+	
+	@Benchmark
+	public float[] transformRelative()
+	{
+		return this.world.transformRelative(this.points, 0, this.eyeX, this.eyeY, this.eyeZ, this.floatRes, 0, this.count, true);
+	}
+	
+	@Benchmark
+	public float[] cameraRelativeMatrix()
+	{
+		return this.world.toCameraRelative(this.eyeX, this.eyeY, this.eyeZ, this.relative).transform(this.floatPoints, 0, this.floatRes, 0, this.count, true);
+	}
+}
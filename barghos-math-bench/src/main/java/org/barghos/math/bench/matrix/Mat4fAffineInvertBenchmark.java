@@ -0,0 +1,126 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.bench.matrix;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.barghos.math.bench.BenchmarkInputs;
+import org.barghos.math.matrix.Mat4f;
+import org.barghos.math.vec3.Vec3f;
+
+/**
+ * Compares the general {@link Mat4f#invertN()} with the affine, rigid and orthonormal paths and the auto-detecting one.
+ * Each path is only measured on the inputs it is valid for; their error against the general path is checked by
+ * Mat4fTest in barghos-math.
+ * 
+ * @author picatrix1899
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class Mat4fAffineInvertBenchmark
+{
+	public static final String TRS = "trs";
+	public static final String RIGID = "rigid";
+	public static final String ROTATION = "rotation";
+	
+	@Param({TRS, RIGID, ROTATION})
+	public String input;
+	
+	private Mat4f source;
+	private Mat4f scratch;
+	
+	@Setup
+	public void setup()
+	{
+		this.source = matrix(this.input, BenchmarkInputs.random());
+		this.scratch = new Mat4f();
+	}
+	
+	@Benchmark
+	public Mat4f general()
+	{
+		return this.scratch.set(this.source).invert();
+	}
+	
+	@Benchmark
+	public Mat4f affine()
+	{
+		return this.scratch.set(this.source).invertAffine();
+	}
+	
+	@Benchmark
+	public Mat4f rigid()
+	{
+		if(TRS.equals(this.input)) return null;
+		
+		return this.scratch.set(this.source).invertRigid();
+	}
+	
+	@Benchmark
+	public Mat4f orthonormal()
+	{
+		if(!ROTATION.equals(this.input)) return null;
+		
+		return this.scratch.set(this.source).invertOrthonormal();
+	}
+	
+	@Benchmark
+	public Mat4f auto()
+	{
+		return this.scratch.set(this.source).invertAuto();
+	}
+	
+	/**
+	 * The matrices carry no properties, so {@link Mat4f#invert()} is the general kernel and
+	 * {@link Mat4f#invertAuto()} has to classify them.
+	 */
+	public static Mat4f matrix(String kind, Random rnd)
+	{
+		switch(kind)
+		{
+			case TRS: return BenchmarkInputs.matrix(BenchmarkInputs.RANDOM, rnd);
+			case RIGID: return new Mat4f().initTransformMatrix3D(BenchmarkInputs.vector(rnd, 10.0f), BenchmarkInputs.rotationQuat(rnd), new Vec3f(1.0f, 1.0f, 1.0f)).setProperties(0);
+			case ROTATION: return BenchmarkInputs.rotationMatrix(rnd).setProperties(0);
+			default: throw new IllegalArgumentException(kind);
+		}
+	}
+}
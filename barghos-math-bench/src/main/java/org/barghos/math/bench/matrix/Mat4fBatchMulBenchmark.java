@@ -0,0 +1,182 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.bench.matrix;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.barghos.math.bench.BenchmarkInputs;
+import org.barghos.math.matrix.Mat4f;
+import org.barghos.math.matrix.Mat4fArray;
+import org.barghos.math.matrix.Mat4fBatch;
+
+/**
+ * Measures the skinning palettes {@code world[joint[i]] * inverseBind[i]} of a number of characters with
+ * {@link #JOINTS} joints each. The palettes of all characters are concatenated into one batch.
+ * The parallel benchmarks use a dedicated pool with the given number of threads, so the scaling from one
+ * to all cores can be read from the threads parameter.
+ * 
+ * @author picatrix1899
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class Mat4fBatchMulBenchmark
+{
+	public static final int JOINTS = 64;
+	
+	@Param({"1", "1000"})
+	public int characters;
+	
+	@Param({"1", "2", "4", "8"})
+	public int threads;
+	
+	private ForkJoinPool pool;
+	
+	private int count;
+	private int[] joints;
+	
+	private Mat4f[] world;
+	private Mat4f[] inverseBind;
+	private Mat4f[] palette;
+	
+	private float[] packedWorld;
+	private float[] packedInverseBind;
+	private float[] packedPalette;
+	
+	private Mat4fArray worldArray;
+	private Mat4fArray inverseBindArray;
+	private Mat4fArray paletteArray;
+	
+	@Setup
+	public void setup()
+	{
+		Random rnd = BenchmarkInputs.random();
+		
+		this.pool = new ForkJoinPool(this.threads);
+		
+		this.count = this.characters * JOINTS;
+		this.joints = new int[this.count];
+		
+		this.world = new Mat4f[this.count];
+		this.inverseBind = new Mat4f[this.count];
+		this.palette = new Mat4f[this.count];
+		
+		this.packedWorld = new float[this.count * Mat4fBatch.FLOATS];
+		this.packedInverseBind = new float[this.count * Mat4fBatch.FLOATS];
+		this.packedPalette = new float[this.count * Mat4fBatch.FLOATS];
+		
+		this.worldArray = new Mat4fArray(this.count, false);
+		this.inverseBindArray = new Mat4fArray(this.count, false);
+		this.paletteArray = new Mat4fArray(this.count);
+		
+		for(int i = 0; i < this.count; i++)
+		{
+			// Every joint refers to a joint of its own character.
+			this.joints[i] = (i / JOINTS) * JOINTS + rnd.nextInt(JOINTS);
+			
+			this.world[i] = BenchmarkInputs.matrix(BenchmarkInputs.RANDOM, rnd);
+			this.inverseBind[i] = BenchmarkInputs.matrix(BenchmarkInputs.RANDOM, rnd);
+			this.palette[i] = new Mat4f();
+			
+			this.worldArray.set(i, this.world[i]);
+			this.inverseBindArray.set(i, this.inverseBind[i]);
+			
+			for(int row = 0; row < 4; row++)
+				for(int column = 0; column < 4; column++)
+				{
+					this.packedWorld[i * 16 + row * 4 + column] = this.world[i].getCell(row, column);
+					this.packedInverseBind[i * 16 + row * 4 + column] = this.inverseBind[i].getCell(row, column);
+				}
+		}
+	}
+	
+	@TearDown
+	public void tearDown()
+	{
+		this.pool.shutdown();
+	}
+	
+	/**
+	 * Mat4f.mul(left, res) calculates left * this, so this is world * inverseBind.
+	 */
+	@Benchmark
+	public Mat4f[] objects()
+	{
+		for(int i = 0; i < this.count; i++)
+			this.inverseBind[i].mul(this.world[this.joints[i]], this.palette[i]);
+		
+		return this.palette;
+	}
+	
+	@Benchmark
+	public float[] packed()
+	{
+		Mat4fBatch.mul(this.packedWorld, 0, this.joints, 0, this.packedInverseBind, 0, this.packedPalette, 0, this.count, true);
+		
+		return this.packedPalette;
+	}
+	
+	@Benchmark
+	public float[] packedParallel()
+	{
+		Mat4fBatch.mul(this.packedWorld, 0, this.joints, 0, this.packedInverseBind, 0, this.packedPalette, 0, this.count, true, this.pool);
+		
+		return this.packedPalette;
+	}
+	
+	@Benchmark
+	public Mat4fArray offHeap()
+	{
+		Mat4fBatch.mul(this.worldArray, this.joints, this.inverseBindArray, this.paletteArray);
+		
+		return this.paletteArray;
+	}
+	
+	@Benchmark
+	public Mat4fArray offHeapParallel()
+	{
+		Mat4fBatch.mul(this.worldArray, this.joints, this.inverseBindArray, this.paletteArray, this.pool);
+		
+		return this.paletteArray;
+	}
+}
@@ -0,0 +1,133 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.bench.matrix;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.barghos.math.bench.BenchmarkInputs;
+import org.barghos.math.matrix.Mat4f;
+import org.barghos.math.point.Point3f;
+
+/**
+ * Compares transforming a mesh sized batch of points one {@link Point3f} at a time
+ * with the packed float[] and FloatBuffer kernels of {@link Mat4f}.
+ * 
+ * @author picatrix1899
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class Mat4fBatchTransformBenchmark
+{
+	@Param({BenchmarkInputs.RANDOM, BenchmarkInputs.IDENTITY})
+	public String input;
+	
+	@Param({"1024", "100000"})
+	public int count;
+	
+	private Mat4f matrix;
+	
+	private Point3f[] points;
+	private Point3f[] pointsRes;
+	
+	private float[] packed;
+	private float[] packedRes;
+	
+	private FloatBuffer buffer;
+	private FloatBuffer bufferRes;
+	
+	@Setup
+	public void setup()
+	{
+		Random rnd = BenchmarkInputs.random();
+		
+		this.matrix = BenchmarkInputs.matrix(this.input, rnd);
+		
+		this.points = new Point3f[this.count];
+		this.pointsRes = new Point3f[this.count];
+		this.packed = new float[this.count * 3];
+		this.packedRes = new float[this.count * 3];
+		this.buffer = ByteBuffer.allocateDirect(this.count * 3 * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+		this.bufferRes = ByteBuffer.allocateDirect(this.count * 3 * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+		
+		for(int i = 0; i < this.count; i++)
+		{
+			this.points[i] = new Point3f(BenchmarkInputs.vector(rnd, 100.0f));
+			this.pointsRes[i] = new Point3f();
+			
+			this.packed[i * 3] = this.points[i].getX();
+			this.packed[i * 3 + 1] = this.points[i].getY();
+			this.packed[i * 3 + 2] = this.points[i].getZ();
+		}
+		
+		this.buffer.put(this.packed);
+	}
+	
+	@Benchmark
+	public Point3f[] objects()
+	{
+		for(int i = 0; i < this.count; i++)
+			this.matrix.transform(this.points[i], this.pointsRes[i]);
+		
+		return this.pointsRes;
+	}
+	
+	@Benchmark
+	public float[] packedPoints()
+	{
+		return this.matrix.transform(this.packed, 0, this.packedRes, 0, this.count, true);
+	}
+	
+	@Benchmark
+	public float[] packedDirections()
+	{
+		return this.matrix.transform(this.packed, 0, this.packedRes, 0, this.count, false);
+	}
+	
+	@Benchmark
+	public FloatBuffer directBufferPoints()
+	{
+		return this.matrix.transform(this.buffer, 0, this.bufferRes, 0, this.count, true);
+	}
+}
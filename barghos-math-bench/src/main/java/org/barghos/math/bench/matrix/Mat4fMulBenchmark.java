@@ -0,0 +1,109 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.bench.matrix;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.barghos.math.bench.BenchmarkInputs;
+import org.barghos.math.matrix.FlatMat4f;
+import org.barghos.math.matrix.Mat4f;
+
+/**
+ * Compares the array backed {@link Mat4f} multiplication with the field backed {@link FlatMat4f}.
+ * The "alloc" variants measure the convenience overloads that create their result,
+ * the remaining variants write into a preallocated result.
+ * 
+ * @author picatrix1899
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class Mat4fMulBenchmark
+{
+	@Param({BenchmarkInputs.RANDOM, BenchmarkInputs.DEGENERATE, BenchmarkInputs.IDENTITY})
+	public String input;
+	
+	private Mat4f left;
+	private Mat4f right;
+	private Mat4f res;
+	
+	private FlatMat4f flatLeft;
+	private FlatMat4f flatRight;
+	private FlatMat4f flatRes;
+	
+	@Setup
+	public void setup()
+	{
+		Random rnd = BenchmarkInputs.random();
+		
+		this.left = BenchmarkInputs.matrix(this.input, rnd);
+		this.right = BenchmarkInputs.matrix(this.input, rnd);
+		this.res = new Mat4f();
+		
+		this.flatLeft = new FlatMat4f(this.left);
+		this.flatRight = new FlatMat4f(this.right);
+		this.flatRes = new FlatMat4f();
+	}
+	
+	@Benchmark
+	public Mat4f mat4fMul()
+	{
+		return this.right.mul(this.left, this.res);
+	}
+	
+	@Benchmark
+	public Mat4f mat4fMulAlloc()
+	{
+		return this.right.mulN(this.left);
+	}
+	
+	@Benchmark
+	public FlatMat4f flatMat4fMul()
+	{
+		return this.flatRight.mul(this.flatLeft, this.flatRes);
+	}
+	
+	@Benchmark
+	public FlatMat4f flatMat4fMulAlloc()
+	{
+		return this.flatRight.mulN(this.flatLeft);
+	}
+}
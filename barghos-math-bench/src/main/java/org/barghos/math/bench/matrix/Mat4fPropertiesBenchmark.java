@@ -0,0 +1,138 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.bench.matrix;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.barghos.math.bench.BenchmarkInputs;
+import org.barghos.math.matrix.Mat4f;
+
+/**
+ * Compares {@link Mat4f} operations on matrices with known properties against the same matrices with
+ * the properties cleared, which forces the general kernels.
+ * 
+ * @author picatrix1899
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class Mat4fPropertiesBenchmark
+{
+	public static final String TRANSLATION = "translation";
+	
+	@Param({Mat4fAffineInvertBenchmark.TRS, Mat4fAffineInvertBenchmark.RIGID, TRANSLATION})
+	public String input;
+	
+	private static final int POINTS = 1024;
+	
+	private Mat4f left;
+	private Mat4f right;
+	private Mat4f plainLeft;
+	private Mat4f plainRight;
+	private Mat4f res;
+	
+	private float[] src;
+	private float[] dst;
+	
+	@Setup
+	public void setup()
+	{
+		Random rnd = BenchmarkInputs.random();
+		
+		this.left = matrix(rnd);
+		this.right = matrix(rnd);
+		this.plainLeft = new Mat4f(this.left).setProperties(0);
+		this.plainRight = new Mat4f(this.right).setProperties(0);
+		this.res = new Mat4f();
+		
+		this.src = new float[POINTS * 3];
+		this.dst = new float[POINTS * 3];
+		
+		for(int i = 0; i < this.src.length; i++)
+			this.src[i] = rnd.nextFloat() * 20.0f - 10.0f;
+	}
+	
+	private Mat4f matrix(Random rnd)
+	{
+		if(TRANSLATION.equals(this.input)) return Mat4f.translation3D(BenchmarkInputs.vector(rnd, 10.0f));
+		
+		Mat4f m = Mat4fAffineInvertBenchmark.matrix(this.input, rnd);
+		
+		// Rebuild the properties the init methods would have set.
+		return m.setProperties(Mat4fAffineInvertBenchmark.RIGID.equals(this.input) ? Mat4f.PROPERTY_AFFINE | Mat4f.PROPERTY_ORTHONORMAL : Mat4f.PROPERTY_AFFINE);
+	}
+	
+	@Benchmark
+	public Mat4f mulFlagged()
+	{
+		return this.right.mul(this.left, this.res);
+	}
+	
+	@Benchmark
+	public Mat4f mulPlain()
+	{
+		return this.plainRight.mul(this.plainLeft, this.res);
+	}
+	
+	@Benchmark
+	public Mat4f invertFlagged()
+	{
+		return this.res.set(this.left).invert();
+	}
+	
+	@Benchmark
+	public Mat4f invertPlain()
+	{
+		return this.res.set(this.plainLeft).invert();
+	}
+	
+	@Benchmark
+	public float[] transformFlagged()
+	{
+		return this.left.transform(this.src, 0, this.dst, 0, POINTS, true);
+	}
+	
+	@Benchmark
+	public float[] transformPlain()
+	{
+		return this.plainLeft.transform(this.src, 0, this.dst, 0, POINTS, true);
+	}
+}
@@ -0,0 +1,151 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.bench.matrix;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.barghos.math.bench.BenchmarkInputs;
+import org.barghos.math.matrix.Mat4f;
+import org.barghos.math.matrix.Mat4fBatch;
+import org.barghos.math.matrix.Mat4x3f;
+
+/**
+ * Compares the same random affine transforms as {@link Mat4f} and as {@link Mat4x3f},
+ * once for single products and inverses and once for packed instance arrays of the given size,
+ * where the 4x3 form moves 12 instead of 16 floats per matrix.
+ * 
+ * @author picatrix1899
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class Mat4x3fBenchmark
+{
+	@Param({"1024", "100000"})
+	public int count;
+	
+	private Mat4f l4;
+	private Mat4f r4;
+	private Mat4f res4;
+	
+	private Mat4x3f l3;
+	private Mat4x3f r3;
+	private Mat4x3f res3;
+	
+	private float[] packed4;
+	private float[] packedRes4;
+	
+	private float[] packed3;
+	private float[] packedRes3;
+	
+	@Setup
+	public void setup()
+	{
+		Random rnd = BenchmarkInputs.random();
+		
+		this.l4 = BenchmarkInputs.matrix(BenchmarkInputs.RANDOM, rnd);
+		this.r4 = BenchmarkInputs.matrix(BenchmarkInputs.RANDOM, rnd);
+		this.res4 = new Mat4f();
+		
+		this.l3 = new Mat4x3f(this.l4);
+		this.r3 = new Mat4x3f(this.r4);
+		this.res3 = new Mat4x3f();
+		
+		this.packed4 = new float[this.count * Mat4fBatch.FLOATS];
+		this.packedRes4 = new float[this.count * Mat4fBatch.FLOATS];
+		this.packed3 = new float[this.count * Mat4x3f.FLOATS];
+		this.packedRes3 = new float[this.count * Mat4x3f.FLOATS];
+		
+		Mat4f m = new Mat4f();
+		
+		for(int i = 0; i < this.count; i++)
+		{
+			m.set(BenchmarkInputs.matrix(BenchmarkInputs.RANDOM, rnd));
+			
+			for(int row = 0; row < 4; row++)
+				for(int column = 0; column < 4; column++)
+					this.packed4[i * 16 + row * 4 + column] = m.getCell(row, column);
+			
+			new Mat4x3f(m).store(this.packed3, i * Mat4x3f.FLOATS);
+		}
+	}
+	
+	/**
+	 * Mat4f.mul(left, res) calculates left * this, so this is l * r like the 4x3 product.
+	 */
+	@Benchmark
+	public Mat4f mul4x4()
+	{
+		return this.r4.mul(this.l4, this.res4);
+	}
+	
+	@Benchmark
+	public Mat4x3f mul4x3()
+	{
+		return this.l3.mul(this.r3, this.res3);
+	}
+	
+	@Benchmark
+	public Mat4f invert4x4()
+	{
+		return this.res4.set(this.l4).setProperties(0).invert();
+	}
+	
+	@Benchmark
+	public Mat4x3f invert4x3()
+	{
+		return this.l3.invert(this.res3);
+	}
+	
+	@Benchmark
+	public float[] packedMul4x4()
+	{
+		Mat4fBatch.mul(this.packed4, 0, this.packed4, 0, this.packedRes4, 0, this.count, false);
+		
+		return this.packedRes4;
+	}
+	
+	@Benchmark
+	public float[] packedMul4x3()
+	{
+		return Mat4x3f.mul(this.packed3, 0, this.packed3, 0, this.packedRes3, 0, this.count);
+	}
+}
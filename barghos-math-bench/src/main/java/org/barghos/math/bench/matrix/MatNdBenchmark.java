@@ -0,0 +1,155 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.bench.matrix;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.barghos.math.bench.BenchmarkInputs;
+import org.barghos.math.matrix.Mat5;
+import org.barghos.math.matrix.MatNd;
+import org.barghos.math.matrix.MatUtils;
+
+/**
+ * Compares the cofactor expansion of {@link MatUtils#det5x5} with the LU decomposition of {@link MatNd},
+ * and measures solving and inverting small systems of size {@code n}.
+ * The cofactor benchmark ignores {@code n} and always uses the leading 5x5 block.
+ * 
+ * @author picatrix1899
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class MatNdBenchmark
+{
+	@Param({"5", "6", "8"})
+	public int n;
+	
+	private Mat5 mat5;
+	private MatNd matrix;
+	private MatNd inverse;
+	
+	private double[] lu;
+	private int[] pivots;
+	
+	private double[] b;
+	private double[] x;
+	
+	@Setup
+	public void setup()
+	{
+		Random rnd = BenchmarkInputs.random();
+		
+		this.matrix = new MatNd(this.n);
+		
+		for(int i = 0; i < this.matrix.m.length; i++)
+			this.matrix.m[i] = rnd.nextDouble() * 2.0 - 1.0;
+		
+		this.mat5 = new Mat5();
+		
+		for(int row = 0; row < 5; row++)
+			for(int column = 0; column < 5; column++)
+				this.mat5.setCell(row, column, this.matrix.getCell(row, column));
+		
+		this.inverse = new MatNd(this.n);
+		
+		this.lu = new double[this.n * this.n];
+		this.pivots = new int[this.n];
+		
+		this.b = new double[this.n];
+		this.x = new double[this.n];
+		
+		for(int i = 0; i < this.n; i++)
+			this.b[i] = rnd.nextDouble();
+	}
+	
+	@Benchmark
+	public double det5x5Cofactor()
+	{
+		double[] m = this.mat5.m;
+		
+		return MatUtils.det5x5(	m[0], m[1], m[2], m[3], m[4],
+								m[5], m[6], m[7], m[8], m[9],
+								m[10], m[11], m[12], m[13], m[14],
+								m[15], m[16], m[17], m[18], m[19],
+								m[20], m[21], m[22], m[23], m[24]);
+	}
+	
+	@Benchmark
+	public double det5x5LU()
+	{
+		return this.mat5.determinant();
+	}
+	
+	@Benchmark
+	public double determinant()
+	{
+		return this.matrix.determinant();
+	}
+	
+	@Benchmark
+	public double[] solve()
+	{
+		System.arraycopy(this.b, 0, this.x, 0, this.n);
+		
+		return this.matrix.solve(this.x);
+	}
+	
+	/**
+	 * Decomposes once into caller provided workspace and solves with the static kernels.
+	 */
+	@Benchmark
+	public double[] solveKernels()
+	{
+		System.arraycopy(this.matrix.m, 0, this.lu, 0, this.lu.length);
+		System.arraycopy(this.b, 0, this.x, 0, this.n);
+		
+		MatNd.decompose(this.lu, this.n, this.pivots);
+		MatNd.solve(this.lu, this.n, this.pivots, this.x);
+		
+		return this.x;
+	}
+	
+	@Benchmark
+	public MatNd invert()
+	{
+		return this.matrix.invert(this.inverse);
+	}
+}
@@ -0,0 +1,154 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.bench.matrix;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.barghos.math.bench.BenchmarkInputs;
+import org.barghos.math.matrix.MatUtils;
+
+/**
+ * Compares the shared minor kernels of {@link MatUtils} with a 4x4 inverse built from
+ * sixteen independent 3x3 cofactor determinants, which is how {@code Mat4d} inverted before.
+ * 
+ * @author picatrix1899
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class MatUtilsBenchmark
+{
+	private float[][] mf3 = new float[3][3];
+	private float[][] mf4 = new float[4][4];
+	private double[][] md4 = new double[4][4];
+	
+	private float[][] resf3 = new float[3][3];
+	private float[][] resf4 = new float[4][4];
+	private double[][] resd4 = new double[4][4];
+	
+	@Setup
+	public void setup()
+	{
+		Random rnd = BenchmarkInputs.random();
+		
+		for(int row = 0; row < 4; row++)
+			for(int column = 0; column < 4; column++)
+			{
+				this.mf4[row][column] = rnd.nextFloat() * 2.0f - 1.0f;
+				this.md4[row][column] = this.mf4[row][column];
+				
+				if(row < 3 && column < 3) this.mf3[row][column] = this.mf4[row][column];
+			}
+	}
+	
+	@Benchmark
+	public float det3x3f()
+	{
+		return MatUtils.det3x3f(this.mf3);
+	}
+	
+	@Benchmark
+	public float det4x4f()
+	{
+		return MatUtils.det4x4f(this.mf4);
+	}
+	
+	@Benchmark
+	public double det4x4()
+	{
+		return MatUtils.det4x4(this.md4);
+	}
+	
+	@Benchmark
+	public float[][] invert3x3f()
+	{
+		MatUtils.invert3x3f(this.mf3, this.resf3);
+		
+		return this.resf3;
+	}
+	
+	@Benchmark
+	public float[][] invert4x4f()
+	{
+		MatUtils.invert4x4f(this.mf4, this.resf4);
+		
+		return this.resf4;
+	}
+	
+	@Benchmark
+	public double[][] invert4x4()
+	{
+		MatUtils.invert4x4(this.md4, this.resd4);
+		
+		return this.resd4;
+	}
+	
+	@Benchmark
+	public double[][] invert4x4Cofactors()
+	{
+		double[][] m = this.md4;
+		double[][] res = this.resd4;
+		
+		double det = MatUtils.det4x4(m);
+		
+		if(det == 0.0) return res;
+		
+		double invDet = 1.0 / det;
+		
+		for(int row = 0; row < 4; row++)
+			for(int column = 0; column < 4; column++)
+			{
+				int r0 = row == 0 ? 1 : 0;
+				int r1 = row <= 1 ? 2 : 1;
+				int r2 = row <= 2 ? 3 : 2;
+				int c0 = column == 0 ? 1 : 0;
+				int c1 = column <= 1 ? 2 : 1;
+				int c2 = column <= 2 ? 3 : 2;
+				
+				double minor = MatUtils.det3x3(	m[r0][c0], m[r0][c1], m[r0][c2],
+												m[r1][c0], m[r1][c1], m[r1][c2],
+												m[r2][c0], m[r2][c1], m[r2][c2]);
+				
+				res[column][row] = ((row + column) % 2 == 0 ? minor : -minor) * invDet;
+			}
+		
+		return res;
+	}
+}
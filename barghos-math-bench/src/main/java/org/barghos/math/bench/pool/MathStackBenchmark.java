@@ -0,0 +1,133 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.bench.pool;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.barghos.math.bench.BenchmarkInputs;
+import org.barghos.math.boundary.OBB3f;
+import org.barghos.math.matrix.Mat4f;
+import org.barghos.math.pool.MathStack;
+import org.barghos.math.vec3.Vec3f;
+import org.barghos.math.vec3.pool.Vec3fPool;
+
+/**
+ * Compares a scope of the {@link MathStack} with the get/store pairs of the pools and measures library functions
+ * whose temporaries were moved to the stack. Together with the allocation rate reported by the GC profiler
+ * this shows the allocation before and after the migration when run against both versions of the library.
+ * 
+ * @author picatrix1899
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class MathStackBenchmark
+{
+	private Vec3f pos;
+	private Vec3f target;
+	private Vec3f up;
+	private Mat4f res;
+	
+	private OBB3f obb;
+	private OBB3f obbRes;
+	private Mat4f transform;
+	
+	@Setup
+	public void setup()
+	{
+		Random rnd = BenchmarkInputs.random();
+		
+		this.pos = BenchmarkInputs.vector(rnd, 10.0f);
+		this.target = BenchmarkInputs.vector(rnd, 10.0f);
+		this.up = new Vec3f(0.0f, 1.0f, 0.0f);
+		this.res = new Mat4f();
+		
+		this.obb = BenchmarkInputs.obb(BenchmarkInputs.RANDOM, rnd);
+		this.obbRes = new OBB3f();
+		this.transform = BenchmarkInputs.matrix(BenchmarkInputs.RANDOM, rnd);
+	}
+	
+	@Benchmark
+	public float poolPair()
+	{
+		Vec3f a = Vec3fPool.get(this.pos);
+		Vec3f b = Vec3fPool.get(this.target);
+		Vec3f c = Vec3fPool.get();
+		
+		float r = a.sub(b, c).squaredLength();
+		
+		Vec3fPool.store(a, b, c);
+		
+		return r;
+	}
+	
+	@Benchmark
+	public float stackScope()
+	{
+		try(MathStack s = MathStack.push())
+		{
+			Vec3f a = s.vec3(this.pos);
+			Vec3f b = s.vec3(this.target);
+			Vec3f c = s.vec3();
+			
+			return a.sub(b, c).squaredLength();
+		}
+	}
+	
+	@Benchmark
+	public Mat4f lookAt()
+	{
+		return this.res.initLookAtMatrix(this.pos, this.target, this.up);
+	}
+	
+	@Benchmark
+	public OBB3f obbTransform()
+	{
+		return this.obb.transform(this.transform, this.obbRes);
+	}
+	
+	@Benchmark
+	public Object obbPoints()
+	{
+		this.obb.setCenterX(this.pos.getX());
+		
+		return this.obb.getPoints();
+	}
+}
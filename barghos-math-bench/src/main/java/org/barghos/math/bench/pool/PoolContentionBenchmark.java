@@ -0,0 +1,192 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.bench.pool;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.barghos.core.pool.DequePool;
+import org.barghos.core.pool.api.Pool;
+import org.barghos.math.bench.BenchmarkInputs;
+import org.barghos.math.pool.ThreadLocalPool;
+import org.barghos.math.quat.Quatf;
+import org.barghos.math.quat.pool.QuatfPool;
+import org.barghos.math.utils.VectorInterpolation;
+import org.barghos.math.vec3.Vec3f;
+
+/**
+ * Measures a get/store pair on a pool shared by a growing number of threads.
+ * The "synchronized" pool is a {@link DequePool} behind a lock, which is what serialising the callers amounts to.
+ * The per operation time of the "threadlocal" pool should stay flat as the thread count grows.
+ * 
+ * @author picatrix1899
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class PoolContentionBenchmark
+{
+	public static final String SYNCHRONIZED = "synchronized";
+	public static final String THREAD_LOCAL = "threadlocal";
+	
+	@Param({SYNCHRONIZED, THREAD_LOCAL})
+	public String pool;
+	
+	private Pool<Vec3f> vec3Pool;
+	private Pool<Quatf> previousQuatfPool;
+	
+	@Setup(Level.Trial)
+	public void setup()
+	{
+		this.vec3Pool = create(Vec3f.class, Vec3f::new);
+		
+		this.previousQuatfPool = QuatfPool.getInternalPool();
+		QuatfPool.setInternalPool(create(Quatf.class, Quatf::new));
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		QuatfPool.setInternalPool(this.previousQuatfPool);
+	}
+	
+	private <T> Pool<T> create(Class<T> type, Supplier<T> factory)
+	{
+		if(THREAD_LOCAL.equals(this.pool)) return new ThreadLocalPool<>(factory);
+		
+		return new SynchronizedPool<>(new DequePool<>(type));
+	}
+	
+	@State(Scope.Thread)
+	public static class Operands
+	{
+		private Quatf from;
+		private Quatf to;
+		private Quatf res;
+		
+		@Setup
+		public void setup()
+		{
+			Random rnd = BenchmarkInputs.random();
+			
+			this.from = BenchmarkInputs.quat(BenchmarkInputs.RANDOM, rnd);
+			this.to = BenchmarkInputs.quat(BenchmarkInputs.RANDOM, rnd);
+			this.res = new Quatf();
+		}
+	}
+	
+	private float getStore()
+	{
+		Vec3f v = this.vec3Pool.get();
+		v.set(1.0f, 2.0f, 3.0f);
+		float x = v.getX();
+		this.vec3Pool.store(v);
+		
+		return x;
+	}
+	
+	@Benchmark
+	@Threads(1)
+	public float getStore1()
+	{
+		return getStore();
+	}
+	
+	@Benchmark
+	@Threads(4)
+	public float getStore4()
+	{
+		return getStore();
+	}
+	
+	@Benchmark
+	@Threads(Threads.MAX)
+	public float getStoreMax()
+	{
+		return getStore();
+	}
+	
+	@Benchmark
+	@Threads(1)
+	public Quatf slerp1(Operands o)
+	{
+		return VectorInterpolation.slerp(o.from, o.to, 0.5f, o.res);
+	}
+	
+	@Benchmark
+	@Threads(Threads.MAX)
+	public Quatf slerpMax(Operands o)
+	{
+		return VectorInterpolation.slerp(o.from, o.to, 0.5f, o.res);
+	}
+	
+	/**
+	 * Guards a single threaded pool with a lock.
+	 */
+	static final class SynchronizedPool<T> implements Pool<T>
+	{
+		private final Pool<T> pool;
+		
+		SynchronizedPool(Pool<T> pool)
+		{
+			this.pool = pool;
+		}
+		
+		public synchronized T get()
+		{
+			return this.pool.get();
+		}
+		
+		@SuppressWarnings("unchecked")
+		public synchronized void store(T... instances)
+		{
+			this.pool.store(instances);
+		}
+		
+		public synchronized void ensure(int count)
+		{
+			this.pool.ensure(count);
+		}
+	}
+}
@@ -0,0 +1,160 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.bench.quat;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.barghos.math.bench.BenchmarkInputs;
+import org.barghos.math.matrix.Mat4x3f;
+import org.barghos.math.quat.DualQuatf;
+
+/**
+ * Skins a mesh with {@link #INFLUENCES} joints per vertex, once with dual quaternion blending (8 floats per joint)
+ * and once with the linear blending of packed {@link Mat4x3f} palettes (12 floats per joint) as the baseline.
+ * 
+ * @author picatrix1899
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class DualQuatfSkinningBenchmark
+{
+	public static final int JOINTS = 64;
+	public static final int INFLUENCES = 4;
+	
+	@Param({"10000", "100000"})
+	public int vertices;
+	
+	private float[] dualQuats;
+	private float[] matrices;
+	
+	private int[] joints;
+	private float[] weights;
+	
+	private float[] positions;
+	private float[] skinned;
+	
+	@Setup
+	public void setup()
+	{
+		Random rnd = BenchmarkInputs.random();
+		
+		this.dualQuats = new float[JOINTS * DualQuatf.FLOATS];
+		this.matrices = new float[JOINTS * Mat4x3f.FLOATS];
+		
+		DualQuatf q = new DualQuatf();
+		Mat4x3f m = new Mat4x3f();
+		
+		for(int i = 0; i < JOINTS; i++)
+		{
+			q.set(BenchmarkInputs.rotationQuat(rnd), BenchmarkInputs.vector(rnd, 10.0f));
+			
+			q.store(this.dualQuats, i * DualQuatf.FLOATS);
+			q.toMat4x3f(m).store(this.matrices, i * Mat4x3f.FLOATS);
+		}
+		
+		this.joints = new int[this.vertices * INFLUENCES];
+		this.weights = new float[this.vertices * INFLUENCES];
+		
+		for(int i = 0; i < this.vertices; i++)
+		{
+			float sum = 0.0f;
+			
+			for(int j = 0; j < INFLUENCES; j++)
+			{
+				this.joints[i * INFLUENCES + j] = rnd.nextInt(JOINTS);
+				this.weights[i * INFLUENCES + j] = rnd.nextFloat();
+				
+				sum += this.weights[i * INFLUENCES + j];
+			}
+			
+			for(int j = 0; j < INFLUENCES; j++)
+				this.weights[i * INFLUENCES + j] /= sum;
+		}
+		
+		this.positions = new float[this.vertices * 3];
+		this.skinned = new float[this.vertices * 3];
+		
+		for(int i = 0; i < this.positions.length; i++)
+			this.positions[i] = rnd.nextFloat() * 2.0f - 1.0f;
+	}
+	
+	@Benchmark
+	public float[] dualQuaternionBlend()
+	{
+		return DualQuatf.transform(this.dualQuats, 0, this.joints, this.weights, INFLUENCES, this.positions, 0, this.skinned, 0, this.vertices);
+	}
+	
+	@Benchmark
+	public float[] linearBlend()
+	{
+		float[] m = this.matrices;
+		float[] src = this.positions;
+		float[] dst = this.skinned;
+		
+		for(int i = 0; i < this.vertices; i++)
+		{
+			float m00 = 0.0f, m01 = 0.0f, m02 = 0.0f, m03 = 0.0f;
+			float m10 = 0.0f, m11 = 0.0f, m12 = 0.0f, m13 = 0.0f;
+			float m20 = 0.0f, m21 = 0.0f, m22 = 0.0f, m23 = 0.0f;
+			
+			for(int j = 0; j < INFLUENCES; j++)
+			{
+				int c = this.joints[i * INFLUENCES + j] * Mat4x3f.FLOATS;
+				float w = this.weights[i * INFLUENCES + j];
+				
+				m00 += m[c] * w; m01 += m[c + 1] * w; m02 += m[c + 2] * w; m03 += m[c + 3] * w;
+				m10 += m[c + 4] * w; m11 += m[c + 5] * w; m12 += m[c + 6] * w; m13 += m[c + 7] * w;
+				m20 += m[c + 8] * w; m21 += m[c + 9] * w; m22 += m[c + 10] * w; m23 += m[c + 11] * w;
+			}
+			
+			int s = i * 3;
+			
+			float x = src[s], y = src[s + 1], z = src[s + 2];
+			
+			dst[s] = m00 * x + m01 * y + m02 * z + m03;
+			dst[s + 1] = m10 * x + m11 * y + m12 * z + m13;
+			dst[s + 2] = m20 * x + m21 * y + m22 * z + m23;
+		}
+		
+		return dst;
+	}
+}
@@ -0,0 +1,143 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.bench.quat;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.barghos.math.bench.BenchmarkInputs;
+import org.barghos.math.point.Point3f;
+import org.barghos.math.quat.Quatf;
+import org.barghos.math.utils.VectorInterpolation;
+import org.barghos.math.vec3.Vec3f;
+
+/**
+ * Measures the destination taking variants of the {@link Quatf} operations.
+ * All of them are expected to show an allocation rate of 0 B/op in the GC profiler output.
+ * {@link #transformProducts()} is the former q * v * conjugate(q) formulation of the rotation for comparison.
+ * 
+ * @author picatrix1899
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class QuatfOpsBenchmark
+{
+	private Quatf left;
+	private Quatf right;
+	private Quatf res;
+	private Quatf tmp;
+	
+	private Vec3f v1;
+	private Vec3f v2;
+	private Vec3f vres;
+	
+	private Point3f source;
+	private Point3f dest;
+	
+	@Setup
+	public void setup()
+	{
+		Random rnd = BenchmarkInputs.random();
+		
+		this.left = BenchmarkInputs.rotationQuat(rnd);
+		this.right = BenchmarkInputs.rotationQuat(rnd);
+		this.res = new Quatf();
+		this.tmp = new Quatf();
+		
+		this.v1 = BenchmarkInputs.vector(rnd, 1.0f);
+		this.v2 = BenchmarkInputs.vector(rnd, 1.0f);
+		this.vres = new Vec3f();
+		
+		this.source = new Point3f(BenchmarkInputs.vector(rnd, 10.0f));
+		this.dest = new Point3f(BenchmarkInputs.vector(rnd, 10.0f));
+	}
+	
+	@Benchmark
+	public Vec3f transform()
+	{
+		return this.left.transform(this.v1, this.vres);
+	}
+	
+	@Benchmark
+	public Vec3f transformProducts()
+	{
+		Quatf r = this.left.mul(this.v1, this.res);
+		
+		r.mul(this.left.conjugate(this.tmp), r);
+		
+		return this.vres.set(r.getX(), r.getY(), r.getZ());
+	}
+	
+	@Benchmark
+	public Quatf inverse()
+	{
+		return this.left.inverse(this.res);
+	}
+	
+	@Benchmark
+	public Quatf normal()
+	{
+		return this.left.normal(this.res);
+	}
+	
+	@Benchmark
+	public Quatf rotate()
+	{
+		return this.res.set(this.left).rotate(0.0f, 1.0f, 0.0f, 15.0f);
+	}
+	
+	@Benchmark
+	public Quatf fromVectors()
+	{
+		return Quatf.getFromVectors(this.v1, this.v2, this.res);
+	}
+	
+	@Benchmark
+	public Quatf lookAt()
+	{
+		return Quatf.lookAt(this.source, this.dest, this.res);
+	}
+	
+	@Benchmark
+	public Quatf slerp()
+	{
+		return VectorInterpolation.slerp(this.left, this.right, 0.3f, this.res);
+	}
+}
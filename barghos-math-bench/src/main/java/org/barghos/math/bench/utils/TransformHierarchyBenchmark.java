@@ -0,0 +1,139 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.bench.utils;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.barghos.math.bench.BenchmarkInputs;
+import org.barghos.math.matrix.Mat4f;
+import org.barghos.math.utils.StaticHirarchicalTransform3f;
+import org.barghos.math.utils.TransformHierarchy;
+
+/**
+ * Measures one tick of a scene graph, in which the root is moved and the world matrices of all nodes are needed afterwards.
+ * The same random tree is built once from {@link StaticHirarchicalTransform3f} nodes and once in a {@link TransformHierarchy}.
+ * 
+ * @author picatrix1899
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class TransformHierarchyBenchmark
+{
+	@Param({"10000", "100000"})
+	public int nodes;
+	
+	private StaticHirarchicalTransform3f[] transforms;
+	private TransformHierarchy hierarchy;
+	private TransformHierarchy.Node root;
+	
+	private Mat4f res;
+	
+	private float tick;
+	
+	@Setup
+	public void setup()
+	{
+		Random rnd = BenchmarkInputs.random();
+		
+		this.transforms = new StaticHirarchicalTransform3f[this.nodes];
+		this.hierarchy = new TransformHierarchy(this.nodes);
+		
+		TransformHierarchy.Node[] handles = new TransformHierarchy.Node[this.nodes];
+		
+		for(int i = 0; i < this.nodes; i++)
+		{
+			float x = rnd.nextFloat(), y = rnd.nextFloat(), z = rnd.nextFloat();
+			float pitch = rnd.nextFloat() * 360.0f, yaw = rnd.nextFloat() * 360.0f, roll = rnd.nextFloat() * 360.0f;
+			
+			this.transforms[i] = new StaticHirarchicalTransform3f(x, y, z, pitch, yaw, roll, 1.0f);
+			
+			if(i == 0)
+			{
+				handles[i] = this.hierarchy.create();
+			}
+			else
+			{
+				int parent = rnd.nextInt(i);
+				
+				this.transforms[i].setParent(this.transforms[parent]);
+				handles[i] = this.hierarchy.create(handles[parent]);
+			}
+			
+			handles[i].set(x, y, z, pitch, yaw, roll, 1.0f);
+		}
+		
+		this.root = handles[0];
+		this.res = new Mat4f();
+	}
+	
+	@Benchmark
+	public Mat4f staticHirarchy()
+	{
+		this.transforms[0].setPosX(this.tick++);
+		
+		for(int i = 0; i < this.transforms.length; i++)
+			this.transforms[i].getTransformationMatrix4f(this.res);
+		
+		return this.res;
+	}
+	
+	@Benchmark
+	public float[] flatUpdate()
+	{
+		this.root.setPosX(this.tick++);
+		
+		this.hierarchy.update();
+		
+		return this.hierarchy.getWorldMatrices();
+	}
+	
+	@Benchmark
+	public float[] flatUpdateParallel()
+	{
+		this.root.setPosX(this.tick++);
+		
+		this.hierarchy.update(ForkJoinPool.commonPool());
+		
+		return this.hierarchy.getWorldMatrices();
+	}
+}
@@ -0,0 +1,138 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.bench.vec3;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.barghos.math.bench.BenchmarkInputs;
+import org.barghos.math.vec3.Vec3f;
+import org.barghos.math.vec3.Vec3fBuffer;
+
+/**
+ * Compares element wise vector kernels over a list of {@link Vec3f} objects with the range kernels of
+ * {@link Vec3fBuffer} in both layouts.
+ * 
+ * @author picatrix1899
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class Vec3fBufferBenchmark
+{
+	@Param({"SOA", "INTERLEAVED"})
+	public Vec3fBuffer.Layout layout;
+	
+	@Param({"1024", "1000000"})
+	public int count;
+	
+	private List<Vec3f> listA;
+	private List<Vec3f> listB;
+	private List<Vec3f> listRes;
+	
+	private Vec3fBuffer a;
+	private Vec3fBuffer b;
+	private Vec3fBuffer res;
+	
+	@Setup
+	public void setup()
+	{
+		Random rnd = BenchmarkInputs.random();
+		
+		this.listA = new ArrayList<>(this.count);
+		this.listB = new ArrayList<>(this.count);
+		this.listRes = new ArrayList<>(this.count);
+		
+		this.a = new Vec3fBuffer(this.layout, this.count);
+		this.b = new Vec3fBuffer(this.layout, this.count);
+		this.res = new Vec3fBuffer(this.layout, this.count).setSize(this.count);
+		
+		for(int i = 0; i < this.count; i++)
+		{
+			Vec3f va = BenchmarkInputs.vector(rnd, 10.0f);
+			Vec3f vb = BenchmarkInputs.vector(rnd, 10.0f);
+			
+			this.listA.add(va);
+			this.listB.add(vb);
+			this.listRes.add(new Vec3f());
+			
+			this.a.add(va);
+			this.b.add(vb);
+		}
+	}
+	
+	@Benchmark
+	public List<Vec3f> listAdd()
+	{
+		for(int i = 0; i < this.count; i++)
+			this.listA.get(i).add(this.listB.get(i), this.listRes.get(i));
+		
+		return this.listRes;
+	}
+	
+	@Benchmark
+	public Vec3fBuffer bufferAdd()
+	{
+		return this.a.add(0, this.count, this.b, this.res);
+	}
+	
+	@Benchmark
+	public List<Vec3f> listCross()
+	{
+		for(int i = 0; i < this.count; i++)
+			this.listA.get(i).cross(this.listB.get(i), this.listRes.get(i));
+		
+		return this.listRes;
+	}
+	
+	@Benchmark
+	public Vec3fBuffer bufferCross()
+	{
+		return this.a.cross(0, this.count, this.b, this.res);
+	}
+	
+	@Benchmark
+	public Vec3fBuffer bufferNormal()
+	{
+		return this.a.normal(0, this.count, this.res);
+	}
+}
@@ -0,0 +1,144 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.bench.vector;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.barghos.math.bench.BenchmarkInputs;
+import org.barghos.math.matrix.Mat4f;
+import org.barghos.math.matrix.Mat4fKernels;
+import org.barghos.math.matrix.api.Mat4fKernel;
+import org.barghos.math.vector.VectorMat4fKernel;
+
+/**
+ * Compares the scalar {@link Mat4fKernel} with the Vector API backend on the same inputs.
+ * 
+ * @author picatrix1899
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class Mat4fKernelBenchmark
+{
+	@Param({"scalar", "vector"})
+	public String kernel;
+	
+	@Param({BenchmarkInputs.RANDOM, BenchmarkInputs.IDENTITY})
+	public String input;
+	
+	@Param({"1024"})
+	public int count;
+	
+	private Mat4fKernel k;
+	
+	private float[][] left;
+	private float[][] right;
+	private float[][] res;
+	
+	private float[] tuples3;
+	private float[] tuples3Res;
+	private float[] tuples4;
+	private float[] tuples4Res;
+	
+	@Setup
+	public void setup()
+	{
+		this.k = "vector".equals(this.kernel) ? new VectorMat4fKernel() : Mat4fKernels.SCALAR;
+		
+		Random rnd = BenchmarkInputs.random();
+		
+		Mat4f l = BenchmarkInputs.matrix(this.input, rnd);
+		Mat4f r = BenchmarkInputs.matrix(this.input, rnd);
+		
+		this.left = l.m;
+		this.right = r.m;
+		this.res = new float[4][4];
+		
+		this.tuples3 = new float[this.count * 3];
+		this.tuples3Res = new float[this.count * 3];
+		this.tuples4 = new float[this.count * 4];
+		this.tuples4Res = new float[this.count * 4];
+		
+		for(int i = 0; i < this.tuples3.length; i++)
+			this.tuples3[i] = rnd.nextFloat() * 200.0f - 100.0f;
+		
+		for(int i = 0; i < this.tuples4.length; i++)
+			this.tuples4[i] = (i & 3) == 3 ? 1.0f : rnd.nextFloat() * 200.0f - 100.0f;
+	}
+	
+	@Benchmark
+	public float[][] mul()
+	{
+		this.k.mul(this.left, this.right, this.res);
+		
+		return this.res;
+	}
+	
+	@Benchmark
+	public float[][] transpose()
+	{
+		this.k.transpose(this.left, this.res);
+		
+		return this.res;
+	}
+	
+	@Benchmark
+	public boolean invert()
+	{
+		return this.k.invert(this.left, this.res);
+	}
+	
+	@Benchmark
+	public float[] transformPoints()
+	{
+		this.k.transform(this.left, this.tuples3, 0, this.tuples3Res, 0, this.count, true);
+		
+		return this.tuples3Res;
+	}
+	
+	@Benchmark
+	public float[] transform4()
+	{
+		this.k.transform4(this.left, this.tuples4, 0, this.tuples4Res, 0, this.count);
+		
+		return this.tuples4Res;
+	}
+}
@@ -0,0 +1,209 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.vector;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+import org.barghos.math.matrix.ScalarMat4fKernel;
+import org.barghos.math.matrix.api.Mat4fKernel;
+
+/**
+ * A {@link Mat4fKernel} based on the incubating Vector API. Every matrix row is handled as one 128 bit vector.
+ * 
+ * The multiplication and the transformation of xyzw tuples evaluate the same products in the same order
+ * as {@link ScalarMat4fKernel} and therefore produce identical results. The inverse is calculated in float
+ * with a different but equivalent cofactor expansion and can differ in the last bits.
+ * The transposition is pure data movement and is inherited from the scalar kernel.
+ * 
+ * The kernel is registered as a service and picked up by {@link org.barghos.math.matrix.Mat4fKernels}
+ * if the JVM is started with "--add-modules jdk.incubator.vector".
+ * 
+ * @author picatrix1899
+ */
+public class VectorMat4fKernel extends ScalarMat4fKernel
+{
+	private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_128;
+	
+	private static final VectorMask<Float> LANE_0 = VectorMask.fromValues(SPECIES, true, false, false, false);
+	private static final VectorMask<Float> LANE_3 = VectorMask.fromValues(SPECIES, false, false, false, true);
+	private static final VectorMask<Float> LANES_23 = VectorMask.fromValues(SPECIES, false, false, true, true);
+	
+	private static final FloatVector SIGN_A = FloatVector.fromArray(SPECIES, new float[] {-1.0f, 1.0f, -1.0f, 1.0f}, 0);
+	/*
+	 * Two-vector shuffles for the transposition, indices 4 to 7 select the lanes of the second vector.
+	 */
+	private static final VectorShuffle<Float> INTERLEAVE_LOW = VectorShuffle.fromValues(SPECIES, 0, 4, 1, 5);
+	private static final VectorShuffle<Float> INTERLEAVE_HIGH = VectorShuffle.fromValues(SPECIES, 2, 6, 3, 7);
+	private static final VectorShuffle<Float> LOW_HALVES = VectorShuffle.fromValues(SPECIES, 0, 1, 4, 5);
+	private static final VectorShuffle<Float> HIGH_HALVES = VectorShuffle.fromValues(SPECIES, 2, 3, 6, 7);
+	
+	private static final FloatVector SIGN_B = FloatVector.fromArray(SPECIES, new float[] {1.0f, -1.0f, 1.0f, -1.0f}, 0);
+	
+	public void mul(float[][] l, float[][] r, float[][] res)
+	{
+		FloatVector r0 = FloatVector.fromArray(SPECIES, r[0], 0);
+		FloatVector r1 = FloatVector.fromArray(SPECIES, r[1], 0);
+		FloatVector r2 = FloatVector.fromArray(SPECIES, r[2], 0);
+		FloatVector r3 = FloatVector.fromArray(SPECIES, r[3], 0);
+		
+		for(int row = 0; row < 4; row++)
+		{
+			float[] lr = l[row];
+			
+			r0.mul(lr[0]).add(r1.mul(lr[1])).add(r2.mul(lr[2])).add(r3.mul(lr[3])).intoArray(res[row], 0);
+		}
+	}
+	
+	public boolean invert(float[][] m, float[][] res)
+	{
+		float[] m0 = m[0], m1 = m[1], m2 = m[2], m3 = m[3];
+		
+		// p[c] = (m2c, m2c, m1c, m1c), q[c] = (m3c, m3c, m3c, m2c)
+		FloatVector p0 = FloatVector.broadcast(SPECIES, m2[0]).blend(m1[0], LANES_23);
+		FloatVector p1 = FloatVector.broadcast(SPECIES, m2[1]).blend(m1[1], LANES_23);
+		FloatVector p2 = FloatVector.broadcast(SPECIES, m2[2]).blend(m1[2], LANES_23);
+		FloatVector p3 = FloatVector.broadcast(SPECIES, m2[3]).blend(m1[3], LANES_23);
+		
+		FloatVector q0 = FloatVector.broadcast(SPECIES, m3[0]).blend(m2[0], LANE_3);
+		FloatVector q1 = FloatVector.broadcast(SPECIES, m3[1]).blend(m2[1], LANE_3);
+		FloatVector q2 = FloatVector.broadcast(SPECIES, m3[2]).blend(m2[2], LANE_3);
+		FloatVector q3 = FloatVector.broadcast(SPECIES, m3[3]).blend(m2[3], LANE_3);
+		
+		// 2x2 minors of the lower three rows.
+		FloatVector f0 = p2.mul(q3).sub(q2.mul(p3));
+		FloatVector f1 = p1.mul(q3).sub(q1.mul(p3));
+		FloatVector f2 = p1.mul(q2).sub(q1.mul(p2));
+		FloatVector f3 = p0.mul(q3).sub(q0.mul(p3));
+		FloatVector f4 = p0.mul(q2).sub(q0.mul(p2));
+		FloatVector f5 = p0.mul(q1).sub(q0.mul(p1));
+		
+		// v[c] = (m1c, m0c, m0c, m0c)
+		FloatVector v0 = FloatVector.broadcast(SPECIES, m0[0]).blend(m1[0], LANE_0);
+		FloatVector v1 = FloatVector.broadcast(SPECIES, m0[1]).blend(m1[1], LANE_0);
+		FloatVector v2 = FloatVector.broadcast(SPECIES, m0[2]).blend(m1[2], LANE_0);
+		FloatVector v3 = FloatVector.broadcast(SPECIES, m0[3]).blend(m1[3], LANE_0);
+		
+		FloatVector i0 = v1.mul(f0).sub(v2.mul(f1)).add(v3.mul(f2)).mul(SIGN_B);
+		FloatVector i1 = v0.mul(f0).sub(v2.mul(f3)).add(v3.mul(f4)).mul(SIGN_A);
+		FloatVector i2 = v0.mul(f1).sub(v1.mul(f3)).add(v3.mul(f5)).mul(SIGN_B);
+		FloatVector i3 = v0.mul(f2).sub(v1.mul(f4)).add(v2.mul(f5)).mul(SIGN_A);
+		
+		float det = m0[0] * i0.lane(0) + m0[1] * i1.lane(0) + m0[2] * i2.lane(0) + m0[3] * i3.lane(0);
+		
+		if(det == 0.0f) return false;
+		
+		float invDet = 1.0f / det;
+		
+		i0.mul(invDet).intoArray(res[0], 0);
+		i1.mul(invDet).intoArray(res[1], 0);
+		i2.mul(invDet).intoArray(res[2], 0);
+		i3.mul(invDet).intoArray(res[3], 0);
+		
+		return true;
+	}
+	
+	public void transform(float[][] m, float[] src, int srcOffset, float[] dst, int dstOffset, int count, boolean useLastColumn)
+	{
+		if(count < 2)
+		{
+			super.transform(m, src, srcOffset, dst, dstOffset, count, useLastColumn);
+			
+			return;
+		}
+		
+		FloatVector r0 = FloatVector.fromArray(SPECIES, m[0], 0);
+		FloatVector r1 = FloatVector.fromArray(SPECIES, m[1], 0);
+		FloatVector r2 = FloatVector.fromArray(SPECIES, m[2], 0);
+		FloatVector r3 = FloatVector.fromArray(SPECIES, m[3], 0);
+		
+		// transposes the rows into the columns: (m00, m10, m01, m11), (m20, m30, m21, m31), ...
+		FloatVector u0 = r0.rearrange(INTERLEAVE_LOW, r1);
+		FloatVector u1 = r2.rearrange(INTERLEAVE_LOW, r3);
+		FloatVector u2 = r0.rearrange(INTERLEAVE_HIGH, r1);
+		FloatVector u3 = r2.rearrange(INTERLEAVE_HIGH, r3);
+		
+		FloatVector c0 = u0.rearrange(LOW_HALVES, u1);
+		FloatVector c1 = u0.rearrange(HIGH_HALVES, u1);
+		FloatVector c2 = u2.rearrange(LOW_HALVES, u3);
+		FloatVector t = useLastColumn ? u2.rearrange(HIGH_HALVES, u3) : FloatVector.zero(SPECIES);
+		
+		// Every tuple is written with a full vector store whose fourth lane spills into the x of the next tuple.
+		// The next tuple is therefore read before the store, and the last tuple is finished in scalar code.
+		float x = src[srcOffset];
+		float y = src[srcOffset + 1];
+		float z = src[srcOffset + 2];
+		
+		int last = count - 1;
+		
+		for(int i = 0; i < last; i++)
+		{
+			FloatVector r = c0.mul(x).add(c1.mul(y)).add(c2.mul(z)).add(t);
+			
+			int s = srcOffset + (i + 1) * 3;
+			x = src[s];
+			y = src[s + 1];
+			z = src[s + 2];
+			
+			r.intoArray(dst, dstOffset + i * 3);
+		}
+		
+		float[] m0 = m[0], m1 = m[1], m2 = m[2];
+		
+		float w = useLastColumn ? 1.0f : 0.0f;
+		int d = dstOffset + last * 3;
+		
+		dst[d] = m0[0] * x + m0[1] * y + m0[2] * z + m0[3] * w;
+		dst[d + 1] = m1[0] * x + m1[1] * y + m1[2] * z + m1[3] * w;
+		dst[d + 2] = m2[0] * x + m2[1] * y + m2[2] * z + m2[3] * w;
+	}
+	
+	public void transform4(float[][] m, float[] src, int srcOffset, float[] dst, int dstOffset, int count)
+	{
+		FloatVector r0 = FloatVector.fromArray(SPECIES, m[0], 0);
+		FloatVector r1 = FloatVector.fromArray(SPECIES, m[1], 0);
+		FloatVector r2 = FloatVector.fromArray(SPECIES, m[2], 0);
+		FloatVector r3 = FloatVector.fromArray(SPECIES, m[3], 0);
+		
+		FloatVector u0 = r0.rearrange(INTERLEAVE_LOW, r1);
+		FloatVector u1 = r2.rearrange(INTERLEAVE_LOW, r3);
+		FloatVector u2 = r0.rearrange(INTERLEAVE_HIGH, r1);
+		FloatVector u3 = r2.rearrange(INTERLEAVE_HIGH, r3);
+		
+		FloatVector c0 = u0.rearrange(LOW_HALVES, u1);
+		FloatVector c1 = u0.rearrange(HIGH_HALVES, u1);
+		FloatVector c2 = u2.rearrange(LOW_HALVES, u3);
+		FloatVector c3 = u2.rearrange(HIGH_HALVES, u3);
+		
+		for(int i = 0; i < count; i++)
+		{
+			int s = srcOffset + i * 4;
+			
+			c0.mul(src[s]).add(c1.mul(src[s + 1])).add(c2.mul(src[s + 2])).add(c3.mul(src[s + 3])).intoArray(dst, dstOffset + i * 4);
+		}
+	}
+}
@@ -211,6 +211,18 @@ public class AABB3f
 		return this;
 	}
 	
+	public float getMinX() { return this.min.getX(); }
+	
+	public float getMinY() { return this.min.getY(); }
+	
+	public float getMinZ() { return this.min.getZ(); }
+	
+	public float getMaxX() { return this.max.getX(); }
+	
+	public float getMaxY() { return this.max.getY(); }
+	
+	public float getMaxZ() { return this.max.getZ(); }
+	
 	public <T extends Tup3fW> T getMin(T res)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
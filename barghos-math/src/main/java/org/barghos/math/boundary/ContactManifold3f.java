@@ -0,0 +1,181 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.boundary;
+
+import org.barghos.core.exception.ArgumentNullException;
+import org.barghos.math.BarghosMath;
+import org.barghos.math.point.Point3f;
+import org.barghos.math.vec3.Vec3f;
+
+/**
+ * The result of a narrow phase test between two convex shapes a and b, meant to be reused across tests.
+ * 
+ * The normal is the axis of the minimum translation vector and points from a to b. Translating b by
+ * normal * depth, or a by its negation, separates the shapes. Up to {@link #MAX_POINTS} contact points are stored,
+ * each with its own penetration depth along the normal.
+ * 
+ * @author picatrix1899
+ */
+public class ContactManifold3f
+{
+	public static final int MAX_POINTS = 4;
+	
+	protected final Vec3f normal = new Vec3f();
+	protected float depth;
+	
+	protected final Point3f[] points = new Point3f[MAX_POINTS];
+	protected final float[] depths = new float[MAX_POINTS];
+	protected int count;
+	
+	/*
+	 * Scratch buffers of the resolvers in this package, so that filling the manifold does not allocate.
+	 * Up to 8 polygon vertices as packed xyz with their depths.
+	 */
+	final float[] polygon = new float[24];
+	final float[] clipped = new float[24];
+	final float[] polygonDepths = new float[8];
+	final float[] rotation = new float[9];
+	final float[] absRotation = new float[9];
+	
+	public ContactManifold3f()
+	{
+		for(int i = 0; i < MAX_POINTS; i++)
+			this.points[i] = new Point3f();
+	}
+	
+	/**
+	 * Removes all contact points and resets the normal and depth.
+	 */
+	public ContactManifold3f clear()
+	{
+		this.normal.set(0.0f, 0.0f, 0.0f);
+		this.depth = 0.0f;
+		this.count = 0;
+		
+		return this;
+	}
+	
+	public ContactManifold3f setNormal(float x, float y, float z, float depth)
+	{
+		this.normal.set(x, y, z);
+		this.depth = depth;
+		
+		return this;
+	}
+	
+	/**
+	 * Appends a contact point. Returns false and ignores the point if the manifold is already full.
+	 */
+	public boolean addPoint(float x, float y, float z, float depth)
+	{
+		if(this.count == MAX_POINTS) return false;
+		
+		this.points[this.count].set(x, y, z);
+		this.depths[this.count] = depth;
+		this.count++;
+		
+		return true;
+	}
+	
+	public Vec3f getNormal(Vec3f res)
+	{
+		if(res == null) res = new Vec3f();
+		return res.set(this.normal);
+	}
+	
+	public float getDepth()
+	{
+		return this.depth;
+	}
+	
+	/**
+	 * Returns the minimum translation vector normal * depth.
+	 */
+	public Vec3f getMTV(Vec3f res)
+	{
+		if(res == null) res = new Vec3f();
+		return res.set(this.normal.getX() * this.depth, this.normal.getY() * this.depth, this.normal.getZ() * this.depth);
+	}
+	
+	public int getPointCount()
+	{
+		return this.count;
+	}
+	
+	public Point3f getPoint(int index, Point3f res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= this.count) throw new IndexOutOfBoundsException(index);
+		}
+		
+		if(res == null) res = new Point3f();
+		return res.set(this.points[index]);
+	}
+	
+	public float getPointDepth(int index)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= this.count) throw new IndexOutOfBoundsException(index);
+		}
+		
+		return this.depths[index];
+	}
+	
+	public ContactManifold3f set(ContactManifold3f manifold)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(manifold == null) throw new ArgumentNullException("manifold");
+		}
+		
+		this.normal.set(manifold.normal);
+		this.depth = manifold.depth;
+		this.count = manifold.count;
+		
+		for(int i = 0; i < manifold.count; i++)
+		{
+			this.points[i].set(manifold.points[i]);
+			this.depths[i] = manifold.depths[i];
+		}
+		
+		return this;
+	}
+	
+	@Override
+	public String toString()
+	{
+		StringBuilder b = new StringBuilder("contactManifold3f(normal=").append(this.normal).append(", depth=").append(this.depth).append(", points=[");
+		
+		for(int i = 0; i < this.count; i++)
+		{
+			if(i > 0) b.append(", ");
+			b.append(this.points[i]).append(" depth=").append(this.depths[i]);
+		}
+		
+		return b.append("])").toString();
+	}
+}
@@ -28,9 +28,9 @@ import org.barghos.core.tuple3.api.Tup3fR;
 import org.barghos.math.geometry.FiniteGeometricObject3f;
 import org.barghos.math.matrix.Mat4f;
 import org.barghos.math.point.Point3f;
+import org.barghos.math.pool.MathStack;
 import org.barghos.math.vec3.Vec3f;
 import org.barghos.math.vec3.Vec3fAxis;
-import org.barghos.math.vec3.pool.Vec3fPool;
 
 public class OBB3f implements FiniteGeometricObject3f
 {
@@ -129,26 +129,7 @@ public class OBB3f implements FiniteGeometricObject3f
 	
 	public Mat4f getModelSpaceMatrix()
 	{
-		if(this.isModelSpaceDirty)
-		{
-			Vec3f msX = Vec3fPool.get();
-			Vec3f msY = Vec3fPool.get();
-			Vec3f msZ = Vec3fPool.get();
-			
-			this.rotation.transform(Vec3fAxis.AXIS_X, false, msX);
-			this.rotation.transform(Vec3fAxis.AXIS_Y, false, msY);
-			this.rotation.transform(Vec3fAxis.AXIS_Z, false, msZ);
-			
-			Mat4f m = Mat4f.identity();
-			m.setRow(0, msX.getX(), msX.getY(), msX.getZ(), 0);
-			m.setRow(1, msY.getX(), msY.getY(), msY.getZ(), 0);
-			m.setRow(2, msZ.getX(), msZ.getY(), msZ.getZ(), 0);
-			
-			Vec3fPool.store(msX, msY, msZ);
-			
-			this.modelSpace.set(m);
-			this.isModelSpaceDirty = false;
-		}
+		if(this.isModelSpaceDirty) updateModelSpace();
 
 		return new Mat4f(this.modelSpace);
 	}
@@ -157,28 +138,63 @@ public class OBB3f implements FiniteGeometricObject3f
 	{
 		if(res == null) res = new Mat4f();
 		
-		if(this.isModelSpaceDirty)
+		if(this.isModelSpaceDirty) updateModelSpace();
+
+		return res.set(this.modelSpace);
+	}
+	
+	/**
+	 * Returns the axis with the given index in world space. The axes are the rows of the model space matrix.
+	 */
+	public Vec3f getAxis(int index, Vec3f res)
+	{
+		if(res == null) res = new Vec3f();
+		
+		float[] axis = getModelSpaceRef().m[index];
+		
+		return res.set(axis[0], axis[1], axis[2]);
+	}
+	
+	/*
+	 * The internal instances, returned without copying them for the resolvers of this package. They must not be modified.
+	 */
+	
+	Point3f getCenterRef()
+	{
+		return this.center;
+	}
+	
+	Vec3f getHalfExtendRef()
+	{
+		return this.halfExtend;
+	}
+	
+	Mat4f getModelSpaceRef()
+	{
+		if(this.isModelSpaceDirty) updateModelSpace();
+		
+		return this.modelSpace;
+	}
+	
+	private void updateModelSpace()
+	{
+		try(MathStack s = MathStack.push())
 		{
-			Vec3f msX = Vec3fPool.get();
-			Vec3f msY = Vec3fPool.get();
-			Vec3f msZ = Vec3fPool.get();
+			Vec3f msX = s.vec3();
+			Vec3f msY = s.vec3();
+			Vec3f msZ = s.vec3();
 			
 			this.rotation.transform(Vec3fAxis.AXIS_X, false, msX);
 			this.rotation.transform(Vec3fAxis.AXIS_Y, false, msY);
 			this.rotation.transform(Vec3fAxis.AXIS_Z, false, msZ);
 			
-			Mat4f m = Mat4f.identity();
-			m.setRow(0, msX.getX(), msX.getY(), msX.getZ(), 0);
-			m.setRow(1, msY.getX(), msY.getY(), msY.getZ(), 0);
-			m.setRow(2, msZ.getX(), msZ.getY(), msZ.getZ(), 0);
-			
-			Vec3fPool.store(msX, msY, msZ);
-			
-			this.modelSpace.set(m);
-			this.isModelSpaceDirty = false;
+			this.modelSpace.setRow(0, msX.getX(), msX.getY(), msX.getZ(), 0);
+			this.modelSpace.setRow(1, msY.getX(), msY.getY(), msY.getZ(), 0);
+			this.modelSpace.setRow(2, msZ.getX(), msZ.getY(), msZ.getZ(), 0);
+			this.modelSpace.setRow(3, 0, 0, 0, 1);
 		}
-
-		return res.set(this.modelSpace);
+		
+		this.isModelSpaceDirty = false;
 	}
 	
 	@Override
@@ -186,52 +202,51 @@ public class OBB3f implements FiniteGeometricObject3f
 	{
 		if(this.isPointsDirty)
 		{
-			Mat4f modelSpace = getModelSpaceMatrix();
-
-			Mat4f objToWorld = new Mat4f(modelSpace).transpose();
-
-			Vec3f v = Vec3fPool.get(this.halfExtend);
-
-			modelSpace.transform(v);
-
-			Vec3f t1 = Vec3fPool.get(v);
-			Vec3f t2 = Vec3fPool.get(-v.getX(), v.getY(), v.getZ());
-			Vec3f t3 = Vec3fPool.get(-v.getX(), -v.getY(), v.getZ());
-			Vec3f t4 = Vec3fPool.get(v.getX(), -v.getY(), v.getZ());
-
-			objToWorld.transform(t1);
-			objToWorld.transform(t2);
-			objToWorld.transform(t3);
-			objToWorld.transform(t4);
-			
-			Vec3f r = Vec3fPool.get();
+			if(this.isModelSpaceDirty) updateModelSpace();
 			
-			if(this.points[0] == null)
+			try(MathStack s = MathStack.push())
 			{
-				this.points[0] = this.center.addN(t1);
-				this.points[1] = this.center.addN(t2);
-				this.points[2] = this.center.addN(t3);
-				this.points[3] = this.center.addN(t4);
+				Mat4f modelSpace = this.modelSpace;
 				
-				this.points[4] = this.center.subN(t1);
-				this.points[5] = this.center.subN(t2);
-				this.points[6] = this.center.subN(t3);
-				this.points[7] = this.center.subN(t4);
-			}
-			else
-			{
-				this.center.add(t1, this.points[0]);
-				this.center.add(t2, this.points[1]);
-				this.center.add(t3, this.points[2]);
-				this.center.add(t4, this.points[3]);
+				Mat4f objToWorld = modelSpace.transpose(s.mat4());
+				
+				Vec3f v = s.vec3(this.halfExtend);
+				
+				Vec3f t1 = s.vec3(v);
+				Vec3f t2 = s.vec3(-v.getX(), v.getY(), v.getZ());
+				Vec3f t3 = s.vec3(-v.getX(), -v.getY(), v.getZ());
+				Vec3f t4 = s.vec3(v.getX(), -v.getY(), v.getZ());
+				
+				objToWorld.transform(t1);
+				objToWorld.transform(t2);
+				objToWorld.transform(t3);
+				objToWorld.transform(t4);
 				
-				this.center.sub(t1, this.points[4]);
-				this.center.sub(t2, this.points[5]);
-				this.center.sub(t3, this.points[6]);
-				this.center.sub(t4, this.points[7]);
+				if(this.points[0] == null)
+				{
+					this.points[0] = this.center.addN(t1);
+					this.points[1] = this.center.addN(t2);
+					this.points[2] = this.center.addN(t3);
+					this.points[3] = this.center.addN(t4);
+					
+					this.points[4] = this.center.subN(t1);
+					this.points[5] = this.center.subN(t2);
+					this.points[6] = this.center.subN(t3);
+					this.points[7] = this.center.subN(t4);
+				}
+				else
+				{
+					this.center.add(t1, this.points[0]);
+					this.center.add(t2, this.points[1]);
+					this.center.add(t3, this.points[2]);
+					this.center.add(t4, this.points[3]);
+					
+					this.center.sub(t1, this.points[4]);
+					this.center.sub(t2, this.points[5]);
+					this.center.sub(t3, this.points[6]);
+					this.center.sub(t4, this.points[7]);
+				}
 			}
-
-			Vec3fPool.store(v, t1, t2, t3, t4, r);
 			
 			this.isPointsDirty = false;
 			
@@ -243,18 +258,19 @@ public class OBB3f implements FiniteGeometricObject3f
 	{
 		if(res == null) res = new OBB3f();
 		
-		Vec3f min = Vec3fPool.get();
-		Vec3f max = Vec3fPool.get();
-
-		t.transform(this.center.sub(this.halfExtend, min));
-		t.transform(this.center.add(this.halfExtend, max));
-		
-		Vec3f halfExtend = max.sub(min).mul(0.5f);
-		Vec3f center = min.add(halfExtend);
-		
-		res.set(center, halfExtend, this.rotation);
-		
-		Vec3fPool.store(min, max);
+		try(MathStack s = MathStack.push())
+		{
+			Vec3f min = s.vec3();
+			Vec3f max = s.vec3();
+			
+			t.transform(this.center.sub(this.halfExtend, min));
+			t.transform(this.center.add(this.halfExtend, max));
+			
+			Vec3f halfExtend = max.sub(min).mul(0.5f);
+			Vec3f center = min.add(halfExtend);
+			
+			res.set(center, halfExtend, this.rotation);
+		}
 		
 		return res;
 	}
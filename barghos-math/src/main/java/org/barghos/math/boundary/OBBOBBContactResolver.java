@@ -0,0 +1,515 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.boundary;
+
+import org.barghos.core.exception.ArgumentNullException;
+import org.barghos.math.BarghosMath;
+import org.barghos.math.point.Point3f;
+import org.barghos.math.utils.Maths;
+import org.barghos.math.vec3.Vec3f;
+
+/**
+ * Narrow phase for pairs of oriented bounding boxes that computes a full contact manifold.
+ * 
+ * The separating axis test of {@link OBBOBBResolver#iOBBOBB3f(OBB3f, OBB3f)} is extended to track the axis of least
+ * penetration. If it is a face axis, the face of the other box that is most anti-parallel to it is clipped against the
+ * side planes of the reference face and the points below the reference face become the contacts, reduced to
+ * at most four. If it is an edge axis, the single contact is the midpoint between the closest points of the two edges.
+ * 
+ * @author picatrix1899
+ */
+public class OBBOBBContactResolver
+{
+	private static final float EPSILON = 1.0e-6f;
+	
+	/**
+	 * Edge axes with a shorter cross product are parallel edges and covered by the face axes.
+	 */
+	private static final float PARALLEL_EPSILON = 1.0e-5f;
+	
+	/**
+	 * An edge axis is only chosen over the best face axis if its penetration is smaller by more than this
+	 * relative and absolute tolerance. This keeps the manifold from flipping between face and edge contacts
+	 * in resting configurations.
+	 */
+	private static final float EDGE_RELATIVE_TOLERANCE = 0.95f;
+	private static final float EDGE_ABSOLUTE_TOLERANCE = 0.001f;
+	
+	/**
+	 * Tests the boxes for intersection and fills the manifold if they intersect. On separation the manifold is cleared.
+	 * The normal points from a to b. Touching boxes are considered intersecting. Does not allocate.
+	 * 
+	 * @return True if the boxes intersect.
+	 */
+	public static boolean cOBBOBB3f(OBB3f a, OBB3f b, ContactManifold3f res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(a == null) throw new ArgumentNullException("a");
+			if(b == null) throw new ArgumentNullException("b");
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		res.clear();
+		
+		float[][] ua = a.getModelSpaceRef().m;
+		float[][] ub = b.getModelSpaceRef().m;
+		
+		Vec3f ea = a.getHalfExtendRef();
+		Vec3f eb = b.getHalfExtendRef();
+		
+		Point3f ca = a.getCenterRef();
+		Point3f cb = b.getCenterRef();
+		
+		float dX = cb.getX() - ca.getX();
+		float dY = cb.getY() - ca.getY();
+		float dZ = cb.getZ() - ca.getZ();
+		
+		float[] r = res.rotation;
+		float[] ar = res.absRotation;
+		
+		for(int i = 0; i < 3; i++)
+		{
+			for(int j = 0; j < 3; j++)
+			{
+				float v = dot(ua[i], ub[j]);
+				
+				r[i * 3 + j] = v;
+				ar[i * 3 + j] = Math.abs(v) + EPSILON;
+			}
+		}
+		
+		// translation in the frame of a
+		float t0 = dX * ua[0][0] + dY * ua[0][1] + dZ * ua[0][2];
+		float t1 = dX * ua[1][0] + dY * ua[1][1] + dZ * ua[1][2];
+		float t2 = dX * ua[2][0] + dY * ua[2][1] + dZ * ua[2][2];
+		
+		float ea0 = ea.getX(), ea1 = ea.getY(), ea2 = ea.getZ();
+		float eb0 = eb.getX(), eb1 = eb.getY(), eb2 = eb.getZ();
+		
+		// the separation is negative while the boxes penetrate, the best axis has the largest separation.
+		float faceSeparation = Float.NEGATIVE_INFINITY;
+		int faceAxis = -1;
+		
+		for(int i = 0; i < 3; i++)
+		{
+			float t = i == 0 ? t0 : i == 1 ? t1 : t2;
+			float s = Math.abs(t) - (get(ea, i) + eb0 * ar[i * 3] + eb1 * ar[i * 3 + 1] + eb2 * ar[i * 3 + 2]);
+			
+			if(s > 0.0f) return false;
+			
+			if(s > faceSeparation)
+			{
+				faceSeparation = s;
+				faceAxis = i;
+			}
+		}
+		
+		for(int j = 0; j < 3; j++)
+		{
+			float t = t0 * r[j] + t1 * r[3 + j] + t2 * r[6 + j];
+			float s = Math.abs(t) - (ea0 * ar[j] + ea1 * ar[3 + j] + ea2 * ar[6 + j] + get(eb, j));
+			
+			if(s > 0.0f) return false;
+			
+			if(s > faceSeparation)
+			{
+				faceSeparation = s;
+				faceAxis = 3 + j;
+			}
+		}
+		
+		float edgeSeparation = Float.NEGATIVE_INFINITY;
+		int edgeAxis = -1;
+		float edgeNX = 0.0f, edgeNY = 0.0f, edgeNZ = 0.0f;
+		
+		for(int i = 0; i < 3; i++)
+		{
+			int i1 = (i + 1) % 3;
+			int i2 = (i + 2) % 3;
+			
+			float[] u = ua[i];
+			
+			for(int j = 0; j < 3; j++)
+			{
+				int j1 = (j + 1) % 3;
+				int j2 = (j + 2) % 3;
+				
+				float[] v = ub[j];
+				
+				float nX = u[1] * v[2] - u[2] * v[1];
+				float nY = u[2] * v[0] - u[0] * v[2];
+				float nZ = u[0] * v[1] - u[1] * v[0];
+				
+				float length = Maths.sqrt(nX * nX + nY * nY + nZ * nZ);
+				
+				if(length < PARALLEL_EPSILON) continue;
+				
+				float ra = get(ea, i1) * ar[i2 * 3 + j] + get(ea, i2) * ar[i1 * 3 + j];
+				float rb = get(eb, j1) * ar[i * 3 + j2] + get(eb, j2) * ar[i * 3 + j1];
+				
+				float t = dX * nX + dY * nY + dZ * nZ;
+				float s = (Math.abs(t) - (ra + rb)) / length;
+				
+				if(s > 0.0f) return false;
+				
+				if(s > edgeSeparation)
+				{
+					float sign = t < 0.0f ? -1.0f : 1.0f;
+					float inv = sign / length;
+					
+					edgeSeparation = s;
+					edgeAxis = i * 3 + j;
+					edgeNX = nX * inv;
+					edgeNY = nY * inv;
+					edgeNZ = nZ * inv;
+				}
+			}
+		}
+		
+		if(edgeAxis != -1 && edgeSeparation > EDGE_RELATIVE_TOLERANCE * faceSeparation + EDGE_ABSOLUTE_TOLERANCE)
+		{
+			res.setNormal(edgeNX, edgeNY, edgeNZ, -edgeSeparation);
+			
+			edgeContact(ca, ua, ea, cb, ub, eb, edgeAxis / 3, edgeAxis % 3, edgeNX, edgeNY, edgeNZ, -edgeSeparation, res);
+		}
+		else if(faceAxis < 3)
+		{
+			float[] n = ua[faceAxis];
+			float sign = (faceAxis == 0 ? t0 : faceAxis == 1 ? t1 : t2) < 0.0f ? -1.0f : 1.0f;
+			
+			res.setNormal(n[0] * sign, n[1] * sign, n[2] * sign, -faceSeparation);
+			
+			faceContact(ca, ua, ea, faceAxis, sign, cb, ub, eb, res);
+		}
+		else
+		{
+			int j = faceAxis - 3;
+			
+			float[] n = ub[j];
+			float sign = (dX * n[0] + dY * n[1] + dZ * n[2]) < 0.0f ? -1.0f : 1.0f;
+			
+			res.setNormal(n[0] * sign, n[1] * sign, n[2] * sign, -faceSeparation);
+			
+			// the reference face of b faces a, so its normal is the negated manifold normal.
+			faceContact(cb, ub, eb, j, -sign, ca, ua, ea, res);
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Clips the incident face of box i against the reference face of box r and adds the points below the reference face.
+	 * The reference face is the face of r along the given axis, on the side the sign points to.
+	 */
+	private static void faceContact(Point3f cr, float[][] ur, Vec3f er, int axis, float sign, Point3f ci, float[][] ui, Vec3f ei, ContactManifold3f res)
+	{
+		float[] n = ur[axis];
+		
+		float nX = n[0] * sign;
+		float nY = n[1] * sign;
+		float nZ = n[2] * sign;
+		
+		// the incident face is the face of i most anti-parallel to the reference normal.
+		int incident = 0;
+		float incidentDot = 0.0f;
+		
+		for(int k = 0; k < 3; k++)
+		{
+			float d = nX * ui[k][0] + nY * ui[k][1] + nZ * ui[k][2];
+			
+			if(Math.abs(d) > Math.abs(incidentDot))
+			{
+				incident = k;
+				incidentDot = d;
+			}
+		}
+		
+		float incidentSign = incidentDot > 0.0f ? -1.0f : 1.0f;
+		
+		int k1 = (incident + 1) % 3;
+		int k2 = (incident + 2) % 3;
+		
+		float[] u1 = ui[k1];
+		float[] u2 = ui[k2];
+		
+		float e = get(ei, incident) * incidentSign;
+		float e1 = get(ei, k1);
+		float e2 = get(ei, k2);
+		
+		float fX = ci.getX() + ui[incident][0] * e;
+		float fY = ci.getY() + ui[incident][1] * e;
+		float fZ = ci.getZ() + ui[incident][2] * e;
+		
+		float[] polygon = res.polygon;
+		
+		setVertex(polygon, 0, fX + u1[0] * e1 + u2[0] * e2, fY + u1[1] * e1 + u2[1] * e2, fZ + u1[2] * e1 + u2[2] * e2);
+		setVertex(polygon, 1, fX - u1[0] * e1 + u2[0] * e2, fY - u1[1] * e1 + u2[1] * e2, fZ - u1[2] * e1 + u2[2] * e2);
+		setVertex(polygon, 2, fX - u1[0] * e1 - u2[0] * e2, fY - u1[1] * e1 - u2[1] * e2, fZ - u1[2] * e1 - u2[2] * e2);
+		setVertex(polygon, 3, fX + u1[0] * e1 - u2[0] * e2, fY + u1[1] * e1 - u2[1] * e2, fZ + u1[2] * e1 - u2[2] * e2);
+		
+		// clip against the four side planes of the reference face.
+		int count = 4;
+		
+		int r1 = (axis + 1) % 3;
+		int r2 = (axis + 2) % 3;
+		
+		float[] s1 = ur[r1];
+		float[] s2 = ur[r2];
+		
+		float c1 = cr.getX() * s1[0] + cr.getY() * s1[1] + cr.getZ() * s1[2];
+		float c2 = cr.getX() * s2[0] + cr.getY() * s2[1] + cr.getZ() * s2[2];
+		
+		count = clip(polygon, count, res.clipped, s1, 1.0f, c1 + get(er, r1));
+		count = clip(res.clipped, count, polygon, s1, -1.0f, -c1 + get(er, r1));
+		count = clip(polygon, count, res.clipped, s2, 1.0f, c2 + get(er, r2));
+		count = clip(res.clipped, count, polygon, s2, -1.0f, -c2 + get(er, r2));
+		
+		if(count == 0) return;
+		
+		// keep the points below the reference face.
+		float faceOffset = cr.getX() * nX + cr.getY() * nY + cr.getZ() * nZ + get(er, axis);
+		
+		float[] depths = res.polygonDepths;
+		
+		int kept = 0;
+		int deepest = 0;
+		float deepestDepth = Float.NEGATIVE_INFINITY;
+		
+		for(int k = 0; k < count; k++)
+		{
+			int o = k * 3;
+			
+			float depth = faceOffset - (polygon[o] * nX + polygon[o + 1] * nY + polygon[o + 2] * nZ);
+			
+			if(depth < 0.0f)
+			{
+				if(depth > deepestDepth)
+				{
+					deepestDepth = depth;
+					deepest = k;
+				}
+				
+				continue;
+			}
+			
+			setVertex(polygon, kept, polygon[o], polygon[o + 1], polygon[o + 2]);
+			depths[kept] = depth;
+			kept++;
+		}
+		
+		if(kept == 0)
+		{
+			// rounding, the penetration is below the precision of the clipping.
+			res.addPoint(polygon[deepest * 3], polygon[deepest * 3 + 1], polygon[deepest * 3 + 2], 0.0f);
+			
+			return;
+		}
+		
+		if(kept <= ContactManifold3f.MAX_POINTS)
+		{
+			for(int k = 0; k < kept; k++)
+				res.addPoint(polygon[k * 3], polygon[k * 3 + 1], polygon[k * 3 + 2], depths[k]);
+			
+			return;
+		}
+		
+		reduce(polygon, depths, kept, nX, nY, nZ, res);
+	}
+	
+	/**
+	 * Sutherland-Hodgman clipping of the polygon against the half space sign * dot(p, n) <= offset.
+	 */
+	private static int clip(float[] src, int count, float[] dst, float[] n, float sign, float offset)
+	{
+		if(count == 0) return 0;
+		
+		int out = 0;
+		
+		int prev = (count - 1) * 3;
+		float prevDistance = sign * (src[prev] * n[0] + src[prev + 1] * n[1] + src[prev + 2] * n[2]) - offset;
+		
+		for(int k = 0; k < count; k++)
+		{
+			int o = k * 3;
+			
+			float distance = sign * (src[o] * n[0] + src[o + 1] * n[1] + src[o + 2] * n[2]) - offset;
+			
+			if((prevDistance <= 0.0f) != (distance <= 0.0f))
+			{
+				float t = prevDistance / (prevDistance - distance);
+				
+				setVertex(dst, out++, src[prev] + (src[o] - src[prev]) * t, src[prev + 1] + (src[o + 1] - src[prev + 1]) * t, src[prev + 2] + (src[o + 2] - src[prev + 2]) * t);
+			}
+			
+			if(distance <= 0.0f) setVertex(dst, out++, src[o], src[o + 1], src[o + 2]);
+			
+			prev = o;
+			prevDistance = distance;
+		}
+		
+		return out;
+	}
+	
+	/**
+	 * Selects four of the points that span the largest area: the deepest point, the point farthest from it and the
+	 * points farthest from the line between them on either side.
+	 */
+	private static void reduce(float[] points, float[] depths, int count, float nX, float nY, float nZ, ContactManifold3f res)
+	{
+		int p0 = 0;
+		
+		for(int k = 1; k < count; k++)
+			if(depths[k] > depths[p0]) p0 = k;
+		
+		float x0 = points[p0 * 3], y0 = points[p0 * 3 + 1], z0 = points[p0 * 3 + 2];
+		
+		int p1 = -1;
+		float best = -1.0f;
+		
+		for(int k = 0; k < count; k++)
+		{
+			float x = points[k * 3] - x0, y = points[k * 3 + 1] - y0, z = points[k * 3 + 2] - z0;
+			float d = x * x + y * y + z * z;
+			
+			if(k != p0 && d > best)
+			{
+				best = d;
+				p1 = k;
+			}
+		}
+		
+		float lX = points[p1 * 3] - x0, lY = points[p1 * 3 + 1] - y0, lZ = points[p1 * 3 + 2] - z0;
+		
+		int p2 = -1;
+		int p3 = -1;
+		float max = 0.0f;
+		float min = 0.0f;
+		
+		for(int k = 0; k < count; k++)
+		{
+			if(k == p0 || k == p1) continue;
+			
+			float x = points[k * 3] - x0, y = points[k * 3 + 1] - y0, z = points[k * 3 + 2] - z0;
+			
+			// signed area of the triangle p0 p1 k, seen along the normal.
+			float area = (lY * z - lZ * y) * nX + (lZ * x - lX * z) * nY + (lX * y - lY * x) * nZ;
+			
+			if(area > max)
+			{
+				max = area;
+				p2 = k;
+			}
+			else if(area < min)
+			{
+				min = area;
+				p3 = k;
+			}
+		}
+		
+		res.addPoint(x0, y0, z0, depths[p0]);
+		res.addPoint(points[p1 * 3], points[p1 * 3 + 1], points[p1 * 3 + 2], depths[p1]);
+		if(p2 != -1) res.addPoint(points[p2 * 3], points[p2 * 3 + 1], points[p2 * 3 + 2], depths[p2]);
+		if(p3 != -1) res.addPoint(points[p3 * 3], points[p3 * 3 + 1], points[p3 * 3 + 2], depths[p3]);
+	}
+	
+	/**
+	 * Adds the midpoint between the closest points of the edge of a along the axis i and the edge of b along the axis j
+	 * that are the farthest along the normal respectively against it.
+	 */
+	private static void edgeContact(Point3f ca, float[][] ua, Vec3f ea, Point3f cb, float[][] ub, Vec3f eb, int i, int j, float nX, float nY, float nZ, float depth, ContactManifold3f res)
+	{
+		float aX = ca.getX(), aY = ca.getY(), aZ = ca.getZ();
+		float bX = cb.getX(), bY = cb.getY(), bZ = cb.getZ();
+		
+		for(int k = 0; k < 3; k++)
+		{
+			float[] u = ua[k];
+			float[] v = ub[k];
+			
+			if(k != i)
+			{
+				float e = (u[0] * nX + u[1] * nY + u[2] * nZ) < 0.0f ? -get(ea, k) : get(ea, k);
+				
+				aX += u[0] * e;
+				aY += u[1] * e;
+				aZ += u[2] * e;
+			}
+			
+			if(k != j)
+			{
+				float e = (v[0] * nX + v[1] * nY + v[2] * nZ) > 0.0f ? -get(eb, k) : get(eb, k);
+				
+				bX += v[0] * e;
+				bY += v[1] * e;
+				bZ += v[2] * e;
+			}
+		}
+		
+		float[] u = ua[i];
+		float[] v = ub[j];
+		
+		float dX = bX - aX, dY = bY - aY, dZ = bZ - aZ;
+		
+		float r = dot(u, v);
+		float du = dX * u[0] + dY * u[1] + dZ * u[2];
+		float dv = dX * v[0] + dY * v[1] + dZ * v[2];
+		
+		// the edges are not parallel, otherwise their axis would have been skipped.
+		float denominator = 1.0f - r * r;
+		
+		float s = clamp((du - r * dv) / denominator, get(ea, i));
+		float t = clamp(r * s - dv, get(eb, j));
+		
+		float pX = aX + u[0] * s, pY = aY + u[1] * s, pZ = aZ + u[2] * s;
+		float qX = bX + v[0] * t, qY = bY + v[1] * t, qZ = bZ + v[2] * t;
+		
+		res.addPoint((pX + qX) * 0.5f, (pY + qY) * 0.5f, (pZ + qZ) * 0.5f, depth);
+	}
+	
+	private static float clamp(float value, float extend)
+	{
+		return value < -extend ? -extend : value > extend ? extend : value;
+	}
+	
+	private static float get(Vec3f v, int index)
+	{
+		return index == 0 ? v.getX() : index == 1 ? v.getY() : v.getZ();
+	}
+	
+	private static void setVertex(float[] dst, int index, float x, float y, float z)
+	{
+		int o = index * 3;
+		
+		dst[o] = x;
+		dst[o + 1] = y;
+		dst[o + 2] = z;
+	}
+	
+	private static float dot(float[] a, float[] b)
+	{
+		return a[0] * b[0] + a[1] * b[1] + a[2] * b[2];
+	}
+}
@@ -24,358 +24,176 @@ SOFTWARE.
 
 package org.barghos.math.boundary;
 
-import org.barghos.core.tuple4.Tup4f;
-import org.barghos.core.tuple4.pool.Tup4fPool;
-import org.barghos.math.geometry.PointSet3f;
-import org.barghos.math.matrix.Mat4f;
+import org.barghos.core.exception.ArgumentNullException;
+import org.barghos.math.BarghosMath;
+import org.barghos.math.point.Point3f;
 import org.barghos.math.vec3.Vec3f;
-import org.barghos.math.vec3.pool.Vec3fPool;
 
 public class OBBOBBResolver
 {
+	/**
+	 * Added to the absolute rotation terms to counteract the rounding in the cross product axes of almost parallel edges.
+	 */
+	private static final float EPSILON = 1.0e-6f;
+	
+	/**
+	 * Tests two oriented bounding boxes for intersection with the separating axis theorem.
+	 * The candidate axes are the three face normals of each box and the nine cross products of their edges.
+	 * The test works on the centers, axes and half extends directly, exits at the first separating axis and does not allocate.
+	 * Touching boxes are considered intersecting.
+	 */
 	public static boolean iOBBOBB3f(OBB3f a, OBB3f b)
 	{
-		Vec3f aCenter = a.getCenter(Vec3fPool.get());
-		Vec3f bCenter = b.getCenter(Vec3fPool.get());
-
-		Mat4f modelSpaceA = a.getModelSpaceMatrix();
-		Mat4f modelSpaceB = b.getModelSpaceMatrix();
-		
-		PointSet3f aInSpaceA = a.getTransformedPointSet(modelSpaceA);
-		PointSet3f bInSpaceA = b.getTransformedPointSet(modelSpaceA);
-
-		float aMinX = aInSpaceA.getMinX();
-		float aMaxX = aInSpaceA.getMaxX();
-
-		float bMinX = bInSpaceA.getMinX();
-		float bMaxX = bInSpaceA.getMaxX();
-
-		float aMinY = aInSpaceA.getMinY();
-		float aMaxY = aInSpaceA.getMaxY();
-
-		float bMinY = bInSpaceA.getMinY();
-		float bMaxY = bInSpaceA.getMaxY();
-
-		float aMinZ = aInSpaceA.getMinZ();
-		float aMaxZ = aInSpaceA.getMaxZ();
-
-		float bMinZ = bInSpaceA.getMinZ();
-		float bMaxZ = bInSpaceA.getMaxZ();
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(a == null) throw new ArgumentNullException("a");
+			if(b == null) throw new ArgumentNullException("b");
+		}
 		
-		Tup4f t1 = modelSpaceA.getRow(0, Tup4fPool.get());
-		Tup4f t2 = modelSpaceA.getRow(1, Tup4fPool.get());
-		Tup4f t3 = modelSpaceA.getRow(2, Tup4fPool.get());
+		float[][] ua = a.getModelSpaceRef().m;
+		float[][] ub = b.getModelSpaceRef().m;
 		
-		float aPNX = aCenter.dot(t1);
-		float bPNX = bCenter.dot(t1);
-		float aPNY = aCenter.dot(t2);
-		float bPNY = bCenter.dot(t2);
-		float aPNZ = aCenter.dot(t3);
-		float bPNZ = bCenter.dot(t3);
-
-		if(aPNX < bPNX)
-			if(!(aMaxX > bMinX))
-				return false;
-		else
-			if(!(bMaxX > aMinX))
-				return false;
+		Vec3f aExtend = a.getHalfExtendRef();
+		Vec3f bExtend = b.getHalfExtendRef();
 		
-		if(aPNY < bPNY)
-			if(!(aMaxY > bMinY))
-				return false;
-		else
-			if(!(bMaxY > aMinY))
-				return false;
+		float ea0 = aExtend.getX(), ea1 = aExtend.getY(), ea2 = aExtend.getZ();
+		float eb0 = bExtend.getX(), eb1 = bExtend.getY(), eb2 = bExtend.getZ();
 		
-		if(aPNZ < bPNZ)
-			if(!(aMaxZ > bMinZ))
-				return false;
-		else
-			if(!(bMaxZ > aMinZ))
-				return false;
-
-		PointSet3f aInSpaceB = a.getTransformedPointSet(modelSpaceB);
-		PointSet3f bInSpaceB = b.getTransformedPointSet(modelSpaceB);
+		Point3f aCenter = a.getCenterRef();
+		Point3f bCenter = b.getCenterRef();
 		
-		aMinX = aInSpaceB.getMinX();
-		aMaxX = aInSpaceB.getMaxX();
+		float dX = bCenter.getX() - aCenter.getX();
+		float dY = bCenter.getY() - aCenter.getY();
+		float dZ = bCenter.getZ() - aCenter.getZ();
 		
-		bMinX = bInSpaceB.getMinX();
-		bMaxX = bInSpaceB.getMaxX();
+		// translation in the frame of a
+		float t0 = dX * ua[0][0] + dY * ua[0][1] + dZ * ua[0][2];
+		float t1 = dX * ua[1][0] + dY * ua[1][1] + dZ * ua[1][2];
+		float t2 = dX * ua[2][0] + dY * ua[2][1] + dZ * ua[2][2];
 		
-		aMinY = aInSpaceB.getMinY();
-		aMaxY = aInSpaceB.getMaxY();
+		// rotation of b in the frame of a, the rows are needed one at a time for the face axes of a
+		float r00 = dot(ua[0], ub[0]), r01 = dot(ua[0], ub[1]), r02 = dot(ua[0], ub[2]);
+		float ar00 = Math.abs(r00) + EPSILON, ar01 = Math.abs(r01) + EPSILON, ar02 = Math.abs(r02) + EPSILON;
 		
-		bMinY = bInSpaceB.getMinY();
-		bMaxY = bInSpaceB.getMaxY();
+		if(Math.abs(t0) > ea0 + eb0 * ar00 + eb1 * ar01 + eb2 * ar02) return false;
 		
-		aMinZ = aInSpaceB.getMinZ();
-		aMaxZ = aInSpaceB.getMaxZ();
+		float r10 = dot(ua[1], ub[0]), r11 = dot(ua[1], ub[1]), r12 = dot(ua[1], ub[2]);
+		float ar10 = Math.abs(r10) + EPSILON, ar11 = Math.abs(r11) + EPSILON, ar12 = Math.abs(r12) + EPSILON;
 		
-		bMinZ = bInSpaceB.getMinZ();
-		bMaxZ = bInSpaceB.getMaxZ();
+		if(Math.abs(t1) > ea1 + eb0 * ar10 + eb1 * ar11 + eb2 * ar12) return false;
 		
-		modelSpaceB.getRow(0, t1);
-		modelSpaceB.getRow(1, t2);
-		modelSpaceB.getRow(2, t3);
+		float r20 = dot(ua[2], ub[0]), r21 = dot(ua[2], ub[1]), r22 = dot(ua[2], ub[2]);
+		float ar20 = Math.abs(r20) + EPSILON, ar21 = Math.abs(r21) + EPSILON, ar22 = Math.abs(r22) + EPSILON;
 		
-		aPNX = aCenter.dot(t1);
-		bPNX = bCenter.dot(t1);
-		aPNY = aCenter.dot(t2);
-		bPNY = bCenter.dot(t2);
-		aPNZ = aCenter.dot(t3);
-		bPNZ = bCenter.dot(t3);
+		if(Math.abs(t2) > ea2 + eb0 * ar20 + eb1 * ar21 + eb2 * ar22) return false;
 		
-		if(aPNX < bPNX)
-			if(!(aMaxX > bMinX))
-				return false;
-		else
-			if(!(bMaxX > aMinX))
-				return false;
+		// face axes of b
+		if(Math.abs(t0 * r00 + t1 * r10 + t2 * r20) > ea0 * ar00 + ea1 * ar10 + ea2 * ar20 + eb0) return false;
+		if(Math.abs(t0 * r01 + t1 * r11 + t2 * r21) > ea0 * ar01 + ea1 * ar11 + ea2 * ar21 + eb1) return false;
+		if(Math.abs(t0 * r02 + t1 * r12 + t2 * r22) > ea0 * ar02 + ea1 * ar12 + ea2 * ar22 + eb2) return false;
 		
-		if(aPNY < bPNY)
-			if(!(aMaxY > bMinY))
-				return false;
-		else
-			if(!(bMaxY > aMinY))
-				return false;
+		// edge axes a[i] x b[j]
+		if(Math.abs(t2 * r10 - t1 * r20) > ea1 * ar20 + ea2 * ar10 + eb1 * ar02 + eb2 * ar01) return false;
+		if(Math.abs(t2 * r11 - t1 * r21) > ea1 * ar21 + ea2 * ar11 + eb0 * ar02 + eb2 * ar00) return false;
+		if(Math.abs(t2 * r12 - t1 * r22) > ea1 * ar22 + ea2 * ar12 + eb0 * ar01 + eb1 * ar00) return false;
 		
-		if(aPNZ < bPNZ)
-			if(!(aMaxZ > bMinZ))
-				return false;
-		else
-			if(!(bMaxZ > aMinZ))
-				return false;
+		if(Math.abs(t0 * r20 - t2 * r00) > ea0 * ar20 + ea2 * ar00 + eb1 * ar12 + eb2 * ar11) return false;
+		if(Math.abs(t0 * r21 - t2 * r01) > ea0 * ar21 + ea2 * ar01 + eb0 * ar12 + eb2 * ar10) return false;
+		if(Math.abs(t0 * r22 - t2 * r02) > ea0 * ar22 + ea2 * ar02 + eb0 * ar11 + eb1 * ar10) return false;
 		
-		Vec3fPool.store(aCenter, bCenter);
-		Tup4fPool.store(t1, t2, t3);
+		if(Math.abs(t1 * r00 - t0 * r10) > ea0 * ar10 + ea1 * ar00 + eb1 * ar22 + eb2 * ar21) return false;
+		if(Math.abs(t1 * r01 - t0 * r11) > ea0 * ar11 + ea1 * ar01 + eb0 * ar22 + eb2 * ar20) return false;
+		if(Math.abs(t1 * r02 - t0 * r12) > ea0 * ar12 + ea1 * ar02 + eb0 * ar21 + eb1 * ar20) return false;
 		
 		return true;
 	}
 	
 	public static Vec3f rOBBOBB3f(OBB3f a, OBB3f b)
 	{
-		Vec3f aCenter = a.getCenter(Vec3fPool.get());
-		Vec3f bCenter = b.getCenter(Vec3fPool.get());
-		
-		Mat4f modelSpaceA = a.getModelSpaceMatrix();
-
-		PointSet3f aInSpaceA = a.getTransformedPointSet(modelSpaceA);
-		PointSet3f bInSpaceA = b.getTransformedPointSet(modelSpaceA);
-		
-		float aMinX = aInSpaceA.getMinX();
-		float aMaxX = aInSpaceA.getMaxX();
-		
-		float bMinX = bInSpaceA.getMinX();
-		float bMaxX = bInSpaceA.getMaxX();
-		
-		float aMinY = aInSpaceA.getMinY();
-		float aMaxY = aInSpaceA.getMaxY();
-		
-		float bMinY = bInSpaceA.getMinY();
-		float bMaxY = bInSpaceA.getMaxY();
-		
-		float aMinZ = aInSpaceA.getMinZ();
-		float aMaxZ = aInSpaceA.getMaxZ();
-		
-		float bMinZ = bInSpaceA.getMinZ();
-		float bMaxZ = bInSpaceA.getMaxZ();
-
-		Tup4f t1 = modelSpaceA.getRow(0, Tup4fPool.get());
-		Tup4f t2 = modelSpaceA.getRow(1, Tup4fPool.get());
-		Tup4f t3 = modelSpaceA.getRow(2, Tup4fPool.get());
-		
-		float aPNX = aCenter.dot(t1);
-		float bPNX = bCenter.dot(t1);
-		float aPNY = aCenter.dot(t2);
-		float bPNY = bCenter.dot(t2);
-		float aPNZ = aCenter.dot(t3);
-		float bPNZ = bCenter.dot(t3);
-		
-		float valAX = 0;
-		int signAX = 0;
-		float valAY = 0;
-		int signAY = 0;
-		float valAZ = 0;
-		int signAZ = 0;
-		float valBX = 0;
-		int signBX = 0;
-		float valBY = 0;
-		int signBY = 0;
-		float valBZ = 0;
-		int signBZ = 0;
-		
-		if(aPNX < bPNX)
-			if(aMaxX > bMinX)
-			{
-				valAX = aMaxX - bMinX;
-				signAX = -1;
-			}
-			else
-				return new Vec3f();
-		else
-			if(bMaxX > aMinX)
-			{
-				valAX = bMaxX - aMinX;
-				signAX = 1;
-			}
-			else
-				return new Vec3f();
-		
-		if(aPNY < bPNY)
-			if(aMaxY > bMinY)
-			{
-				valAY = aMaxY - bMinY;
-				signAY = -1;
-			}
-			else
-				return new Vec3f();
-		else
-			if(bMaxY > aMinY)
-			{
-				valAY = bMaxY - aMinY;
-				signAY = 1;
-			}
-			else
-				return new Vec3f();
-		
-		if(aPNZ < bPNZ)
-			if(aMaxZ > bMinZ)
-			{
-				valAZ = aMaxZ - bMinZ;
-				signAZ = -1;
-			}
-			else
-				return new Vec3f();
-		else
-			if(bMaxZ > aMinZ)
-			{
-				valAZ = bMaxZ - aMinZ;
-				signAZ = 1;
-			}
-			else
-				return new Vec3f();
-		
-		Mat4f modelSpaceB = b.getModelSpaceMatrix();
-		
-		PointSet3f aInSpaceB = a.getTransformedPointSet(modelSpaceB);
-		PointSet3f bInSpaceB = b.getTransformedPointSet(modelSpaceB);
-		
-		aMinX = aInSpaceB.getMinX();
-		aMaxX = aInSpaceB.getMaxX();
-		
-		bMinX = bInSpaceB.getMinX();
-		bMaxX = bInSpaceB.getMaxX();
-		
-		aMinY = aInSpaceB.getMinY();
-		aMaxY = aInSpaceB.getMaxY();
-		
-		bMinY = bInSpaceB.getMinY();
-		bMaxY = bInSpaceB.getMaxY();
-		
-		aMinZ = aInSpaceB.getMinZ();
-		aMaxZ = aInSpaceB.getMaxZ();
+		return rOBBOBB3f(a, b, new Vec3f());
+	}
+	
+	/**
+	 * Calculates the shortest of the overlaps of the two boxes along the face axes of both boxes and writes it into res,
+	 * or the zero vector if one of these axes separates them.
+	 * The extents along the axes are projected from the centers, axes and half extends directly, so nothing is allocated.
+	 */
+	public static Vec3f rOBBOBB3f(OBB3f a, OBB3f b, Vec3f res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(a == null) throw new ArgumentNullException("a");
+			if(b == null) throw new ArgumentNullException("b");
+			if(res == null) throw new ArgumentNullException("res");
+		}
 		
-		bMinZ = bInSpaceB.getMinZ();
-		bMaxZ = bInSpaceB.getMaxZ();
+		float[][] ua = a.getModelSpaceRef().m;
+		float[][] ub = b.getModelSpaceRef().m;
 		
-		modelSpaceB.getRow(0, t1);
-		modelSpaceB.getRow(1, t2);
-		modelSpaceB.getRow(2, t3);
+		Vec3f aExtend = a.getHalfExtendRef();
+		Vec3f bExtend = b.getHalfExtendRef();
 		
-		aPNX = aCenter.dot(t1);
-		bPNX = bCenter.dot(t1);
-		aPNY = aCenter.dot(t2);
-		bPNY = bCenter.dot(t2);
-		aPNZ = aCenter.dot(t3);
-		bPNZ = bCenter.dot(t3);
+		Point3f aCenter = a.getCenterRef();
+		Point3f bCenter = b.getCenterRef();
 		
-		if(aPNX < bPNX)
-			if(aMaxX > bMinX)
-			{
-				valBX = aMaxX - bMinX;
-				signBX = -1;
-			}
-			else
-				return new Vec3f();
-		else
-			if(bMaxX > aMinX)
-			{
-				valBX = bMaxX - aMinX;
-				signBX = 1;
-			}
-			else
-				return new Vec3f();
-
-		if(aPNY < bPNY)
-			if(aMaxY > bMinY)
-			{
-				valBY = aMaxY - bMinY;
-				signBY = -1;
-			}
-			else
-				return new Vec3f();
-		else
-			if(bMaxY > aMinY)
-			{
-				valBY = bMaxY - aMinY;
-				signBY = 1;
-			}
-			else
-				return new Vec3f();
+		float minSquaredLength = Float.MAX_VALUE;
+		float x = 0.0f, y = 0.0f, z = 0.0f;
 		
-		if(aPNZ < bPNZ)
-			if(aMaxZ > bMinZ)
+		for(int i = 0; i < 6; i++)
+		{
+			float[] axis = i < 3 ? ua[i] : ub[i - 3];
+			
+			float aProjection = aCenter.getX() * axis[0] + aCenter.getY() * axis[1] + aCenter.getZ() * axis[2];
+			float bProjection = bCenter.getX() * axis[0] + bCenter.getY() * axis[1] + bCenter.getZ() * axis[2];
+			
+			float aRadius = radius(aExtend, ua, axis);
+			float bRadius = radius(bExtend, ub, axis);
+			
+			float overlap;
+			
+			if(aProjection < bProjection)
 			{
-				valBZ = aMaxZ - bMinZ;
-				signBZ = -1;
+				overlap = (aProjection + aRadius) - (bProjection - bRadius);
+				
+				if(overlap <= 0.0f) return res.set(0.0f, 0.0f, 0.0f);
+				
+				overlap = -overlap;
 			}
 			else
-				return new Vec3f();
-		else
-			if(bMaxZ > aMinZ)
 			{
-				valBZ = bMaxZ - aMinZ;
-				signBZ = 1;
+				overlap = (bProjection + bRadius) - (aProjection - aRadius);
+				
+				if(overlap <= 0.0f) return res.set(0.0f, 0.0f, 0.0f);
 			}
-			else
-				return new Vec3f();
-		
-		Vec3f[] v = new Vec3f[6];
-
-		Vec3f axisAX = new Vec3f(modelSpaceA.getRow(0).getX(), modelSpaceA.getRow(0).getY(), modelSpaceA.getRow(0).getZ());
-		Vec3f axisAY = new Vec3f(modelSpaceA.getRow(1).getX(), modelSpaceA.getRow(1).getY(), modelSpaceA.getRow(1).getZ());
-		Vec3f axisAZ = new Vec3f(modelSpaceA.getRow(2).getX(), modelSpaceA.getRow(2).getY(), modelSpaceA.getRow(2).getZ());
-		Vec3f axisBX = new Vec3f(modelSpaceB.getRow(0).getX(), modelSpaceB.getRow(0).getY(), modelSpaceB.getRow(0).getZ());
-		Vec3f axisBY = new Vec3f(modelSpaceB.getRow(1).getX(), modelSpaceB.getRow(1).getY(), modelSpaceB.getRow(1).getZ());
-		Vec3f axisBZ = new Vec3f(modelSpaceB.getRow(2).getX(), modelSpaceB.getRow(2).getY(), modelSpaceB.getRow(2).getZ());
-		
-		v[0] = axisAX.mul(valAX * signAX);
-		v[1] = axisAY.mul(valAY * signAY);
-		v[2] = axisAZ.mul(valAZ * signAZ);
-		
-		v[3] = axisBX.mul(valBX * signBX);
-		v[4] = axisBY.mul(valBY * signBY);
-		v[5] = axisBZ.mul(valBZ * signBZ);
-		
-		int index = 0;
-		double min = Double.MAX_VALUE;
-		
-		for(int i = 0; i < 6; i++)
-		{
-			Vec3f c = v[i];
-			double sq = c.squaredLength();
 			
-			if(sq < min)
+			float oX = axis[0] * overlap;
+			float oY = axis[1] * overlap;
+			float oZ = axis[2] * overlap;
+			
+			float squaredLength = oX * oX + oY * oY + oZ * oZ;
+			
+			if(squaredLength < minSquaredLength)
 			{
-				min = sq;
-				index = i;
+				minSquaredLength = squaredLength;
+				x = oX;
+				y = oY;
+				z = oZ;
 			}
 		}
 		
-		Vec3fPool.store(aCenter, bCenter);
-		Tup4fPool.store(t1, t2, t3);
-		
-		return v[index];
+		return res.set(x, y, z);
+	}
+	
+	/**
+	 * Returns the half length of the projection of a box with the given half extends and axes onto the axis.
+	 */
+	private static float radius(Vec3f extend, float[][] axes, float[] axis)
+	{
+		return extend.getX() * Math.abs(dot(axes[0], axis)) + extend.getY() * Math.abs(dot(axes[1], axis)) + extend.getZ() * Math.abs(dot(axes[2], axis));
+	}
+	
+	private static float dot(float[] a, float[] b)
+	{
+		return a[0] * b[0] + a[1] * b[1] + a[2] * b[2];
 	}
 }
@@ -0,0 +1,1009 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.broadphase;
+
+import java.util.Arrays;
+
+import org.barghos.core.exception.ArgumentNullException;
+import org.barghos.core.tuple3.api.Tup3fR;
+import org.barghos.math.BarghosMath;
+import org.barghos.math.boundary.AABB3f;
+
+/**
+ * A dynamic bounding volume hierarchy of axis aligned boxes for the broad phase.
+ * 
+ * Every object is a leaf identified by an integer proxy, which is returned on insertion and stays valid until the
+ * object is removed. The leaves store a fat box, the box of the object grown by a margin and the predicted motion,
+ * so that small movements do not change the tree. If an object leaves its fat box, {@link #move(int, AABB3f, float, float, float)}
+ * reinserts it. New leaves are placed by the surface area heuristic, and the nodes along the path to the root are
+ * rotated wherever swapping a child with a grandchild reduces the surface area of the tree.
+ * 
+ * The nodes live in flat arrays indexed by the proxies and are recycled through a free list, so inserting, moving and
+ * querying do not allocate once the arrays have grown to the size of the scene.
+ * This class is not thread-safe, not even for concurrent queries.
+ * 
+ * The callbacks of {@link #query(AABB3f, QueryCallback)}, {@link #queryFrustum(float[], int, QueryCallback)} and
+ * {@link #raycast(Tup3fR, Tup3fR, float, RayCallback)} must not query the tree, as these share one traversal stack.
+ * The callback of {@link #queryPairs(PairCallback)} has a stack of its own and may run any of them, for example to
+ * gather the neighbours of a pair. No callback may insert, move or remove objects.
+ * 
+ * @author picatrix1899
+ */
+public class DynamicAABBTree3f
+{
+	public static final int DEFAULT_CAPACITY = 16;
+	
+	public static final float DEFAULT_MARGIN = 0.1f;
+	
+	/**
+	 * The displacement passed to {@link #move(int, AABB3f, float, float, float)} is multiplied by this factor
+	 * before the fat box is extended by it.
+	 */
+	public static final float DISPLACEMENT_MULTIPLIER = 4.0f;
+	
+	/**
+	 * The proxy that refers to no node.
+	 */
+	public static final int NULL = -1;
+	
+	private static final int BOUNDS = 6;
+	
+	private final float margin;
+	
+	private int capacity;
+	private int nodeCount;
+	private int leafCount;
+	private int root = NULL;
+	private int freeList = NULL;
+	
+	/*
+	 * Per node: the box as minX, minY, minZ, maxX, maxY, maxZ, the parent or the next free node, the two children,
+	 * the height (0 for leaves, -1 for free nodes) and the user data of leaves.
+	 */
+	private float[] bounds;
+	private int[] parents;
+	private int[] children;
+	private int[] heights;
+	private int[] userData;
+	
+	private int[] stack = new int[64];
+	private int[] pairStack = new int[64];
+	
+	public DynamicAABBTree3f()
+	{
+		this(DEFAULT_CAPACITY, DEFAULT_MARGIN);
+	}
+	
+	public DynamicAABBTree3f(int capacity, float margin)
+	{
+		if(capacity < 1) throw new IllegalArgumentException("The capacity must be positive.");
+		if(margin < 0.0f) throw new IllegalArgumentException("The margin must not be negative.");
+		
+		this.margin = margin;
+		
+		this.bounds = new float[0];
+		this.parents = new int[0];
+		this.children = new int[0];
+		this.heights = new int[0];
+		this.userData = new int[0];
+		
+		grow(capacity);
+	}
+	
+	/**
+	 * Inserts an object with the given box and returns its proxy.
+	 */
+	public int insert(AABB3f aabb, int userData)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(aabb == null) throw new ArgumentNullException("aabb");
+		}
+		
+		return insert(aabb.getMinX(), aabb.getMinY(), aabb.getMinZ(), aabb.getMaxX(), aabb.getMaxY(), aabb.getMaxZ(), userData);
+	}
+	
+	/**
+	 * Inserts an object with the given box and returns its proxy.
+	 */
+	public int insert(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, int userData)
+	{
+		int leaf = allocateNode();
+		
+		float m = this.margin;
+		
+		setBounds(leaf, minX - m, minY - m, minZ - m, maxX + m, maxY + m, maxZ + m);
+		
+		this.userData[leaf] = userData;
+		
+		insertLeaf(leaf);
+		
+		this.leafCount++;
+		
+		return leaf;
+	}
+	
+	/**
+	 * Removes the object with the given proxy. The proxy must not be used anymore, it is reused by later insertions.
+	 */
+	public void remove(int proxy)
+	{
+		checkProxy(proxy);
+		
+		removeLeaf(proxy);
+		freeNode(proxy);
+		
+		this.leafCount--;
+	}
+	
+	/**
+	 * Updates the box of the object with the given proxy.
+	 * 
+	 * @return True if the object left its fat box and was reinserted.
+	 */
+	public boolean move(int proxy, AABB3f aabb)
+	{
+		return move(proxy, aabb, 0.0f, 0.0f, 0.0f);
+	}
+	
+	/**
+	 * Updates the box of the object with the given proxy. The displacement is the movement of the object since
+	 * the last update and is used to extend the fat box in the direction the object moves.
+	 * 
+	 * @return True if the object left its fat box and was reinserted.
+	 */
+	public boolean move(int proxy, AABB3f aabb, Tup3fR displacement)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(displacement == null) throw new ArgumentNullException("displacement");
+		}
+		
+		return move(proxy, aabb, displacement.getX(), displacement.getY(), displacement.getZ());
+	}
+	
+	/**
+	 * Updates the box of the object with the given proxy. The displacement is the movement of the object since
+	 * the last update and is used to extend the fat box in the direction the object moves.
+	 * 
+	 * @return True if the object left its fat box and was reinserted.
+	 */
+	public boolean move(int proxy, AABB3f aabb, float dX, float dY, float dZ)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(aabb == null) throw new ArgumentNullException("aabb");
+		}
+		
+		return move(proxy, aabb.getMinX(), aabb.getMinY(), aabb.getMinZ(), aabb.getMaxX(), aabb.getMaxY(), aabb.getMaxZ(), dX, dY, dZ);
+	}
+	
+	/**
+	 * Updates the box of the object with the given proxy. The displacement is the movement of the object since
+	 * the last update and is used to extend the fat box in the direction the object moves.
+	 * 
+	 * @return True if the object left its fat box and was reinserted.
+	 */
+	public boolean move(int proxy, float minX, float minY, float minZ, float maxX, float maxY, float maxZ, float dX, float dY, float dZ)
+	{
+		checkProxy(proxy);
+		
+		float m = this.margin;
+		
+		float fMinX = minX - m, fMinY = minY - m, fMinZ = minZ - m;
+		float fMaxX = maxX + m, fMaxY = maxY + m, fMaxZ = maxZ + m;
+		
+		dX *= DISPLACEMENT_MULTIPLIER;
+		dY *= DISPLACEMENT_MULTIPLIER;
+		dZ *= DISPLACEMENT_MULTIPLIER;
+		
+		if(dX < 0.0f) fMinX += dX; else fMaxX += dX;
+		if(dY < 0.0f) fMinY += dY; else fMaxY += dY;
+		if(dZ < 0.0f) fMinZ += dZ; else fMaxZ += dZ;
+		
+		float[] b = this.bounds;
+		int o = proxy * BOUNDS;
+		
+		if(b[o] <= minX && b[o + 1] <= minY && b[o + 2] <= minZ && b[o + 3] >= maxX && b[o + 4] >= maxY && b[o + 5] >= maxZ)
+		{
+			// still inside, unless the fat box has become much larger than needed, for example after the object stopped.
+			float h = 4.0f * m;
+			
+			if(b[o] >= fMinX - h && b[o + 1] >= fMinY - h && b[o + 2] >= fMinZ - h && b[o + 3] <= fMaxX + h && b[o + 4] <= fMaxY + h && b[o + 5] <= fMaxZ + h)
+				return false;
+		}
+		
+		removeLeaf(proxy);
+		
+		setBounds(proxy, fMinX, fMinY, fMinZ, fMaxX, fMaxY, fMaxZ);
+		
+		insertLeaf(proxy);
+		
+		return true;
+	}
+	
+	public int getUserData(int proxy)
+	{
+		checkProxy(proxy);
+		
+		return this.userData[proxy];
+	}
+	
+	/**
+	 * Returns the fat box of the object with the given proxy.
+	 */
+	public AABB3f getFatAABB(int proxy, AABB3f res)
+	{
+		checkProxy(proxy);
+		
+		if(res == null) res = new AABB3f();
+		
+		int o = proxy * BOUNDS;
+		
+		return res.set(this.bounds[o], this.bounds[o + 1], this.bounds[o + 2], this.bounds[o + 3], this.bounds[o + 4], this.bounds[o + 5]);
+	}
+	
+	/**
+	 * Returns the number of objects in the tree.
+	 */
+	public int size()
+	{
+		return this.leafCount;
+	}
+	
+	/**
+	 * Returns the height of the tree, 0 for a single object and -1 for an empty tree.
+	 */
+	public int getHeight()
+	{
+		return this.root == NULL ? -1 : this.heights[this.root];
+	}
+	
+	/**
+	 * Returns the summed surface area of all nodes divided by the surface area of the root,
+	 * which is the expected number of nodes visited by a random query and a measure of the quality of the tree.
+	 */
+	public float getAreaRatio()
+	{
+		if(this.root == NULL) return 0.0f;
+		
+		float total = 0.0f;
+		
+		for(int i = 0; i < this.capacity; i++)
+			if(this.heights[i] >= 0) total += area(i);
+		
+		return total / area(this.root);
+	}
+	
+	/**
+	 * Reports every object whose fat box overlaps the given box, until the callback returns false.
+	 */
+	public void query(AABB3f aabb, QueryCallback callback)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(aabb == null) throw new ArgumentNullException("aabb");
+		}
+		
+		query(aabb.getMinX(), aabb.getMinY(), aabb.getMinZ(), aabb.getMaxX(), aabb.getMaxY(), aabb.getMaxZ(), callback);
+	}
+	
+	/**
+	 * Reports every object whose fat box overlaps the given box, until the callback returns false.
+	 */
+	public void query(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, QueryCallback callback)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(callback == null) throw new ArgumentNullException("callback");
+		}
+		
+		if(this.root == NULL) return;
+		
+		int[] stack = this.stack;
+		int top = 0;
+		
+		stack[top++] = this.root;
+		
+		while(top > 0)
+		{
+			int node = stack[--top];
+			
+			if(!overlaps(node, minX, minY, minZ, maxX, maxY, maxZ)) continue;
+			
+			if(this.heights[node] == 0)
+			{
+				if(!callback.report(node)) return;
+			}
+			else
+			{
+				if(top + 2 > stack.length) this.stack = stack = Arrays.copyOf(stack, stack.length * 2);
+				
+				stack[top++] = this.children[node * 2];
+				stack[top++] = this.children[node * 2 + 1];
+			}
+		}
+	}
+	
+	/**
+	 * Writes the proxies of all objects whose fat box overlaps the given box into res and returns their number.
+	 * If res is too small, only the first res.length proxies are written, but the returned number is still the total.
+	 */
+	public int query(AABB3f aabb, int[] res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(aabb == null) throw new ArgumentNullException("aabb");
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		if(this.root == NULL) return 0;
+		
+		float minX = aabb.getMinX(), minY = aabb.getMinY(), minZ = aabb.getMinZ();
+		float maxX = aabb.getMaxX(), maxY = aabb.getMaxY(), maxZ = aabb.getMaxZ();
+		
+		int count = 0;
+		
+		int[] stack = this.stack;
+		int top = 0;
+		
+		stack[top++] = this.root;
+		
+		while(top > 0)
+		{
+			int node = stack[--top];
+			
+			if(!overlaps(node, minX, minY, minZ, maxX, maxY, maxZ)) continue;
+			
+			if(this.heights[node] == 0)
+			{
+				if(count < res.length) res[count] = node;
+				count++;
+			}
+			else
+			{
+				if(top + 2 > stack.length) this.stack = stack = Arrays.copyOf(stack, stack.length * 2);
+				
+				stack[top++] = this.children[node * 2];
+				stack[top++] = this.children[node * 2 + 1];
+			}
+		}
+		
+		return count;
+	}
+	
+	/**
+	 * Reports every pair of objects whose fat boxes overlap exactly once, with the smaller proxy first.
+	 * The pairs are found by a simultaneous descent of the tree against itself instead of one query per object.
+	 * The callback may query the tree, but must not modify it.
+	 */
+	public void queryPairs(PairCallback callback)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(callback == null) throw new ArgumentNullException("callback");
+		}
+		
+		if(this.root == NULL) return;
+		
+		int[] heights = this.heights;
+		int[] children = this.children;
+		
+		int[] stack = this.pairStack;
+		int top = 0;
+		
+		stack[top++] = this.root;
+		stack[top++] = this.root;
+		
+		while(top > 0)
+		{
+			int b = stack[--top];
+			int a = stack[--top];
+			
+			if(top + 6 > stack.length) this.pairStack = stack = Arrays.copyOf(stack, stack.length * 2);
+			
+			if(a == b)
+			{
+				// the pairs within one subtree: within each child and between the children.
+				if(heights[a] == 0) continue;
+				
+				int l = children[a * 2];
+				int r = children[a * 2 + 1];
+				
+				stack[top++] = l;
+				stack[top++] = l;
+				stack[top++] = r;
+				stack[top++] = r;
+				stack[top++] = l;
+				stack[top++] = r;
+				
+				continue;
+			}
+			
+			if(!overlaps(a, b)) continue;
+			
+			boolean leafA = heights[a] == 0;
+			boolean leafB = heights[b] == 0;
+			
+			if(leafA && leafB)
+			{
+				if(a < b)
+					callback.report(a, b);
+				else
+					callback.report(b, a);
+			}
+			else if(leafB || !leafA && area(a) > area(b))
+			{
+				stack[top++] = children[a * 2];
+				stack[top++] = b;
+				stack[top++] = children[a * 2 + 1];
+				stack[top++] = b;
+			}
+			else
+			{
+				stack[top++] = a;
+				stack[top++] = children[b * 2];
+				stack[top++] = a;
+				stack[top++] = children[b * 2 + 1];
+			}
+		}
+	}
+	
+	/**
+	 * Casts the ray origin + t * direction for t in [0, maxFraction] against the fat boxes.
+	 * The callback is called for every object whose fat box is hit within the current maximum fraction and returns
+	 * the new maximum: 0 to stop, the fraction of an exact hit to clip the ray, or the passed maximum to continue unchanged.
+	 */
+	public void raycast(Tup3fR origin, Tup3fR direction, float maxFraction, RayCallback callback)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(origin == null) throw new ArgumentNullException("origin");
+			if(direction == null) throw new ArgumentNullException("direction");
+		}
+		
+		raycast(origin.getX(), origin.getY(), origin.getZ(), direction.getX(), direction.getY(), direction.getZ(), maxFraction, callback);
+	}
+	
+	/**
+	 * Casts the ray origin + t * direction for t in [0, maxFraction] against the fat boxes.
+	 * The callback is called for every object whose fat box is hit within the current maximum fraction and returns
+	 * the new maximum: 0 to stop, the fraction of an exact hit to clip the ray, or the passed maximum to continue unchanged.
+	 */
+	public void raycast(float oX, float oY, float oZ, float dX, float dY, float dZ, float maxFraction, RayCallback callback)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(callback == null) throw new ArgumentNullException("callback");
+		}
+		
+		if(this.root == NULL) return;
+		
+		float invX = 1.0f / dX;
+		float invY = 1.0f / dY;
+		float invZ = 1.0f / dZ;
+		
+		int[] stack = this.stack;
+		int top = 0;
+		
+		stack[top++] = this.root;
+		
+		while(top > 0)
+		{
+			int node = stack[--top];
+			
+			if(!hits(node, oX, oY, oZ, dX, dY, dZ, invX, invY, invZ, maxFraction)) continue;
+			
+			if(this.heights[node] == 0)
+			{
+				float value = callback.report(node, maxFraction);
+				
+				if(value == 0.0f) return;
+				if(value < maxFraction) maxFraction = value;
+			}
+			else
+			{
+				if(top + 2 > stack.length) this.stack = stack = Arrays.copyOf(stack, stack.length * 2);
+				
+				stack[top++] = this.children[node * 2];
+				stack[top++] = this.children[node * 2 + 1];
+			}
+		}
+	}
+	
+	/**
+	 * Reports every object whose fat box is at least partially inside all of the given planes, until the callback returns false.
+	 * The planes are stored as (a, b, c, d) each, with a point p inside if a * p.x + b * p.y + c * p.z + d >= 0, like the
+	 * result of {@link org.barghos.math.matrix.Mat4f#getFrustumPlanes(float[])}. Subtrees that are completely inside are
+	 * reported without further tests.
+	 */
+	public void queryFrustum(float[] planes, int planeCount, QueryCallback callback)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(planes == null) throw new ArgumentNullException("planes");
+			if(callback == null) throw new ArgumentNullException("callback");
+			if(planes.length < planeCount * 4) throw new IllegalArgumentException("The planes array is too small for the plane count.");
+		}
+		
+		if(this.root == NULL) return;
+		
+		float[] b = this.bounds;
+		
+		int[] stack = this.stack;
+		int top = 0;
+		
+		stack[top++] = this.root;
+		
+		while(top > 0)
+		{
+			int entry = stack[--top];
+			
+			// entries of subtrees that are completely inside are stored complemented.
+			boolean inside = entry < 0;
+			int node = inside ? ~entry : entry;
+			
+			if(!inside)
+			{
+				int o = node * BOUNDS;
+				
+				boolean outside = false;
+				inside = true;
+				
+				for(int p = 0; p < planeCount; p++)
+				{
+					float a = planes[p * 4], c = planes[p * 4 + 1], e = planes[p * 4 + 2], d = planes[p * 4 + 3];
+					
+					// the corners farthest along and against the plane normal.
+					float far = a * (a > 0.0f ? b[o + 3] : b[o]) + c * (c > 0.0f ? b[o + 4] : b[o + 1]) + e * (e > 0.0f ? b[o + 5] : b[o + 2]) + d;
+					
+					if(far < 0.0f)
+					{
+						outside = true;
+						break;
+					}
+					
+					float near = a * (a > 0.0f ? b[o] : b[o + 3]) + c * (c > 0.0f ? b[o + 1] : b[o + 4]) + e * (e > 0.0f ? b[o + 2] : b[o + 5]) + d;
+					
+					if(near < 0.0f) inside = false;
+				}
+				
+				if(outside) continue;
+			}
+			
+			if(this.heights[node] == 0)
+			{
+				if(!callback.report(node)) return;
+			}
+			else
+			{
+				if(top + 2 > stack.length) this.stack = stack = Arrays.copyOf(stack, stack.length * 2);
+				
+				int l = this.children[node * 2];
+				int r = this.children[node * 2 + 1];
+				
+				stack[top++] = inside ? ~l : l;
+				stack[top++] = inside ? ~r : r;
+			}
+		}
+	}
+	
+	private void insertLeaf(int leaf)
+	{
+		if(this.root == NULL)
+		{
+			this.root = leaf;
+			this.parents[leaf] = NULL;
+			
+			return;
+		}
+		
+		// descend to the sibling with the lowest cost by the surface area heuristic.
+		int index = this.root;
+		
+		while(this.heights[index] > 0)
+		{
+			int c1 = this.children[index * 2];
+			int c2 = this.children[index * 2 + 1];
+			
+			float area = area(index);
+			float combinedArea = unionArea(index, leaf);
+			
+			// the cost of a new parent for this node and the leaf, and the growth this node would have to absorb otherwise.
+			float cost = 2.0f * combinedArea;
+			float inheritance = 2.0f * (combinedArea - area);
+			
+			float cost1 = descentCost(c1, leaf) + inheritance;
+			float cost2 = descentCost(c2, leaf) + inheritance;
+			
+			if(cost < cost1 && cost < cost2) break;
+			
+			index = cost1 < cost2 ? c1 : c2;
+		}
+		
+		int sibling = index;
+		
+		int oldParent = this.parents[sibling];
+		int newParent = allocateNode();
+		
+		int[] parents = this.parents;
+		int[] children = this.children;
+		
+		parents[newParent] = oldParent;
+		this.heights[newParent] = this.heights[sibling] + 1;
+		
+		union(newParent, sibling, leaf);
+		
+		if(oldParent == NULL)
+			this.root = newParent;
+		else
+			children[oldParent * 2 + (children[oldParent * 2] == sibling ? 0 : 1)] = newParent;
+		
+		children[newParent * 2] = sibling;
+		children[newParent * 2 + 1] = leaf;
+		
+		parents[sibling] = newParent;
+		parents[leaf] = newParent;
+		
+		refit(newParent);
+	}
+	
+	private void removeLeaf(int leaf)
+	{
+		if(leaf == this.root)
+		{
+			this.root = NULL;
+			
+			return;
+		}
+		
+		int[] parents = this.parents;
+		int[] children = this.children;
+		
+		int parent = parents[leaf];
+		int grandParent = parents[parent];
+		int sibling = children[parent * 2] == leaf ? children[parent * 2 + 1] : children[parent * 2];
+		
+		freeNode(parent);
+		
+		parents[sibling] = grandParent;
+		
+		if(grandParent == NULL)
+		{
+			this.root = sibling;
+			
+			return;
+		}
+		
+		children[grandParent * 2 + (children[grandParent * 2] == parent ? 0 : 1)] = sibling;
+		
+		refit(grandParent);
+	}
+	
+	/**
+	 * Recalculates the boxes and heights from the given node up to the root and rotates every node on the way.
+	 */
+	private void refit(int index)
+	{
+		while(index != NULL)
+		{
+			int c1 = this.children[index * 2];
+			int c2 = this.children[index * 2 + 1];
+			
+			union(index, c1, c2);
+			this.heights[index] = 1 + Math.max(this.heights[c1], this.heights[c2]);
+			
+			rotate(index);
+			
+			index = this.parents[index];
+		}
+	}
+	
+	/**
+	 * Swaps a child of the node with a child of its other child if that reduces the surface area of the
+	 * changed child. The box of the node itself is not affected.
+	 */
+	private void rotate(int a)
+	{
+		int[] heights = this.heights;
+		int[] children = this.children;
+		
+		int b = children[a * 2];
+		int c = children[a * 2 + 1];
+		
+		boolean leafB = heights[b] == 0;
+		boolean leafC = heights[c] == 0;
+		
+		if(leafB && leafC) return;
+		
+		float best = 0.0f;
+		int swapChild = NULL;
+		int swapGrandChild = NULL;
+		
+		if(!leafC)
+		{
+			int f = children[c * 2];
+			int g = children[c * 2 + 1];
+			
+			float areaC = area(c);
+			
+			// b and f swapped, c then contains b and g.
+			float costBF = unionArea(b, g) - areaC;
+			float costBG = unionArea(b, f) - areaC;
+			
+			if(costBF < best) { best = costBF; swapChild = b; swapGrandChild = f; }
+			if(costBG < best) { best = costBG; swapChild = b; swapGrandChild = g; }
+		}
+		
+		if(!leafB)
+		{
+			int d = children[b * 2];
+			int e = children[b * 2 + 1];
+			
+			float areaB = area(b);
+			
+			float costCD = unionArea(c, e) - areaB;
+			float costCE = unionArea(c, d) - areaB;
+			
+			if(costCD < best) { best = costCD; swapChild = c; swapGrandChild = d; }
+			if(costCE < best) { best = costCE; swapChild = c; swapGrandChild = e; }
+		}
+		
+		if(swapChild == NULL) return;
+		
+		int other = swapChild == b ? c : b;
+		
+		children[a * 2 + (swapChild == b ? 0 : 1)] = swapGrandChild;
+		children[other * 2 + (children[other * 2] == swapGrandChild ? 0 : 1)] = swapChild;
+		
+		this.parents[swapGrandChild] = a;
+		this.parents[swapChild] = other;
+		
+		union(other, children[other * 2], children[other * 2 + 1]);
+		heights[other] = 1 + Math.max(heights[children[other * 2]], heights[children[other * 2 + 1]]);
+		heights[a] = 1 + Math.max(heights[children[a * 2]], heights[children[a * 2 + 1]]);
+	}
+	
+	private float descentCost(int child, int leaf)
+	{
+		float combinedArea = unionArea(child, leaf);
+		
+		return this.heights[child] == 0 ? combinedArea : combinedArea - area(child);
+	}
+	
+	private int allocateNode()
+	{
+		if(this.freeList == NULL) grow(this.capacity * 2);
+		
+		int node = this.freeList;
+		
+		this.freeList = this.parents[node];
+		
+		this.parents[node] = NULL;
+		this.children[node * 2] = NULL;
+		this.children[node * 2 + 1] = NULL;
+		this.heights[node] = 0;
+		this.userData[node] = 0;
+		
+		this.nodeCount++;
+		
+		return node;
+	}
+	
+	private void freeNode(int node)
+	{
+		this.parents[node] = this.freeList;
+		this.heights[node] = -1;
+		
+		this.freeList = node;
+		
+		this.nodeCount--;
+	}
+	
+	private void grow(int capacity)
+	{
+		int old = this.capacity;
+		
+		this.bounds = Arrays.copyOf(this.bounds, capacity * BOUNDS);
+		this.parents = Arrays.copyOf(this.parents, capacity);
+		this.children = Arrays.copyOf(this.children, capacity * 2);
+		this.heights = Arrays.copyOf(this.heights, capacity);
+		this.userData = Arrays.copyOf(this.userData, capacity);
+		
+		// chain the new nodes into the free list, which is empty whenever the tree grows.
+		for(int i = old; i < capacity; i++)
+		{
+			this.parents[i] = i + 1 < capacity ? i + 1 : NULL;
+			this.heights[i] = -1;
+		}
+		
+		this.freeList = old;
+		this.capacity = capacity;
+	}
+	
+	private void checkProxy(int proxy)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(proxy < 0 || proxy >= this.capacity || this.heights[proxy] != 0) throw new IllegalArgumentException("The proxy " + proxy + " is not an object of this tree.");
+		}
+	}
+	
+	private void setBounds(int node, float minX, float minY, float minZ, float maxX, float maxY, float maxZ)
+	{
+		int o = node * BOUNDS;
+		
+		this.bounds[o] = minX;
+		this.bounds[o + 1] = minY;
+		this.bounds[o + 2] = minZ;
+		this.bounds[o + 3] = maxX;
+		this.bounds[o + 4] = maxY;
+		this.bounds[o + 5] = maxZ;
+	}
+	
+	private void union(int res, int a, int b)
+	{
+		float[] bounds = this.bounds;
+		
+		int o = res * BOUNDS;
+		int oa = a * BOUNDS;
+		int ob = b * BOUNDS;
+		
+		bounds[o] = Math.min(bounds[oa], bounds[ob]);
+		bounds[o + 1] = Math.min(bounds[oa + 1], bounds[ob + 1]);
+		bounds[o + 2] = Math.min(bounds[oa + 2], bounds[ob + 2]);
+		bounds[o + 3] = Math.max(bounds[oa + 3], bounds[ob + 3]);
+		bounds[o + 4] = Math.max(bounds[oa + 4], bounds[ob + 4]);
+		bounds[o + 5] = Math.max(bounds[oa + 5], bounds[ob + 5]);
+	}
+	
+	/**
+	 * Half the surface area of the box of the node, which is all the heuristics need.
+	 */
+	private float area(int node)
+	{
+		int o = node * BOUNDS;
+		
+		float x = this.bounds[o + 3] - this.bounds[o];
+		float y = this.bounds[o + 4] - this.bounds[o + 1];
+		float z = this.bounds[o + 5] - this.bounds[o + 2];
+		
+		return x * y + y * z + z * x;
+	}
+	
+	private float unionArea(int a, int b)
+	{
+		float[] bounds = this.bounds;
+		
+		int oa = a * BOUNDS;
+		int ob = b * BOUNDS;
+		
+		float x = Math.max(bounds[oa + 3], bounds[ob + 3]) - Math.min(bounds[oa], bounds[ob]);
+		float y = Math.max(bounds[oa + 4], bounds[ob + 4]) - Math.min(bounds[oa + 1], bounds[ob + 1]);
+		float z = Math.max(bounds[oa + 5], bounds[ob + 5]) - Math.min(bounds[oa + 2], bounds[ob + 2]);
+		
+		return x * y + y * z + z * x;
+	}
+	
+	private boolean overlaps(int node, float minX, float minY, float minZ, float maxX, float maxY, float maxZ)
+	{
+		int o = node * BOUNDS;
+		float[] b = this.bounds;
+		
+		return b[o] <= maxX && b[o + 3] >= minX && b[o + 1] <= maxY && b[o + 4] >= minY && b[o + 2] <= maxZ && b[o + 5] >= minZ;
+	}
+	
+	private boolean overlaps(int a, int b)
+	{
+		int ob = b * BOUNDS;
+		float[] bounds = this.bounds;
+		
+		return overlaps(a, bounds[ob], bounds[ob + 1], bounds[ob + 2], bounds[ob + 3], bounds[ob + 4], bounds[ob + 5]);
+	}
+	
+	/**
+	 * Slab test of the ray against the box of the node. Axes the ray is parallel to only test the origin.
+	 */
+	private boolean hits(int node, float oX, float oY, float oZ, float dX, float dY, float dZ, float invX, float invY, float invZ, float maxFraction)
+	{
+		int o = node * BOUNDS;
+		float[] b = this.bounds;
+		
+		float tMin = 0.0f;
+		float tMax = maxFraction;
+		
+		if(dX == 0.0f)
+		{
+			if(oX < b[o] || oX > b[o + 3]) return false;
+		}
+		else
+		{
+			float t1 = (b[o] - oX) * invX;
+			float t2 = (b[o + 3] - oX) * invX;
+			
+			tMin = Math.max(tMin, Math.min(t1, t2));
+			tMax = Math.min(tMax, Math.max(t1, t2));
+		}
+		
+		if(dY == 0.0f)
+		{
+			if(oY < b[o + 1] || oY > b[o + 4]) return false;
+		}
+		else
+		{
+			float t1 = (b[o + 1] - oY) * invY;
+			float t2 = (b[o + 4] - oY) * invY;
+			
+			tMin = Math.max(tMin, Math.min(t1, t2));
+			tMax = Math.min(tMax, Math.max(t1, t2));
+		}
+		
+		if(dZ == 0.0f)
+		{
+			if(oZ < b[o + 2] || oZ > b[o + 5]) return false;
+		}
+		else
+		{
+			float t1 = (b[o + 2] - oZ) * invZ;
+			float t2 = (b[o + 5] - oZ) * invZ;
+			
+			tMin = Math.max(tMin, Math.min(t1, t2));
+			tMax = Math.min(tMax, Math.max(t1, t2));
+		}
+		
+		return tMin <= tMax;
+	}
+	
+	@FunctionalInterface
+	public static interface QueryCallback
+	{
+		/**
+		 * Called with the proxy of an object found by a query. Return false to stop the query.
+		 * Must not query or modify the tree.
+		 */
+		boolean report(int proxy);
+	}
+	
+	@FunctionalInterface
+	public static interface PairCallback
+	{
+		/**
+		 * Called with the proxies of two objects whose fat boxes overlap, with proxyA < proxyB.
+		 * May query the tree, but must not modify it.
+		 */
+		void report(int proxyA, int proxyB);
+	}
+	
+	@FunctionalInterface
+	public static interface RayCallback
+	{
+		/**
+		 * Called with the proxy of an object whose fat box is hit by the ray. Returns the new maximum fraction of the ray:
+		 * 0 to stop, the fraction of an exact hit to clip the ray, or the passed maximum to continue unchanged.
+		 * Must not query or modify the tree.
+		 */
+		float report(int proxy, float maxFraction);
+	}
+}
@@ -0,0 +1,204 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.broadphase;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash set of primitive long keys with linear probing, used to store overlapping pairs
+ * as (smaller handle << 32) | larger handle. The key 0 marks empty slots and cannot be stored, which is never
+ * the key of a valid pair. Removal shifts the following entries back instead of leaving tombstones,
+ * so the table does not degrade under the constant adding and removing of a broad phase.
+ * 
+ * @author picatrix1899
+ */
+final class LongHashSet
+{
+	private static final long EMPTY = 0L;
+	
+	private long[] keys;
+	private int mask;
+	private int size;
+	
+	LongHashSet(int capacity)
+	{
+		int length = Integer.highestOneBit(Math.max(capacity, 8) * 2 - 1) << 1;
+		
+		this.keys = new long[length];
+		this.mask = length - 1;
+	}
+	
+	static long key(int a, int b)
+	{
+		return a < b ? (long)a << 32 | b : (long)b << 32 | a;
+	}
+	
+	static int first(long key)
+	{
+		return (int)(key >>> 32);
+	}
+	
+	static int second(long key)
+	{
+		return (int)key;
+	}
+	
+	int size()
+	{
+		return this.size;
+	}
+	
+	/**
+	 * Returns the number of slots, for iterating with {@link #get(int)}.
+	 */
+	int capacity()
+	{
+		return this.keys.length;
+	}
+	
+	/**
+	 * Returns the key in the given slot or 0 if it is empty.
+	 */
+	long get(int slot)
+	{
+		return this.keys[slot];
+	}
+	
+	boolean contains(long key)
+	{
+		long[] keys = this.keys;
+		
+		for(int i = hash(key) & this.mask;; i = (i + 1) & this.mask)
+		{
+			long k = keys[i];
+			
+			if(k == key) return true;
+			if(k == EMPTY) return false;
+		}
+	}
+	
+	/**
+	 * Returns false if the key was already contained.
+	 */
+	boolean add(long key)
+	{
+		long[] keys = this.keys;
+		
+		int i = hash(key) & this.mask;
+		
+		for(;; i = (i + 1) & this.mask)
+		{
+			long k = keys[i];
+			
+			if(k == key) return false;
+			if(k == EMPTY) break;
+		}
+		
+		keys[i] = key;
+		
+		// keep the load factor at or below one half.
+		if(++this.size * 2 > keys.length) rehash(keys.length * 2);
+		
+		return true;
+	}
+	
+	/**
+	 * Returns false if the key was not contained.
+	 */
+	boolean remove(long key)
+	{
+		long[] keys = this.keys;
+		int mask = this.mask;
+		
+		int i = hash(key) & mask;
+		
+		for(;; i = (i + 1) & mask)
+		{
+			long k = keys[i];
+			
+			if(k == key) break;
+			if(k == EMPTY) return false;
+		}
+		
+		// move back every following entry of the cluster whose home slot is not between the hole and its position.
+		int hole = i;
+		
+		for(int j = (hole + 1) & mask;; j = (j + 1) & mask)
+		{
+			long k = keys[j];
+			
+			if(k == EMPTY) break;
+			
+			int home = hash(k) & mask;
+			
+			if(((j - home) & mask) >= ((j - hole) & mask))
+			{
+				keys[hole] = k;
+				hole = j;
+			}
+		}
+		
+		keys[hole] = EMPTY;
+		this.size--;
+		
+		return true;
+	}
+	
+	void clear()
+	{
+		if(this.size == 0) return;
+		
+		Arrays.fill(this.keys, EMPTY);
+		this.size = 0;
+	}
+	
+	private void rehash(int length)
+	{
+		long[] old = this.keys;
+		
+		this.keys = new long[length];
+		this.mask = length - 1;
+		
+		for(int i = 0; i < old.length; i++)
+		{
+			long k = old[i];
+			
+			if(k == EMPTY) continue;
+			
+			int j = hash(k) & this.mask;
+			
+			while(this.keys[j] != EMPTY) j = (j + 1) & this.mask;
+			
+			this.keys[j] = k;
+		}
+	}
+	
+	private static int hash(long key)
+	{
+		long h = key * 0x9E3779B97F4A7C15L;
+		
+		return (int)(h ^ (h >>> 32));
+	}
+}
@@ -0,0 +1,807 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.broadphase;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.barghos.core.exception.ArgumentNullException;
+import org.barghos.math.BarghosMath;
+import org.barghos.math.boundary.AABB2f;
+import org.barghos.math.geometry.Circle2f;
+
+/**
+ * A uniform grid over axis aligned 2D boxes. The cells are hashed into a fixed number of buckets,
+ * so the grid is unbounded and its memory only depends on the number of objects.
+ * 
+ * The objects are identified by integer handles. The buckets are stored counting sorted in primitive arrays:
+ * the entries of bucket b are at the indices starts[b] to starts[b + 1] of the entry arrays, one entry per object and covered cell.
+ * Objects that are inserted or moved into other cells after the last {@link #rebuild()} are kept in a list
+ * that every query tests directly. Once this list gets longer than {@link #PENDING_LIMIT} or a 64th of the objects,
+ * the next query rebuilds the buckets. Objects that cover more than {@link #MAX_CELLS_PER_OBJECT} cells always stay in the list.
+ * Objects that only move within their cells never need a rebuild.
+ * 
+ * If most objects move every frame, update them all and call {@link #rebuild(ForkJoinPool)} once before the queries.
+ * The queries only read the grid as long as no rebuild is due, so they can then run on several threads.
+ * Touching boxes are considered overlapping. Apart from that this class is not thread-safe.
+ * 
+ * @author picatrix1899
+ */
+public class SpatialHashGrid2f
+{
+	public static final int DEFAULT_CAPACITY = 64;
+	
+	/**
+	 * The number of objects below which a rebuild is not split further.
+	 */
+	public static final int PARALLEL_THRESHOLD = 4096;
+	
+	/**
+	 * The number of cells above which an object is not stored in the buckets.
+	 */
+	public static final int MAX_CELLS_PER_OBJECT = 64;
+	
+	/**
+	 * The minimal number of pending objects that causes a rebuild.
+	 */
+	public static final int PENDING_LIMIT = 64;
+	
+	private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+	
+	private static final byte FREE = 0;
+	private static final byte BINNED = 1;
+	private static final byte PENDING = 2;
+	private static final byte OVERSIZED = 3;
+	
+	private static final int COUNT = 0;
+	private static final int FILL = 1;
+	private static final int SORT = 2;
+	
+	private final float cellSize;
+	private final float inverseCellSize;
+	
+	private int capacity;
+	private int size;
+	
+	/*
+	 * Per handle: the box as minX, minY, maxX, maxY, the covered cells as minX, minY, maxX, maxY,
+	 * the user data, the state, the next free handle and the index in the loose list.
+	 */
+	private float[] boxes;
+	private int[] cells;
+	private int[] userData;
+	private byte[] states;
+	private int[] nextFree;
+	private int[] looseIndex;
+	private int freeList = -1;
+	
+	/*
+	 * The pending and oversized objects.
+	 */
+	private int[] loose;
+	private int looseCount;
+	private int pendingCount;
+	
+	/*
+	 * starts has one more element than there are buckets. cursors is only used while rebuilding.
+	 */
+	private int bucketMask;
+	private int[] starts;
+	private int[] cursors;
+	
+	private int[] entryHandles = new int[0];
+	private int[] entryX = new int[0];
+	private int[] entryY = new int[0];
+	
+	public SpatialHashGrid2f(float cellSize)
+	{
+		this(cellSize, DEFAULT_CAPACITY);
+	}
+	
+	public SpatialHashGrid2f(float cellSize, int capacity)
+	{
+		if(!(cellSize > 0.0f) || cellSize == Float.POSITIVE_INFINITY) throw new IllegalArgumentException("The cell size must be positive and finite.");
+		if(capacity < 1) throw new IllegalArgumentException("The capacity must be positive.");
+		
+		this.cellSize = cellSize;
+		this.inverseCellSize = 1.0f / cellSize;
+		
+		this.boxes = new float[0];
+		this.cells = new int[0];
+		this.userData = new int[0];
+		this.states = new byte[0];
+		this.nextFree = new int[0];
+		this.looseIndex = new int[0];
+		this.loose = new int[0];
+		
+		grow(capacity);
+		
+		setBucketCount(capacity);
+	}
+	
+	public float getCellSize()
+	{
+		return this.cellSize;
+	}
+	
+	/**
+	 * Inserts an object with the given box and returns its handle.
+	 */
+	public int insert(AABB2f aabb, int userData)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(aabb == null) throw new ArgumentNullException("aabb");
+		}
+		
+		return insert(aabb.getMinX(), aabb.getMinY(), aabb.getMaxX(), aabb.getMaxY(), userData);
+	}
+	
+	/**
+	 * Inserts an object with the bounding box of the given circle and returns its handle.
+	 */
+	public int insert(Circle2f circle, int userData)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(circle == null) throw new ArgumentNullException("circle");
+		}
+		
+		float x = circle.getCenterX();
+		float y = circle.getCenterY();
+		float r = circle.getRadius();
+		
+		return insert(x - r, y - r, x + r, y + r, userData);
+	}
+	
+	/**
+	 * Inserts an object with the given box and returns its handle.
+	 */
+	public int insert(float minX, float minY, float maxX, float maxY, int userData)
+	{
+		checkBox(minX, minY, maxX, maxY);
+		
+		if(this.freeList == -1) grow(this.capacity * 2);
+		
+		int handle = this.freeList;
+		
+		this.freeList = this.nextFree[handle];
+		
+		this.userData[handle] = userData;
+		this.size++;
+		
+		setBox(handle, minX, minY, maxX, maxY);
+		
+		makeLoose(handle, oversized(handle) ? OVERSIZED : PENDING);
+		
+		return handle;
+	}
+	
+	public void update(int handle, AABB2f aabb)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(aabb == null) throw new ArgumentNullException("aabb");
+		}
+		
+		update(handle, aabb.getMinX(), aabb.getMinY(), aabb.getMaxX(), aabb.getMaxY());
+	}
+	
+	public void update(int handle, Circle2f circle)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(circle == null) throw new ArgumentNullException("circle");
+		}
+		
+		float x = circle.getCenterX();
+		float y = circle.getCenterY();
+		float r = circle.getRadius();
+		
+		update(handle, x - r, y - r, x + r, y + r);
+	}
+	
+	/**
+	 * Sets the box of the object with the given handle.
+	 * The buckets are only outdated if the object now covers other cells.
+	 */
+	public void update(int handle, float minX, float minY, float maxX, float maxY)
+	{
+		checkHandle(handle);
+		checkBox(minX, minY, maxX, maxY);
+		
+		if(!setBox(handle, minX, minY, maxX, maxY)) return;
+		
+		makeLoose(handle, oversized(handle) ? OVERSIZED : PENDING);
+	}
+	
+	/**
+	 * Removes the object with the given handle. The handle may be reused by the next insert.
+	 */
+	public void remove(int handle)
+	{
+		checkHandle(handle);
+		
+		if(this.states[handle] == PENDING) this.pendingCount--;
+		
+		if(this.states[handle] != BINNED)
+		{
+			// moves the last loose object into the gap.
+			int index = this.looseIndex[handle];
+			int last = this.loose[--this.looseCount];
+			
+			this.loose[index] = last;
+			this.looseIndex[last] = index;
+		}
+		
+		// the entries of a binned object are skipped by the queries from now on.
+		this.states[handle] = FREE;
+		this.nextFree[handle] = this.freeList;
+		this.freeList = handle;
+		this.size--;
+	}
+	
+	public int getUserData(int handle)
+	{
+		checkHandle(handle);
+		
+		return this.userData[handle];
+	}
+	
+	public AABB2f getAABB(int handle, AABB2f res)
+	{
+		checkHandle(handle);
+		
+		if(res == null) res = new AABB2f();
+		
+		int o = handle * 4;
+		
+		return res.set(this.boxes[o], this.boxes[o + 1], this.boxes[o + 2], this.boxes[o + 3]);
+	}
+	
+	/**
+	 * Returns the number of objects.
+	 */
+	public int size()
+	{
+		return this.size;
+	}
+	
+	/**
+	 * Returns the number of objects that are tested directly by every query,
+	 * because they changed their cells since the last rebuild or cover too many cells.
+	 */
+	public int getLooseCount()
+	{
+		return this.looseCount;
+	}
+	
+	/**
+	 * Writes the handles of all objects whose box overlaps the given box into res and returns their number.
+	 * If res is too small, only the first res.length handles are written, but the returned number is still the total.
+	 */
+	public int query(AABB2f aabb, int[] res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(aabb == null) throw new ArgumentNullException("aabb");
+		}
+		
+		return query(aabb.getMinX(), aabb.getMinY(), aabb.getMaxX(), aabb.getMaxY(), res);
+	}
+	
+	/**
+	 * Writes the handles of all objects whose box overlaps the given box into res and returns their number.
+	 * If res is too small, only the first res.length handles are written, but the returned number is still the total.
+	 */
+	public int query(float minX, float minY, float maxX, float maxY, int[] res)
+	{
+		checkBox(minX, minY, maxX, maxY);
+		
+		return query(minX, minY, maxX, maxY, 0.0f, 0.0f, -1.0f, res);
+	}
+	
+	/**
+	 * Writes the handles of all objects whose box is at most radius away from the center of the given circle into res
+	 * and returns their number. If res is too small, only the first res.length handles are written,
+	 * but the returned number is still the total.
+	 */
+	public int queryRadius(Circle2f circle, int[] res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(circle == null) throw new ArgumentNullException("circle");
+		}
+		
+		return queryRadius(circle.getCenterX(), circle.getCenterY(), circle.getRadius(), res);
+	}
+	
+	/**
+	 * Writes the handles of all objects whose box is at most radius away from the given point into res
+	 * and returns their number. If res is too small, only the first res.length handles are written,
+	 * but the returned number is still the total.
+	 */
+	public int queryRadius(float x, float y, float radius, int[] res)
+	{
+		if(radius < 0.0f) return 0;
+		
+		return query(x - radius, y - radius, x + radius, y + radius, x, y, radius * radius, res);
+	}
+	
+	/**
+	 * Sorts all objects into the buckets.
+	 */
+	public void rebuild()
+	{
+		prepare();
+		
+		count(0, this.capacity, false);
+		accumulate();
+		fill(0, this.capacity, false);
+	}
+	
+	/**
+	 * Like {@link #rebuild()}, but splits grids with more than {@link #PARALLEL_THRESHOLD} handles across the threads of the given pool.
+	 * The buckets are the same as after a sequential rebuild.
+	 */
+	public void rebuild(ForkJoinPool pool)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(pool == null) throw new ArgumentNullException("pool");
+		}
+		
+		// the atomic counting only pays off if there are several threads.
+		if(this.capacity <= PARALLEL_THRESHOLD || pool.getParallelism() < 2)
+		{
+			rebuild();
+			
+			return;
+		}
+		
+		prepare();
+		
+		pool.invoke(new RebuildTask(this, COUNT, 0, this.capacity));
+		accumulate();
+		pool.invoke(new RebuildTask(this, FILL, 0, this.capacity));
+		
+		// the atomic fill mixes up the order within the buckets.
+		pool.invoke(new RebuildTask(this, SORT, 0, this.bucketMask + 1));
+	}
+	
+	/**
+	 * Queries the box, and if squaredRadius is not negative only accepts the objects within the radius around x and y.
+	 */
+	private int query(float minX, float minY, float maxX, float maxY, float x, float y, float squaredRadius, int[] res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		// an inverted box covers nothing, and its cell range must not be visited.
+		if(minX > maxX || minY > maxY) return 0;
+		
+		if(this.pendingCount > Math.max(PENDING_LIMIT, this.size >> 6)) rebuild();
+		
+		int count = 0;
+		
+		for(int i = 0; i < this.looseCount; i++)
+		{
+			int handle = this.loose[i];
+			
+			if(!accepts(handle, minX, minY, maxX, maxY, x, y, squaredRadius)) continue;
+			
+			if(count < res.length) res[count] = handle;
+			count++;
+		}
+		
+		int x0 = cell(minX);
+		int y0 = cell(minY);
+		int x1 = cell(maxX);
+		int y1 = cell(maxY);
+		
+		if(((long)x1 - x0 + 1) * ((long)y1 - y0 + 1) > this.size)
+		{
+			// visiting the cells would take longer than testing every object.
+			for(int handle = 0; handle < this.capacity; handle++)
+			{
+				if(this.states[handle] != BINNED || !accepts(handle, minX, minY, maxX, maxY, x, y, squaredRadius)) continue;
+				
+				if(count < res.length) res[count] = handle;
+				count++;
+			}
+			
+			return count;
+		}
+		
+		int[] starts = this.starts;
+		int[] cells = this.cells;
+		
+		for(int cy = y0; ; cy++)
+		{
+			for(int cx = x0; ; cx++)
+			{
+				int bucket = bucket(cx, cy);
+				
+				for(int i = starts[bucket], end = starts[bucket + 1]; i < end; i++)
+				{
+					if(this.entryX[i] != cx || this.entryY[i] != cy) continue;
+					
+					int handle = this.entryHandles[i];
+					
+					if(this.states[handle] != BINNED) continue;
+					
+					// an object covering several of the visited cells is only reported in the first of them.
+					if(cx != Math.max(cells[handle * 4], x0) || cy != Math.max(cells[handle * 4 + 1], y0)) continue;
+					
+					if(!accepts(handle, minX, minY, maxX, maxY, x, y, squaredRadius)) continue;
+					
+					if(count < res.length) res[count] = handle;
+					count++;
+				}
+				
+				if(cx == x1) break;
+			}
+			
+			if(cy == y1) break;
+		}
+		
+		return count;
+	}
+	
+	private boolean accepts(int handle, float minX, float minY, float maxX, float maxY, float x, float y, float squaredRadius)
+	{
+		int o = handle * 4;
+		
+		float bMinX = this.boxes[o];
+		float bMinY = this.boxes[o + 1];
+		float bMaxX = this.boxes[o + 2];
+		float bMaxY = this.boxes[o + 3];
+		
+		if(bMinX > maxX || bMaxX < minX || bMinY > maxY || bMaxY < minY) return false;
+		
+		if(squaredRadius < 0.0f) return true;
+		
+		float dx = Math.max(Math.max(bMinX - x, x - bMaxX), 0.0f);
+		float dy = Math.max(Math.max(bMinY - y, y - bMaxY), 0.0f);
+		
+		return dx * dx + dy * dy <= squaredRadius;
+	}
+	
+	/**
+	 * Sets the box and returns true if the object covers other cells than before.
+	 */
+	private boolean setBox(int handle, float minX, float minY, float maxX, float maxY)
+	{
+		int o = handle * 4;
+		
+		this.boxes[o] = minX;
+		this.boxes[o + 1] = minY;
+		this.boxes[o + 2] = maxX;
+		this.boxes[o + 3] = maxY;
+		
+		int x0 = cell(minX);
+		int y0 = cell(minY);
+		int x1 = cell(maxX);
+		int y1 = cell(maxY);
+		
+		if(this.cells[o] == x0 && this.cells[o + 1] == y0 && this.cells[o + 2] == x1 && this.cells[o + 3] == y1) return false;
+		
+		this.cells[o] = x0;
+		this.cells[o + 1] = y0;
+		this.cells[o + 2] = x1;
+		this.cells[o + 3] = y1;
+		
+		return true;
+	}
+	
+	/**
+	 * Returns true if the object covers too many cells for the buckets. Inverted boxes, which are only possible
+	 * without parameter checks, cover no cells at all and are kept out of the buckets as well.
+	 */
+	private boolean oversized(int handle)
+	{
+		int o = handle * 4;
+		
+		if(this.cells[o + 2] < this.cells[o] || this.cells[o + 3] < this.cells[o + 1]) return true;
+		
+		return ((long)this.cells[o + 2] - this.cells[o] + 1) * ((long)this.cells[o + 3] - this.cells[o + 1] + 1) > MAX_CELLS_PER_OBJECT;
+	}
+	
+	private void makeLoose(int handle, byte state)
+	{
+		byte old = this.states[handle];
+		
+		if(old == FREE || old == BINNED)
+		{
+			this.looseIndex[handle] = this.looseCount;
+			this.loose[this.looseCount++] = handle;
+		}
+		
+		if(old == PENDING) this.pendingCount--;
+		if(state == PENDING) this.pendingCount++;
+		
+		this.states[handle] = state;
+	}
+	
+	private int cell(float value)
+	{
+		return (int)Math.floor(value * this.inverseCellSize);
+	}
+	
+	private int bucket(int cx, int cy)
+	{
+		int h = cx * 0x9E3779B1 + cy * 0x85EBCA77;
+		
+		return (h ^ (h >>> 16)) & this.bucketMask;
+	}
+	
+	/**
+	 * Decides which objects go into the buckets, sizes the arrays and clears the bucket counts.
+	 */
+	private void prepare()
+	{
+		this.looseCount = 0;
+		this.pendingCount = 0;
+		
+		int entries = 0;
+		
+		for(int handle = 0; handle < this.capacity; handle++)
+		{
+			if(this.states[handle] == FREE) continue;
+			
+			if(oversized(handle))
+			{
+				this.states[handle] = OVERSIZED;
+				this.looseIndex[handle] = this.looseCount;
+				this.loose[this.looseCount++] = handle;
+				
+				continue;
+			}
+			
+			this.states[handle] = BINNED;
+			
+			int o = handle * 4;
+			
+			entries += (this.cells[o + 2] - this.cells[o] + 1) * (this.cells[o + 3] - this.cells[o + 1] + 1);
+		}
+		
+		if(entries > this.entryHandles.length)
+		{
+			int length = Math.max(entries, this.entryHandles.length * 2);
+			
+			this.entryHandles = new int[length];
+			this.entryX = new int[length];
+			this.entryY = new int[length];
+		}
+		
+		if(entries > this.bucketMask + 1) setBucketCount(entries);
+		
+		Arrays.fill(this.starts, 0);
+	}
+	
+	/**
+	 * Counts the entries of every bucket in starts[bucket + 1].
+	 */
+	private void count(int from, int to, boolean atomic)
+	{
+		for(int handle = from; handle < to; handle++)
+		{
+			if(this.states[handle] != BINNED) continue;
+			
+			int o = handle * 4;
+			
+			int x0 = this.cells[o];
+			int y0 = this.cells[o + 1];
+			int x1 = this.cells[o + 2];
+			int y1 = this.cells[o + 3];
+			
+			for(int cy = y0; ; cy++)
+			{
+				for(int cx = x0; ; cx++)
+				{
+					int index = bucket(cx, cy) + 1;
+					
+					if(atomic)
+						INTS.getAndAdd(this.starts, index, 1);
+					else
+						this.starts[index]++;
+					
+					if(cx == x1) break;
+				}
+				
+				if(cy == y1) break;
+			}
+		}
+	}
+	
+	/**
+	 * Turns the counts into the start indices of the buckets and copies them into the cursors.
+	 */
+	private void accumulate()
+	{
+		int[] starts = this.starts;
+		
+		for(int i = 1; i < starts.length; i++)
+			starts[i] += starts[i - 1];
+		
+		System.arraycopy(starts, 0, this.cursors, 0, this.cursors.length);
+	}
+	
+	private void fill(int from, int to, boolean atomic)
+	{
+		for(int handle = from; handle < to; handle++)
+		{
+			if(this.states[handle] != BINNED) continue;
+			
+			int o = handle * 4;
+			
+			int x0 = this.cells[o];
+			int y0 = this.cells[o + 1];
+			int x1 = this.cells[o + 2];
+			int y1 = this.cells[o + 3];
+			
+			for(int cy = y0; ; cy++)
+			{
+				for(int cx = x0; ; cx++)
+				{
+					int bucket = bucket(cx, cy);
+					int index = atomic ? (int)INTS.getAndAdd(this.cursors, bucket, 1) : this.cursors[bucket]++;
+					
+					this.entryHandles[index] = handle;
+					this.entryX[index] = cx;
+					this.entryY[index] = cy;
+					
+					if(cx == x1) break;
+				}
+				
+				if(cy == y1) break;
+			}
+		}
+	}
+	
+	/**
+	 * Restores the order of the sequential fill within the buckets: by handle, then by row, then by column.
+	 */
+	private void sort(int from, int to)
+	{
+		int[] handles = this.entryHandles;
+		int[] xs = this.entryX;
+		int[] ys = this.entryY;
+		
+		for(int bucket = from; bucket < to; bucket++)
+		{
+			int start = this.starts[bucket];
+			int end = this.starts[bucket + 1];
+			
+			for(int i = start + 1; i < end; i++)
+			{
+				int h = handles[i];
+				int x = xs[i];
+				int y = ys[i];
+				
+				int j = i - 1;
+				
+				while(j >= start && (handles[j] > h || handles[j] == h && (ys[j] > y || ys[j] == y && xs[j] > x)))
+				{
+					handles[j + 1] = handles[j];
+					xs[j + 1] = xs[j];
+					ys[j + 1] = ys[j];
+					j--;
+				}
+				
+				handles[j + 1] = h;
+				xs[j + 1] = x;
+				ys[j + 1] = y;
+			}
+		}
+	}
+	
+	private void setBucketCount(int minimum)
+	{
+		int count = Integer.highestOneBit(Math.max(minimum, 16) - 1) << 1;
+		
+		this.bucketMask = count - 1;
+		this.starts = new int[count + 1];
+		this.cursors = new int[count];
+	}
+	
+	private void checkBox(float minX, float minY, float maxX, float maxY)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(minX > maxX || minY > maxY) throw new IllegalArgumentException("The minimum of the box must not be greater than its maximum.");
+		}
+	}
+	
+	private void checkHandle(int handle)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(handle < 0 || handle >= this.capacity || this.states[handle] == FREE) throw new IllegalArgumentException("The handle " + handle + " is not an object of this grid.");
+		}
+	}
+	
+	private void grow(int capacity)
+	{
+		int old = this.capacity;
+		
+		this.boxes = Arrays.copyOf(this.boxes, capacity * 4);
+		this.cells = Arrays.copyOf(this.cells, capacity * 4);
+		this.userData = Arrays.copyOf(this.userData, capacity);
+		this.states = Arrays.copyOf(this.states, capacity);
+		this.nextFree = Arrays.copyOf(this.nextFree, capacity);
+		this.looseIndex = Arrays.copyOf(this.looseIndex, capacity);
+		this.loose = Arrays.copyOf(this.loose, capacity);
+		
+		// the free list is empty whenever the handles grow.
+		for(int i = old; i < capacity; i++)
+			this.nextFree[i] = i + 1 < capacity ? i + 1 : -1;
+		
+		this.freeList = old;
+		this.capacity = capacity;
+	}
+	
+	private static class RebuildTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+		
+		private final SpatialHashGrid2f grid;
+		private final int phase;
+		private final int from;
+		private final int to;
+		
+		public RebuildTask(SpatialHashGrid2f grid, int phase, int from, int to)
+		{
+			this.grid = grid;
+			this.phase = phase;
+			this.from = from;
+			this.to = to;
+		}
+		
+		protected void compute()
+		{
+			if(this.to - this.from <= PARALLEL_THRESHOLD)
+			{
+				switch(this.phase)
+				{
+					case COUNT: this.grid.count(this.from, this.to, true); break;
+					case FILL: this.grid.fill(this.from, this.to, true); break;
+					default: this.grid.sort(this.from, this.to);
+				}
+				
+				return;
+			}
+			
+			int mid = (this.from + this.to) >>> 1;
+			
+			invokeAll(new RebuildTask(this.grid, this.phase, this.from, mid), new RebuildTask(this.grid, this.phase, mid, this.to));
+		}
+	}
+}
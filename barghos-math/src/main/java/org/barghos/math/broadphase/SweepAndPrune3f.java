@@ -0,0 +1,767 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.broadphase;
+
+import java.util.Arrays;
+
+import org.barghos.core.exception.ArgumentNullException;
+import org.barghos.math.BarghosMath;
+import org.barghos.math.boundary.AABB3f;
+
+/**
+ * A sort and sweep broad phase over axis aligned boxes that exploits temporal coherence.
+ * 
+ * The objects are identified by integer handles. Their boxes are only stored by {@link #add(AABB3f, int)},
+ * {@link #move(int, AABB3f)} and {@link #remove(int)}, all changes are applied by {@link #update()}, which reports
+ * every pair that started or stopped overlapping since the last update to the {@link OverlapListener}.
+ * The min and max endpoints of the boxes are kept in primitive arrays sorted per axis. Because most objects only move
+ * a little between two updates, the arrays stay nearly sorted and an insertion sort restores the order in about linear time.
+ * The overlapping pairs are stored in a primitive hash set keyed by the two handles.
+ * 
+ * In the {@link AxisMode#ALL} mode the endpoints are sorted on all three axes, and the overlap changes are detected
+ * from the swaps of min and max endpoints during the insertion sort. In the {@link AxisMode#VARIANCE} mode only the axis
+ * along which the box centers have the largest variance is sorted, and all pairs are found by sweeping along it and
+ * compared with the pairs of the last update. The first costs less for coherent scenes, the second needs a third of the
+ * sorting and copes better with objects that jump. Updates after adding objects always take the sweep path.
+ * 
+ * Touching boxes are considered overlapping. This class is not thread-safe.
+ * 
+ * @author picatrix1899
+ */
+public class SweepAndPrune3f
+{
+	public enum AxisMode
+	{
+		ALL,
+		VARIANCE
+	}
+	
+	public static final int DEFAULT_CAPACITY = 64;
+	
+	/**
+	 * The factor by which the variance along another axis has to exceed the variance along the current axis
+	 * before the {@link AxisMode#VARIANCE} mode switches the axis and sorts the endpoints from scratch.
+	 */
+	public static final float VARIANCE_HYSTERESIS = 1.25f;
+	
+	private static final byte FREE = 0;
+	private static final byte LIVE = 1;
+	private static final byte REMOVED = 2;
+	
+	private final AxisMode mode;
+	
+	private int capacity;
+	private int size;
+	
+	/*
+	 * Per handle: the box as minX, minY, minZ, maxX, maxY, maxZ, the user data, the state and the next free handle.
+	 */
+	private float[] boxes;
+	private int[] userData;
+	private byte[] states;
+	private int[] nextFree;
+	private int freeList = -1;
+	
+	private int[] removed;
+	private int removedCount;
+	private int addedCount;
+	
+	/*
+	 * Per sorted axis: the endpoints as (handle << 1) | isMax and their values. In the variance mode only one axis is sorted.
+	 */
+	private final int[][] endpoints;
+	private final float[][] values;
+	private int endpointCount;
+	
+	private int axis;
+	private boolean axisValid;
+	private final double[] variances = new double[3];
+	
+	private LongHashSet pairs;
+	private LongHashSet swept;
+	
+	private int[] active;
+	private int[] activeIndex;
+	private long[] keys = new long[0];
+	private float[] mergeValues = new float[0];
+	private int[] mergeEndpoints = new int[0];
+	
+	private OverlapListener listener;
+	
+	public SweepAndPrune3f(AxisMode mode)
+	{
+		this(mode, DEFAULT_CAPACITY);
+	}
+	
+	public SweepAndPrune3f(AxisMode mode, int capacity)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(mode == null) throw new ArgumentNullException("mode");
+		}
+		
+		if(capacity < 1) throw new IllegalArgumentException("The capacity must be positive.");
+		
+		this.mode = mode;
+		
+		int axes = mode == AxisMode.ALL ? 3 : 1;
+		
+		this.endpoints = new int[axes][0];
+		this.values = new float[axes][0];
+		
+		this.boxes = new float[0];
+		this.userData = new int[0];
+		this.states = new byte[0];
+		this.nextFree = new int[0];
+		this.removed = new int[0];
+		this.active = new int[0];
+		this.activeIndex = new int[0];
+		
+		this.pairs = new LongHashSet(capacity);
+		this.swept = new LongHashSet(capacity);
+		
+		grow(capacity);
+	}
+	
+	public AxisMode getMode()
+	{
+		return this.mode;
+	}
+	
+	/**
+	 * Sets the listener for the overlap events of {@link #update()}, or null to only keep the pairs.
+	 */
+	public SweepAndPrune3f setListener(OverlapListener listener)
+	{
+		this.listener = listener;
+		
+		return this;
+	}
+	
+	/**
+	 * Adds an object with the given box and returns its handle. Its overlaps are reported by the next update.
+	 */
+	public int add(AABB3f aabb, int userData)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(aabb == null) throw new ArgumentNullException("aabb");
+		}
+		
+		return add(aabb.getMinX(), aabb.getMinY(), aabb.getMinZ(), aabb.getMaxX(), aabb.getMaxY(), aabb.getMaxZ(), userData);
+	}
+	
+	/**
+	 * Adds an object with the given box and returns its handle. Its overlaps are reported by the next update.
+	 */
+	public int add(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, int userData)
+	{
+		if(this.freeList == -1) grow(this.capacity * 2);
+		
+		int handle = this.freeList;
+		
+		this.freeList = this.nextFree[handle];
+		
+		this.states[handle] = LIVE;
+		this.userData[handle] = userData;
+		
+		setBox(handle, minX, minY, minZ, maxX, maxY, maxZ);
+		
+		// the values are read from the boxes by the next update.
+		for(int a = 0; a < this.endpoints.length; a++)
+		{
+			this.endpoints[a][this.endpointCount] = handle << 1;
+			this.endpoints[a][this.endpointCount + 1] = (handle << 1) | 1;
+		}
+		
+		this.endpointCount += 2;
+		this.addedCount++;
+		this.size++;
+		
+		return handle;
+	}
+	
+	/**
+	 * Removes the object with the given handle. The end of its overlaps is reported by the next update,
+	 * after which the handle is reused.
+	 */
+	public void remove(int handle)
+	{
+		checkHandle(handle);
+		
+		this.states[handle] = REMOVED;
+		
+		// moves the endpoints to the end of the sorted arrays, where the next update cuts them off.
+		float inf = Float.POSITIVE_INFINITY;
+		
+		setBox(handle, inf, inf, inf, inf, inf, inf);
+		
+		this.removed[this.removedCount++] = handle;
+		this.size--;
+	}
+	
+	public void move(int handle, AABB3f aabb)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(aabb == null) throw new ArgumentNullException("aabb");
+		}
+		
+		move(handle, aabb.getMinX(), aabb.getMinY(), aabb.getMinZ(), aabb.getMaxX(), aabb.getMaxY(), aabb.getMaxZ());
+	}
+	
+	public void move(int handle, float minX, float minY, float minZ, float maxX, float maxY, float maxZ)
+	{
+		checkHandle(handle);
+		
+		setBox(handle, minX, minY, minZ, maxX, maxY, maxZ);
+	}
+	
+	public int getUserData(int handle)
+	{
+		checkHandle(handle);
+		
+		return this.userData[handle];
+	}
+	
+	public AABB3f getAABB(int handle, AABB3f res)
+	{
+		checkHandle(handle);
+		
+		if(res == null) res = new AABB3f();
+		
+		int o = handle * 6;
+		
+		return res.set(this.boxes[o], this.boxes[o + 1], this.boxes[o + 2], this.boxes[o + 3], this.boxes[o + 4], this.boxes[o + 5]);
+	}
+	
+	/**
+	 * Returns the number of objects.
+	 */
+	public int size()
+	{
+		return this.size;
+	}
+	
+	/**
+	 * Returns the axis the last update swept along, 0 to 2 for x to z.
+	 */
+	public int getAxis()
+	{
+		return this.axis;
+	}
+	
+	/**
+	 * Returns the number of overlapping pairs as of the last update.
+	 */
+	public int getPairCount()
+	{
+		return this.pairs.size();
+	}
+	
+	/**
+	 * Returns true if the boxes of the two objects overlapped at the last update.
+	 */
+	public boolean isOverlapping(int a, int b)
+	{
+		return a != b && this.pairs.contains(LongHashSet.key(a, b));
+	}
+	
+	/**
+	 * Reports all overlapping pairs as of the last update, with the smaller handle first.
+	 */
+	public void forEachPair(PairCallback callback)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(callback == null) throw new ArgumentNullException("callback");
+		}
+		
+		LongHashSet pairs = this.pairs;
+		
+		for(int i = 0; i < pairs.capacity(); i++)
+		{
+			long key = pairs.get(i);
+			
+			if(key != 0L) callback.report(LongHashSet.first(key), LongHashSet.second(key));
+		}
+	}
+	
+	/**
+	 * Applies all changes since the last update, reports the pairs that started or stopped overlapping and
+	 * releases the handles of removed objects.
+	 */
+	public void update()
+	{
+		int best = selectAxis();
+		
+		if(this.mode == AxisMode.VARIANCE)
+		{
+			if(!this.axisValid || this.variances[best] > this.variances[this.axis] * VARIANCE_HYSTERESIS)
+			{
+				this.axis = best;
+				this.axisValid = true;
+				
+				refresh(0, this.axis);
+				sortFully(0);
+			}
+			else
+			{
+				refresh(0, this.axis);
+				merge(0);
+			}
+			
+			sweep(0, this.axis);
+		}
+		else if(this.addedCount > 0)
+		{
+			this.axis = best;
+			
+			for(int a = 0; a < 3; a++)
+			{
+				refresh(a, a);
+				merge(a);
+			}
+			
+			sweep(this.axis, this.axis);
+		}
+		else
+		{
+			this.axis = best;
+			
+			for(int a = 0; a < 3; a++)
+			{
+				refresh(a, a);
+				sortWithEvents(a);
+			}
+		}
+		
+		this.addedCount = 0;
+		
+		// the endpoints of the removed objects are at infinity and therefore at the end of every axis.
+		this.endpointCount -= this.removedCount * 2;
+		
+		for(int i = 0; i < this.removedCount; i++)
+		{
+			int handle = this.removed[i];
+			
+			this.states[handle] = FREE;
+			this.nextFree[handle] = this.freeList;
+			this.freeList = handle;
+		}
+		
+		this.removedCount = 0;
+	}
+	
+	/**
+	 * Copies the current values of the endpoints of the sorted axis with the given index from the boxes.
+	 */
+	private void refresh(int index, int axis)
+	{
+		int[] endpoints = this.endpoints[index];
+		float[] values = this.values[index];
+		float[] boxes = this.boxes;
+		
+		for(int i = 0; i < this.endpointCount; i++)
+		{
+			int e = endpoints[i];
+			
+			values[i] = boxes[(e >>> 1) * 6 + axis + (e & 1) * 3];
+		}
+	}
+	
+	/**
+	 * Insertion sort that reports the overlap changes indicated by swapped min and max endpoints.
+	 * A min endpoint passing a max endpoint to the left can start an overlap, which is confirmed by testing the boxes.
+	 * A max endpoint passing a min endpoint to the left ends the overlap of the two objects.
+	 */
+	private void sortWithEvents(int axis)
+	{
+		int[] endpoints = this.endpoints[axis];
+		float[] values = this.values[axis];
+		
+		for(int i = 1; i < this.endpointCount; i++)
+		{
+			int e = endpoints[i];
+			float v = values[i];
+			
+			int j = i - 1;
+			
+			while(j >= 0 && greater(values[j], endpoints[j], v, e))
+			{
+				int p = endpoints[j];
+				
+				if((e & 1) == 0 && (p & 1) == 1)
+				{
+					int a = e >>> 1;
+					int b = p >>> 1;
+					
+					if(this.states[a] == LIVE && this.states[b] == LIVE && overlaps(a, b) && this.pairs.add(LongHashSet.key(a, b)))
+						begin(a, b);
+				}
+				else if((e & 1) == 1 && (p & 1) == 0)
+				{
+					int a = e >>> 1;
+					int b = p >>> 1;
+					
+					if(this.pairs.remove(LongHashSet.key(a, b))) end(a, b);
+				}
+				
+				endpoints[j + 1] = p;
+				values[j + 1] = values[j];
+				j--;
+			}
+			
+			endpoints[j + 1] = e;
+			values[j + 1] = v;
+		}
+	}
+	
+	/**
+	 * Sorts the endpoints that were already sorted by the last update with an insertion sort, sorts the endpoints
+	 * added since then separately and merges them in.
+	 */
+	private void merge(int axis)
+	{
+		int[] endpoints = this.endpoints[axis];
+		float[] values = this.values[axis];
+		
+		int added = this.addedCount * 2;
+		int head = this.endpointCount - added;
+		
+		for(int i = 1; i < head; i++)
+		{
+			int e = endpoints[i];
+			float v = values[i];
+			
+			int j = i - 1;
+			
+			while(j >= 0 && greater(values[j], endpoints[j], v, e))
+			{
+				endpoints[j + 1] = endpoints[j];
+				values[j + 1] = values[j];
+				j--;
+			}
+			
+			endpoints[j + 1] = e;
+			values[j + 1] = v;
+		}
+		
+		if(added == 0) return;
+		
+		sortKeys(endpoints, values, head, added, this.mergeEndpoints, this.mergeValues);
+		
+		// merge from the back, so the head can stay in place.
+		int i = head - 1;
+		int k = added - 1;
+		
+		for(int o = this.endpointCount - 1; k >= 0; o--)
+		{
+			if(i >= 0 && greater(values[i], endpoints[i], this.mergeValues[k], this.mergeEndpoints[k]))
+			{
+				endpoints[o] = endpoints[i];
+				values[o] = values[i];
+				i--;
+			}
+			else
+			{
+				endpoints[o] = this.mergeEndpoints[k];
+				values[o] = this.mergeValues[k];
+				k--;
+			}
+		}
+	}
+	
+	private void sortFully(int axis)
+	{
+		sortKeys(this.endpoints[axis], this.values[axis], 0, this.endpointCount, this.endpoints[axis], this.values[axis]);
+	}
+	
+	/**
+	 * Sorts the given range of endpoints into dst from index 0 by packing value and endpoint into one long key.
+	 */
+	private void sortKeys(int[] endpoints, float[] values, int from, int count, int[] dstEndpoints, float[] dstValues)
+	{
+		long[] keys = this.keys;
+		
+		for(int i = 0; i < count; i++)
+		{
+			// adding 0 turns -0 into +0, which would otherwise sort before it and split boxes touching at zero.
+			int bits = Float.floatToIntBits(values[from + i] + 0.0f);
+			int e = endpoints[from + i];
+			
+			// flip the bits of negative values so the integers order like the floats, min endpoints first on ties.
+			bits ^= (bits >> 31) & 0x7FFFFFFF;
+			
+			keys[i] = (long)bits << 32 | (long)(e & 1) << 31 | (e >>> 1);
+		}
+		
+		Arrays.sort(keys, 0, count);
+		
+		for(int i = 0; i < count; i++)
+		{
+			long key = keys[i];
+			int bits = (int)(key >> 32);
+			
+			dstEndpoints[i] = (int)(key & 0x7FFFFFFFL) << 1 | (int)(key >>> 31) & 1;
+			dstValues[i] = Float.intBitsToFloat(bits ^ ((bits >> 31) & 0x7FFFFFFF));
+		}
+	}
+	
+	/**
+	 * Finds all overlapping pairs by sweeping along the sorted axis, keeping the objects whose interval is open in a list
+	 * and testing the other two axes against them. The result replaces the stored pairs, and the differences are reported.
+	 */
+	private void sweep(int index, int axis)
+	{
+		int[] endpoints = this.endpoints[index];
+		
+		LongHashSet swept = this.swept;
+		
+		swept.clear();
+		
+		int[] active = this.active;
+		int[] activeIndex = this.activeIndex;
+		int activeCount = 0;
+		
+		int a1 = (axis + 1) % 3;
+		int a2 = (axis + 2) % 3;
+		
+		int count = this.endpointCount - this.removedCount * 2;
+		
+		for(int i = 0; i < count; i++)
+		{
+			int e = endpoints[i];
+			int handle = e >>> 1;
+			
+			if((e & 1) == 1)
+			{
+				int slot = activeIndex[handle];
+				int last = active[--activeCount];
+				
+				active[slot] = last;
+				activeIndex[last] = slot;
+				
+				continue;
+			}
+			
+			for(int k = 0; k < activeCount; k++)
+			{
+				int other = active[k];
+				
+				if(overlaps(handle, other, a1) && overlaps(handle, other, a2)) swept.add(LongHashSet.key(handle, other));
+			}
+			
+			activeIndex[handle] = activeCount;
+			active[activeCount++] = handle;
+		}
+		
+		LongHashSet pairs = this.pairs;
+		
+		if(this.listener != null)
+		{
+			for(int i = 0; i < pairs.capacity(); i++)
+			{
+				long key = pairs.get(i);
+				
+				if(key != 0L && !swept.contains(key)) this.listener.end(LongHashSet.first(key), LongHashSet.second(key));
+			}
+			
+			for(int i = 0; i < swept.capacity(); i++)
+			{
+				long key = swept.get(i);
+				
+				if(key != 0L && !pairs.contains(key)) this.listener.begin(LongHashSet.first(key), LongHashSet.second(key));
+			}
+		}
+		
+		this.pairs = swept;
+		this.swept = pairs;
+	}
+	
+	/**
+	 * Calculates the variance of the centers of the objects along each axis and returns the axis with the largest one.
+	 */
+	private int selectAxis()
+	{
+		double[] variances = this.variances;
+		
+		Arrays.fill(variances, 0.0);
+		
+		if(this.size == 0) return this.axis;
+		
+		float[] boxes = this.boxes;
+		
+		double sumX = 0.0, sumY = 0.0, sumZ = 0.0;
+		
+		for(int i = 0; i < this.capacity; i++)
+		{
+			if(this.states[i] != LIVE) continue;
+			
+			int o = i * 6;
+			
+			double x = (boxes[o] + boxes[o + 3]) * 0.5;
+			double y = (boxes[o + 1] + boxes[o + 4]) * 0.5;
+			double z = (boxes[o + 2] + boxes[o + 5]) * 0.5;
+			
+			sumX += x;
+			sumY += y;
+			sumZ += z;
+			
+			variances[0] += x * x;
+			variances[1] += y * y;
+			variances[2] += z * z;
+		}
+		
+		double n = this.size;
+		
+		variances[0] = variances[0] / n - (sumX / n) * (sumX / n);
+		variances[1] = variances[1] / n - (sumY / n) * (sumY / n);
+		variances[2] = variances[2] / n - (sumZ / n) * (sumZ / n);
+		
+		int best = 0;
+		
+		for(int a = 1; a < 3; a++)
+			if(variances[a] > variances[best]) best = a;
+		
+		return best;
+	}
+	
+	private void begin(int a, int b)
+	{
+		if(this.listener != null)
+		{
+			if(a < b)
+				this.listener.begin(a, b);
+			else
+				this.listener.begin(b, a);
+		}
+	}
+	
+	private void end(int a, int b)
+	{
+		if(this.listener != null)
+		{
+			if(a < b)
+				this.listener.end(a, b);
+			else
+				this.listener.end(b, a);
+		}
+	}
+	
+	/**
+	 * Compares two endpoints by value, with min endpoints before max endpoints of the same value,
+	 * so that the order encodes min <= max for touching boxes.
+	 */
+	private static boolean greater(float v1, int e1, float v2, int e2)
+	{
+		return v1 > v2 || v1 == v2 && (e1 & 1) == 1 && (e2 & 1) == 0;
+	}
+	
+	private boolean overlaps(int a, int b)
+	{
+		return overlaps(a, b, 0) && overlaps(a, b, 1) && overlaps(a, b, 2);
+	}
+	
+	private boolean overlaps(int a, int b, int axis)
+	{
+		float[] boxes = this.boxes;
+		
+		int oa = a * 6 + axis;
+		int ob = b * 6 + axis;
+		
+		return boxes[oa] <= boxes[ob + 3] && boxes[ob] <= boxes[oa + 3];
+	}
+	
+	private void setBox(int handle, float minX, float minY, float minZ, float maxX, float maxY, float maxZ)
+	{
+		int o = handle * 6;
+		
+		this.boxes[o] = minX;
+		this.boxes[o + 1] = minY;
+		this.boxes[o + 2] = minZ;
+		this.boxes[o + 3] = maxX;
+		this.boxes[o + 4] = maxY;
+		this.boxes[o + 5] = maxZ;
+	}
+	
+	private void checkHandle(int handle)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(handle < 0 || handle >= this.capacity || this.states[handle] != LIVE) throw new IllegalArgumentException("The handle " + handle + " is not an object of this broad phase.");
+		}
+	}
+	
+	private void grow(int capacity)
+	{
+		int old = this.capacity;
+		
+		this.boxes = Arrays.copyOf(this.boxes, capacity * 6);
+		this.userData = Arrays.copyOf(this.userData, capacity);
+		this.states = Arrays.copyOf(this.states, capacity);
+		this.nextFree = Arrays.copyOf(this.nextFree, capacity);
+		this.removed = Arrays.copyOf(this.removed, capacity);
+		this.active = Arrays.copyOf(this.active, capacity);
+		this.activeIndex = Arrays.copyOf(this.activeIndex, capacity);
+		
+		for(int a = 0; a < this.endpoints.length; a++)
+		{
+			this.endpoints[a] = Arrays.copyOf(this.endpoints[a], capacity * 2);
+			this.values[a] = Arrays.copyOf(this.values[a], capacity * 2);
+		}
+		
+		this.keys = new long[capacity * 2];
+		this.mergeValues = new float[capacity * 2];
+		this.mergeEndpoints = new int[capacity * 2];
+		
+		// the free list is empty whenever the handles grow.
+		for(int i = old; i < capacity; i++)
+			this.nextFree[i] = i + 1 < capacity ? i + 1 : -1;
+		
+		this.freeList = old;
+		this.capacity = capacity;
+	}
+	
+	public static interface OverlapListener
+	{
+		/**
+		 * Called by {@link SweepAndPrune3f#update()} for a pair of objects whose boxes started overlapping, with a < b.
+		 */
+		void begin(int a, int b);
+		
+		/**
+		 * Called by {@link SweepAndPrune3f#update()} for a pair of objects whose boxes stopped overlapping or
+		 * one of which was removed, with a < b.
+		 */
+		void end(int a, int b);
+	}
+	
+	@FunctionalInterface
+	public static interface PairCallback
+	{
+		void report(int a, int b);
+	}
+}
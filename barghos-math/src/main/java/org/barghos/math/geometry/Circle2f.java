@@ -144,6 +144,16 @@ public class Circle2f
 		return res.set(this.center);
 	}
 	
+	public float getCenterX()
+	{
+		return this.center.getX();
+	}
+	
+	public float getCenterY()
+	{
+		return this.center.getY();
+	}
+	
 	public float getRadius()
 	{
 		return this.radius;
@@ -56,9 +56,7 @@ public interface FiniteGeometricObject3f
 	
 	default PointSet3f getTransformedPointSet(Mat4f t)
 	{
-		PointSet3f s = getPointSet();
-
-		return s.transform(t, null);
+		return getPointSet().transform(t);
 	}
 	
 	default PointSet3f getTransformedPointSet(Mat4f t, PointSet3f res)
@@ -67,7 +65,7 @@ public interface FiniteGeometricObject3f
 		
 		getPointSet(res);
 		
-		res.transform(t, res);
+		res.transform(t);
 		
 		return res;
 	}
@@ -24,19 +24,25 @@ SOFTWARE.
 
 package org.barghos.math.geometry;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.List;
+import java.util.NoSuchElementException;
 
 import org.barghos.core.util.Nullable;
 import org.barghos.math.matrix.Mat4f;
 import org.barghos.math.point.Point3f;
 import org.barghos.math.vec3.Vec3f;
 
+/**
+ * A set of points stored as packed xyz coordinates.
+ * The set keeps its own copy of the coordinates, therefore points passed to or returned from it are never shared.
+ */
 public class PointSet3f implements FiniteGeometricObject3f, Iterable<Point3f>
 {
-	protected final List<Point3f> points = new ArrayList<>();
+	protected float[] coords = new float[0];
+	protected int size;
+	
 	protected final Vec3f min = new Vec3f();
 	protected final Vec3f max = new Vec3f();
 	
@@ -59,42 +65,40 @@ public class PointSet3f implements FiniteGeometricObject3f, Iterable<Point3f>
 		set(c);
 	}
 	
-	public PointSet3f set() { this.points.clear(); this.isDirty = true; return this; }
+	public PointSet3f set() { this.size = 0; this.isDirty = true; return this; }
 	
 	public PointSet3f set(PointSet3f set)
 	{
-		this.points.clear();
-		for(int i = 0; i < set.points.size(); i++)
-			this.points.add(set.points.get(i));
+		if(set == this) return this;
+		
+		ensureCapacity(set.size);
+		System.arraycopy(set.coords, 0, this.coords, 0, set.size * 3);
+		this.size = set.size;
+		
 		this.isDirty = true;
 		return this;
 	}
 	
 	public PointSet3f set(Point3f... points)
 	{
-		this.points.clear();
-		
-		for(int i = 0; i < points.length; i++)
-			this.points.add(points[i]);
+		this.size = 0;
 		
-		this.isDirty = true;
-		
-		return this;
+		return add(points);
 	}
 
 	public PointSet3f set(Collection<Point3f> c)
 	{
-		this.points.clear();
-		this.points.addAll(c);
+		this.size = 0;
 		
-		this.isDirty = true;
-		return this;
+		return add(c);
 	}
 	
 	public PointSet3f add(Point3f... points)
 	{
+		ensureCapacity(this.size + points.length);
+		
 		for(int i = 0; i < points.length; i++)
-			this.points.add(points[i]);
+			put(this.size++, points[i]);
 		
 		this.isDirty = true;
 		
@@ -103,31 +107,33 @@ public class PointSet3f implements FiniteGeometricObject3f, Iterable<Point3f>
 	
 	public PointSet3f add(Collection<Point3f> c)
 	{
-		this.points.addAll(c);
+		ensureCapacity(this.size + c.size());
+		
+		for(Point3f p : c)
+			put(this.size++, p);
+		
 		this.isDirty = true;
 		return this;
 	}
 	
 	public PointSet3f transform(Mat4f t)
 	{
-		Point3f[] p = new Point3f[this.points.size()];
+		t.transform(this.coords, 0, this.size, true);
 		
-		for(int i = 0; i < this.points.size(); i++)
-			p[i] = t.transform(this.points.get(i), (Point3f)null);
-		
-		return set(p);
+		this.isDirty = true;
+		return this;
 	}
 	
 	public PointSet3f transform(Mat4f t, @Nullable PointSet3f res)
 	{
 		if(res == null) res = new PointSet3f();
 		
-		Point3f[] p = new Point3f[this.points.size()];
-		
-		for(int i = 0; i < this.points.size(); i++)
-			p[i] = t.transform(this.points.get(i), (Point3f)null);
+		res.ensureCapacity(this.size);
+		t.transform(this.coords, 0, res.coords, 0, this.size, true);
+		res.size = this.size;
 		
-		return res.set(p);
+		res.isDirty = true;
+		return res;
 	}
 	
 	public PointSet3f getPointSet()
@@ -135,9 +141,45 @@ public class PointSet3f implements FiniteGeometricObject3f, Iterable<Point3f>
 		return new PointSet3f(this);
 	}
 	
+	public int size()
+	{
+		return this.size;
+	}
+	
+	public Point3f getPoint(int index, Point3f res)
+	{
+		if(index < 0 || index >= this.size) throw new IndexOutOfBoundsException(index);
+		
+		int i = index * 3;
+		
+		res.set(this.coords[i], this.coords[i + 1], this.coords[i + 2]);
+		
+		return res;
+	}
+	
 	public Point3f[] getPoints()
 	{
-		return this.points.toArray(new Point3f[this.points.size()]);
+		Point3f[] p = new Point3f[this.size];
+		
+		for(int i = 0; i < this.size; i++)
+			p[i] = getPoint(i, new Point3f());
+		
+		return p;
+	}
+	
+	protected void ensureCapacity(int size)
+	{
+		if(this.coords.length < size * 3)
+			this.coords = Arrays.copyOf(this.coords, Math.max(size, this.size * 2) * 3);
+	}
+	
+	private void put(int index, Point3f p)
+	{
+		int i = index * 3;
+		
+		this.coords[i] = p.getX();
+		this.coords[i + 1] = p.getY();
+		this.coords[i + 2] = p.getZ();
 	}
 	
 	private void calculateExtremes()
@@ -153,29 +195,32 @@ public class PointSet3f implements FiniteGeometricObject3f, Iterable<Point3f>
 		float maxY = Float.NEGATIVE_INFINITY;
 		float maxZ = Float.NEGATIVE_INFINITY;
 		
-		Point3f current;
+		float[] c = this.coords;
+		int length = this.size * 3;
 		
-		for(int i = 0; i < this.points.size(); i++)
+		for(int i = 0; i < length; i += 3)
 		{
-			current = this.points.get(i);
+			float x = c[i];
+			float y = c[i + 1];
+			float z = c[i + 2];
 			
-			if(current.getX() < minX)
-				minX = current.getX();
+			if(x < minX)
+				minX = x;
 			
-			if(current.getY() < minY)
-				minY = current.getY();
+			if(y < minY)
+				minY = y;
 			
-			if(current.getZ() < minZ)
-				minZ = current.getZ();
+			if(z < minZ)
+				minZ = z;
 			
-			if(current.getX() > maxX)
-				maxX = current.getX();
+			if(x > maxX)
+				maxX = x;
 			
-			if(current.getY() > maxY)
-				maxY = current.getY();
+			if(y > maxY)
+				maxY = y;
 			
-			if(current.getZ() > maxZ)
-				maxZ = current.getZ();
+			if(z > maxZ)
+				maxZ = z;
 		}
 		
 		this.min.set(minX, minY, minZ);
@@ -224,8 +269,26 @@ public class PointSet3f implements FiniteGeometricObject3f, Iterable<Point3f>
 		return this.max.getZ();
 	}
 
+	/**
+	 * Returns an iterator over copies of the points. Changing the returned points does not affect the set.
+	 */
 	public Iterator<Point3f> iterator()
 	{
-		return this.points.iterator();
+		return new Iterator<Point3f>()
+		{
+			private int index;
+			
+			public boolean hasNext()
+			{
+				return this.index < PointSet3f.this.size;
+			}
+			
+			public Point3f next()
+			{
+				if(!hasNext()) throw new NoSuchElementException();
+				
+				return getPoint(this.index++, new Point3f());
+			}
+		};
 	}
 }
@@ -0,0 +1,737 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.matrix;
+
+import java.nio.FloatBuffer;
+
+import org.barghos.core.exception.ArgumentNullException;
+import org.barghos.core.tuple2.api.Tup2fR;
+import org.barghos.core.tuple3.api.Tup3fR;
+import org.barghos.core.tuple3.api.Tup3fW;
+import org.barghos.core.tuple4.Tup4f;
+import org.barghos.core.tuple4.api.Tup4fR;
+import org.barghos.core.tuple4.api.Tup4fW;
+import org.barghos.math.BarghosMath;
+import org.barghos.math.matrix.api.Mat4fR;
+import org.barghos.math.matrix.api.Mat4fW;
+
+/**
+ * This class represents a 4x4 float matrix that stores its cells in 16 scalar fields
+ * instead of a nested array.
+ * It can be used as a substitution for {@link SimpleMat4f} in hot paths, as none of its operations
+ * allocate temporary objects or use pools.
+ * 
+ * The field mRC holds the cell in row R and column C.
+ * 
+ * @author picatrix1899
+ */
+public class FlatMat4f implements Mat4fR, Mat4fW
+{
+	public static final int ROWS = 4;
+	public static final int COLUMNS = 4;
+	
+	public float m00, m01, m02, m03;
+	public float m10, m11, m12, m13;
+	public float m20, m21, m22, m23;
+	public float m30, m31, m32, m33;
+	
+	public FlatMat4f() { }
+	
+	public FlatMat4f(Mat4fR m)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(m == null) throw new ArgumentNullException("m");
+		}
+		
+		set(m);
+	}
+	
+	public FlatMat4f(float m00, float m01, float m02, float m03,
+					float m10, float m11, float m12, float m13,
+					float m20, float m21, float m22, float m23,
+					float m30, float m31, float m32, float m33)
+	{
+		set(m00, m01, m02, m03, m10, m11, m12, m13, m20, m21, m22, m23, m30, m31, m32, m33);
+	}
+	
+	public Tup4fR getRow(int index)
+	{
+		return getRow(index, new Tup4f());
+	}
+	
+	public <T extends Tup4fW> T getRow(int index, T res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		switch(index)
+		{
+			case 0: res.set(this.m00, this.m01, this.m02, this.m03); break;
+			case 1: res.set(this.m10, this.m11, this.m12, this.m13); break;
+			case 2: res.set(this.m20, this.m21, this.m22, this.m23); break;
+			case 3: res.set(this.m30, this.m31, this.m32, this.m33); break;
+			default: throw new IndexOutOfBoundsException();
+		}
+		
+		return res;
+	}
+	
+	public Tup4fR getColumn(int index)
+	{
+		return getColumn(index, new Tup4f());
+	}
+	
+	public <T extends Tup4fW> T getColumn(int index, T res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		switch(index)
+		{
+			case 0: res.set(this.m00, this.m10, this.m20, this.m30); break;
+			case 1: res.set(this.m01, this.m11, this.m21, this.m31); break;
+			case 2: res.set(this.m02, this.m12, this.m22, this.m32); break;
+			case 3: res.set(this.m03, this.m13, this.m23, this.m33); break;
+			default: throw new IndexOutOfBoundsException();
+		}
+		
+		return res;
+	}
+	
+	public float getCell(int row, int column)
+	{
+		switch(row * COLUMNS + column)
+		{
+			case 0: return this.m00;
+			case 1: return this.m01;
+			case 2: return this.m02;
+			case 3: return this.m03;
+			case 4: return this.m10;
+			case 5: return this.m11;
+			case 6: return this.m12;
+			case 7: return this.m13;
+			case 8: return this.m20;
+			case 9: return this.m21;
+			case 10: return this.m22;
+			case 11: return this.m23;
+			case 12: return this.m30;
+			case 13: return this.m31;
+			case 14: return this.m32;
+			case 15: return this.m33;
+			default: throw new IndexOutOfBoundsException();
+		}
+	}
+	
+	public float determinant()
+	{
+		return MatUtils.det4x4f(this.m00, this.m01, this.m02, this.m03,
+								this.m10, this.m11, this.m12, this.m13,
+								this.m20, this.m21, this.m22, this.m23,
+								this.m30, this.m31, this.m32, this.m33);
+	}
+	
+	public FlatMat4f mul(Mat4fR left)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(left == null) throw new ArgumentNullException("left");
+		}
+		
+		mul(left, this);
+		
+		return this;
+	}
+	
+	/**
+	 * Multiplies the current Matrix with another Matrix.
+	 * Import is that the call for a multiplication AB is B.mul(A).
+	 * This is to allow easier chaining of multiplications without nesting method calls.
+	 * 
+	 * If both matrices are instances of {@link FlatMat4f} the multiplication is done on the fields directly.
+	 * In every case all cells are read before the first cell of res is written, therefore res can be
+	 * one of the operands.
+	 */
+	public <T extends Mat4fW> T mul(Mat4fR left, T res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(left == null) throw new ArgumentNullException("left");
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		if(left instanceof FlatMat4f && res instanceof FlatMat4f)
+		{
+			FlatMat4f.mul((FlatMat4f)left, this, (FlatMat4f)res);
+			
+			return res;
+		}
+		
+		float l00 = left.getCell(0, 0), l01 = left.getCell(0, 1), l02 = left.getCell(0, 2), l03 = left.getCell(0, 3);
+		float l10 = left.getCell(1, 0), l11 = left.getCell(1, 1), l12 = left.getCell(1, 2), l13 = left.getCell(1, 3);
+		float l20 = left.getCell(2, 0), l21 = left.getCell(2, 1), l22 = left.getCell(2, 2), l23 = left.getCell(2, 3);
+		float l30 = left.getCell(3, 0), l31 = left.getCell(3, 1), l32 = left.getCell(3, 2), l33 = left.getCell(3, 3);
+		
+		float r00 = this.m00, r01 = this.m01, r02 = this.m02, r03 = this.m03;
+		float r10 = this.m10, r11 = this.m11, r12 = this.m12, r13 = this.m13;
+		float r20 = this.m20, r21 = this.m21, r22 = this.m22, r23 = this.m23;
+		float r30 = this.m30, r31 = this.m31, r32 = this.m32, r33 = this.m33;
+		
+		res.setRow(0,	l00 * r00 + l01 * r10 + l02 * r20 + l03 * r30,
+						l00 * r01 + l01 * r11 + l02 * r21 + l03 * r31,
+						l00 * r02 + l01 * r12 + l02 * r22 + l03 * r32,
+						l00 * r03 + l01 * r13 + l02 * r23 + l03 * r33);
+		
+		res.setRow(1,	l10 * r00 + l11 * r10 + l12 * r20 + l13 * r30,
+						l10 * r01 + l11 * r11 + l12 * r21 + l13 * r31,
+						l10 * r02 + l11 * r12 + l12 * r22 + l13 * r32,
+						l10 * r03 + l11 * r13 + l12 * r23 + l13 * r33);
+		
+		res.setRow(2,	l20 * r00 + l21 * r10 + l22 * r20 + l23 * r30,
+						l20 * r01 + l21 * r11 + l22 * r21 + l23 * r31,
+						l20 * r02 + l21 * r12 + l22 * r22 + l23 * r32,
+						l20 * r03 + l21 * r13 + l22 * r23 + l23 * r33);
+		
+		res.setRow(3,	l30 * r00 + l31 * r10 + l32 * r20 + l33 * r30,
+						l30 * r01 + l31 * r11 + l32 * r21 + l33 * r31,
+						l30 * r02 + l31 * r12 + l32 * r22 + l33 * r32,
+						l30 * r03 + l31 * r13 + l32 * r23 + l33 * r33);
+		
+		return res;
+	}
+	
+	public FlatMat4f mulN(Mat4fR left)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(left == null) throw new ArgumentNullException("left");
+		}
+		
+		return mul(left, new FlatMat4f());
+	}
+	
+	public <T extends Tup4fR & Tup4fW> T transform(T r)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(r == null) throw new ArgumentNullException("r");
+		}
+		
+		return transform(r, r);
+	}
+	
+	public <T extends Tup4fW> T transform(Tup4fR r, T res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(r == null) throw new ArgumentNullException("r");
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		float x = r.getX();
+		float y = r.getY();
+		float z = r.getZ();
+		float w = r.getW();
+		
+		res.set(this.m00 * x + this.m01 * y + this.m02 * z + this.m03 * w,
+				this.m10 * x + this.m11 * y + this.m12 * z + this.m13 * w,
+				this.m20 * x + this.m21 * y + this.m22 * z + this.m23 * w,
+				this.m30 * x + this.m31 * y + this.m32 * z + this.m33 * w);
+		
+		return res;
+	}
+	
+	public <T extends Tup3fR & Tup3fW> T transform(T r, boolean useLastColumn)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(r == null) throw new ArgumentNullException("r");
+		}
+		
+		return transform(r, useLastColumn, r);
+	}
+	
+	public <T extends Tup3fW> T transform(Tup3fR r, boolean useLastColumn, T res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(r == null) throw new ArgumentNullException("r");
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		float x = r.getX();
+		float y = r.getY();
+		float z = r.getZ();
+		float w = useLastColumn ? 1.0f : 0.0f;
+		
+		res.set(this.m00 * x + this.m01 * y + this.m02 * z + this.m03 * w,
+				this.m10 * x + this.m11 * y + this.m12 * z + this.m13 * w,
+				this.m20 * x + this.m21 * y + this.m22 * z + this.m23 * w);
+		
+		return res;
+	}
+	
+	public FlatMat4f set(Mat4fR m)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(m == null) throw new ArgumentNullException("m");
+		}
+		
+		if(m instanceof FlatMat4f)
+		{
+			FlatMat4f f = (FlatMat4f)m;
+			
+			return set(f.m00, f.m01, f.m02, f.m03, f.m10, f.m11, f.m12, f.m13, f.m20, f.m21, f.m22, f.m23, f.m30, f.m31, f.m32, f.m33);
+		}
+		
+		return set(m.getCell(0, 0), m.getCell(0, 1), m.getCell(0, 2), m.getCell(0, 3),
+				   m.getCell(1, 0), m.getCell(1, 1), m.getCell(1, 2), m.getCell(1, 3),
+				   m.getCell(2, 0), m.getCell(2, 1), m.getCell(2, 2), m.getCell(2, 3),
+				   m.getCell(3, 0), m.getCell(3, 1), m.getCell(3, 2), m.getCell(3, 3));
+	}
+	
+	public FlatMat4f set(float m00, float m01, float m02, float m03,
+						float m10, float m11, float m12, float m13,
+						float m20, float m21, float m22, float m23,
+						float m30, float m31, float m32, float m33)
+	{
+		this.m00 = m00; this.m01 = m01; this.m02 = m02; this.m03 = m03;
+		this.m10 = m10; this.m11 = m11; this.m12 = m12; this.m13 = m13;
+		this.m20 = m20; this.m21 = m21; this.m22 = m22; this.m23 = m23;
+		this.m30 = m30; this.m31 = m31; this.m32 = m32; this.m33 = m33;
+		
+		return this;
+	}
+	
+	public FlatMat4f setRow(int index, Tup4fR t)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= ROWS) throw new IndexOutOfBoundsException();
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return setRow(index, t.getX(), t.getY(), t.getZ(), t.getW());
+	}
+	
+	public FlatMat4f setRow(int index, Tup3fR t, float w)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= ROWS) throw new IndexOutOfBoundsException();
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return setRow(index, t.getX(), t.getY(), t.getZ(), w);
+	}
+	
+	public FlatMat4f setRow(int index, float x, Tup3fR t)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= ROWS) throw new IndexOutOfBoundsException();
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return setRow(index, x, t.getX(), t.getY(), t.getZ());
+	}
+	
+	public FlatMat4f setRow(int index, Tup2fR t, float z, float w)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= ROWS) throw new IndexOutOfBoundsException();
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return setRow(index, t.getX(), t.getY(), z, w);
+	}
+	
+	public FlatMat4f setRow(int index, float x, Tup2fR t, float w)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= ROWS) throw new IndexOutOfBoundsException();
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return setRow(index, x, t.getX(), t.getY(), w);
+	}
+	
+	public FlatMat4f setRow(int index, float x, float y, Tup2fR t)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= ROWS) throw new IndexOutOfBoundsException();
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return setRow(index, x, y, t.getX(), t.getY());
+	}
+	
+	public FlatMat4f setRow(int index, float x, float y, float z, float w)
+	{
+		switch(index)
+		{
+			case 0: this.m00 = x; this.m01 = y; this.m02 = z; this.m03 = w; break;
+			case 1: this.m10 = x; this.m11 = y; this.m12 = z; this.m13 = w; break;
+			case 2: this.m20 = x; this.m21 = y; this.m22 = z; this.m23 = w; break;
+			case 3: this.m30 = x; this.m31 = y; this.m32 = z; this.m33 = w; break;
+			default: throw new IndexOutOfBoundsException();
+		}
+		
+		return this;
+	}
+	
+	public FlatMat4f setColumn(int index, Tup4fR t)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= COLUMNS) throw new IndexOutOfBoundsException();
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return setColumn(index, t.getX(), t.getY(), t.getZ(), t.getW());
+	}
+	
+	public FlatMat4f setColumn(int index, Tup3fR t, float w)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= COLUMNS) throw new IndexOutOfBoundsException();
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return setColumn(index, t.getX(), t.getY(), t.getZ(), w);
+	}
+	
+	public FlatMat4f setColumn(int index, float x, Tup3fR t)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= COLUMNS) throw new IndexOutOfBoundsException();
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return setColumn(index, x, t.getX(), t.getY(), t.getZ());
+	}
+	
+	public FlatMat4f setColumn(int index, Tup2fR t, float z, float w)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= COLUMNS) throw new IndexOutOfBoundsException();
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return setColumn(index, t.getX(), t.getY(), z, w);
+	}
+	
+	public FlatMat4f setColumn(int index, float x, Tup2fR t, float w)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= COLUMNS) throw new IndexOutOfBoundsException();
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return setColumn(index, x, t.getX(), t.getY(), w);
+	}
+	
+	public FlatMat4f setColumn(int index, float x, float y, Tup2fR t)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= COLUMNS) throw new IndexOutOfBoundsException();
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return setColumn(index, x, y, t.getX(), t.getY());
+	}
+	
+	public FlatMat4f setColumn(int index, float x, float y, float z, float w)
+	{
+		switch(index)
+		{
+			case 0: this.m00 = x; this.m10 = y; this.m20 = z; this.m30 = w; break;
+			case 1: this.m01 = x; this.m11 = y; this.m21 = z; this.m31 = w; break;
+			case 2: this.m02 = x; this.m12 = y; this.m22 = z; this.m32 = w; break;
+			case 3: this.m03 = x; this.m13 = y; this.m23 = z; this.m33 = w; break;
+			default: throw new IndexOutOfBoundsException();
+		}
+		
+		return this;
+	}
+	
+	public FlatMat4f setCell(int row, int column, float value)
+	{
+		switch(row * COLUMNS + column)
+		{
+			case 0: this.m00 = value; break;
+			case 1: this.m01 = value; break;
+			case 2: this.m02 = value; break;
+			case 3: this.m03 = value; break;
+			case 4: this.m10 = value; break;
+			case 5: this.m11 = value; break;
+			case 6: this.m12 = value; break;
+			case 7: this.m13 = value; break;
+			case 8: this.m20 = value; break;
+			case 9: this.m21 = value; break;
+			case 10: this.m22 = value; break;
+			case 11: this.m23 = value; break;
+			case 12: this.m30 = value; break;
+			case 13: this.m31 = value; break;
+			case 14: this.m32 = value; break;
+			case 15: this.m33 = value; break;
+			default: throw new IndexOutOfBoundsException();
+		}
+		
+		return this;
+	}
+	
+	public FlatMat4f initIdentity()
+	{
+		return set(1.0f, 0.0f, 0.0f, 0.0f,
+				   0.0f, 1.0f, 0.0f, 0.0f,
+				   0.0f, 0.0f, 1.0f, 0.0f,
+				   0.0f, 0.0f, 0.0f, 1.0f);
+	}
+	
+	public FlatMat4f initZero()
+	{
+		return set(0.0f, 0.0f, 0.0f, 0.0f,
+				   0.0f, 0.0f, 0.0f, 0.0f,
+				   0.0f, 0.0f, 0.0f, 0.0f,
+				   0.0f, 0.0f, 0.0f, 0.0f);
+	}
+	
+	public FlatMat4f transpose()
+	{
+		return transpose(this);
+	}
+	
+	public FlatMat4f transpose(FlatMat4f res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		return res.set(this.m00, this.m10, this.m20, this.m30,
+					   this.m01, this.m11, this.m21, this.m31,
+					   this.m02, this.m12, this.m22, this.m32,
+					   this.m03, this.m13, this.m23, this.m33);
+	}
+	
+	public boolean isZeroMatrix()
+	{
+		return isZeroMatrix(BarghosMath.DEFAULT_ZERO_THRESHOLD_F);
+	}
+	
+	public boolean isZeroMatrix(float tr)
+	{
+		return  Math.abs(this.m00) <= tr && Math.abs(this.m01) <= tr && Math.abs(this.m02) <= tr && Math.abs(this.m03) <= tr &&
+				Math.abs(this.m10) <= tr && Math.abs(this.m11) <= tr && Math.abs(this.m12) <= tr && Math.abs(this.m13) <= tr &&
+				Math.abs(this.m20) <= tr && Math.abs(this.m21) <= tr && Math.abs(this.m22) <= tr && Math.abs(this.m23) <= tr &&
+				Math.abs(this.m30) <= tr && Math.abs(this.m31) <= tr && Math.abs(this.m32) <= tr && Math.abs(this.m33) <= tr;
+	}
+	
+	public boolean isIdentityMatrix()
+	{
+		return isIdentityMatrix(BarghosMath.DEFAULT_ZERO_THRESHOLD_F);
+	}
+	
+	public boolean isIdentityMatrix(float tr)
+	{
+		return  Math.abs(1.0f - this.m00) <= tr	&& Math.abs(this.m01) <= tr			&& Math.abs(this.m02) <= tr			&& Math.abs(this.m03) <= tr &&
+				Math.abs(this.m10) <= tr		&& Math.abs(1.0f - this.m11) <= tr	&& Math.abs(this.m12) <= tr			&& Math.abs(this.m13) <= tr &&
+				Math.abs(this.m20) <= tr		&& Math.abs(this.m21) <= tr			&& Math.abs(1.0f - this.m22) <= tr	&& Math.abs(this.m23) <= tr &&
+				Math.abs(this.m30) <= tr		&& Math.abs(this.m31) <= tr			&& Math.abs(this.m32) <= tr			&& Math.abs(1.0f - this.m33) <= tr;
+	}
+	
+	public boolean isRotationMatrix()
+	{
+		return isRotationMatrix(BarghosMath.DEFAULT_ZERO_THRESHOLD_F);
+	}
+	
+	/**
+	 * Checks if the matrix is orthogonal but not the identity by evaluating the product of
+	 * the transposed matrix with the matrix itself without creating temporary matrices.
+	 */
+	public boolean isRotationMatrix(float tr)
+	{
+		if(isIdentityMatrix(tr)) return false;
+		
+		float p00 = this.m00 * this.m00 + this.m10 * this.m10 + this.m20 * this.m20 + this.m30 * this.m30;
+		float p11 = this.m01 * this.m01 + this.m11 * this.m11 + this.m21 * this.m21 + this.m31 * this.m31;
+		float p22 = this.m02 * this.m02 + this.m12 * this.m12 + this.m22 * this.m22 + this.m32 * this.m32;
+		float p33 = this.m03 * this.m03 + this.m13 * this.m13 + this.m23 * this.m23 + this.m33 * this.m33;
+		
+		float p01 = this.m00 * this.m01 + this.m10 * this.m11 + this.m20 * this.m21 + this.m30 * this.m31;
+		float p02 = this.m00 * this.m02 + this.m10 * this.m12 + this.m20 * this.m22 + this.m30 * this.m32;
+		float p03 = this.m00 * this.m03 + this.m10 * this.m13 + this.m20 * this.m23 + this.m30 * this.m33;
+		float p12 = this.m01 * this.m02 + this.m11 * this.m12 + this.m21 * this.m22 + this.m31 * this.m32;
+		float p13 = this.m01 * this.m03 + this.m11 * this.m13 + this.m21 * this.m23 + this.m31 * this.m33;
+		float p23 = this.m02 * this.m03 + this.m12 * this.m13 + this.m22 * this.m23 + this.m32 * this.m33;
+		
+		return  Math.abs(1.0f - p00) <= tr && Math.abs(1.0f - p11) <= tr && Math.abs(1.0f - p22) <= tr && Math.abs(1.0f - p33) <= tr &&
+				Math.abs(p01) <= tr && Math.abs(p02) <= tr && Math.abs(p03) <= tr &&
+				Math.abs(p12) <= tr && Math.abs(p13) <= tr && Math.abs(p23) <= tr;
+	}
+	
+	public FloatBuffer toBufferColumnMajor(FloatBuffer res)
+	{
+		res.put(this.m00).put(this.m10).put(this.m20).put(this.m30);
+		res.put(this.m01).put(this.m11).put(this.m21).put(this.m31);
+		res.put(this.m02).put(this.m12).put(this.m22).put(this.m32);
+		res.put(this.m03).put(this.m13).put(this.m23).put(this.m33);
+		
+		res.flip();
+		
+		return res;
+	}
+	
+	public FloatBuffer toBufferRowMajor(FloatBuffer res)
+	{
+		res.put(this.m00).put(this.m01).put(this.m02).put(this.m03);
+		res.put(this.m10).put(this.m11).put(this.m12).put(this.m13);
+		res.put(this.m20).put(this.m21).put(this.m22).put(this.m23);
+		res.put(this.m30).put(this.m31).put(this.m32).put(this.m33);
+		
+		res.flip();
+		
+		return res;
+	}
+	
+	public float[] toArrayColumnMajor()
+	{
+		return toArrayColumnMajor(new float[ROWS * COLUMNS], 0);
+	}
+	
+	/**
+	 * Writes the cells in column major order to the array starting at the given offset.
+	 */
+	public float[] toArrayColumnMajor(float[] res, int offset)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		res[offset + 0] = this.m00; res[offset + 1] = this.m10; res[offset + 2] = this.m20; res[offset + 3] = this.m30;
+		res[offset + 4] = this.m01; res[offset + 5] = this.m11; res[offset + 6] = this.m21; res[offset + 7] = this.m31;
+		res[offset + 8] = this.m02; res[offset + 9] = this.m12; res[offset + 10] = this.m22; res[offset + 11] = this.m32;
+		res[offset + 12] = this.m03; res[offset + 13] = this.m13; res[offset + 14] = this.m23; res[offset + 15] = this.m33;
+		
+		return res;
+	}
+	
+	public float[] toArrayRowMajor()
+	{
+		return toArrayRowMajor(new float[ROWS * COLUMNS], 0);
+	}
+	
+	/**
+	 * Writes the cells in row major order to the array starting at the given offset.
+	 */
+	public float[] toArrayRowMajor(float[] res, int offset)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		res[offset + 0] = this.m00; res[offset + 1] = this.m01; res[offset + 2] = this.m02; res[offset + 3] = this.m03;
+		res[offset + 4] = this.m10; res[offset + 5] = this.m11; res[offset + 6] = this.m12; res[offset + 7] = this.m13;
+		res[offset + 8] = this.m20; res[offset + 9] = this.m21; res[offset + 10] = this.m22; res[offset + 11] = this.m23;
+		res[offset + 12] = this.m30; res[offset + 13] = this.m31; res[offset + 14] = this.m32; res[offset + 15] = this.m33;
+		
+		return res;
+	}
+	
+	public String toString()
+	{
+		return 	"flatMat4f(" + this.m00 + ", " + this.m01 + ", " + this.m02 + ", " + this.m03 + "\n"
+			  + "          " + this.m10 + ", " + this.m11 + ", " + this.m12 + ", " + this.m13 + "\n"
+			  + "          " + this.m20 + ", " + this.m21 + ", " + this.m22 + ", " + this.m23 + "\n"
+			  + "          " + this.m30 + ", " + this.m31 + ", " + this.m32 + ", " + this.m33 + ")";
+	}
+	
+	public FlatMat4f clone()
+	{
+		return new FlatMat4f(this);
+	}
+	
+	/**
+	 * Calculates the product l * r and writes it to res.
+	 * All cells are read before the first cell of res is written, therefore res can be l or r.
+	 */
+	public static FlatMat4f mul(FlatMat4f l, FlatMat4f r, FlatMat4f res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(l == null) throw new ArgumentNullException("l");
+			if(r == null) throw new ArgumentNullException("r");
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		float l00 = l.m00, l01 = l.m01, l02 = l.m02, l03 = l.m03;
+		float l10 = l.m10, l11 = l.m11, l12 = l.m12, l13 = l.m13;
+		float l20 = l.m20, l21 = l.m21, l22 = l.m22, l23 = l.m23;
+		float l30 = l.m30, l31 = l.m31, l32 = l.m32, l33 = l.m33;
+		
+		float r00 = r.m00, r01 = r.m01, r02 = r.m02, r03 = r.m03;
+		float r10 = r.m10, r11 = r.m11, r12 = r.m12, r13 = r.m13;
+		float r20 = r.m20, r21 = r.m21, r22 = r.m22, r23 = r.m23;
+		float r30 = r.m30, r31 = r.m31, r32 = r.m32, r33 = r.m33;
+		
+		res.m00 = l00 * r00 + l01 * r10 + l02 * r20 + l03 * r30;
+		res.m01 = l00 * r01 + l01 * r11 + l02 * r21 + l03 * r31;
+		res.m02 = l00 * r02 + l01 * r12 + l02 * r22 + l03 * r32;
+		res.m03 = l00 * r03 + l01 * r13 + l02 * r23 + l03 * r33;
+		
+		res.m10 = l10 * r00 + l11 * r10 + l12 * r20 + l13 * r30;
+		res.m11 = l10 * r01 + l11 * r11 + l12 * r21 + l13 * r31;
+		res.m12 = l10 * r02 + l11 * r12 + l12 * r22 + l13 * r32;
+		res.m13 = l10 * r03 + l11 * r13 + l12 * r23 + l13 * r33;
+		
+		res.m20 = l20 * r00 + l21 * r10 + l22 * r20 + l23 * r30;
+		res.m21 = l20 * r01 + l21 * r11 + l22 * r21 + l23 * r31;
+		res.m22 = l20 * r02 + l21 * r12 + l22 * r22 + l23 * r32;
+		res.m23 = l20 * r03 + l21 * r13 + l22 * r23 + l23 * r33;
+		
+		res.m30 = l30 * r00 + l31 * r10 + l32 * r20 + l33 * r30;
+		res.m31 = l30 * r01 + l31 * r11 + l32 * r21 + l33 * r31;
+		res.m32 = l30 * r02 + l31 * r12 + l32 * r22 + l33 * r32;
+		res.m33 = l30 * r03 + l31 * r13 + l32 * r23 + l33 * r33;
+		
+		return res;
+	}
+}
@@ -671,6 +671,25 @@ public class Mat3f extends SimpleMat3f
 	{
 		return super.transpose(this);
 	}
+	
+	/**
+	 * Inverts this matrix. Returns null and leaves this matrix unchanged if it is singular.
+	 */
+	public Mat3f invert()
+	{
+		if(!MatUtils.invert3x3f(this.m, this.m)) return null;
+		
+		return this;
+	}
+	
+	public Mat3f invertN()
+	{
+		Mat3f out = new Mat3f();
+		
+		if(!MatUtils.invert3x3f(this.m, out.m)) return null;
+		
+		return out;
+	}
 		
 	public Point2f transform(Point2f r)
 	{
@@ -24,50 +24,145 @@ SOFTWARE.
 
 package org.barghos.math.matrix;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import org.barghos.core.exception.ArgumentNullException;
+import org.barghos.math.BarghosMath;
+import org.barghos.math.matrix.api.Mat3fR;
+import org.barghos.math.matrix.api.Mat3fW;
 
 /**
+ * A stack of 3x3 matrices that stores the cumulative product at every level.
+ * Pushing a matrix costs one multiplication, popping and reading the product are constant time.
+ * The matrix pushed last is applied last, so the product is top * ... * bottom.
+ * 
+ * The levels are preallocated and only grow if the stack gets deeper than its capacity.
+ * 
  * @author picatrix1899
- *
  */
 public class Mat3fStack
 {
-	private Deque<Mat3f> stack = new ArrayDeque<>();
-	private Mat3f result;
-	private boolean isDirty;
+	private static final float[][] IDENTITY = {{1.0f, 0.0f, 0.0f}, {0.0f, 1.0f, 0.0f}, {0.0f, 0.0f, 1.0f}};
+	
+	private float[][][] levels;
+	private int size;
+	
+	public Mat3fStack()
+	{
+		this(16);
+	}
 	
+	public Mat3fStack(int capacity)
+	{
+		if(capacity < 1) throw new IllegalArgumentException("capacity");
+		
+		this.levels = new float[capacity][3][3];
+	}
 	
-	public void push(Mat3f mat)
+	public void push(Mat3fR mat)
 	{
-		this.stack.push(mat);
-		this.isDirty = true;
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(mat == null) throw new ArgumentNullException("mat");
+		}
+		
+		if(this.size == this.levels.length) grow();
+		
+		float[][] res = this.levels[this.size];
+		float[][] below = this.size > 0 ? this.levels[this.size - 1] : IDENTITY;
+		
+		if(mat instanceof SimpleMat3f)
+		{
+			mul(((SimpleMat3f)mat).m, below, res);
+		}
+		else
+		{
+			// Load the matrix into the level first; the product is then formed in place row by row.
+			for(int row = 0; row < 3; row++)
+				for(int column = 0; column < 3; column++)
+					res[row][column] = mat.getCell(row, column);
+			
+			mul(res, below, res);
+		}
+		
+		this.size++;
 	}
 	
 	public void pop()
 	{
-		this.stack.pop();
-		this.isDirty = true;
+		if(this.size == 0) throw new NoSuchElementException();
+		
+		this.size--;
+	}
+	
+	public void clear()
+	{
+		this.size = 0;
+	}
+	
+	public int size()
+	{
+		return this.size;
+	}
+	
+	public boolean isEmpty()
+	{
+		return this.size == 0;
+	}
+	
+	/**
+	 * Writes the cumulative product of all matrices on the stack to res, or the identity if the stack is empty.
+	 */
+	public <T extends Mat3fW> T get(T res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		float[][] m = this.size > 0 ? this.levels[this.size - 1] : IDENTITY;
+		
+		res.setRow(0, m[0][0], m[0][1], m[0][2]);
+		res.setRow(1, m[1][0], m[1][1], m[1][2]);
+		res.setRow(2, m[2][0], m[2][1], m[2][2]);
+		
+		return res;
 	}
 	
 	public Mat3f get()
 	{
-		if(stack.size() == 0) return Mat3f.identity();
+		return get(new Mat3f());
+	}
+	
+	private void grow()
+	{
+		int capacity = this.levels.length;
+		
+		this.levels = Arrays.copyOf(this.levels, capacity * 2);
 		
-		if(this.isDirty)
+		for(int i = capacity; i < this.levels.length; i++)
+			this.levels[i] = new float[3][3];
+	}
+	
+	/**
+	 * res = l * r. res may be the same array as l, but not as r.
+	 */
+	private static void mul(float[][] l, float[][] r, float[][] res)
+	{
+		float r00 = r[0][0], r01 = r[0][1], r02 = r[0][2];
+		float r10 = r[1][0], r11 = r[1][1], r12 = r[1][2];
+		float r20 = r[2][0], r21 = r[2][1], r22 = r[2][2];
+		
+		for(int row = 0; row < 3; row++)
 		{
-			Mat3f result = Mat3f.identity();
+			float[] lr = l[row];
+			float l0 = lr[0], l1 = lr[1], l2 = lr[2];
 			
-			for(Iterator<Mat3f> it = stack.descendingIterator(); it.hasNext();)
-			{
-				Mat3f.mul(it.next(), result, result);
-			}
-			
-			this.result = result;
-			this.isDirty = false;
+			float[] o = res[row];
+			o[0] = l0 * r00 + l1 * r10 + l2 * r20;
+			o[1] = l0 * r01 + l1 * r11 + l2 * r21;
+			o[2] = l0 * r02 + l1 * r12 + l2 * r22;
 		}
-
-		return this.result.clone();
 	}
 }
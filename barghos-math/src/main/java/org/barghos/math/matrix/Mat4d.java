@@ -38,9 +38,16 @@ import org.barghos.core.tuple4.api.Tup4dR;
 import org.barghos.core.tuple4.api.Tup4dW;
 import org.barghos.core.tuple4.pool.Tup4dPool;
 import org.barghos.math.BarghosMath;
+import org.barghos.math.quat.Quatd;
 import org.barghos.math.quat.Quatf;
+import org.barghos.math.utils.EulerAngles2f;
+import org.barghos.math.utils.EulerAnglesRad2f;
+import org.barghos.math.utils.LinearSystem3;
 import org.barghos.math.utils.Maths;
+import org.barghos.math.utils.api.EulerAngles3fR;
+import org.barghos.math.utils.api.EulerRotationOrder3;
 import org.barghos.math.vec3.Vec3d;
+import org.barghos.math.vec3.Vec3f;
 import org.barghos.math.vec3.pool.Vec3dPool;
 
 
@@ -356,504 +363,1512 @@ public class Mat4d
 		return this;
 	}
 	
-	public Mat4d setRow(int index, Tup2dR t, double z, double w)
+	public Mat4d initRotation(Quatd q)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
-			if(index < 0 || index >= ROWS) throw new IndexOutOfBoundsException();
-			if(t == null) throw new ArgumentNullException("t");
+			if(q == null) throw new ArgumentNullException("q");
 		}
 		
-		return setRow(index, t.getX(), t.getY(), z, w);
+		double x = q.getX();
+		double y = q.getY();
+		double z = q.getZ();
+		double w = q.getW();
+		
+		setRow(0, 1.0 - 2.0 * (y * y + z * z),	2.0 * (x * y - w * z),			2.0 * (x * z + w * y),			0.0);
+		setRow(1, 2.0 * (x * y + w * z),		1.0 - 2.0 * (x * x + z * z),	2.0 * (y * z - w * x),			0.0);
+		setRow(2, 2.0 * (x * z - w * y),		2.0 * (y * z + w * x),			1.0 - 2.0 * (x * x + y * y),	0.0);
+		setRow(3, 0.0, 0.0, 0.0, 1.0);
+		
+		return this;
 	}
 	
-	public Mat4d setRow(int index, double x, Tup2dR t, double w)
+	public Mat4d initRotation(Tup3dR axis, double angle)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
-			if(index < 0 || index >= ROWS) throw new IndexOutOfBoundsException();
-			if(t == null) throw new ArgumentNullException("t");
+			if(axis == null) throw new ArgumentNullException("axis");
 		}
 		
-		return setRow(index, x, t.getX(), t.getY(), w);
+		return initRotationRad(axis.getX(), axis.getY(), axis.getZ(), angle * Maths.DEG_TO_RAD);
 	}
 	
-	public Mat4d setRow(int index, double x, double y, Tup2dR t)
+	public Mat4d initRotationRad(Tup3dR axis, double angle)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
-			if(index < 0 || index >= ROWS) throw new IndexOutOfBoundsException();
-			if(t == null) throw new ArgumentNullException("t");
+			if(axis == null) throw new ArgumentNullException("axis");
 		}
 		
-		return setRow(index, x, y, t.getX(), t.getY());
+		return initRotationRad(axis.getX(), axis.getY(), axis.getZ(), angle);
 	}
 	
-	public Mat4d setRow(int index, Tup3dR t, double w)
+	public Mat4d initRotationRad(double aX, double aY, double aZ, double angle)
+	{
+		double cA = Math.cos(angle);
+		double iCA = 1.0 - cA;
+		double sA = Math.sin(angle);
+		
+		setRow(0, cA + aX * aX * iCA		, aX * aY * iCA - aZ * sA	, aX * aZ * iCA + aY * sA	, 0.0);
+		setRow(1, aX * aY * iCA + aZ * sA	, cA + aY * aY * iCA		, aY * aZ * iCA - aX * sA	, 0.0);
+		setRow(2, aX * aZ * iCA - aY * sA	, aY * aZ * iCA + aX * sA	, cA + aZ * aZ * iCA		, 0.0);
+		setRow(3, 0.0, 0.0, 0.0, 1.0);
+		
+		return this;
+	}
+	
+	public Mat4d initPitchRotation(double angle)
+	{
+		return initPitchRotationRad(angle * Maths.DEG_TO_RAD, BarghosMath.DEFAULT_SYSTEM);
+	}
+	
+	public Mat4d initPitchRotationRad(double angle)
+	{
+		return initPitchRotationRad(angle, BarghosMath.DEFAULT_SYSTEM);
+	}
+	
+	public Mat4d initPitchRotation(double angle, LinearSystem3 system)
+	{
+		return initPitchRotationRad(angle * Maths.DEG_TO_RAD, system);
+	}
+	
+	public Mat4d initPitchRotationRad(double angle, LinearSystem3 system)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
-			if(index < 0 || index >= ROWS) throw new IndexOutOfBoundsException();
-			if(t == null) throw new ArgumentNullException("t");
+			if(system == null) throw new ArgumentNullException("system");
 		}
 		
-		return setRow(index, t.getX(), t.getY(), t.getZ(), w);
+		Vec3f axis = system.getRight();
+		
+		return initRotationRad(axis.getX(), axis.getY(), axis.getZ(), angle);
 	}
 	
-	public Mat4d setRow(int index, double x, Tup3dR t)
+	public Mat4d initYawRotation(double angle)
+	{
+		return initYawRotationRad(angle * Maths.DEG_TO_RAD, BarghosMath.DEFAULT_SYSTEM);
+	}
+	
+	public Mat4d initYawRotationRad(double angle)
+	{
+		return initYawRotationRad(angle, BarghosMath.DEFAULT_SYSTEM);
+	}
+	
+	public Mat4d initYawRotation(double angle, LinearSystem3 system)
+	{
+		return initYawRotationRad(angle * Maths.DEG_TO_RAD, system);
+	}
+	
+	public Mat4d initYawRotationRad(double angle, LinearSystem3 system)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
-			if(index < 0 || index >= ROWS) throw new IndexOutOfBoundsException();
-			if(t == null) throw new ArgumentNullException("t");
+			if(system == null) throw new ArgumentNullException("system");
 		}
 		
-		return setRow(index, x, t.getX(), t.getY(), t.getZ());
+		Vec3f axis = system.getUp();
+		
+		return initRotationRad(axis.getX(), axis.getY(), axis.getZ(), angle);
 	}
 	
-	public Mat4d setRow(int index, Tup4dR t)
+	public Mat4d initRollRotation(double angle)
+	{
+		return initRollRotationRad(angle * Maths.DEG_TO_RAD, BarghosMath.DEFAULT_SYSTEM);
+	}
+	
+	public Mat4d initRollRotationRad(double angle)
+	{
+		return initRollRotationRad(angle, BarghosMath.DEFAULT_SYSTEM);
+	}
+	
+	public Mat4d initRollRotation(double angle, LinearSystem3 system)
+	{
+		return initRollRotationRad(angle * Maths.DEG_TO_RAD, system);
+	}
+	
+	public Mat4d initRollRotationRad(double angle, LinearSystem3 system)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
-			if(index < 0 || index >= ROWS) throw new IndexOutOfBoundsException();
-			if(t == null) throw new ArgumentNullException("t");
+			if(system == null) throw new ArgumentNullException("system");
 		}
 		
-		return setRow(index, t.getX(), t.getY(), t.getZ(), t.getW());
+		Vec3f axis = system.getForward();
+		
+		return initRotationRad(axis.getX(), axis.getY(), axis.getZ(), angle);
 	}
 	
-	public Mat4d setRow(int index, double x, double y, double z, double w)
+	public Mat4d initRotation(EulerAngles3fR angles)
+	{
+		return initRotation(angles, BarghosMath.DEFAULT_SYSTEM, BarghosMath.DEFAULT_EULER_ROTATION_ORDER);
+	}
+	
+	public Mat4d initRotation(EulerAngles3fR angles, LinearSystem3 system)
+	{
+		return initRotation(angles, system, BarghosMath.DEFAULT_EULER_ROTATION_ORDER);
+	}
+	
+	public Mat4d initRotation(EulerAngles3fR angles, EulerRotationOrder3 order)
+	{
+		return initRotation(angles, BarghosMath.DEFAULT_SYSTEM, order);
+	}
+	
+	public Mat4d initRotation(EulerAngles3fR angles, LinearSystem3 system, EulerRotationOrder3 order)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
-			if(index < 0 || index >= ROWS) throw new IndexOutOfBoundsException();
+			if(angles == null) throw new ArgumentNullException("angles");
 		}
 		
-		this.m[index][0] = x;
-		this.m[index][1] = y;
-		this.m[index][2] = z;
-		this.m[index][3] = w;
+		return initRotationRad(angles.getPitchRad(), angles.getYawRad(), angles.getRollRad(), system, order);
+	}
+	
+	public Mat4d initRotation(double pitch, double yaw, double roll)
+	{
+		return initRotation(pitch, yaw, roll, BarghosMath.DEFAULT_SYSTEM, BarghosMath.DEFAULT_EULER_ROTATION_ORDER);
+	}
+	
+	public Mat4d initRotationRad(double pitch, double yaw, double roll)
+	{
+		return initRotationRad(pitch, yaw, roll, BarghosMath.DEFAULT_SYSTEM, BarghosMath.DEFAULT_EULER_ROTATION_ORDER);
+	}
+	
+	public Mat4d initRotation(double pitch, double yaw, double roll, LinearSystem3 system)
+	{
+		return initRotation(pitch, yaw, roll, system, BarghosMath.DEFAULT_EULER_ROTATION_ORDER);
+	}
+	
+	public Mat4d initRotationRad(double pitch, double yaw, double roll, LinearSystem3 system)
+	{
+		return initRotationRad(pitch, yaw, roll, system, BarghosMath.DEFAULT_EULER_ROTATION_ORDER);
+	}
+	
+	public Mat4d initRotation(double pitch, double yaw, double roll, EulerRotationOrder3 order)
+	{
+		return initRotation(pitch, yaw, roll, BarghosMath.DEFAULT_SYSTEM, order);
+	}
+	
+	public Mat4d initRotationRad(double pitch, double yaw, double roll, EulerRotationOrder3 order)
+	{
+		return initRotationRad(pitch, yaw, roll, BarghosMath.DEFAULT_SYSTEM, order);
+	}
+	
+	public Mat4d initRotation(double pitch, double yaw, double roll, LinearSystem3 system, EulerRotationOrder3 order)
+	{
+		return initRotationRad(pitch * Maths.DEG_TO_RAD, yaw * Maths.DEG_TO_RAD, roll * Maths.DEG_TO_RAD, system, order);
+	}
+	
+	public Mat4d initRotationRad(double pitch, double yaw, double roll, LinearSystem3 system, EulerRotationOrder3 order)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(system == null) throw new ArgumentNullException("system");
+			if(order == null) throw new ArgumentNullException("order");
+		}
+		
+		Vec3f right = system.getRight();
+		Vec3f up = system.getUp();
+		Vec3f forward = system.getForward();
+		
+		initIdentity();
+		
+		switch(order)
+		{
+			case PITCH_YAW_ROLL:
+			{
+				if(pitch != 0.0) rotateRad(right, pitch);
+				if(yaw != 0.0) rotateRad(up, yaw);
+				if(roll != 0.0) rotateRad(forward, roll);
+				
+				break;
+			}
+			case PITCH_ROLL_YAW:
+			{
+				if(pitch != 0.0) rotateRad(right, pitch);
+				if(roll != 0.0) rotateRad(forward, roll);
+				if(yaw != 0.0) rotateRad(up, yaw);
+				
+				break;
+			}
+			case YAW_PITCH_ROLL:
+			{
+				if(yaw != 0.0) rotateRad(up, yaw);
+				if(pitch != 0.0) rotateRad(right, pitch);
+				if(roll != 0.0) rotateRad(forward, roll);
+				
+				break;
+			}
+			case YAW_ROLL_PITCH:
+			{
+				if(yaw != 0.0) rotateRad(up, yaw);
+				if(roll != 0.0) rotateRad(forward, roll);
+				if(pitch != 0.0) rotateRad(right, pitch);
+				
+				break;
+			}
+			case ROLL_PITCH_YAW:
+			{
+				if(roll != 0.0) rotateRad(forward, roll);
+				if(pitch != 0.0) rotateRad(right, pitch);
+				if(yaw != 0.0) rotateRad(up, yaw);
+				
+				break;
+			}
+			case ROLL_YAW_PITCH:
+			{
+				if(roll != 0.0) rotateRad(forward, roll);
+				if(yaw != 0.0) rotateRad(up, yaw);
+				if(pitch != 0.0) rotateRad(right, pitch);
+				
+				break;
+			}
+		}
+		
+		return this;
+	}
+	
+	public Mat4d initModelMatrix(Tup3dR pos, Quatd rot, Tup3dR scale)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(pos == null) throw new ArgumentNullException("pos");
+			if(rot == null) throw new ArgumentNullException("rot");
+		}
+		
+		if(scale == null) scale = new Tup3d(1.0);
+		
+		initIdentity();
+		
+		rotate(rot);
+		translate(pos);
+		scale(scale);
+		
 		return this;
 	}
 	
+	public Mat4d initModelMatrix(Tup3dR pos, EulerAngles3fR angles, Tup3dR scale)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(pos == null) throw new ArgumentNullException("pos");
+			if(angles == null) throw new ArgumentNullException("angles");
+		}
+		
+		if(scale == null) scale = new Tup3d(1.0);
+		
+		initRotation(angles);
+		
+		translate(pos);
+		scale(scale);
+		
+		return this;
+	}
 	
-	public Mat4d setColumn(int index, Tup2dR t, double z, double w)
+	public Mat4d initViewMatrix(Tup3dR pos, Quatd rot)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
-			if(index < 0 || index >= COLUMNS) throw new IndexOutOfBoundsException();
-			if(t == null) throw new ArgumentNullException("t");
+			if(pos == null) throw new ArgumentNullException("pos");
+			if(rot == null) throw new ArgumentNullException("rot");
 		}
 		
-		return setColumn(index, t.getX(), t.getY(), z, w);
+		initIdentity();
+		
+		translate(-pos.getX(), -pos.getY(), -pos.getZ());
+		rotate(rot.conjugate(null));
+		
+		return this;
 	}
 	
-	public Mat4d setColumn(int index, double x, Tup2dR t, double w)
+	public Mat4d initScaling4D(Tup4dR t)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
-			if(index < 0 || index >= COLUMNS) throw new IndexOutOfBoundsException();
 			if(t == null) throw new ArgumentNullException("t");
 		}
 		
-		return setColumn(index, x, t.getX(), t.getY(), w);
+		return initScaling4D(t.getX(), t.getY(), t.getZ(), t.getW());
 	}
 	
-	public Mat4d setColumn(int index, double x, double y, Tup2dR t)
+	public Mat4d initScaling4D(double x, double y, double z, double w)
+	{
+		setRow(0, x,	0.0,	0.0, 	0.0);
+		setRow(1, 0.0,	y,		0.0, 	0.0);
+		setRow(2, 0.0,	0.0,	z, 		0.0);
+		setRow(3, 0.0,	0.0,	0.0, 	w);
+		
+		return this;
+	}
+	
+	public Mat4d initScaling2D(Tup2dR t)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
-			if(index < 0 || index >= COLUMNS) throw new IndexOutOfBoundsException();
 			if(t == null) throw new ArgumentNullException("t");
 		}
 		
-		return setColumn(index, x, y, t.getX(), t.getY());
+		return initScaling(t.getX(), t.getY(), 1.0);
 	}
 	
-	public Mat4d setColumn(int index, Tup3dR t, double w)
+	public Mat4d initScaling2D(double x, double y)
+	{
+		return initScaling(x, y, 1.0);
+	}
+	
+	public Mat4d initTranslation2D(Tup2dR t)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
-			if(index < 0 || index >= COLUMNS) throw new IndexOutOfBoundsException();
 			if(t == null) throw new ArgumentNullException("t");
 		}
 		
-		return setColumn(index, t.getX(), t.getY(), t.getZ(), w);
+		return initTranslation(t.getX(), t.getY(), 0.0);
 	}
 	
-	public Mat4d setColumn(int index, double x, Tup3dR t)
+	public Mat4d initTranslation2D(double x, double y)
+	{
+		return initTranslation(x, y, 0.0);
+	}
+	
+	public Mat4d initRotation2D(EulerAngles2f angles)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
-			if(index < 0 || index >= COLUMNS) throw new IndexOutOfBoundsException();
-			if(t == null) throw new ArgumentNullException("t");
+			if(angles == null) throw new ArgumentNullException("angles");
 		}
 		
-		return setColumn(index, x, t.getX(), t.getY(), t.getZ());
+		return initRotation2DRad(angles.getAngle() * Maths.DEG_TO_RAD);
 	}
 	
-	public Mat4d setColumn(int index, Tup4dR t)
+	public Mat4d initRotation2DRad(EulerAnglesRad2f angles)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
-			if(index < 0 || index >= COLUMNS) throw new IndexOutOfBoundsException();
-			if(t == null) throw new ArgumentNullException("t");
+			if(angles == null) throw new ArgumentNullException("angles");
 		}
 		
-		return setColumn(index, t.getX(), t.getY(), t.getZ(), t.getW());
+		return initRotation2DRad(angles.getAngle());
 	}
 	
-	public Mat4d setColumn(int index, double x, double y, double z, double w)
+	public Mat4d initRotation2D(double angle)
+	{
+		return initRotation2DRad(angle * Maths.DEG_TO_RAD);
+	}
+	
+	public Mat4d initRotation2DRad(double angle)
+	{
+		return initRotationRad(0.0, 0.0, 1.0, angle);
+	}
+	
+	public Mat4d initViewMatrix(Tup3dR pos, EulerAngles3fR angles)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
-			if(index < 0 || index >= COLUMNS) throw new IndexOutOfBoundsException();
+			if(pos == null) throw new ArgumentNullException("pos");
+			if(angles == null) throw new ArgumentNullException("angles");
 		}
 		
-		this.m[0][index] = x;
-		this.m[1][index] = y;
-		this.m[2][index] = z;
-		this.m[3][index] = w;
-		return this;
+		return initViewMatrixRad(pos.getX(), pos.getY(), pos.getZ(), angles.getPitchRad(), angles.getYawRad(), angles.getRollRad());
 	}
-
-	public Tup4d getRow(int index)
+	
+	public Mat4d initViewMatrix(Tup3dR pos, double pitch, double yaw, double roll)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
-			if(index < 0 || index >= ROWS) throw new IndexOutOfBoundsException();
+			if(pos == null) throw new ArgumentNullException("pos");
 		}
 		
-		return new Tup4d(this.m[index][0], this.m[index][1], this.m[index][2], this.m[index][3]);
+		return initViewMatrix(pos.getX(), pos.getY(), pos.getZ(), pitch, yaw, roll);
 	}
-	public Tup4d getColumn(int index)
+	
+	public Mat4d initViewMatrix(double posX, double posY, double posZ, double pitch, double yaw, double roll)
+	{
+		return initViewMatrixRad(posX, posY, posZ, pitch * Maths.DEG_TO_RAD, yaw * Maths.DEG_TO_RAD, roll * Maths.DEG_TO_RAD);
+	}
+	
+	public Mat4d initViewMatrixRad(Tup3dR pos, double pitch, double yaw, double roll)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
-			if(index < 0 || index >= COLUMNS) throw new IndexOutOfBoundsException();
+			if(pos == null) throw new ArgumentNullException("pos");
 		}
 		
-		return new Tup4d(this.m[0][index], this.m[1][index], this.m[2][index], this.m[3][index]);
+		return initViewMatrixRad(pos.getX(), pos.getY(), pos.getZ(), pitch, yaw, roll);
 	}
 	
-	public double getCell(int row, int column)
+	public Mat4d initViewMatrixRad(double posX, double posY, double posZ, double pitch, double yaw, double roll)
 	{
-		return this.m[row][column];
+		initTranslation(-posX, -posY, -posZ);
+		rotateRad(-pitch, -yaw, -roll);
+		
+		return this;
 	}
 	
-	public <T extends Tup4dW> T getRow(int index, T res)
+	public Mat4d setRow(int index, Tup2dR t, double z, double w)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
 			if(index < 0 || index >= ROWS) throw new IndexOutOfBoundsException();
+			if(t == null) throw new ArgumentNullException("t");
 		}
 		
-		res.set(this.m[index][0], this.m[index][1], this.m[index][2], this.m[index][3]);
-		return res;
+		return setRow(index, t.getX(), t.getY(), z, w);
 	}
 	
-	public <T extends Tup4dW> T getColumn(int index, T res)
+	public Mat4d setRow(int index, double x, Tup2dR t, double w)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
-			if(index < 0 || index >= COLUMNS) throw new IndexOutOfBoundsException();
+			if(index < 0 || index >= ROWS) throw new IndexOutOfBoundsException();
+			if(t == null) throw new ArgumentNullException("t");
 		}
 		
-		res.set((double)this.m[0][index], (double)this.m[1][index], (double)this.m[2][index], (double)this.m[3][index]);
-		return res;
+		return setRow(index, x, t.getX(), t.getY(), w);
 	}
-
-	public double determinant()
+	
+	public Mat4d setRow(int index, double x, double y, Tup2dR t)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= ROWS) throw new IndexOutOfBoundsException();
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return setRow(index, x, y, t.getX(), t.getY());
+	}
+	
+	public Mat4d setRow(int index, Tup3dR t, double w)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= ROWS) throw new IndexOutOfBoundsException();
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return setRow(index, t.getX(), t.getY(), t.getZ(), w);
+	}
+	
+	public Mat4d setRow(int index, double x, Tup3dR t)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= ROWS) throw new IndexOutOfBoundsException();
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return setRow(index, x, t.getX(), t.getY(), t.getZ());
+	}
+	
+	public Mat4d setRow(int index, Tup4dR t)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= ROWS) throw new IndexOutOfBoundsException();
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return setRow(index, t.getX(), t.getY(), t.getZ(), t.getW());
+	}
+	
+	public Mat4d setRow(int index, double x, double y, double z, double w)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= ROWS) throw new IndexOutOfBoundsException();
+		}
+		
+		this.m[index][0] = x;
+		this.m[index][1] = y;
+		this.m[index][2] = z;
+		this.m[index][3] = w;
+		return this;
+	}
+	
+	
+	public Mat4d setColumn(int index, Tup2dR t, double z, double w)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= COLUMNS) throw new IndexOutOfBoundsException();
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return setColumn(index, t.getX(), t.getY(), z, w);
+	}
+	
+	public Mat4d setColumn(int index, double x, Tup2dR t, double w)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= COLUMNS) throw new IndexOutOfBoundsException();
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return setColumn(index, x, t.getX(), t.getY(), w);
+	}
+	
+	public Mat4d setColumn(int index, double x, double y, Tup2dR t)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= COLUMNS) throw new IndexOutOfBoundsException();
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return setColumn(index, x, y, t.getX(), t.getY());
+	}
+	
+	public Mat4d setColumn(int index, Tup3dR t, double w)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= COLUMNS) throw new IndexOutOfBoundsException();
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return setColumn(index, t.getX(), t.getY(), t.getZ(), w);
+	}
+	
+	public Mat4d setColumn(int index, double x, Tup3dR t)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= COLUMNS) throw new IndexOutOfBoundsException();
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return setColumn(index, x, t.getX(), t.getY(), t.getZ());
+	}
+	
+	public Mat4d setColumn(int index, Tup4dR t)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= COLUMNS) throw new IndexOutOfBoundsException();
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return setColumn(index, t.getX(), t.getY(), t.getZ(), t.getW());
+	}
+	
+	public Mat4d setColumn(int index, double x, double y, double z, double w)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= COLUMNS) throw new IndexOutOfBoundsException();
+		}
+		
+		this.m[0][index] = x;
+		this.m[1][index] = y;
+		this.m[2][index] = z;
+		this.m[3][index] = w;
+		return this;
+	}
+
+	public Tup4d getRow(int index)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= ROWS) throw new IndexOutOfBoundsException();
+		}
+		
+		return new Tup4d(this.m[index][0], this.m[index][1], this.m[index][2], this.m[index][3]);
+	}
+	public Tup4d getColumn(int index)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= COLUMNS) throw new IndexOutOfBoundsException();
+		}
+		
+		return new Tup4d(this.m[0][index], this.m[1][index], this.m[2][index], this.m[3][index]);
+	}
+	
+	public double getCell(int row, int column)
+	{
+		return this.m[row][column];
+	}
+	
+	public <T extends Tup4dW> T getRow(int index, T res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= ROWS) throw new IndexOutOfBoundsException();
+		}
+		
+		res.set(this.m[index][0], this.m[index][1], this.m[index][2], this.m[index][3]);
+		return res;
+	}
+	
+	public <T extends Tup4dW> T getColumn(int index, T res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(index < 0 || index >= COLUMNS) throw new IndexOutOfBoundsException();
+		}
+		
+		res.set((double)this.m[0][index], (double)this.m[1][index], (double)this.m[2][index], (double)this.m[3][index]);
+		return res;
+	}
+
+	public double determinant()
+	{
+		return MatUtils.det4x4(this.m);
+	}
+	
+	public Mat4d transpose()
+	{
+		Tup4d r0 = Tup4dPool.get();
+		Tup4d r1 = Tup4dPool.get();
+		Tup4d r2 = Tup4dPool.get();
+		Tup4d r3 = Tup4dPool.get();
+		
+		getRow(0, r0);
+		getRow(1, r1);
+		getRow(2, r2);
+		getRow(3, r3);
+		
+		setColumn(0, r0).setColumn(1, r1).setColumn(2, r2).setColumn(3, r3);
+		
+		Tup4dPool.store(r0, r1, r2, r3);
+		
+		return this;
+	}
+	
+	public static Mat4d mul(Mat4d l, Mat4d r, Mat4d res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(l == null) throw new ArgumentNullException("l");
+			if(r == null) throw new ArgumentNullException("r");
+		}
+		
+		if(res == null) res = new Mat4d();
+		
+		// r is loaded completely and l row by row, so res may be the same matrix as l or r.
+		double[][] b = r.m;
+		
+		double b00 = b[0][0], b01 = b[0][1], b02 = b[0][2], b03 = b[0][3];
+		double b10 = b[1][0], b11 = b[1][1], b12 = b[1][2], b13 = b[1][3];
+		double b20 = b[2][0], b21 = b[2][1], b22 = b[2][2], b23 = b[2][3];
+		double b30 = b[3][0], b31 = b[3][1], b32 = b[3][2], b33 = b[3][3];
+		
+		for(int row = 0; row < ROWS; row++)
+		{
+			double[] a = l.m[row];
+			double a0 = a[0], a1 = a[1], a2 = a[2], a3 = a[3];
+			
+			double[] o = res.m[row];
+			o[0] = a0 * b00 + a1 * b10 + a2 * b20 + a3 * b30;
+			o[1] = a0 * b01 + a1 * b11 + a2 * b21 + a3 * b31;
+			o[2] = a0 * b02 + a1 * b12 + a2 * b22 + a3 * b32;
+			o[3] = a0 * b03 + a1 * b13 + a2 * b23 + a3 * b33;
+		}
+		
+		return res;
+	}
+	
+	public Mat4d mul(Mat4d r)
+	{
+		if(Barghos.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(r == null) throw new ArgumentNullException("r");
+		}
+		
+		return Mat4d.mul(this, r, this);
+	}
+	
+	public Mat4d mul(Mat4d r, Mat4d res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(r == null) throw new ArgumentNullException("r");
+		}
+		
+		return Mat4d.mul(this, r, res);
+	}
+	
+	public static <T extends Tup4dW> T transform(Mat4d l, Tup4dR r, T res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(l == null) throw new ArgumentNullException("l");
+			if(r == null) throw new ArgumentNullException("r");
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		double x_ = l.m[0][0] * r.getX() + l.m[0][1] * r.getY() + l.m[0][2] * r.getZ() + l.m[0][3] * r.getW();
+		double y_ = l.m[1][0] * r.getX() + l.m[1][1] * r.getY() + l.m[1][2] * r.getZ() + l.m[1][3] * r.getW();
+		double z_ = l.m[2][0] * r.getX() + l.m[2][1] * r.getY() + l.m[2][2] * r.getZ() + l.m[2][3] * r.getW();
+		double w_ = l.m[3][0] * r.getX() + l.m[3][1] * r.getY() + l.m[3][2] * r.getZ() + l.m[3][3] * r.getW();
+		
+		res.set(x_, y_, z_, w_);
+
+		return res;
+	}
+	
+	public <T extends Tup4dR & Tup4dW> T transform(T r)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(r == null) throw new ArgumentNullException("r");
+		}
+
+		return Mat4d.transform(this, r, r);
+	}
+	
+	public <T extends Tup4dW> T transform(Tup4dR r, T res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(r == null) throw new ArgumentNullException("r");
+		}
+		
+		return Mat4d.transform(this, r, res);
+	}
+	
+	public static <T extends Tup4dR & Tup4dW> T transform(Mat4d l, T r)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(l == null) throw new ArgumentNullException("l");
+			if(r == null) throw new ArgumentNullException("r");
+		}
+		
+		return Mat4d.transform(l, r, r);
+	}
+	
+	public static <T extends Tup3dW> T transform(Mat4d l, Tup3dR r, T res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(l == null) throw new ArgumentNullException("l");
+			if(r == null) throw new ArgumentNullException("r");
+			if(res == null) throw new ArgumentNullException("res");
+		}
+
+		double x_ = l.m[0][0] * r.getX() + l.m[0][1] * r.getY() + l.m[0][2] * r.getZ() + l.m[0][3] * 1.0f;
+		double y_ = l.m[1][0] * r.getX() + l.m[1][1] * r.getY() + l.m[1][2] * r.getZ() + l.m[1][3] * 1.0f;
+		double z_ = l.m[2][0] * r.getX() + l.m[2][1] * r.getY() + l.m[2][2] * r.getZ() + l.m[2][3] * 1.0f;
+
+		res.set(x_, y_, z_);
+
+		return res;
+	}
+	
+	public <T extends Tup3dR & Tup3dW> T transform(T r)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(r == null) throw new ArgumentNullException("r");
+		}
+		
+		return Mat4d.transform(this, r, r);
+	}
+	
+	public <T extends Tup3dW> T transform(Tup3dR r, T res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(r == null) throw new ArgumentNullException("r");
+		}
+		
+		return Mat4d.transform(this, r, res);
+	}
+	
+	public static <T extends Tup3dR & Tup3dW> T transform(Mat4d l, T r)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(l == null) throw new ArgumentNullException("l");
+			if(r == null) throw new ArgumentNullException("r");
+		}
+		
+		return Mat4d.transform(l, r, r);
+	}
+	
+	public static <T extends Tup2dW> T transform(Mat4d l, Tup2dR r, T res)
+	{
+		double x_ = l.m[0][0] * r.getX() + l.m[0][1] * r.getY() + l.m[0][2] * 1.0f + l.m[0][3] * 1.0f;
+		double y_ = l.m[1][0] * r.getX() + l.m[1][1] * r.getY() + l.m[1][2] * 1.0f + l.m[1][3] * 1.0f;
+
+		res.set(x_, y_);
+
+		return res;
+	}
+
+	public <T extends Tup2dW> T transform(Tup2dR r, T res)
+	{
+		return Mat4d.transform(this, r, res);
+	}
+
+	/**
+	 * Narrows this matrix to single precision.
+	 */
+	public Mat4f toMat4f(Mat4f res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		float[][] r = res.m;
+		
+		for(int row = 0; row < ROWS; row++)
+		{
+			double[] m = this.m[row];
+			
+			r[row][0] = (float)m[0];
+			r[row][1] = (float)m[1];
+			r[row][2] = (float)m[2];
+			r[row][3] = (float)m[3];
+		}
+		
+		res.setProperties(0);
+		
+		return res;
+	}
+	
+	/**
+	 * Writes this world space matrix relative to the eye position to res, i.e. translation(-eye) * this.
+	 * The subtraction happens in double precision before narrowing, so the large world coordinates cancel out
+	 * and the result keeps full float precision near the camera. It is meant to be combined with a view matrix
+	 * that only contains the camera rotation.
+	 */
+	public Mat4f toCameraRelative(Tup3dR eye, Mat4f res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(eye == null) throw new ArgumentNullException("eye");
+		}
+		
+		return toCameraRelative(eye.getX(), eye.getY(), eye.getZ(), res);
+	}
+	
+	public Mat4f toCameraRelative(double eyeX, double eyeY, double eyeZ, Mat4f res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		double[][] m = this.m;
+		float[][] r = res.m;
+		
+		double m30 = m[3][0], m31 = m[3][1], m32 = m[3][2], m33 = m[3][3];
+		
+		r[0][0] = (float)(m[0][0] - eyeX * m30); r[0][1] = (float)(m[0][1] - eyeX * m31); r[0][2] = (float)(m[0][2] - eyeX * m32); r[0][3] = (float)(m[0][3] - eyeX * m33);
+		r[1][0] = (float)(m[1][0] - eyeY * m30); r[1][1] = (float)(m[1][1] - eyeY * m31); r[1][2] = (float)(m[1][2] - eyeY * m32); r[1][3] = (float)(m[1][3] - eyeY * m33);
+		r[2][0] = (float)(m[2][0] - eyeZ * m30); r[2][1] = (float)(m[2][1] - eyeZ * m31); r[2][2] = (float)(m[2][2] - eyeZ * m32); r[2][3] = (float)(m[2][3] - eyeZ * m33);
+		r[3][0] = (float)m30; r[3][1] = (float)m31; r[3][2] = (float)m32; r[3][3] = (float)m33;
+		
+		res.setProperties(0);
+		
+		return res;
+	}
+	
+	/**
+	 * Transforms {@code count} packed xyz tuples of {@code src} starting at {@code srcOffset}
+	 * and writes them to {@code dst} starting at {@code dstOffset}.
+	 * With {@code useLastColumn} the tuples are treated as points (w = 1), otherwise as directions (w = 0).
+	 * The ranges may be identical but must not overlap otherwise.
+	 */
+	public double[] transform(double[] src, int srcOffset, double[] dst, int dstOffset, int count, boolean useLastColumn)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(src == null) throw new ArgumentNullException("src");
+			if(dst == null) throw new ArgumentNullException("dst");
+		}
+		
+		double[][] m = this.m;
+		
+		double m00 = m[0][0], m01 = m[0][1], m02 = m[0][2];
+		double m10 = m[1][0], m11 = m[1][1], m12 = m[1][2];
+		double m20 = m[2][0], m21 = m[2][1], m22 = m[2][2];
+		
+		double tx = useLastColumn ? m[0][3] : 0.0;
+		double ty = useLastColumn ? m[1][3] : 0.0;
+		double tz = useLastColumn ? m[2][3] : 0.0;
+		
+		for(int i = 0; i < count; i++)
+		{
+			int s = srcOffset + i * 3;
+			int d = dstOffset + i * 3;
+			
+			double x = src[s];
+			double y = src[s + 1];
+			double z = src[s + 2];
+			
+			dst[d] = m00 * x + m01 * y + m02 * z + tx;
+			dst[d + 1] = m10 * x + m11 * y + m12 * z + ty;
+			dst[d + 2] = m20 * x + m21 * y + m22 * z + tz;
+		}
+		
+		return dst;
+	}
+	
+	/**
+	 * Transforms {@code count} packed xyz tuples of {@code src} in double precision, subtracts the origin
+	 * and narrows the result to float. This keeps the precision of world space positions far away from
+	 * the world origin when they are uploaded relative to the camera.
+	 * With {@code useLastColumn} the tuples are treated as points (w = 1), otherwise as directions (w = 0),
+	 * which are not affected by the origin.
+	 */
+	public float[] transformRelative(double[] src, int srcOffset, double originX, double originY, double originZ, float[] dst, int dstOffset, int count, boolean useLastColumn)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(src == null) throw new ArgumentNullException("src");
+			if(dst == null) throw new ArgumentNullException("dst");
+		}
+		
+		double[][] m = this.m;
+		
+		double m00 = m[0][0], m01 = m[0][1], m02 = m[0][2];
+		double m10 = m[1][0], m11 = m[1][1], m12 = m[1][2];
+		double m20 = m[2][0], m21 = m[2][1], m22 = m[2][2];
+		
+		double tx = useLastColumn ? m[0][3] - originX : 0.0;
+		double ty = useLastColumn ? m[1][3] - originY : 0.0;
+		double tz = useLastColumn ? m[2][3] - originZ : 0.0;
+		
+		for(int i = 0; i < count; i++)
+		{
+			int s = srcOffset + i * 3;
+			int d = dstOffset + i * 3;
+			
+			double x = src[s];
+			double y = src[s + 1];
+			double z = src[s + 2];
+			
+			dst[d] = (float)(m00 * x + m01 * y + m02 * z + tx);
+			dst[d + 1] = (float)(m10 * x + m11 * y + m12 * z + ty);
+			dst[d + 2] = (float)(m20 * x + m21 * y + m22 * z + tz);
+		}
+		
+		return dst;
+	}
+	
+	public static Mat4d identity()
+	{
+		return new Mat4d().initIdentity();
+	}
+	
+	public static Mat4d zero()
+	{
+		return new Mat4d().initZero();
+	}
+	
+	public static Mat4d scaling(Tup3dR t)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return scaling(t.getX(), t.getY(), t.getZ());
+	}
+	public static Mat4d scaling(double x, double y, double z)
+	{
+		return new Mat4d().initScaling(x, y,z);
+	}
+	
+	public static Mat4d translation(Tup3dR t)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return translation(t.getX(),t.getY(), t.getZ());
+	}
+	public static Mat4d translation(double x, double y, double z)
+	{
+		return new Mat4d().initTranslation(x, y, z);
+	}
+	
+	public static Mat4d perspective(Tup2dR t, double fovY, double near, double far)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return perspective(t.getX(), t.getY(), fovY, near, far);
+	}
+	public static Mat4d perspective(double width, double height, double fov, double near, double far)
+	{
+		return new Mat4d().initPerspective(width, height, fov, near, far);
+	}
+	
+	public static Mat4d perspective(double fovX, double fovY, double near, double far)
+	{
+		return new Mat4d().initPerspective(fovX, fovY, near, far);
+	}
+	
+	public static Mat4d perspective(double left, double right, double bottom, double top, double near, double far)
+	{
+		return new Mat4d().initPerspective(left, right, bottom, top, near, far);
+	
+	}
+	public static Mat4d ortho(Tup2dR t, double near, double far)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return ortho(t.getX(), t.getY(), near, far);
+	}
+	
+	public static Mat4d ortho(double width, double height, double near, double far)
+	{
+		return new Mat4d().initOrtho(width, height, near, far);
+	}
+	
+	public static Mat4d ortho(double left, double right, double bottom, double top, double near, double far)
+	{
+		return new Mat4d().initOrtho(left, right, bottom, top, near, far);
+	}
+	
+	public static Mat4d rotation(Quatf q)
+	{
+		return new Mat4d().initRotation(q);
+	}
+	
+	public static Mat4d rotation(Tup3dR forward, Tup3dR left, Tup3dR up)
+	{
+		return new Mat4d().initRotation(forward, left, up);
+	}
+	
+	public static Mat4d modelMatrix(Tup3dR pos, Quatf rot, Tup3dR scale)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(pos == null) throw new ArgumentNullException("pos");
+		}
+		
+		return new Mat4d().initModelMatrix(pos, rot, scale);
+	}
+	
+	public static Mat4d viewMatrix(Tup3dR pos, Quatf rot)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(pos == null) throw new ArgumentNullException("pos");
+			if(rot == null) throw new ArgumentNullException("rot");
+		}
+		
+		return new Mat4d().initViewMatrix(pos, rot);
+	}
+	
+	public static Mat4d lookAt(Tup3dR pos, Tup3dR target, Tup3dR up)
+	{
+		return new Mat4d().initLookAt(pos, target, up);
+	} 
+	
+	public static Mat4d rotation(Quatd q)
+	{
+		return new Mat4d().initRotation(q);
+	}
+	
+	public static Mat4d rotation(Tup3dR axis, double angle)
+	{
+		return new Mat4d().initRotation(axis, angle);
+	}
+	
+	public static Mat4d rotationRad(Tup3dR axis, double angle)
+	{
+		return new Mat4d().initRotationRad(axis, angle);
+	}
+	
+	public static Mat4d rotation(EulerAngles3fR angles)
+	{
+		return new Mat4d().initRotation(angles);
+	}
+	
+	public static Mat4d rotation(double pitch, double yaw, double roll)
+	{
+		return new Mat4d().initRotation(pitch, yaw, roll);
+	}
+	
+	public static Mat4d rotationRad(double pitch, double yaw, double roll)
+	{
+		return new Mat4d().initRotationRad(pitch, yaw, roll);
+	}
+	
+	public static Mat4d modelMatrix(Tup3dR pos, Quatd rot, Tup3dR scale)
+	{
+		return new Mat4d().initModelMatrix(pos, rot, scale);
+	}
+	
+	public static Mat4d viewMatrix(Tup3dR pos, Quatd rot)
+	{
+		return new Mat4d().initViewMatrix(pos, rot);
+	}
+	
+	public static Mat4d scaling4D(Tup4dR t)
+	{
+		return new Mat4d().initScaling4D(t);
+	}
+	
+	public static Mat4d scaling4D(double x, double y, double z, double w)
+	{
+		return new Mat4d().initScaling4D(x, y, z, w);
+	}
+	
+	public static Mat4d scaling2D(Tup2dR t)
+	{
+		return new Mat4d().initScaling2D(t);
+	}
+	
+	public static Mat4d scaling2D(double x, double y)
+	{
+		return new Mat4d().initScaling2D(x, y);
+	}
+	
+	public static Mat4d translation2D(Tup2dR t)
+	{
+		return new Mat4d().initTranslation2D(t);
+	}
+	
+	public static Mat4d translation2D(double x, double y)
+	{
+		return new Mat4d().initTranslation2D(x, y);
+	}
+	
+	public static Mat4d rotation2D(EulerAngles2f angles)
+	{
+		return new Mat4d().initRotation2D(angles);
+	}
+	
+	public static Mat4d rotation2DRad(EulerAnglesRad2f angles)
+	{
+		return new Mat4d().initRotation2DRad(angles);
+	}
+	
+	public static Mat4d rotation2D(double angle)
+	{
+		return new Mat4d().initRotation2D(angle);
+	}
+	
+	public static Mat4d rotation2DRad(double angle)
+	{
+		return new Mat4d().initRotation2DRad(angle);
+	}
+	
+	public static Mat4d modelMatrix(Tup3dR pos, EulerAngles3fR angles, Tup3dR scale)
+	{
+		return new Mat4d().initModelMatrix(pos, angles, scale);
+	}
+	
+	public static Mat4d ortho(double width, double height, double length)
+	{
+		return new Mat4d().initOrtho(width, height, length);
+	}
+	
+	public static Mat4d viewMatrix(Tup3dR pos, EulerAngles3fR angles)
+	{
+		return new Mat4d().initViewMatrix(pos, angles);
+	}
+	
+	public static Mat4d viewMatrix(Tup3dR pos, double pitch, double yaw, double roll)
+	{
+		return new Mat4d().initViewMatrix(pos, pitch, yaw, roll);
+	}
+	
+	public static Mat4d viewMatrix(double posX, double posY, double posZ, double pitch, double yaw, double roll)
+	{
+		return new Mat4d().initViewMatrix(posX, posY, posZ, pitch, yaw, roll);
+	}
+	
+	public static Mat4d viewMatrixRad(Tup3dR pos, double pitch, double yaw, double roll)
+	{
+		return new Mat4d().initViewMatrixRad(pos, pitch, yaw, roll);
+	}
+	
+	public static Mat4d viewMatrixRad(double posX, double posY, double posZ, double pitch, double yaw, double roll)
+	{
+		return new Mat4d().initViewMatrixRad(posX, posY, posZ, pitch, yaw, roll);
+	}
+	
+	public Mat4d scale(Tup3dR t)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return Mat4d.mul(Mat4d.scaling(t), this, this);
+	}
+	
+	public Mat4d scale(double x, double y, double z)
+	{
+		return Mat4d.mul(Mat4d.scaling(x, y, z), this, this);
+	}
+	public Mat4d translate(Tup3dR t)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return Mat4d.mul(Mat4d.translation(t), this, this);
+	}
+	public Mat4d translate(double x, double y, double z)
+	{
+		return Mat4d.mul(Mat4d.translation(x, y, z), this, this);
+	}
+	public Mat4d rotate(Quatf q)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(q == null) throw new ArgumentNullException("q");
+		}
+		
+		return Mat4d.mul(Mat4d.rotation(q), this, this);
+	}
+	public Mat4d rotate(Tup3dR forward, Tup3dR left, Tup3dR up)
+	{
+		return Mat4d.mul(Mat4d.rotation(forward, left, up), this, this);
+	}
+	
+	public Mat4d rotate(Quatd q)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(q == null) throw new ArgumentNullException("q");
+		}
+		
+		return Mat4d.mul(Mat4d.rotation(q), this, this);
+	}
+	
+	public Mat4d rotate(Tup3dR axis, double angle)
+	{
+		return Mat4d.mul(Mat4d.rotation(axis, angle), this, this);
+	}
+	
+	public Mat4d rotateRad(Tup3dR axis, double angle)
+	{
+		return Mat4d.mul(Mat4d.rotationRad(axis, angle), this, this);
+	}
+	
+	public Mat4d rotate(EulerAngles3fR angles)
+	{
+		return Mat4d.mul(Mat4d.rotation(angles), this, this);
+	}
+	
+	public Mat4d rotate(double pitch, double yaw, double roll)
+	{
+		return Mat4d.mul(Mat4d.rotation(pitch, yaw, roll), this, this);
+	}
+	
+	public Mat4d rotateRad(double pitch, double yaw, double roll)
+	{
+		return Mat4d.mul(Mat4d.rotationRad(pitch, yaw, roll), this, this);
+	}
+	
+	public Mat4d pitchRotate(double angle)
+	{
+		return Mat4d.mul(new Mat4d().initPitchRotation(angle), this, this);
+	}
+	
+	public Mat4d pitchRotateRad(double angle)
 	{
-		return MatUtils.det4x4(	this.m[0][0], this.m[0][1], this.m[0][2], this.m[0][3],
-								this.m[1][0], this.m[1][1], this.m[1][2], this.m[1][3],
-								this.m[2][0], this.m[2][1], this.m[2][2], this.m[2][3],
-								this.m[3][0], this.m[3][1], this.m[3][2], this.m[3][3]);
+		return Mat4d.mul(new Mat4d().initPitchRotationRad(angle), this, this);
 	}
 	
-	public Mat4d transpose()
+	public Mat4d yawRotate(double angle)
 	{
-		Tup4d r0 = Tup4dPool.get();
-		Tup4d r1 = Tup4dPool.get();
-		Tup4d r2 = Tup4dPool.get();
-		Tup4d r3 = Tup4dPool.get();
-		
-		getRow(0, r0);
-		getRow(1, r1);
-		getRow(2, r2);
-		getRow(3, r3);
-		
-		setColumn(0, r0).setColumn(1, r1).setColumn(2, r2).setColumn(3, r3);
-		
-		Tup4dPool.store(r0, r1, r2, r3);
-		
-		return this;
+		return Mat4d.mul(new Mat4d().initYawRotation(angle), this, this);
 	}
 	
-	public static Mat4d mul(Mat4d l, Mat4d r, Mat4d res)
+	public Mat4d yawRotateRad(double angle)
 	{
-		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
-		{
-			if(l == null) throw new ArgumentNullException("l");
-			if(r == null) throw new ArgumentNullException("r");
-		}
-		
-		if(res == null) res = new Mat4d();
-		
-		double[][] m_ = new double[ROWS][COLUMNS];
-		
-		for(int row = 0; row < ROWS; row++)
-		{
-			m_[row][0] = l.m[row][0] * r.m[0][0] + l.m[row][1] * r.m[1][0] + l.m[row][2] * r.m[2][0] + l.m[row][3] * r.m[3][0];
-			m_[row][1] = l.m[row][0] * r.m[0][1] + l.m[row][1] * r.m[1][1] + l.m[row][2] * r.m[2][1] + l.m[row][3] * r.m[3][1];
-			m_[row][2] = l.m[row][0] * r.m[0][2] + l.m[row][1] * r.m[1][2] + l.m[row][2] * r.m[2][2] + l.m[row][3] * r.m[3][2];
-			m_[row][3] = l.m[row][0] * r.m[0][3] + l.m[row][1] * r.m[1][3] + l.m[row][2] * r.m[2][3] + l.m[row][3] * r.m[3][3];
-		}
-		
-		for(int row = 0; row < ROWS; row++)
-			for(int c = 0; c < COLUMNS; c++)
-				res.m[row][c] = m_[row][c];
-		
-		return res;
+		return Mat4d.mul(new Mat4d().initYawRotationRad(angle), this, this);
 	}
 	
-	public Mat4d mul(Mat4d r)
+	public Mat4d rollRotate(double angle)
 	{
-		if(Barghos.BUILD_FLAG__PARAMETER_CHECKS)
-		{
-			if(r == null) throw new ArgumentNullException("r");
-		}
-		
-		return Mat4d.mul(this, r, this);
+		return Mat4d.mul(new Mat4d().initRollRotation(angle), this, this);
 	}
 	
-	public Mat4d mul(Mat4d r, Mat4d res)
+	public Mat4d rollRotateRad(double angle)
 	{
-		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
-		{
-			if(r == null) throw new ArgumentNullException("r");
-		}
-		
-		return Mat4d.mul(this, r, res);
+		return Mat4d.mul(new Mat4d().initRollRotationRad(angle), this, this);
 	}
 	
-	public static <T extends Tup4dW> T transform(Mat4d l, Tup4dR r, T res)
+	public Mat4d scale4D(Tup4dR t)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
-			if(l == null) throw new ArgumentNullException("l");
-			if(r == null) throw new ArgumentNullException("r");
-			if(res == null) throw new ArgumentNullException("res");
+			if(t == null) throw new ArgumentNullException("t");
 		}
 		
-		double x_ = l.m[0][0] * r.getX() + l.m[0][1] * r.getY() + l.m[0][2] * r.getZ() + l.m[0][3] * r.getW();
-		double y_ = l.m[1][0] * r.getX() + l.m[1][1] * r.getY() + l.m[1][2] * r.getZ() + l.m[1][3] * r.getW();
-		double z_ = l.m[2][0] * r.getX() + l.m[2][1] * r.getY() + l.m[2][2] * r.getZ() + l.m[2][3] * r.getW();
-		double w_ = l.m[3][0] * r.getX() + l.m[3][1] * r.getY() + l.m[3][2] * r.getZ() + l.m[3][3] * r.getW();
-		
-		res.set(x_, y_, z_, w_);
-
-		return res;
+		return Mat4d.mul(Mat4d.scaling4D(t), this, this);
 	}
 	
-	public <T extends Tup4dR & Tup4dW> T transform(T r)
+	public Mat4d scale4D(double x, double y, double z, double w)
 	{
-		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
-		{
-			if(r == null) throw new ArgumentNullException("r");
-		}
-
-		return Mat4d.transform(this, r, r);
+		return Mat4d.mul(Mat4d.scaling4D(x, y, z, w), this, this);
 	}
 	
-	public <T extends Tup4dW> T transform(Tup4dR r, T res)
+	public Mat4d scale2D(Tup2dR t)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
-			if(r == null) throw new ArgumentNullException("r");
+			if(t == null) throw new ArgumentNullException("t");
 		}
 		
-		return Mat4d.transform(this, r, res);
+		return Mat4d.mul(Mat4d.scaling2D(t), this, this);
 	}
 	
-	public static <T extends Tup4dR & Tup4dW> T transform(Mat4d l, T r)
+	public Mat4d scale2D(double x, double y)
 	{
-		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
-		{
-			if(l == null) throw new ArgumentNullException("l");
-			if(r == null) throw new ArgumentNullException("r");
-		}
-		
-		return Mat4d.transform(l, r, r);
+		return Mat4d.mul(Mat4d.scaling2D(x, y), this, this);
 	}
 	
-	public static <T extends Tup3dW> T transform(Mat4d l, Tup3dR r, T res)
+	public Mat4d translate2D(Tup2dR t)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
-			if(l == null) throw new ArgumentNullException("l");
-			if(r == null) throw new ArgumentNullException("r");
-			if(res == null) throw new ArgumentNullException("res");
+			if(t == null) throw new ArgumentNullException("t");
 		}
-
-		double x_ = l.m[0][0] * r.getX() + l.m[0][1] * r.getY() + l.m[0][2] * r.getZ() + l.m[0][3] * 1.0f;
-		double y_ = l.m[1][0] * r.getX() + l.m[1][1] * r.getY() + l.m[1][2] * r.getZ() + l.m[1][3] * 1.0f;
-		double z_ = l.m[2][0] * r.getX() + l.m[2][1] * r.getY() + l.m[2][2] * r.getZ() + l.m[2][3] * 1.0f;
-
-		res.set(x_, y_, z_);
-
-		return res;
+		
+		return Mat4d.mul(Mat4d.translation2D(t), this, this);
 	}
 	
-	public <T extends Tup3dR & Tup3dW> T transform(T r)
+	public Mat4d translate2D(double x, double y)
 	{
-		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
-		{
-			if(r == null) throw new ArgumentNullException("r");
-		}
-		
-		return Mat4d.transform(this, r, r);
+		return Mat4d.mul(Mat4d.translation2D(x, y), this, this);
 	}
 	
-	public <T extends Tup3dW> T transform(Tup3dR r, T res)
+	public Mat4d rotate2D(EulerAngles2f angles)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
-			if(r == null) throw new ArgumentNullException("r");
+			if(angles == null) throw new ArgumentNullException("angles");
 		}
 		
-		return Mat4d.transform(this, r, res);
+		return Mat4d.mul(Mat4d.rotation2D(angles), this, this);
 	}
 	
-	public static <T extends Tup3dR & Tup3dW> T transform(Mat4d l, T r)
+	public Mat4d rotate2DRad(EulerAnglesRad2f angles)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
-			if(l == null) throw new ArgumentNullException("l");
-			if(r == null) throw new ArgumentNullException("r");
+			if(angles == null) throw new ArgumentNullException("angles");
 		}
 		
-		return Mat4d.transform(l, r, r);
+		return Mat4d.mul(Mat4d.rotation2DRad(angles), this, this);
 	}
 	
-	public static <T extends Tup2dW> T transform(Mat4d l, Tup2dR r, T res)
-	{
-		double x_ = l.m[0][0] * r.getX() + l.m[0][1] * r.getY() + l.m[0][2] * 1.0f + l.m[0][3] * 1.0f;
-		double y_ = l.m[1][0] * r.getX() + l.m[1][1] * r.getY() + l.m[1][2] * 1.0f + l.m[1][3] * 1.0f;
-
-		res.set(x_, y_);
-
-		return res;
-	}
-
-	public <T extends Tup2dW> T transform(Tup2dR r, T res)
-	{
-		return Mat4d.transform(this, r, res);
-	}
-
-	public static Mat4d identity()
+	public Mat4d rotate2D(double angle)
 	{
-		return new Mat4d().initIdentity();
+		return Mat4d.mul(Mat4d.rotation2D(angle), this, this);
 	}
 	
-	public static Mat4d zero()
+	public Mat4d rotate2DRad(double angle)
 	{
-		return new Mat4d().initZero();
+		return Mat4d.mul(Mat4d.rotation2DRad(angle), this, this);
 	}
 	
-	public static Mat4d scaling(Tup3dR t)
+	public Mat4d applyModelMatrix(Tup3dR pos, Quatf rot, Tup3dR scale)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
-			if(t == null) throw new ArgumentNullException("t");
+			if(pos == null) throw new ArgumentNullException("pos");
+			if(rot == null) throw new ArgumentNullException("rot");
 		}
 		
-		return scaling(t.getX(), t.getY(), t.getZ());
-	}
-	public static Mat4d scaling(double x, double y, double z)
-	{
-		return new Mat4d().initScaling(x, y,z);
+		return Mat4d.mul(Mat4d.modelMatrix(pos, rot, scale), this, this);
 	}
 	
-	public static Mat4d translation(Tup3dR t)
+	public Mat4d applyModelMatrix(Tup3dR pos, Quatd rot, Tup3dR scale)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
-			if(t == null) throw new ArgumentNullException("t");
+			if(pos == null) throw new ArgumentNullException("pos");
+			if(rot == null) throw new ArgumentNullException("rot");
 		}
 		
-		return translation(t.getX(),t.getY(), t.getZ());
+		return Mat4d.mul(Mat4d.modelMatrix(pos, rot, scale), this, this);
 	}
-	public static Mat4d translation(double x, double y, double z)
+	
+	public Mat4d applyModelMatrix(Tup3dR pos, EulerAngles3fR angles, Tup3dR scale)
 	{
-		return new Mat4d().initTranslation(x, y, z);
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(pos == null) throw new ArgumentNullException("pos");
+			if(angles == null) throw new ArgumentNullException("angles");
+		}
+		
+		return Mat4d.mul(Mat4d.modelMatrix(pos, angles, scale), this, this);
 	}
 	
-	public static Mat4d perspective(Tup2dR t, double fovY, double near, double far)
+	public Mat4d applyPerspective(Tup2dR t, double fov, double near, double far)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
 			if(t == null) throw new ArgumentNullException("t");
 		}
 		
-		return perspective(t.getX(), t.getY(), fovY, near, far);
+		return Mat4d.mul(Mat4d.perspective(t, fov, near, far), this, this);
 	}
-	public static Mat4d perspective(double width, double height, double fov, double near, double far)
+	
+	public Mat4d applyPerspective(double width, double height, double fovY, double near, double far)
 	{
-		return new Mat4d().initPerspective(width, height, fov, near, far);
+		return Mat4d.mul(Mat4d.perspective(width, height, fovY, near, far), this, this);
 	}
 	
-	public static Mat4d perspective(double fovX, double fovY, double near, double far)
+	public Mat4d applyPerspective(double fovX, double fovY, double near, double far)
 	{
-		return new Mat4d().initPerspective(fovX, fovY, near, far);
+		return Mat4d.mul(Mat4d.perspective(fovX, fovY, near, far), this, this);
 	}
 	
-	public static Mat4d perspective(double left, double right, double bottom, double top, double near, double far)
+	public Mat4d applyPerspective(double left, double right, double bottom, double top, double near, double far)
 	{
-		return new Mat4d().initPerspective(left, right, bottom, top, near, far);
-	
+		return Mat4d.mul(Mat4d.perspective(left, right, bottom, top, near, far), this, this);
 	}
-	public static Mat4d ortho(Tup2dR t, double near, double far)
+	
+	public Mat4d applyOrtho(Tup2dR t, double near, double far)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
 			if(t == null) throw new ArgumentNullException("t");
 		}
 		
-		return ortho(t.getX(), t.getY(), near, far);
-	}
-	
-	public static Mat4d ortho(double width, double height, double near, double far)
-	{
-		return new Mat4d().initOrtho(width, height, near, far);
+		return Mat4d.mul(Mat4d.ortho(t, near, far), this, this);
 	}
 	
-	public static Mat4d ortho(double left, double right, double bottom, double top, double near, double far)
+	public Mat4d applyOrtho(double width, double height, double length)
 	{
-		return new Mat4d().initOrtho(left, right, bottom, top, near, far);
+		return Mat4d.mul(Mat4d.ortho(width, height, length), this, this);
 	}
 	
-	public static Mat4d rotation(Quatf q)
+	public Mat4d applyOrtho(double width, double height, double near, double far)
 	{
-		return new Mat4d().initRotation(q);
+		return Mat4d.mul(Mat4d.ortho(width, height, near, far), this, this);
 	}
 	
-	public static Mat4d rotation(Tup3dR forward, Tup3dR left, Tup3dR up)
+	public Mat4d applyOrtho(double left, double right, double bottom, double top, double near, double far)
 	{
-		return new Mat4d().initRotation(forward, left, up);
+		return Mat4d.mul(Mat4d.ortho(left, right, bottom, top, near, far), this, this);
 	}
 	
-	public static Mat4d modelMatrix(Tup3dR pos, Quatf rot, Tup3dR scale)
+	public Mat4d applyViewMatrix(Tup3dR pos, Quatf rot)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
 			if(pos == null) throw new ArgumentNullException("pos");
+			if(rot == null) throw new ArgumentNullException("rot");
 		}
 		
-		return new Mat4d().initModelMatrix(pos, rot, scale);
+		return Mat4d.mul(Mat4d.viewMatrix(pos, rot), this, this);
 	}
 	
-	public static Mat4d viewMatrix(Tup3dR pos, Quatf rot)
+	public Mat4d applyViewMatrix(Tup3dR pos, Quatd rot)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
@@ -861,53 +1876,65 @@ public class Mat4d
 			if(rot == null) throw new ArgumentNullException("rot");
 		}
 		
-		return new Mat4d().initViewMatrix(pos, rot);
+		return Mat4d.mul(Mat4d.viewMatrix(pos, rot), this, this);
 	}
 	
-	public static Mat4d lookAt(Tup3dR pos, Tup3dR target, Tup3dR up)
+	public Mat4d applyViewMatrix(Tup3dR pos, EulerAngles3fR angles)
 	{
-		return new Mat4d().initLookAt(pos, target, up);
-	} 
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(pos == null) throw new ArgumentNullException("pos");
+			if(angles == null) throw new ArgumentNullException("angles");
+		}
+		
+		return Mat4d.mul(Mat4d.viewMatrix(pos, angles), this, this);
+	}
 	
-	public Mat4d scale(Tup3dR t)
+	public Mat4d applyViewMatrix(Tup3dR pos, double pitch, double yaw, double roll)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
-			if(t == null) throw new ArgumentNullException("t");
+			if(pos == null) throw new ArgumentNullException("pos");
 		}
 		
-		return Mat4d.mul(Mat4d.scaling(t), this, this);
+		return Mat4d.mul(Mat4d.viewMatrix(pos, pitch, yaw, roll), this, this);
 	}
 	
-	public Mat4d scale(double x, double y, double z)
+	public Mat4d applyViewMatrix(double posX, double posY, double posZ, double pitch, double yaw, double roll)
 	{
-		return Mat4d.mul(Mat4d.scaling(x, y, z), this, this);
+		return Mat4d.mul(Mat4d.viewMatrix(posX, posY, posZ, pitch, yaw, roll), this, this);
 	}
-	public Mat4d translate(Tup3dR t)
+	
+	public Mat4d applyViewMatrixRad(Tup3dR pos, double pitch, double yaw, double roll)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
-			if(t == null) throw new ArgumentNullException("t");
+			if(pos == null) throw new ArgumentNullException("pos");
 		}
 		
-		return Mat4d.mul(Mat4d.translation(t), this, this);
+		return Mat4d.mul(Mat4d.viewMatrixRad(pos, pitch, yaw, roll), this, this);
 	}
-	public Mat4d translate(double x, double y, double z)
+	
+	public Mat4d applyViewMatrixRad(double posX, double posY, double posZ, double pitch, double yaw, double roll)
 	{
-		return Mat4d.mul(Mat4d.translation(x, y, z), this, this);
+		return Mat4d.mul(Mat4d.viewMatrixRad(posX, posY, posZ, pitch, yaw, roll), this, this);
 	}
-	public Mat4d rotate(Quatf q)
+	
+	public Mat4d applyLookAt(Tup3dR pos, Tup3dR target, Tup3dR worldUp)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
-			if(q == null) throw new ArgumentNullException("q");
+			if(pos == null) throw new ArgumentNullException("pos");
+			if(target == null) throw new ArgumentNullException("target");
+			if(worldUp == null) throw new ArgumentNullException("worldUp");
 		}
 		
-		return Mat4d.mul(Mat4d.rotation(q), this, this);
+		return Mat4d.mul(Mat4d.lookAt(pos, target, worldUp), this, this);
 	}
-	public Mat4d rotate(Tup3dR forward, Tup3dR left, Tup3dR up)
+	
+	private Mat4d rotateRad(Vec3f axis, double angle)
 	{
-		return Mat4d.mul(Mat4d.rotation(forward, left, up), this, this);
+		return Mat4d.mul(new Mat4d().initRotationRad(axis.getX(), axis.getY(), axis.getZ(), angle), this, this);
 	}
 	
 	public FloatBuffer toBufferColumnMajor(FloatBuffer res)
@@ -988,110 +2015,57 @@ public class Mat4d
 
 	public Mat4d invert()
 	{
-		double determinant = determinant();
-		
-		if(determinant != 0)
-		{
-			double determinant_inv = 1f/determinant;
-
-			// first row
-			double _m0x =  MatUtils.det3x3(m[1][1], m[1][2], m[1][3], m[2][1], m[2][2], m[2][3], m[3][1], m[3][2], m[3][3]);
-			double _m0y = -MatUtils.det3x3(m[1][0], m[1][2], m[1][3], m[2][0], m[2][2], m[2][3], m[3][0], m[3][2], m[3][3]);
-			double _m0z =  MatUtils.det3x3(m[1][0], m[1][1], m[1][3], m[2][0], m[2][1], m[2][3], m[3][0], m[3][1], m[3][3]);
-			double _m0w = -MatUtils.det3x3(m[1][0], m[1][1], m[1][2], m[2][0], m[2][1], m[2][2], m[3][0], m[3][1], m[3][2]);
-			// second row
-			double _m1x = -MatUtils.det3x3(m[0][1], m[0][2], m[0][3], m[2][1], m[2][2], m[2][3], m[3][1], m[3][2], m[3][3]);
-			double _m1y =  MatUtils.det3x3(m[0][0], m[0][2], m[0][3], m[2][0], m[2][2], m[2][3], m[3][0], m[3][2], m[3][3]);
-			double _m1z = -MatUtils.det3x3(m[0][0], m[0][1], m[0][3], m[2][0], m[2][1], m[2][3], m[3][0], m[3][1], m[3][3]);
-			double _m1w =  MatUtils.det3x3(m[0][0], m[0][1], m[0][2], m[2][0], m[2][1], m[2][2], m[3][0], m[3][1], m[3][2]);
-			// third row
-			double _m2x =  MatUtils.det3x3(m[0][1], m[0][2], m[0][3], m[1][1], m[1][2], m[1][3], m[3][1], m[3][2], m[3][3]);
-			double _m2y = -MatUtils.det3x3(m[0][0], m[0][2], m[0][3], m[1][0], m[1][2], m[1][3], m[3][0], m[3][2], m[3][3]);
-			double _m2z =  MatUtils.det3x3(m[0][0], m[0][1], m[0][3], m[1][0], m[1][1], m[1][3], m[3][0], m[3][1], m[3][3]);
-			double _m2w = -MatUtils.det3x3(m[0][0], m[0][1], m[0][2], m[1][0], m[1][1], m[1][2], m[3][0], m[3][1], m[3][2]);
-			// fourth row
-			double _m3x = -MatUtils.det3x3(m[0][1], m[0][2], m[0][3], m[1][1], m[1][2], m[1][3], m[2][1], m[2][2], m[2][3]);
-			double _m3y =  MatUtils.det3x3(m[0][0], m[0][2], m[0][3], m[1][0], m[1][2], m[1][3], m[2][0], m[2][2], m[2][3]);
-			double _m3z = -MatUtils.det3x3(m[0][0], m[0][1], m[0][3], m[1][0], m[1][1], m[1][3], m[2][0], m[2][1], m[2][3]);
-			double _m3w =  MatUtils.det3x3(m[0][0], m[0][1], m[0][2], m[1][0], m[1][1], m[1][2], m[2][0], m[2][1], m[2][2]);
-
-			// transpose and divide by the determinant
-			m[0][0] = _m0x * determinant_inv;
-			m[1][1] = _m1y * determinant_inv;
-			m[2][2] = _m2z * determinant_inv;
-			m[3][3] = _m3w * determinant_inv;
-			m[0][1] = _m1x * determinant_inv;
-			m[1][0] = _m0y * determinant_inv;
-			m[2][0] = _m0z * determinant_inv;
-			m[0][2] = _m2x * determinant_inv;
-			m[1][2] = _m2y * determinant_inv;
-			m[2][1] = _m1z * determinant_inv;
-			m[0][3] = _m3x * determinant_inv;
-			m[3][0] = _m0w * determinant_inv;
-			m[1][3] = _m3y * determinant_inv;
-			m[3][1] = _m1w * determinant_inv;
-			m[3][2] = _m2w * determinant_inv;
-			m[2][3] = _m3z * determinant_inv;
-			
-			return this;
-		}
+		if(!MatUtils.invert4x4(this.m, this.m)) return null;
 		
-		return null;
+		return this;
 	}
 	
 	public Mat4d invertN()
 	{
-		double determinant = determinant();
+		Mat4d out = new Mat4d();
 		
-		if(determinant != 0)
-		{
-			double determinant_inv = 1f / determinant;
-
-			// first row
-			double _m0x =  MatUtils.det3x3(m[1][1], m[1][2], m[1][3], m[2][1], m[2][2], m[2][3], m[3][1], m[3][2], m[3][3]);
-			double _m0y = -MatUtils.det3x3(m[1][0], m[1][2], m[1][3], m[2][0], m[2][2], m[2][3], m[3][0], m[3][2], m[3][3]);
-			double _m0z =  MatUtils.det3x3(m[1][0], m[1][1], m[1][3], m[2][0], m[2][1], m[2][3], m[3][0], m[3][1], m[3][3]);
-			double _m0w = -MatUtils.det3x3(m[1][0], m[1][1], m[1][2], m[2][0], m[2][1], m[2][2], m[3][0], m[3][1], m[3][2]);
-			// second row
-			double _m1x = -MatUtils.det3x3(m[0][1], m[0][2], m[0][3], m[2][1], m[2][2], m[2][3], m[3][1], m[3][2], m[3][3]);
-			double _m1y =  MatUtils.det3x3(m[0][0], m[0][2], m[0][3], m[2][0], m[2][2], m[2][3], m[3][0], m[3][2], m[3][3]);
-			double _m1z = -MatUtils.det3x3(m[0][0], m[0][1], m[0][3], m[2][0], m[2][1], m[2][3], m[3][0], m[3][1], m[3][3]);
-			double _m1w =  MatUtils.det3x3(m[0][0], m[0][1], m[0][2], m[2][0], m[2][1], m[2][2], m[3][0], m[3][1], m[3][2]);
-			// third row
-			double _m2x =  MatUtils.det3x3(m[0][1], m[0][2], m[0][3], m[1][1], m[1][2], m[1][3], m[3][1], m[3][2], m[3][3]);
-			double _m2y = -MatUtils.det3x3(m[0][0], m[0][2], m[0][3], m[1][0], m[1][2], m[1][3], m[3][0], m[3][2], m[3][3]);
-			double _m2z =  MatUtils.det3x3(m[0][0], m[0][1], m[0][3], m[1][0], m[1][1], m[1][3], m[3][0], m[3][1], m[3][3]);
-			double _m2w = -MatUtils.det3x3(m[0][0], m[0][1], m[0][2], m[1][0], m[1][1], m[1][2], m[3][0], m[3][1], m[3][2]);
-			// fourth row
-			double _m3x = -MatUtils.det3x3(m[0][1], m[0][2], m[0][3], m[1][1], m[1][2], m[1][3], m[2][1], m[2][2], m[2][3]);
-			double _m3y =  MatUtils.det3x3(m[0][0], m[0][2], m[0][3], m[1][0], m[1][2], m[1][3], m[2][0], m[2][2], m[2][3]);
-			double _m3z = -MatUtils.det3x3(m[0][0], m[0][1], m[0][3], m[1][0], m[1][1], m[1][3], m[2][0], m[2][1], m[2][3]);
-			double _m3w =  MatUtils.det3x3(m[0][0], m[0][1], m[0][2], m[1][0], m[1][1], m[1][2], m[2][0], m[2][1], m[2][2]);
-
-			Mat4d out = new Mat4d();
-			
-			// transpose and divide by the determinant
-			out.m[0][0] = _m0x * determinant_inv;
-			out.m[1][1] = _m1y * determinant_inv;
-			out.m[2][2] = _m2z * determinant_inv;
-			out.m[3][3] = _m3w * determinant_inv;
-			out.m[0][1] = _m1x * determinant_inv;
-			out.m[1][0] = _m0y * determinant_inv;
-			out.m[2][0] = _m0z * determinant_inv;
-			out.m[0][2] = _m2x * determinant_inv;
-			out.m[1][2] = _m2y * determinant_inv;
-			out.m[2][1] = _m1z * determinant_inv;
-			out.m[0][3] = _m3x * determinant_inv;
-			out.m[3][0] = _m0w * determinant_inv;
-			out.m[1][3] = _m3y * determinant_inv;
-			out.m[3][1] = _m1w * determinant_inv;
-			out.m[3][2] = _m2w * determinant_inv;
-			out.m[2][3] = _m3z * determinant_inv;
-			
-			return out;
-		}
+		if(!MatUtils.invert4x4(this.m, out.m)) return null;
+		
+		return out;
+	}
+	
+	/**
+	 * Inverts this matrix assuming the last row is (0, 0, 0, 1).
+	 * Returns null if the upper 3x3 part is singular.
+	 */
+	public Mat4d invertAffine()
+	{
+		if(!invertAffine(this.m, this.m)) return null;
+		
+		return this;
+	}
+	
+	public Mat4d invertAffineN()
+	{
+		Mat4d out = new Mat4d();
+		
+		if(!invertAffine(this.m, out.m)) return null;
+		
+		return out;
+	}
+	
+	/**
+	 * Inverts this matrix assuming it only consists of a rotation and a translation.
+	 */
+	public Mat4d invertRigid()
+	{
+		invertRigid(this.m, this.m);
+		
+		return this;
+	}
+	
+	public Mat4d invertRigidN()
+	{
+		Mat4d out = new Mat4d();
+		
+		invertRigid(this.m, out.m);
 		
-		return null;
+		return out;
 	}
 	
 	public String toString()
@@ -1106,4 +2080,50 @@ public class Mat4d
 	{
 		return new Mat4d(this);
 	}
+	
+	private static boolean invertAffine(double[][] m, double[][] res)
+	{
+		double a00 = m[0][0], a01 = m[0][1], a02 = m[0][2], t0 = m[0][3];
+		double a10 = m[1][0], a11 = m[1][1], a12 = m[1][2], t1 = m[1][3];
+		double a20 = m[2][0], a21 = m[2][1], a22 = m[2][2], t2 = m[2][3];
+		
+		double c00 = a11 * a22 - a12 * a21;
+		double c01 = a12 * a20 - a10 * a22;
+		double c02 = a10 * a21 - a11 * a20;
+		
+		double det = a00 * c00 + a01 * c01 + a02 * c02;
+		
+		if(det == 0.0) return false;
+		
+		double invDet = 1.0 / det;
+		
+		double i00 = c00 * invDet;
+		double i01 = (a02 * a21 - a01 * a22) * invDet;
+		double i02 = (a01 * a12 - a02 * a11) * invDet;
+		double i10 = c01 * invDet;
+		double i11 = (a00 * a22 - a02 * a20) * invDet;
+		double i12 = (a02 * a10 - a00 * a12) * invDet;
+		double i20 = c02 * invDet;
+		double i21 = (a01 * a20 - a00 * a21) * invDet;
+		double i22 = (a00 * a11 - a01 * a10) * invDet;
+		
+		res[0][0] = i00; res[0][1] = i01; res[0][2] = i02; res[0][3] = -(i00 * t0 + i01 * t1 + i02 * t2);
+		res[1][0] = i10; res[1][1] = i11; res[1][2] = i12; res[1][3] = -(i10 * t0 + i11 * t1 + i12 * t2);
+		res[2][0] = i20; res[2][1] = i21; res[2][2] = i22; res[2][3] = -(i20 * t0 + i21 * t1 + i22 * t2);
+		res[3][0] = 0.0; res[3][1] = 0.0; res[3][2] = 0.0; res[3][3] = 1.0;
+		
+		return true;
+	}
+	
+	private static void invertRigid(double[][] m, double[][] res)
+	{
+		double a00 = m[0][0], a01 = m[0][1], a02 = m[0][2], t0 = m[0][3];
+		double a10 = m[1][0], a11 = m[1][1], a12 = m[1][2], t1 = m[1][3];
+		double a20 = m[2][0], a21 = m[2][1], a22 = m[2][2], t2 = m[2][3];
+		
+		res[0][0] = a00; res[0][1] = a10; res[0][2] = a20; res[0][3] = -(a00 * t0 + a10 * t1 + a20 * t2);
+		res[1][0] = a01; res[1][1] = a11; res[1][2] = a21; res[1][3] = -(a01 * t0 + a11 * t1 + a21 * t2);
+		res[2][0] = a02; res[2][1] = a12; res[2][2] = a22; res[2][3] = -(a02 * t0 + a12 * t1 + a22 * t2);
+		res[3][0] = 0.0; res[3][1] = 0.0; res[3][2] = 0.0; res[3][3] = 1.0;
+	}
 }
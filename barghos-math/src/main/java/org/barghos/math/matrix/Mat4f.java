@@ -37,6 +37,7 @@ import org.barghos.core.util.Nullable;
 
 import org.barghos.math.matrix.api.Mat3fR;
 import org.barghos.math.matrix.api.Mat4fR;
+import org.barghos.math.matrix.api.Mat4fW;
 import org.barghos.math.utils.api.EulerAngles3f;
 import org.barghos.math.utils.api.EulerAngles3fR;
 import org.barghos.math.utils.api.EulerRotationOrder3;
@@ -45,6 +46,7 @@ import org.barghos.math.utils.api.Transform3f;
 
 import org.barghos.math.BarghosMath;
 import org.barghos.math.point.Point3f;
+import org.barghos.math.pool.MathStack;
 import org.barghos.math.quat.Quatf;
 import org.barghos.math.utils.EulerAngles2f;
 import org.barghos.math.utils.EulerAnglesRad2f;
@@ -53,10 +55,51 @@ import org.barghos.math.utils.LinearSystem3;
 import org.barghos.math.utils.Maths;
 import org.barghos.math.vec3.Vec3f;
 import org.barghos.math.vec3.api.Vec3fR;
-import org.barghos.math.vec3.pool.Vec3fPool;
 
+/**
+ * A 4x4 float matrix that keeps track of some of its properties in a bitmask, like being the identity or affine.
+ * The init functions set the properties they guarantee, all other mutators either maintain them or clear them.
+ * Multiplication, inversion and transformation use them to skip work, like the bottom row in the product of two affine matrices.
+ * 
+ * The properties are only hints and never detected from the cells. Code that writes the cells of {@link #m} directly
+ * has to call {@link #setProperties(int)} afterwards, with 0 if nothing is known about the matrix.
+ * 
+ * @author picatrix1899
+ */
 public class Mat4f extends SimpleMat4f
 {	
+	/**
+	 * The matrix is the identity. Implies all other properties except {@link #PROPERTY_PERSPECTIVE}.
+	 */
+	public static final int PROPERTY_IDENTITY = 1;
+	
+	/**
+	 * The matrix is a pure translation. Implies {@link #PROPERTY_AFFINE} and {@link #PROPERTY_ORTHONORMAL}.
+	 */
+	public static final int PROPERTY_TRANSLATION = 2;
+	
+	/**
+	 * The last row of the matrix is (0, 0, 0, 1).
+	 */
+	public static final int PROPERTY_AFFINE = 4;
+	
+	/**
+	 * The upper 3x3 block of the matrix is orthonormal. Only used together with {@link #PROPERTY_AFFINE}.
+	 */
+	public static final int PROPERTY_ORTHONORMAL = 8;
+	
+	/**
+	 * The matrix is a symmetric perspective projection of the form
+	 * ((a, 0, 0, 0), (0, b, 0, 0), (0, 0, c, d), (0, 0, -1, 0)).
+	 */
+	public static final int PROPERTY_PERSPECTIVE = 16;
+	
+	private static final int PROPERTIES_IDENTITY = PROPERTY_IDENTITY | PROPERTY_TRANSLATION | PROPERTY_AFFINE | PROPERTY_ORTHONORMAL;
+	private static final int PROPERTIES_TRANSLATION = PROPERTY_TRANSLATION | PROPERTY_AFFINE | PROPERTY_ORTHONORMAL;
+	private static final int PROPERTIES_ROTATION = PROPERTY_AFFINE | PROPERTY_ORTHONORMAL;
+	
+	private int properties;
+	
 	public Mat4f() { }
 	
 	public Mat4f(Mat4f m)
@@ -77,6 +120,8 @@ public class Mat4f extends SimpleMat4f
 		}
 		
 		super.set(m);
+		
+		this.properties = m instanceof Mat4f ? ((Mat4f)m).properties : 0;
 
 		return this;
 	}
@@ -90,9 +135,32 @@ public class Mat4f extends SimpleMat4f
 
 		super.set(m);
 		
+		this.properties = PROPERTY_AFFINE;
+		
+		return this;
+	}
+	
+	public int getProperties()
+	{
+		return this.properties;
+	}
+	
+	/**
+	 * Sets the properties that are known to be true for this matrix. Wrong properties lead to wrong results of
+	 * the functions that use them, so this should only be called after writing to {@link #m} directly.
+	 */
+	public Mat4f setProperties(int properties)
+	{
+		this.properties = properties;
+		
 		return this;
 	}
 	
+	public boolean hasProperty(int property)
+	{
+		return (this.properties & property) == property;
+	}
+	
 	public Mat4f setRow(int index, Tup4fR t)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
@@ -180,6 +248,8 @@ public class Mat4f extends SimpleMat4f
 		
 		super.setRow(index, x, y, z, w);
 		
+		this.properties = 0;
+		
 		return this;
 	}
 	
@@ -270,6 +340,17 @@ public class Mat4f extends SimpleMat4f
 		
 		super.setColumn(index, x, y, z, w);
 		
+		this.properties = 0;
+		
+		return this;
+	}
+	
+	public Mat4f setCell(int row, int column, float value)
+	{
+		super.setCell(row, column, value);
+		
+		this.properties = 0;
+		
 		return this;
 	}
 	
@@ -280,6 +361,8 @@ public class Mat4f extends SimpleMat4f
 		setRow(2, 0.0f, 0.0f, 1.0f, 0.0f);
 		setRow(3, 0.0f, 0.0f, 0.0f, 1.0f);
 		
+		this.properties = PROPERTIES_IDENTITY;
+		
 		return this;
 	}
 
@@ -310,6 +393,8 @@ public class Mat4f extends SimpleMat4f
 		setRow(2, 0.0f,	0.0f,	z, 		0.0f);
 		setRow(3, 0.0f,	0.0f,	0.0f, 	w);
 		
+		this.properties = w == 1.0f ? PROPERTY_AFFINE : 0;
+		
 		return this;
 	}
 	
@@ -330,6 +415,8 @@ public class Mat4f extends SimpleMat4f
 		setRow(2, 0.0f,	0.0f,	z, 		0.0f);
 		setRow(3, 0.0f,	0.0f,	0.0f, 	1.0f);
 		
+		this.properties = PROPERTY_AFFINE;
+		
 		return this;
 	}
 	
@@ -350,6 +437,8 @@ public class Mat4f extends SimpleMat4f
 		setRow(2, 0.0f,	0.0f,	1.0f, 	0.0f);
 		setRow(3, 0.0f,	0.0f,	0.0f, 	1.0f);
 		
+		this.properties = PROPERTY_AFFINE;
+		
 		return this;
 	}
 	
@@ -370,6 +459,8 @@ public class Mat4f extends SimpleMat4f
 		setRow(2, 0.0f, 0.0f, 1.0f, z	);
 		setRow(3, 0.0f, 0.0f, 0.0f, 1.0f);
 		
+		this.properties = PROPERTIES_TRANSLATION;
+		
 		return this;
 	}
 	
@@ -390,6 +481,8 @@ public class Mat4f extends SimpleMat4f
 		setRow(2, 0.0f, 0.0f, 1.0f, 0.0f);
 		setRow(3, 0.0f, 0.0f, 0.0f, 1.0f);
 		
+		this.properties = PROPERTIES_TRANSLATION;
+		
 		return this;
 	}
 	
@@ -407,6 +500,8 @@ public class Mat4f extends SimpleMat4f
 		setRow(2, 0.0f, 0.0f, 1.0f, 0.0f);
 		setRow(3, 0.0f, 0.0f, 0.0f, 1.0f);
 		
+		this.properties = PROPERTY_AFFINE;
+		
 		return this;
 	}
 	
@@ -422,6 +517,8 @@ public class Mat4f extends SimpleMat4f
 		setRow(2, 0.0f, 0.0f, 1.0f, 0.0f);
 		setRow(3, 0.0f, 0.0f, 0.0f, 1.0f);
 		
+		this.properties = PROPERTY_AFFINE;
+		
 		return this;
 	}
 	
@@ -434,6 +531,8 @@ public class Mat4f extends SimpleMat4f
 		setRow(2, 0.0f, 0.0f, 1.0f, 0.0f);
 		setRow(3, 0.0f, 0.0f, 0.0f, 1.0f);
 		
+		this.properties = PROPERTY_AFFINE;
+		
 		return this;
 	}
 	
@@ -444,6 +543,8 @@ public class Mat4f extends SimpleMat4f
 		setRow(2, 0.0f, 0.0f, 1.0f, 0.0f);
 		setRow(3, 0.0f, 0.0f, 0.0f, 1.0f);
 		
+		this.properties = PROPERTY_AFFINE;
+		
 		return this;
 	}
 	
@@ -471,6 +572,8 @@ public class Mat4f extends SimpleMat4f
 		
 		setRow(3, 0.0f, 0.0f, 0.0f, 1.0f);
 
+		this.properties = rotationProperties(q.getX() * q.getX() + q.getY() * q.getY() + q.getZ() * q.getZ() + q.getW() * q.getW());
+		
 		return this;
 	}
 	
@@ -504,6 +607,8 @@ public class Mat4f extends SimpleMat4f
 		setRow(2, aX * aZ * iCA - aY * sA	, aY * aZ * iCA + aX * sA	, cA + aZ * aZ * iCA		, 0);
 		setRow(3, 0, 0, 0, 1);
 		
+		this.properties = rotationProperties(aX * aX + aY * aY + aZ * aZ);
+		
 		return this;
 	}
 	
@@ -874,6 +979,8 @@ public class Mat4f extends SimpleMat4f
 		setColumn(2, forward, 0.0f);
 		setColumn(3, 0.0f, 0.0f, 0.0f, 1.0f);
 		
+		this.properties = PROPERTY_AFFINE;
+		
 		return this;
 	}
 	
@@ -960,6 +1067,8 @@ public class Mat4f extends SimpleMat4f
 		setRow(2, 0f,		0f,			-(far + near) / (far - near),	-2f * near * far / (far - near)	);
 		setRow(3, 0f,		0f,			-1f,							0f								);
 		
+		this.properties = PROPERTY_PERSPECTIVE;
+		
 		return this;
 	}
 	
@@ -973,6 +1082,8 @@ public class Mat4f extends SimpleMat4f
 		setRow(2, 0f,		0f,			-(far + near) / (far - near),	-2f * near * far / (far - near)	);
 		setRow(3, 0f,		0f,			-1f,							0f								);
 		
+		this.properties = PROPERTY_PERSPECTIVE;
+		
 		return this;
 	}
 	
@@ -1003,6 +1114,8 @@ public class Mat4f extends SimpleMat4f
 		setRow(2, 0f,			0f, 			-2.0f / length,			0f);
 		setRow(3, 0f,			0f,				0f,						1f);
 		
+		this.properties = PROPERTY_AFFINE;
+		
 		return this;
 	}
 	
@@ -1013,6 +1126,8 @@ public class Mat4f extends SimpleMat4f
 		setRow(2, 0f,			0f, 			-2.0f / (far - near),	0f);
 		setRow(3, 0f,			0f,				0f,						1f);
 		
+		this.properties = PROPERTY_AFFINE;
+		
 		return this;
 	}
 	
@@ -1023,6 +1138,8 @@ public class Mat4f extends SimpleMat4f
 		setRow(2, 0f,									0f, 								-2.0f / (far - near),			0f);
 		setRow(3, 0f,		0f,	0f, 	1f);
 		 
+		this.properties = PROPERTY_AFFINE;
+		
 		return this;
 	}
 
@@ -1204,16 +1321,54 @@ public class Mat4f extends SimpleMat4f
 			if(worldUp == null) throw new ArgumentNullException("worldUp");
 		}
 	
-		Vec3f forward = Vec3fPool.get(target).sub(pos).normalSafe();
-		Vec3f right = Vec3fPool.get(worldUp).cross(forward).normalSafe();
-		Vec3f up = forward.cross(right).normalSafe();
-		
-		initRotation3D(forward, right, up);
-
-		Vec3fPool.store(forward, right);
+		try(MathStack s = MathStack.push())
+		{
+			Vec3f forward = s.vec3(target).sub(pos).normalSafe();
+			Vec3f right = s.vec3(worldUp).cross(forward).normalSafe();
+			Vec3f up = forward.cross(right, s.vec3()).normalSafe();
+			
+			initRotation3D(forward, right, up);
+		}
 		
 		return this;
 	}
+	
+	/**
+	 * Extracts the six clipping planes of this view projection matrix into res as (a, b, c, d) each, in the order
+	 * left, right, bottom, top, near and far. A point p is inside a plane if a * p.x + b * p.y + c * p.z + d >= 0.
+	 * The planes are normalized and expect the clip space depth range [-w, w] of the perspective and ortho init functions.
+	 */
+	public float[] getFrustumPlanes(float[] res)
+	{
+		if(res == null) res = new float[24];
+		
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(res.length < 24) throw new IllegalArgumentException("The result needs room for 24 floats.");
+		}
+		
+		float[] w = this.m[3];
+		
+		for(int i = 0; i < 6; i++)
+		{
+			float[] row = this.m[i >> 1];
+			float sign = (i & 1) == 0 ? 1.0f : -1.0f;
+			
+			float a = w[0] + row[0] * sign;
+			float b = w[1] + row[1] * sign;
+			float c = w[2] + row[2] * sign;
+			float d = w[3] + row[3] * sign;
+			
+			float invLength = 1.0f / Maths.sqrt(a * a + b * b + c * c);
+			
+			res[i * 4] = a * invLength;
+			res[i * 4 + 1] = b * invLength;
+			res[i * 4 + 2] = c * invLength;
+			res[i * 4 + 3] = d * invLength;
+		}
+		
+		return res;
+	}
 
 	public Mat4f mul(Mat4fR left)
 	{
@@ -1227,6 +1382,58 @@ public class Mat4f extends SimpleMat4f
 		return this;
 	}
 	
+	/**
+	 * Calculates left * this into res.
+	 * If both matrices and the result are instances of Mat4f, an identity operand turns the multiplication into a copy
+	 * and the bottom row is skipped if both operands are affine.
+	 */
+	public <T extends Mat4fW> T mul(Mat4fR left, T res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(left == null) throw new ArgumentNullException("left");
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		if(left instanceof Mat4f && res instanceof Mat4f)
+		{
+			Mat4f l = (Mat4f)left;
+			Mat4f o = (Mat4f)res;
+			
+			int lp = l.properties;
+			int rp = this.properties;
+			
+			if((lp & PROPERTY_IDENTITY) != 0)
+			{
+				if(o != this) o.set(this);
+				
+				return res;
+			}
+			
+			if((rp & PROPERTY_IDENTITY) != 0)
+			{
+				if(o != l) o.set(l);
+				
+				return res;
+			}
+			
+			if((lp & rp & PROPERTY_AFFINE) != 0)
+			{
+				mulAffine(l.m, this.m, o.m);
+				
+				o.properties = PROPERTY_AFFINE | (lp & rp & (PROPERTY_TRANSLATION | PROPERTY_ORTHONORMAL));
+				
+				return res;
+			}
+		}
+		
+		super.mul(left, res);
+		
+		if(res instanceof Mat4f) ((Mat4f)res).properties = 0;
+		
+		return res;
+	}
+	
 	public Mat4f mulN(Mat4fR left)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
@@ -1239,7 +1446,20 @@ public class Mat4f extends SimpleMat4f
 	
 	public Mat4f transpose()
 	{
-		return super.transpose(this);
+		return transpose(this);
+	}
+	
+	public <T extends Mat4fW> T transpose(T res)
+	{
+		// Without a translation the transpose of an affine matrix is affine again and keeps its orthonormality.
+		boolean keep = (this.properties & PROPERTY_AFFINE) != 0 && this.m[0][3] == 0.0f && this.m[1][3] == 0.0f && this.m[2][3] == 0.0f;
+		int properties = keep ? this.properties : 0;
+		
+		super.transpose(res);
+		
+		if(res instanceof Mat4f) ((Mat4f)res).properties = properties;
+		
+		return res;
 	}
 	
 	public Point3f transform(Point3f r)
@@ -1944,112 +2164,172 @@ public class Mat4f extends SimpleMat4f
 		return mul(Mat4f.lookAtMatrix(pos, target, worldUp));
 	}
 	
+	public float[] transform(float[] src, int srcOffset, float[] dst, int dstOffset, int count, boolean useLastColumn)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(src == null) throw new ArgumentNullException("src");
+			if(dst == null) throw new ArgumentNullException("dst");
+		}
+		
+		int p = this.properties;
+		
+		if((p & PROPERTY_IDENTITY) != 0 || (p & PROPERTY_TRANSLATION) != 0 && !useLastColumn)
+		{
+			if(src != dst || srcOffset != dstOffset) System.arraycopy(src, srcOffset, dst, dstOffset, count * 3);
+			
+			return dst;
+		}
+		
+		if((p & PROPERTY_TRANSLATION) != 0)
+		{
+			float tx = this.m[0][3];
+			float ty = this.m[1][3];
+			float tz = this.m[2][3];
+			
+			for(int i = 0; i < count; i++)
+			{
+				int s = srcOffset + i * 3;
+				int d = dstOffset + i * 3;
+				
+				dst[d] = src[s] + tx;
+				dst[d + 1] = src[s + 1] + ty;
+				dst[d + 2] = src[s + 2] + tz;
+			}
+			
+			return dst;
+		}
+		
+		return super.transform(src, srcOffset, dst, dstOffset, count, useLastColumn);
+	}
+	
+	/**
+	 * Inverts this matrix. The known properties select the cheapest way: the identity is kept, a translation is negated,
+	 * affine matrices use {@link #invertRigid()} or {@link #invertAffine()} and perspective projections a closed form.
+	 * Returns null if the matrix is singular.
+	 */
 	public Mat4f invert()
 	{
-		double determinant = determinant();
+		int p = this.properties;
 		
-		if(determinant != 0)
+		if((p & PROPERTY_IDENTITY) != 0) return this;
+		
+		if((p & PROPERTY_TRANSLATION) != 0)
 		{
-			double determinant_inv = 1.0 / determinant;
-
-			// first row
-			double _m0x =  MatUtils.det3x3(m[1][1], m[1][2], m[1][3], m[2][1], m[2][2], m[2][3], m[3][1], m[3][2], m[3][3]);
-			double _m0y = -MatUtils.det3x3(m[1][0], m[1][2], m[1][3], m[2][0], m[2][2], m[2][3], m[3][0], m[3][2], m[3][3]);
-			double _m0z =  MatUtils.det3x3(m[1][0], m[1][1], m[1][3], m[2][0], m[2][1], m[2][3], m[3][0], m[3][1], m[3][3]);
-			double _m0w = -MatUtils.det3x3(m[1][0], m[1][1], m[1][2], m[2][0], m[2][1], m[2][2], m[3][0], m[3][1], m[3][2]);
-			// second row
-			double _m1x = -MatUtils.det3x3(m[0][1], m[0][2], m[0][3], m[2][1], m[2][2], m[2][3], m[3][1], m[3][2], m[3][3]);
-			double _m1y =  MatUtils.det3x3(m[0][0], m[0][2], m[0][3], m[2][0], m[2][2], m[2][3], m[3][0], m[3][2], m[3][3]);
-			double _m1z = -MatUtils.det3x3(m[0][0], m[0][1], m[0][3], m[2][0], m[2][1], m[2][3], m[3][0], m[3][1], m[3][3]);
-			double _m1w =  MatUtils.det3x3(m[0][0], m[0][1], m[0][2], m[2][0], m[2][1], m[2][2], m[3][0], m[3][1], m[3][2]);
-			// third row
-			double _m2x =  MatUtils.det3x3(m[0][1], m[0][2], m[0][3], m[1][1], m[1][2], m[1][3], m[3][1], m[3][2], m[3][3]);
-			double _m2y = -MatUtils.det3x3(m[0][0], m[0][2], m[0][3], m[1][0], m[1][2], m[1][3], m[3][0], m[3][2], m[3][3]);
-			double _m2z =  MatUtils.det3x3(m[0][0], m[0][1], m[0][3], m[1][0], m[1][1], m[1][3], m[3][0], m[3][1], m[3][3]);
-			double _m2w = -MatUtils.det3x3(m[0][0], m[0][1], m[0][2], m[1][0], m[1][1], m[1][2], m[3][0], m[3][1], m[3][2]);
-			// fourth row
-			double _m3x = -MatUtils.det3x3(m[0][1], m[0][2], m[0][3], m[1][1], m[1][2], m[1][3], m[2][1], m[2][2], m[2][3]);
-			double _m3y =  MatUtils.det3x3(m[0][0], m[0][2], m[0][3], m[1][0], m[1][2], m[1][3], m[2][0], m[2][2], m[2][3]);
-			double _m3z = -MatUtils.det3x3(m[0][0], m[0][1], m[0][3], m[1][0], m[1][1], m[1][3], m[2][0], m[2][1], m[2][3]);
-			double _m3w =  MatUtils.det3x3(m[0][0], m[0][1], m[0][2], m[1][0], m[1][1], m[1][2], m[2][0], m[2][1], m[2][2]);
-
-			// transpose and divide by the determinant
-			m[0][0] = (float)(_m0x * determinant_inv);
-			m[1][1] = (float)(_m1y * determinant_inv);
-			m[2][2] = (float)(_m2z * determinant_inv);
-			m[3][3] = (float)(_m3w * determinant_inv);
-			m[0][1] = (float)(_m1x * determinant_inv);
-			m[1][0] = (float)(_m0y * determinant_inv);
-			m[2][0] = (float)(_m0z * determinant_inv);
-			m[0][2] = (float)(_m2x * determinant_inv);
-			m[1][2] = (float)(_m2y * determinant_inv);
-			m[2][1] = (float)(_m1z * determinant_inv);
-			m[0][3] = (float)(_m3x * determinant_inv);
-			m[3][0] = (float)(_m0w * determinant_inv);
-			m[1][3] = (float)(_m3y * determinant_inv);
-			m[3][1] = (float)(_m1w * determinant_inv);
-			m[3][2] = (float)(_m2w * determinant_inv);
-			m[2][3] = (float)(_m3z * determinant_inv);
+			this.m[0][3] = -this.m[0][3];
+			this.m[1][3] = -this.m[1][3];
+			this.m[2][3] = -this.m[2][3];
+			
+			return this;
+		}
+		
+		if((p & PROPERTY_AFFINE) != 0)
+		{
+			if((p & PROPERTY_ORTHONORMAL) != 0) return invertRigid();
+			
+			return invertAffine();
+		}
+		
+		if((p & PROPERTY_PERSPECTIVE) != 0)
+		{
+			if(!invertPerspective(this.m, this.m)) return null;
+			
+			this.properties = 0;
 			
 			return this;
 		}
 		
-		return null;
+		if(!Mat4fKernels.get().invert(this.m, this.m)) return null;
+		
+		return this;
 	}
 	
 	public Mat4f invertN()
 	{
-		double determinant = determinant();
+		return new Mat4f(this).invert();
+	}
+	
+	/**
+	 * Inverts this matrix under the assumption that it is affine, meaning its last row is (0, 0, 0, 1).
+	 * Only the upper 3x3 block is inverted and the translation is transformed by its inverse.
+	 * Returns null if the 3x3 block is singular.
+	 */
+	public Mat4f invertAffine()
+	{
+		if(!invertAffine(this.m, this.m)) return null;
 		
-		if(determinant != 0)
+		this.properties = PROPERTY_AFFINE | (this.properties & (PROPERTY_TRANSLATION | PROPERTY_ORTHONORMAL));
+		
+		return this;
+	}
+	
+	public Mat4f invertAffineN()
+	{
+		return new Mat4f(this).invertAffine();
+	}
+	
+	/**
+	 * Inverts this matrix under the assumption that it is rigid, meaning an orthonormal 3x3 block with a translation.
+	 * The inverse is the transposed 3x3 block with the translation rotated by it and negated.
+	 */
+	public Mat4f invertRigid()
+	{
+		invertRigid(this.m, this.m);
+		
+		this.properties = PROPERTY_AFFINE | (this.properties & (PROPERTY_TRANSLATION | PROPERTY_ORTHONORMAL));
+		
+		return this;
+	}
+	
+	public Mat4f invertRigidN()
+	{
+		return new Mat4f(this).invertRigid();
+	}
+	
+	/**
+	 * Inverts this matrix under the assumption that it is orthonormal, like a pure rotation. The inverse is the transpose.
+	 */
+	public Mat4f invertOrthonormal()
+	{
+		return transpose();
+	}
+	
+	public Mat4f invertOrthonormalN()
+	{
+		return transpose(new Mat4f());
+	}
+	
+	/**
+	 * Inverts this matrix with the cheapest of the paths above that applies to it.
+	 * If properties of the matrix are known, {@link #invert()} is used right away. Otherwise the last row has to match (0, 0, 0, 1) exactly for the affine paths, and the rows of the 3x3 block
+	 * have to be orthonormal within {@link BarghosMath#DEFAULT_ZERO_THRESHOLD_F} for the rigid and orthonormal paths.
+	 * Otherwise the general inverse is used.
+	 * Returns null if the matrix is singular.
+	 */
+	public Mat4f invertAuto()
+	{
+		if(this.properties != 0) return invert();
+		
+		switch(classify(this.m, BarghosMath.DEFAULT_ZERO_THRESHOLD_F))
 		{
-			double determinant_inv = 1.0 / determinant;
-
-			// first row
-			double _m0x =  MatUtils.det3x3(m[1][1], m[1][2], m[1][3], m[2][1], m[2][2], m[2][3], m[3][1], m[3][2], m[3][3]);
-			double _m0y = -MatUtils.det3x3(m[1][0], m[1][2], m[1][3], m[2][0], m[2][2], m[2][3], m[3][0], m[3][2], m[3][3]);
-			double _m0z =  MatUtils.det3x3(m[1][0], m[1][1], m[1][3], m[2][0], m[2][1], m[2][3], m[3][0], m[3][1], m[3][3]);
-			double _m0w = -MatUtils.det3x3(m[1][0], m[1][1], m[1][2], m[2][0], m[2][1], m[2][2], m[3][0], m[3][1], m[3][2]);
-			// second row
-			double _m1x = -MatUtils.det3x3(m[0][1], m[0][2], m[0][3], m[2][1], m[2][2], m[2][3], m[3][1], m[3][2], m[3][3]);
-			double _m1y =  MatUtils.det3x3(m[0][0], m[0][2], m[0][3], m[2][0], m[2][2], m[2][3], m[3][0], m[3][2], m[3][3]);
-			double _m1z = -MatUtils.det3x3(m[0][0], m[0][1], m[0][3], m[2][0], m[2][1], m[2][3], m[3][0], m[3][1], m[3][3]);
-			double _m1w =  MatUtils.det3x3(m[0][0], m[0][1], m[0][2], m[2][0], m[2][1], m[2][2], m[3][0], m[3][1], m[3][2]);
-			// third row
-			double _m2x =  MatUtils.det3x3(m[0][1], m[0][2], m[0][3], m[1][1], m[1][2], m[1][3], m[3][1], m[3][2], m[3][3]);
-			double _m2y = -MatUtils.det3x3(m[0][0], m[0][2], m[0][3], m[1][0], m[1][2], m[1][3], m[3][0], m[3][2], m[3][3]);
-			double _m2z =  MatUtils.det3x3(m[0][0], m[0][1], m[0][3], m[1][0], m[1][1], m[1][3], m[3][0], m[3][1], m[3][3]);
-			double _m2w = -MatUtils.det3x3(m[0][0], m[0][1], m[0][2], m[1][0], m[1][1], m[1][2], m[3][0], m[3][1], m[3][2]);
-			// fourth row
-			double _m3x = -MatUtils.det3x3(m[0][1], m[0][2], m[0][3], m[1][1], m[1][2], m[1][3], m[2][1], m[2][2], m[2][3]);
-			double _m3y =  MatUtils.det3x3(m[0][0], m[0][2], m[0][3], m[1][0], m[1][2], m[1][3], m[2][0], m[2][2], m[2][3]);
-			double _m3z = -MatUtils.det3x3(m[0][0], m[0][1], m[0][3], m[1][0], m[1][1], m[1][3], m[2][0], m[2][1], m[2][3]);
-			double _m3w =  MatUtils.det3x3(m[0][0], m[0][1], m[0][2], m[1][0], m[1][1], m[1][2], m[2][0], m[2][1], m[2][2]);
-
-			Mat4f out = new Mat4f();
-			
-			// transpose and divide by the determinant
-			out.m[0][0] = (float)(_m0x * determinant_inv);
-			out.m[1][1] = (float)(_m1y * determinant_inv);
-			out.m[2][2] = (float)(_m2z * determinant_inv);
-			out.m[3][3] = (float)(_m3w * determinant_inv);
-			out.m[0][1] = (float)(_m1x * determinant_inv);
-			out.m[1][0] = (float)(_m0y * determinant_inv);
-			out.m[2][0] = (float)(_m0z * determinant_inv);
-			out.m[0][2] = (float)(_m2x * determinant_inv);
-			out.m[1][2] = (float)(_m2y * determinant_inv);
-			out.m[2][1] = (float)(_m1z * determinant_inv);
-			out.m[0][3] = (float)(_m3x * determinant_inv);
-			out.m[3][0] = (float)(_m0w * determinant_inv);
-			out.m[1][3] = (float)(_m3y * determinant_inv);
-			out.m[3][1] = (float)(_m1w * determinant_inv);
-			out.m[3][2] = (float)(_m2w * determinant_inv);
-			out.m[2][3] = (float)(_m3z * determinant_inv);
-			
-			return out;
+			case ORTHONORMAL: return invertOrthonormal();
+			case RIGID: return invertRigid();
+			case AFFINE: return invertAffine();
+			default: return invert();
 		}
+	}
+	
+	public Mat4f invertAutoN()
+	{
+		if(this.properties != 0) return invertN();
 		
-		return null;
+		switch(classify(this.m, BarghosMath.DEFAULT_ZERO_THRESHOLD_F))
+		{
+			case ORTHONORMAL: return invertOrthonormalN();
+			case RIGID: return invertRigidN();
+			case AFFINE: return invertAffineN();
+			default: return invertN();
+		}
 	}
 	
 	public Mat4f clean()
@@ -2096,6 +2376,13 @@ public class Mat4f extends SimpleMat4f
 			if(res == null) throw new ArgumentNullException("res");
 		}
 		
+		if((l.properties & PROPERTY_TRANSLATION) != 0)
+		{
+			res.set(r.getX() + l.m[0][3], r.getY() + l.m[1][3], r.getZ() + l.m[2][3]);
+			
+			return res;
+		}
+		
 		float x_ = l.m[0][0] * r.getX() + l.m[0][1] * r.getY() + l.m[0][2] * r.getZ() + l.m[0][3] * 1.0f;
 		float y_ = l.m[1][0] * r.getX() + l.m[1][1] * r.getY() + l.m[1][2] * r.getZ() + l.m[1][3] * 1.0f;
 		float z_ = l.m[2][0] * r.getX() + l.m[2][1] * r.getY() + l.m[2][2] * r.getZ() + l.m[2][3] * 1.0f;
@@ -2114,6 +2401,13 @@ public class Mat4f extends SimpleMat4f
 			if(res == null) throw new ArgumentNullException("res");
 		}
 		
+		if((l.properties & PROPERTY_TRANSLATION) != 0)
+		{
+			res.set(r.getX(), r.getY(), r.getZ());
+			
+			return res;
+		}
+		
 		float x_ = l.m[0][0] * r.getX() + l.m[0][1] * r.getY() + l.m[0][2] * r.getZ();
 		float y_ = l.m[1][0] * r.getX() + l.m[1][1] * r.getY() + l.m[1][2] * r.getZ();
 		float z_ = l.m[2][0] * r.getX() + l.m[2][1] * r.getY() + l.m[2][2] * r.getZ();
@@ -2135,7 +2429,7 @@ public class Mat4f extends SimpleMat4f
 		float x_ = l.m[0][0] * r.getX() + l.m[0][1] * r.getY() + l.m[0][2] * r.getZ() + l.m[0][3] * r.getW();
 		float y_ = l.m[1][0] * r.getX() + l.m[1][1] * r.getY() + l.m[1][2] * r.getZ() + l.m[1][3] * r.getW();
 		float z_ = l.m[2][0] * r.getX() + l.m[2][1] * r.getY() + l.m[2][2] * r.getZ() + l.m[2][3] * r.getW();
-		float w_ = l.m[3][0] * r.getX() + l.m[3][1] * r.getY() + l.m[3][2] * r.getZ() + l.m[3][3] * r.getW();
+		float w_ = (l.properties & PROPERTY_AFFINE) != 0 ? r.getW() : l.m[3][0] * r.getX() + l.m[3][1] * r.getY() + l.m[3][2] * r.getZ() + l.m[3][3] * r.getW();
 		
 		res.set(x_, y_, z_, w_);
 
@@ -2151,6 +2445,13 @@ public class Mat4f extends SimpleMat4f
 			if(res == null) throw new ArgumentNullException("res");
 		}
 
+		if((l.properties & PROPERTY_TRANSLATION) != 0)
+		{
+			res.set(r.getX() + l.m[0][3], r.getY() + l.m[1][3], r.getZ() + l.m[2][3]);
+			
+			return res;
+		}
+		
 		float x_ = l.m[0][0] * r.getX() + l.m[0][1] * r.getY() + l.m[0][2] * r.getZ() + l.m[0][3] * 1.0f;
 		float y_ = l.m[1][0] * r.getX() + l.m[1][1] * r.getY() + l.m[1][2] * r.getZ() + l.m[1][3] * 1.0f;
 		float z_ = l.m[2][0] * r.getX() + l.m[2][1] * r.getY() + l.m[2][2] * r.getZ() + l.m[2][3] * 1.0f;
@@ -2859,4 +3160,112 @@ public class Mat4f extends SimpleMat4f
 		
 		return new Mat4f().initLookAtMatrix(pos, target, worldUp);
 	} 
+	
+	/**
+	 * A rotation is only orthonormal if it was built from a unit quaternion or axis.
+	 */
+	private static int rotationProperties(float lengthSquared)
+	{
+		if(Math.abs(lengthSquared - 1.0f) <= BarghosMath.DEFAULT_ZERO_THRESHOLD_F) return PROPERTIES_ROTATION;
+		
+		return PROPERTY_AFFINE;
+	}
+	
+	private static void mulAffine(float[][] l, float[][] r, float[][] res)
+	{
+		float r00 = r[0][0], r01 = r[0][1], r02 = r[0][2], r03 = r[0][3];
+		float r10 = r[1][0], r11 = r[1][1], r12 = r[1][2], r13 = r[1][3];
+		float r20 = r[2][0], r21 = r[2][1], r22 = r[2][2], r23 = r[2][3];
+		
+		for(int row = 0; row < 3; row++)
+		{
+			float[] lr = l[row];
+			float l0 = lr[0], l1 = lr[1], l2 = lr[2], l3 = lr[3];
+			
+			float[] o = res[row];
+			o[0] = l0 * r00 + l1 * r10 + l2 * r20;
+			o[1] = l0 * r01 + l1 * r11 + l2 * r21;
+			o[2] = l0 * r02 + l1 * r12 + l2 * r22;
+			o[3] = l0 * r03 + l1 * r13 + l2 * r23 + l3;
+		}
+		
+		res[3][0] = 0.0f; res[3][1] = 0.0f; res[3][2] = 0.0f; res[3][3] = 1.0f;
+	}
+	
+	private static boolean invertPerspective(float[][] m, float[][] res)
+	{
+		float a = m[0][0], b = m[1][1], c = m[2][2], d = m[2][3];
+		
+		if(a == 0.0f || b == 0.0f || d == 0.0f) return false;
+		
+		res[0][0] = 1.0f / a; res[0][1] = 0.0f; res[0][2] = 0.0f; res[0][3] = 0.0f;
+		res[1][0] = 0.0f; res[1][1] = 1.0f / b; res[1][2] = 0.0f; res[1][3] = 0.0f;
+		res[2][0] = 0.0f; res[2][1] = 0.0f; res[2][2] = 0.0f; res[2][3] = -1.0f;
+		res[3][0] = 0.0f; res[3][1] = 0.0f; res[3][2] = 1.0f / d; res[3][3] = c / d;
+		
+		return true;
+	}
+	
+	private static final int GENERAL = 0;
+	private static final int AFFINE = 1;
+	private static final int RIGID = 2;
+	private static final int ORTHONORMAL = 3;
+	
+	private static int classify(float[][] m, float tr)
+	{
+		if(m[3][0] != 0.0f || m[3][1] != 0.0f || m[3][2] != 0.0f || m[3][3] != 1.0f) return GENERAL;
+		
+		float[] r0 = m[0], r1 = m[1], r2 = m[2];
+		
+		if(Math.abs(r0[0] * r0[0] + r0[1] * r0[1] + r0[2] * r0[2] - 1.0f) > tr) return AFFINE;
+		if(Math.abs(r1[0] * r1[0] + r1[1] * r1[1] + r1[2] * r1[2] - 1.0f) > tr) return AFFINE;
+		if(Math.abs(r2[0] * r2[0] + r2[1] * r2[1] + r2[2] * r2[2] - 1.0f) > tr) return AFFINE;
+		if(Math.abs(r0[0] * r1[0] + r0[1] * r1[1] + r0[2] * r1[2]) > tr) return AFFINE;
+		if(Math.abs(r0[0] * r2[0] + r0[1] * r2[1] + r0[2] * r2[2]) > tr) return AFFINE;
+		if(Math.abs(r1[0] * r2[0] + r1[1] * r2[1] + r1[2] * r2[2]) > tr) return AFFINE;
+		
+		if(r0[3] == 0.0f && r1[3] == 0.0f && r2[3] == 0.0f) return ORTHONORMAL;
+		
+		return RIGID;
+	}
+	
+	private static boolean invertAffine(float[][] m, float[][] res)
+	{
+		float m00 = m[0][0], m01 = m[0][1], m02 = m[0][2], t0 = m[0][3];
+		float m10 = m[1][0], m11 = m[1][1], m12 = m[1][2], t1 = m[1][3];
+		float m20 = m[2][0], m21 = m[2][1], m22 = m[2][2], t2 = m[2][3];
+		
+		float c00 = m11 * m22 - m12 * m21;
+		float c01 = m12 * m20 - m10 * m22;
+		float c02 = m10 * m21 - m11 * m20;
+		
+		float det = m00 * c00 + m01 * c01 + m02 * c02;
+		
+		if(det == 0.0f) return false;
+		
+		float invDet = 1.0f / det;
+		
+		float i00 = c00 * invDet, i01 = (m02 * m21 - m01 * m22) * invDet, i02 = (m01 * m12 - m02 * m11) * invDet;
+		float i10 = c01 * invDet, i11 = (m00 * m22 - m02 * m20) * invDet, i12 = (m02 * m10 - m00 * m12) * invDet;
+		float i20 = c02 * invDet, i21 = (m01 * m20 - m00 * m21) * invDet, i22 = (m00 * m11 - m01 * m10) * invDet;
+		
+		res[0][0] = i00; res[0][1] = i01; res[0][2] = i02; res[0][3] = -(i00 * t0 + i01 * t1 + i02 * t2);
+		res[1][0] = i10; res[1][1] = i11; res[1][2] = i12; res[1][3] = -(i10 * t0 + i11 * t1 + i12 * t2);
+		res[2][0] = i20; res[2][1] = i21; res[2][2] = i22; res[2][3] = -(i20 * t0 + i21 * t1 + i22 * t2);
+		res[3][0] = 0.0f; res[3][1] = 0.0f; res[3][2] = 0.0f; res[3][3] = 1.0f;
+		
+		return true;
+	}
+	
+	private static void invertRigid(float[][] m, float[][] res)
+	{
+		float m00 = m[0][0], m01 = m[0][1], m02 = m[0][2], t0 = m[0][3];
+		float m10 = m[1][0], m11 = m[1][1], m12 = m[1][2], t1 = m[1][3];
+		float m20 = m[2][0], m21 = m[2][1], m22 = m[2][2], t2 = m[2][3];
+		
+		res[0][0] = m00; res[0][1] = m10; res[0][2] = m20; res[0][3] = -(m00 * t0 + m10 * t1 + m20 * t2);
+		res[1][0] = m01; res[1][1] = m11; res[1][2] = m21; res[1][3] = -(m01 * t0 + m11 * t1 + m21 * t2);
+		res[2][0] = m02; res[2][1] = m12; res[2][2] = m22; res[2][3] = -(m02 * t0 + m12 * t1 + m22 * t2);
+		res[3][0] = 0.0f; res[3][1] = 0.0f; res[3][2] = 0.0f; res[3][3] = 1.0f;
+	}
 }
@@ -0,0 +1,720 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.matrix;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Objects;
+
+import org.barghos.core.exception.ArgumentNullException;
+import org.barghos.core.tuple2.api.Tup2fR;
+import org.barghos.core.tuple3.api.Tup3fR;
+import org.barghos.core.tuple3.api.Tup3fW;
+import org.barghos.core.tuple4.Tup4f;
+import org.barghos.core.tuple4.api.Tup4fR;
+import org.barghos.core.tuple4.api.Tup4fW;
+import org.barghos.math.BarghosMath;
+import org.barghos.math.matrix.api.Mat4fR;
+import org.barghos.math.matrix.api.Mat4fW;
+
+/**
+ * This class represents a fixed size array of 4x4 float matrices stored off-heap in a direct {@link ByteBuffer}.
+ * The matrices are stored consecutively with 16 floats each, in column major (default) or row major order,
+ * so the buffer can be handed to native code or a graphics API without copying.
+ * 
+ * Single matrices are accessed through a {@link Cursor}, which implements {@link Mat4fR} and {@link Mat4fW}
+ * and reads and writes the buffer directly.
+ * 
+ * @author picatrix1899
+ */
+public class Mat4fArray
+{
+	public static final int FLOATS = 16;
+	public static final int BYTES = FLOATS * Float.BYTES;
+	
+	protected final ByteBuffer buffer;
+	protected final int count;
+	protected final boolean columnMajor;
+	
+	public Mat4fArray(int count)
+	{
+		this(count, true);
+	}
+	
+	public Mat4fArray(int count, boolean columnMajor)
+	{
+		this(ByteBuffer.allocateDirect(byteCount(count)).order(ByteOrder.nativeOrder()), count, columnMajor);
+	}
+	
+	/**
+	 * Uses the content of the given buffer starting at its current position as storage.
+	 * The byte order of the buffer is kept.
+	 */
+	public Mat4fArray(ByteBuffer buffer, int count, boolean columnMajor)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(buffer == null) throw new ArgumentNullException("buffer");
+		}
+		
+		if(buffer.remaining() < byteCount(count)) throw new IllegalArgumentException("The buffer is too small for " + count + " matrices.");
+		
+		this.buffer = buffer.slice().order(buffer.order());
+		this.count = count;
+		this.columnMajor = columnMajor;
+	}
+	
+	public int count()
+	{
+		return this.count;
+	}
+	
+	public boolean isColumnMajor()
+	{
+		return this.columnMajor;
+	}
+	
+	/**
+	 * Returns the storage. Position and limit of the returned buffer span the whole array.
+	 */
+	public ByteBuffer getBuffer()
+	{
+		return this.buffer;
+	}
+	
+	public FloatBuffer getFloatBuffer()
+	{
+		return this.buffer.asFloatBuffer();
+	}
+	
+	/**
+	 * Returns the byte index of the given cell.
+	 */
+	protected int byteIndex(int index, int row, int column)
+	{
+		int cell = this.columnMajor ? column * 4 + row : row * 4 + column;
+		
+		return (index * FLOATS + cell) * Float.BYTES;
+	}
+	
+	public float getCell(int index, int row, int column)
+	{
+		return this.buffer.getFloat(byteIndex(index, row, column));
+	}
+	
+	public Mat4fArray setCell(int index, int row, int column, float value)
+	{
+		this.buffer.putFloat(byteIndex(index, row, column), value);
+		
+		return this;
+	}
+	
+	public Mat4fArray set(int index, float m00, float m01, float m02, float m03,
+									 float m10, float m11, float m12, float m13,
+									 float m20, float m21, float m22, float m23,
+									 float m30, float m31, float m32, float m33)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			Objects.checkIndex(index, this.count);
+		}
+		
+		ByteBuffer b = this.buffer;
+		int i = index * BYTES;
+		
+		if(this.columnMajor)
+		{
+			b.putFloat(i, m00).putFloat(i + 4, m10).putFloat(i + 8, m20).putFloat(i + 12, m30);
+			b.putFloat(i + 16, m01).putFloat(i + 20, m11).putFloat(i + 24, m21).putFloat(i + 28, m31);
+			b.putFloat(i + 32, m02).putFloat(i + 36, m12).putFloat(i + 40, m22).putFloat(i + 44, m32);
+			b.putFloat(i + 48, m03).putFloat(i + 52, m13).putFloat(i + 56, m23).putFloat(i + 60, m33);
+		}
+		else
+		{
+			b.putFloat(i, m00).putFloat(i + 4, m01).putFloat(i + 8, m02).putFloat(i + 12, m03);
+			b.putFloat(i + 16, m10).putFloat(i + 20, m11).putFloat(i + 24, m12).putFloat(i + 28, m13);
+			b.putFloat(i + 32, m20).putFloat(i + 36, m21).putFloat(i + 40, m22).putFloat(i + 44, m23);
+			b.putFloat(i + 48, m30).putFloat(i + 52, m31).putFloat(i + 56, m32).putFloat(i + 60, m33);
+		}
+		
+		return this;
+	}
+	
+	public Mat4fArray set(int index, Mat4fR m)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(m == null) throw new ArgumentNullException("m");
+		}
+		
+		if(m instanceof SimpleMat4f)
+		{
+			float[][] c = ((SimpleMat4f)m).m;
+			
+			return set(index, c[0][0], c[0][1], c[0][2], c[0][3],
+							  c[1][0], c[1][1], c[1][2], c[1][3],
+							  c[2][0], c[2][1], c[2][2], c[2][3],
+							  c[3][0], c[3][1], c[3][2], c[3][3]);
+		}
+		
+		return set(index, m.getCell(0, 0), m.getCell(0, 1), m.getCell(0, 2), m.getCell(0, 3),
+						  m.getCell(1, 0), m.getCell(1, 1), m.getCell(1, 2), m.getCell(1, 3),
+						  m.getCell(2, 0), m.getCell(2, 1), m.getCell(2, 2), m.getCell(2, 3),
+						  m.getCell(3, 0), m.getCell(3, 1), m.getCell(3, 2), m.getCell(3, 3));
+	}
+	
+	public <T extends Mat4fW> T get(int index, T res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		for(int row = 0; row < 4; row++)
+		{
+			res.setRow(row, getCell(index, row, 0), getCell(index, row, 1), getCell(index, row, 2), getCell(index, row, 3));
+		}
+		
+		return res;
+	}
+	
+	/**
+	 * Writes the product l * r to the matrix at the given index. The operands may be cursors of this array.
+	 */
+	public Mat4fArray mul(int index, Mat4fR l, Mat4fR r)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(l == null) throw new ArgumentNullException("l");
+			if(r == null) throw new ArgumentNullException("r");
+		}
+		
+		float l00 = l.getCell(0, 0), l01 = l.getCell(0, 1), l02 = l.getCell(0, 2), l03 = l.getCell(0, 3);
+		float l10 = l.getCell(1, 0), l11 = l.getCell(1, 1), l12 = l.getCell(1, 2), l13 = l.getCell(1, 3);
+		float l20 = l.getCell(2, 0), l21 = l.getCell(2, 1), l22 = l.getCell(2, 2), l23 = l.getCell(2, 3);
+		float l30 = l.getCell(3, 0), l31 = l.getCell(3, 1), l32 = l.getCell(3, 2), l33 = l.getCell(3, 3);
+		
+		float r00 = r.getCell(0, 0), r01 = r.getCell(0, 1), r02 = r.getCell(0, 2), r03 = r.getCell(0, 3);
+		float r10 = r.getCell(1, 0), r11 = r.getCell(1, 1), r12 = r.getCell(1, 2), r13 = r.getCell(1, 3);
+		float r20 = r.getCell(2, 0), r21 = r.getCell(2, 1), r22 = r.getCell(2, 2), r23 = r.getCell(2, 3);
+		float r30 = r.getCell(3, 0), r31 = r.getCell(3, 1), r32 = r.getCell(3, 2), r33 = r.getCell(3, 3);
+		
+		return set(index,	l00 * r00 + l01 * r10 + l02 * r20 + l03 * r30,
+							l00 * r01 + l01 * r11 + l02 * r21 + l03 * r31,
+							l00 * r02 + l01 * r12 + l02 * r22 + l03 * r32,
+							l00 * r03 + l01 * r13 + l02 * r23 + l03 * r33,
+							
+							l10 * r00 + l11 * r10 + l12 * r20 + l13 * r30,
+							l10 * r01 + l11 * r11 + l12 * r21 + l13 * r31,
+							l10 * r02 + l11 * r12 + l12 * r22 + l13 * r32,
+							l10 * r03 + l11 * r13 + l12 * r23 + l13 * r33,
+							
+							l20 * r00 + l21 * r10 + l22 * r20 + l23 * r30,
+							l20 * r01 + l21 * r11 + l22 * r21 + l23 * r31,
+							l20 * r02 + l21 * r12 + l22 * r22 + l23 * r32,
+							l20 * r03 + l21 * r13 + l22 * r23 + l23 * r33,
+							
+							l30 * r00 + l31 * r10 + l32 * r20 + l33 * r30,
+							l30 * r01 + l31 * r11 + l32 * r21 + l33 * r31,
+							l30 * r02 + l31 * r12 + l32 * r22 + l33 * r32,
+							l30 * r03 + l31 * r13 + l32 * r23 + l33 * r33);
+	}
+	
+	public Cursor cursor()
+	{
+		return new Cursor(this);
+	}
+	
+	public Cursor cursor(int index)
+	{
+		return new Cursor(this).at(index);
+	}
+	
+	/**
+	 * Returns the number of bytes of count matrices.
+	 */
+	private static int byteCount(int count)
+	{
+		if(count < 0 || count > Integer.MAX_VALUE / BYTES) throw new IllegalArgumentException("The count must be between 0 and " + Integer.MAX_VALUE / BYTES + ".");
+		
+		return count * BYTES;
+	}
+	
+	/**
+	 * A movable view on a single matrix of a {@link Mat4fArray}.
+	 * It always reflects the current content of the matrix it points at and can be reused for any index.
+	 * 
+	 * @author picatrix1899
+	 */
+	public static class Cursor implements Mat4fR, Mat4fW
+	{
+		private final Mat4fArray array;
+		private int index;
+		
+		public Cursor(Mat4fArray array)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(array == null) throw new ArgumentNullException("array");
+			}
+			
+			this.array = array;
+		}
+		
+		public Cursor at(int index)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				Objects.checkIndex(index, this.array.count);
+			}
+			
+			this.index = index;
+			
+			return this;
+		}
+		
+		public int getIndex()
+		{
+			return this.index;
+		}
+		
+		public Mat4fArray getArray()
+		{
+			return this.array;
+		}
+		
+		public Tup4fR getRow(int index)
+		{
+			return getRow(index, new Tup4f());
+		}
+		
+		public <T extends Tup4fW> T getRow(int index, T res)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(res == null) throw new ArgumentNullException("res");
+			}
+			
+			res.set(getCell(index, 0), getCell(index, 1), getCell(index, 2), getCell(index, 3));
+			
+			return res;
+		}
+		
+		public Tup4fR getColumn(int index)
+		{
+			return getColumn(index, new Tup4f());
+		}
+		
+		public <T extends Tup4fW> T getColumn(int index, T res)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(res == null) throw new ArgumentNullException("res");
+			}
+			
+			res.set(getCell(0, index), getCell(1, index), getCell(2, index), getCell(3, index));
+			
+			return res;
+		}
+		
+		public float getCell(int row, int column)
+		{
+			if(row < 0 || row > 3 || column < 0 || column > 3) throw new IndexOutOfBoundsException();
+			
+			return this.array.getCell(this.index, row, column);
+		}
+		
+		public float determinant()
+		{
+			return MatUtils.det4x4f(getCell(0, 0), getCell(0, 1), getCell(0, 2), getCell(0, 3),
+									getCell(1, 0), getCell(1, 1), getCell(1, 2), getCell(1, 3),
+									getCell(2, 0), getCell(2, 1), getCell(2, 2), getCell(2, 3),
+									getCell(3, 0), getCell(3, 1), getCell(3, 2), getCell(3, 3));
+		}
+		
+		/**
+		 * Calculates left * this. Like {@link SimpleMat4f#mul(Mat4fR, Mat4fW)} the result is written to res,
+		 * which may be a cursor of the same array.
+		 */
+		public <T extends Mat4fW> T mul(Mat4fR left, T res)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(left == null) throw new ArgumentNullException("left");
+				if(res == null) throw new ArgumentNullException("res");
+			}
+			
+			if(res instanceof Cursor)
+			{
+				Cursor c = (Cursor)res;
+				
+				c.array.mul(c.index, left, this);
+				
+				return res;
+			}
+			
+			Mat4fArray a = this.array;
+			int i = this.index;
+			
+			float r00 = a.getCell(i, 0, 0), r01 = a.getCell(i, 0, 1), r02 = a.getCell(i, 0, 2), r03 = a.getCell(i, 0, 3);
+			float r10 = a.getCell(i, 1, 0), r11 = a.getCell(i, 1, 1), r12 = a.getCell(i, 1, 2), r13 = a.getCell(i, 1, 3);
+			float r20 = a.getCell(i, 2, 0), r21 = a.getCell(i, 2, 1), r22 = a.getCell(i, 2, 2), r23 = a.getCell(i, 2, 3);
+			float r30 = a.getCell(i, 3, 0), r31 = a.getCell(i, 3, 1), r32 = a.getCell(i, 3, 2), r33 = a.getCell(i, 3, 3);
+			
+			float l00 = left.getCell(0, 0), l01 = left.getCell(0, 1), l02 = left.getCell(0, 2), l03 = left.getCell(0, 3);
+			float l10 = left.getCell(1, 0), l11 = left.getCell(1, 1), l12 = left.getCell(1, 2), l13 = left.getCell(1, 3);
+			float l20 = left.getCell(2, 0), l21 = left.getCell(2, 1), l22 = left.getCell(2, 2), l23 = left.getCell(2, 3);
+			float l30 = left.getCell(3, 0), l31 = left.getCell(3, 1), l32 = left.getCell(3, 2), l33 = left.getCell(3, 3);
+			
+			res.setRow(0,	l00 * r00 + l01 * r10 + l02 * r20 + l03 * r30,
+							l00 * r01 + l01 * r11 + l02 * r21 + l03 * r31,
+							l00 * r02 + l01 * r12 + l02 * r22 + l03 * r32,
+							l00 * r03 + l01 * r13 + l02 * r23 + l03 * r33);
+			
+			res.setRow(1,	l10 * r00 + l11 * r10 + l12 * r20 + l13 * r30,
+							l10 * r01 + l11 * r11 + l12 * r21 + l13 * r31,
+							l10 * r02 + l11 * r12 + l12 * r22 + l13 * r32,
+							l10 * r03 + l11 * r13 + l12 * r23 + l13 * r33);
+			
+			res.setRow(2,	l20 * r00 + l21 * r10 + l22 * r20 + l23 * r30,
+							l20 * r01 + l21 * r11 + l22 * r21 + l23 * r31,
+							l20 * r02 + l21 * r12 + l22 * r22 + l23 * r32,
+							l20 * r03 + l21 * r13 + l22 * r23 + l23 * r33);
+			
+			res.setRow(3,	l30 * r00 + l31 * r10 + l32 * r20 + l33 * r30,
+							l30 * r01 + l31 * r11 + l32 * r21 + l33 * r31,
+							l30 * r02 + l31 * r12 + l32 * r22 + l33 * r32,
+							l30 * r03 + l31 * r13 + l32 * r23 + l33 * r33);
+			
+			return res;
+		}
+		
+		public <T extends Tup4fR & Tup4fW> T transform(T r)
+		{
+			return transform(r, r);
+		}
+		
+		public <T extends Tup4fW> T transform(Tup4fR r, T res)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(r == null) throw new ArgumentNullException("r");
+				if(res == null) throw new ArgumentNullException("res");
+			}
+			
+			float x = r.getX(), y = r.getY(), z = r.getZ(), w = r.getW();
+			
+			res.set(getCell(0, 0) * x + getCell(0, 1) * y + getCell(0, 2) * z + getCell(0, 3) * w,
+					getCell(1, 0) * x + getCell(1, 1) * y + getCell(1, 2) * z + getCell(1, 3) * w,
+					getCell(2, 0) * x + getCell(2, 1) * y + getCell(2, 2) * z + getCell(2, 3) * w,
+					getCell(3, 0) * x + getCell(3, 1) * y + getCell(3, 2) * z + getCell(3, 3) * w);
+			
+			return res;
+		}
+		
+		public <T extends Tup3fR & Tup3fW> T transform(T r, boolean useLastColumn)
+		{
+			return transform(r, useLastColumn, r);
+		}
+		
+		public <T extends Tup3fW> T transform(Tup3fR r, boolean useLastColumn, T res)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(r == null) throw new ArgumentNullException("r");
+				if(res == null) throw new ArgumentNullException("res");
+			}
+			
+			float x = r.getX(), y = r.getY(), z = r.getZ(), w = useLastColumn ? 1.0f : 0.0f;
+			
+			res.set(getCell(0, 0) * x + getCell(0, 1) * y + getCell(0, 2) * z + getCell(0, 3) * w,
+					getCell(1, 0) * x + getCell(1, 1) * y + getCell(1, 2) * z + getCell(1, 3) * w,
+					getCell(2, 0) * x + getCell(2, 1) * y + getCell(2, 2) * z + getCell(2, 3) * w);
+			
+			return res;
+		}
+		
+		public boolean isZeroMatrix()
+		{
+			return isZeroMatrix(BarghosMath.DEFAULT_ZERO_THRESHOLD_F);
+		}
+		
+		public boolean isZeroMatrix(float tr)
+		{
+			for(int row = 0; row < 4; row++)
+				for(int column = 0; column < 4; column++)
+					if(Math.abs(getCell(row, column)) > tr) return false;
+			
+			return true;
+		}
+		
+		public boolean isIdentityMatrix()
+		{
+			return isIdentityMatrix(BarghosMath.DEFAULT_ZERO_THRESHOLD_F);
+		}
+		
+		public boolean isIdentityMatrix(float tr)
+		{
+			for(int row = 0; row < 4; row++)
+				for(int column = 0; column < 4; column++)
+					if(Math.abs((row == column ? 1.0f : 0.0f) - getCell(row, column)) > tr) return false;
+			
+			return true;
+		}
+		
+		public boolean isRotationMatrix()
+		{
+			return isRotationMatrix(BarghosMath.DEFAULT_ZERO_THRESHOLD_F);
+		}
+		
+		/**
+		 * Checks if the matrix is orthogonal but not the identity by evaluating the product of
+		 * the transposed matrix with the matrix itself without creating temporary matrices.
+		 */
+		public boolean isRotationMatrix(float tr)
+		{
+			if(isIdentityMatrix(tr)) return false;
+			
+			for(int i = 0; i < 4; i++)
+			{
+				for(int j = i; j < 4; j++)
+				{
+					float p = getCell(0, i) * getCell(0, j) + getCell(1, i) * getCell(1, j) + getCell(2, i) * getCell(2, j) + getCell(3, i) * getCell(3, j);
+					
+					if(Math.abs((i == j ? 1.0f : 0.0f) - p) > tr) return false;
+				}
+			}
+			
+			return true;
+		}
+		
+		public FloatBuffer toBufferColumnMajor(FloatBuffer res)
+		{
+			for(int column = 0; column < 4; column++)
+				res.put(getCell(0, column)).put(getCell(1, column)).put(getCell(2, column)).put(getCell(3, column));
+			
+			res.flip();
+			
+			return res;
+		}
+		
+		public FloatBuffer toBufferRowMajor(FloatBuffer res)
+		{
+			for(int row = 0; row < 4; row++)
+				res.put(getCell(row, 0)).put(getCell(row, 1)).put(getCell(row, 2)).put(getCell(row, 3));
+			
+			res.flip();
+			
+			return res;
+		}
+		
+		public float[] toArrayColumnMajor()
+		{
+			float[] res = new float[FLOATS];
+			
+			for(int column = 0; column < 4; column++)
+				for(int row = 0; row < 4; row++)
+					res[column * 4 + row] = getCell(row, column);
+			
+			return res;
+		}
+		
+		public float[] toArrayRowMajor()
+		{
+			float[] res = new float[FLOATS];
+			
+			for(int row = 0; row < 4; row++)
+				for(int column = 0; column < 4; column++)
+					res[row * 4 + column] = getCell(row, column);
+			
+			return res;
+		}
+		
+		public Cursor set(Mat4fR m)
+		{
+			this.array.set(this.index, m);
+			
+			return this;
+		}
+		
+		public Cursor initIdentity()
+		{
+			this.array.set(this.index,	1.0f, 0.0f, 0.0f, 0.0f,
+										0.0f, 1.0f, 0.0f, 0.0f,
+										0.0f, 0.0f, 1.0f, 0.0f,
+										0.0f, 0.0f, 0.0f, 1.0f);
+			
+			return this;
+		}
+		
+		public Cursor setRow(int index, Tup4fR t)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(t == null) throw new ArgumentNullException("t");
+			}
+			
+			return setRow(index, t.getX(), t.getY(), t.getZ(), t.getW());
+		}
+		
+		public Cursor setRow(int index, Tup3fR t, float w)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(t == null) throw new ArgumentNullException("t");
+			}
+			
+			return setRow(index, t.getX(), t.getY(), t.getZ(), w);
+		}
+		
+		public Cursor setRow(int index, float x, Tup3fR t)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(t == null) throw new ArgumentNullException("t");
+			}
+			
+			return setRow(index, x, t.getX(), t.getY(), t.getZ());
+		}
+		
+		public Cursor setRow(int index, Tup2fR t, float z, float w)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(t == null) throw new ArgumentNullException("t");
+			}
+			
+			return setRow(index, t.getX(), t.getY(), z, w);
+		}
+		
+		public Cursor setRow(int index, float x, Tup2fR t, float w)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(t == null) throw new ArgumentNullException("t");
+			}
+			
+			return setRow(index, x, t.getX(), t.getY(), w);
+		}
+		
+		public Cursor setRow(int index, float x, float y, Tup2fR t)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(t == null) throw new ArgumentNullException("t");
+			}
+			
+			return setRow(index, x, y, t.getX(), t.getY());
+		}
+		
+		public Cursor setRow(int index, float x, float y, float z, float w)
+		{
+			return setCell(index, 0, x).setCell(index, 1, y).setCell(index, 2, z).setCell(index, 3, w);
+		}
+		
+		public Cursor setColumn(int index, Tup4fR t)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(t == null) throw new ArgumentNullException("t");
+			}
+			
+			return setColumn(index, t.getX(), t.getY(), t.getZ(), t.getW());
+		}
+		
+		public Cursor setColumn(int index, Tup3fR t, float w)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(t == null) throw new ArgumentNullException("t");
+			}
+			
+			return setColumn(index, t.getX(), t.getY(), t.getZ(), w);
+		}
+		
+		public Cursor setColumn(int index, float x, Tup3fR t)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(t == null) throw new ArgumentNullException("t");
+			}
+			
+			return setColumn(index, x, t.getX(), t.getY(), t.getZ());
+		}
+		
+		public Cursor setColumn(int index, Tup2fR t, float z, float w)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(t == null) throw new ArgumentNullException("t");
+			}
+			
+			return setColumn(index, t.getX(), t.getY(), z, w);
+		}
+		
+		public Cursor setColumn(int index, float x, Tup2fR t, float w)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(t == null) throw new ArgumentNullException("t");
+			}
+			
+			return setColumn(index, x, t.getX(), t.getY(), w);
+		}
+		
+		public Cursor setColumn(int index, float x, float y, Tup2fR t)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(t == null) throw new ArgumentNullException("t");
+			}
+			
+			return setColumn(index, x, y, t.getX(), t.getY());
+		}
+		
+		public Cursor setColumn(int index, float x, float y, float z, float w)
+		{
+			return setCell(0, index, x).setCell(1, index, y).setCell(2, index, z).setCell(3, index, w);
+		}
+		
+		public Cursor setCell(int row, int column, float value)
+		{
+			if(row < 0 || row > 3 || column < 0 || column > 3) throw new IndexOutOfBoundsException();
+			
+			this.array.setCell(this.index, row, column, value);
+			
+			return this;
+		}
+		
+		public String toString()
+		{
+			return 	"mat4f(" + getCell(0, 0) + ", " + getCell(0, 1) + ", " + getCell(0, 2) + ", " + getCell(0, 3) + "\n"
+				  + "      " + getCell(1, 0) + ", " + getCell(1, 1) + ", " + getCell(1, 2) + ", " + getCell(1, 3) + "\n"
+				  + "      " + getCell(2, 0) + ", " + getCell(2, 1) + ", " + getCell(2, 2) + ", " + getCell(2, 3) + "\n"
+				  + "      " + getCell(3, 0) + ", " + getCell(3, 1) + ", " + getCell(3, 2) + ", " + getCell(3, 3) + ")";
+		}
+	}
+}
@@ -0,0 +1,360 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.matrix;
+
+import java.nio.FloatBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.barghos.core.exception.ArgumentNullException;
+import org.barghos.math.BarghosMath;
+
+/**
+ * Multiplies whole arrays of 4x4 float matrices, for example the skinning palettes
+ * {@code palette[i] = world[joint[i]] * inverseBind[i]} of many characters.
+ * 
+ * The operands are either packed float arrays with 16 floats per matrix in row-major order,
+ * as returned by {@link org.barghos.math.utils.TransformHierarchy#getWorldMatrices()},
+ * or {@link Mat4fArray}s in any storage order. The left operand of every product can be picked through an index map,
+ * so the palettes of many characters can be calculated in one call by concatenating them and offsetting their joint indices.
+ * The results can be written in column-major order to be uploaded without another pass.
+ * 
+ * Nothing is allocated per matrix. The variants taking a {@link ForkJoinPool} split batches larger than
+ * {@link #PARALLEL_THRESHOLD} matrices across the threads of the pool.
+ * 
+ * @author picatrix1899
+ */
+public final class Mat4fBatch
+{
+	public static final int FLOATS = 16;
+	
+	/**
+	 * The number of matrices below which a batch is not split further.
+	 */
+	public static final int PARALLEL_THRESHOLD = 1024;
+	
+	private static final int[] ROW_MAJOR = { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15 };
+	private static final int[] COLUMN_MAJOR = { 0, 4, 8, 12, 1, 5, 9, 13, 2, 6, 10, 14, 3, 7, 11, 15 };
+	
+	private Mat4fBatch() { }
+	
+	/**
+	 * Calculates res[i] = l[i] * r[i] for count packed row-major matrices.
+	 * The result is written in column-major order if columnMajor is true.
+	 * The result range may be identical to one of the operand ranges but must not overlap them otherwise.
+	 */
+	public static void mul(float[] l, int lOffset, float[] r, int rOffset, float[] res, int resOffset, int count, boolean columnMajor)
+	{
+		mul(l, lOffset, null, 0, r, rOffset, res, resOffset, count, columnMajor);
+	}
+	
+	/**
+	 * Calculates res[i] = l[lIndices[indexOffset + i]] * r[i] for count packed row-major matrices.
+	 * If lIndices is null the matrices are multiplied index-wise.
+	 * The result is written in column-major order if columnMajor is true.
+	 * The result range may be identical to the range of r but must not overlap the range of l.
+	 */
+	public static void mul(float[] l, int lOffset, int[] lIndices, int indexOffset, float[] r, int rOffset, float[] res, int resOffset, int count, boolean columnMajor)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(l == null) throw new ArgumentNullException("l");
+			if(r == null) throw new ArgumentNullException("r");
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		mul(l, lOffset, lIndices, indexOffset, r, rOffset, res, resOffset, 0, count, columnMajor);
+	}
+	
+	/**
+	 * Like {@link #mul(float[], int, int[], int, float[], int, float[], int, int, boolean)},
+	 * but splits batches larger than {@link #PARALLEL_THRESHOLD} matrices across the threads of the given pool.
+	 */
+	public static void mul(float[] l, int lOffset, int[] lIndices, int indexOffset, float[] r, int rOffset, float[] res, int resOffset, int count, boolean columnMajor, ForkJoinPool pool)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(l == null) throw new ArgumentNullException("l");
+			if(r == null) throw new ArgumentNullException("r");
+			if(res == null) throw new ArgumentNullException("res");
+			if(pool == null) throw new ArgumentNullException("pool");
+		}
+		
+		if(count <= PARALLEL_THRESHOLD)
+			mul(l, lOffset, lIndices, indexOffset, r, rOffset, res, resOffset, 0, count, columnMajor);
+		else
+			pool.invoke(new ArrayTask(l, lOffset, lIndices, indexOffset, r, rOffset, res, resOffset, 0, count, columnMajor));
+	}
+	
+	/**
+	 * Calculates res[i] = l[lIndices[i]] * r[i] for all matrices of r.
+	 * If lIndices is null the matrices are multiplied index-wise.
+	 * The arrays may use different storage orders. res may be r but must not be l.
+	 */
+	public static void mul(Mat4fArray l, int[] lIndices, Mat4fArray r, Mat4fArray res)
+	{
+		check(l, lIndices, r, res);
+		
+		mul(l.getFloatBuffer(), layout(l), lIndices, r.getFloatBuffer(), layout(r), res.getFloatBuffer(), layout(res), 0, r.count());
+	}
+	
+	/**
+	 * Like {@link #mul(Mat4fArray, int[], Mat4fArray, Mat4fArray)},
+	 * but splits batches larger than {@link #PARALLEL_THRESHOLD} matrices across the threads of the given pool.
+	 */
+	public static void mul(Mat4fArray l, int[] lIndices, Mat4fArray r, Mat4fArray res, ForkJoinPool pool)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(pool == null) throw new ArgumentNullException("pool");
+		}
+		
+		check(l, lIndices, r, res);
+		
+		FloatBuffer lb = l.getFloatBuffer();
+		FloatBuffer rb = r.getFloatBuffer();
+		FloatBuffer db = res.getFloatBuffer();
+		
+		if(r.count() <= PARALLEL_THRESHOLD)
+			mul(lb, layout(l), lIndices, rb, layout(r), db, layout(res), 0, r.count());
+		else
+			pool.invoke(new BufferTask(lb, layout(l), lIndices, rb, layout(r), db, layout(res), 0, r.count()));
+	}
+	
+	private static void check(Mat4fArray l, int[] lIndices, Mat4fArray r, Mat4fArray res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(l == null) throw new ArgumentNullException("l");
+			if(r == null) throw new ArgumentNullException("r");
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		if(res.count() < r.count()) throw new IllegalArgumentException("The result array is too small for " + r.count() + " matrices.");
+		if(lIndices == null && l.count() < r.count()) throw new IllegalArgumentException("The left array is too small for " + r.count() + " matrices.");
+		if(lIndices != null && lIndices.length < r.count()) throw new IllegalArgumentException("The index map is too small for " + r.count() + " matrices.");
+	}
+	
+	/**
+	 * Returns the float offsets of the cells of a matrix in row-major cell order.
+	 */
+	private static int[] layout(Mat4fArray array)
+	{
+		return array.isColumnMajor() ? COLUMN_MAJOR : ROW_MAJOR;
+	}
+	
+	private static void mul(float[] l, int lOffset, int[] lIndices, int indexOffset, float[] r, int rOffset, float[] res, int resOffset, int from, int to, boolean columnMajor)
+	{
+		for(int i = from; i < to; i++)
+		{
+			int a = lOffset + (lIndices != null ? lIndices[indexOffset + i] : i) * FLOATS;
+			int b = rOffset + i * FLOATS;
+			int d = resOffset + i * FLOATS;
+			
+			float l00 = l[a], l01 = l[a + 1], l02 = l[a + 2], l03 = l[a + 3];
+			float l10 = l[a + 4], l11 = l[a + 5], l12 = l[a + 6], l13 = l[a + 7];
+			float l20 = l[a + 8], l21 = l[a + 9], l22 = l[a + 10], l23 = l[a + 11];
+			float l30 = l[a + 12], l31 = l[a + 13], l32 = l[a + 14], l33 = l[a + 15];
+			
+			float r00 = r[b], r01 = r[b + 1], r02 = r[b + 2], r03 = r[b + 3];
+			float r10 = r[b + 4], r11 = r[b + 5], r12 = r[b + 6], r13 = r[b + 7];
+			float r20 = r[b + 8], r21 = r[b + 9], r22 = r[b + 10], r23 = r[b + 11];
+			float r30 = r[b + 12], r31 = r[b + 13], r32 = r[b + 14], r33 = r[b + 15];
+			
+			float m00 = l00 * r00 + l01 * r10 + l02 * r20 + l03 * r30;
+			float m01 = l00 * r01 + l01 * r11 + l02 * r21 + l03 * r31;
+			float m02 = l00 * r02 + l01 * r12 + l02 * r22 + l03 * r32;
+			float m03 = l00 * r03 + l01 * r13 + l02 * r23 + l03 * r33;
+			
+			float m10 = l10 * r00 + l11 * r10 + l12 * r20 + l13 * r30;
+			float m11 = l10 * r01 + l11 * r11 + l12 * r21 + l13 * r31;
+			float m12 = l10 * r02 + l11 * r12 + l12 * r22 + l13 * r32;
+			float m13 = l10 * r03 + l11 * r13 + l12 * r23 + l13 * r33;
+			
+			float m20 = l20 * r00 + l21 * r10 + l22 * r20 + l23 * r30;
+			float m21 = l20 * r01 + l21 * r11 + l22 * r21 + l23 * r31;
+			float m22 = l20 * r02 + l21 * r12 + l22 * r22 + l23 * r32;
+			float m23 = l20 * r03 + l21 * r13 + l22 * r23 + l23 * r33;
+			
+			float m30 = l30 * r00 + l31 * r10 + l32 * r20 + l33 * r30;
+			float m31 = l30 * r01 + l31 * r11 + l32 * r21 + l33 * r31;
+			float m32 = l30 * r02 + l31 * r12 + l32 * r22 + l33 * r32;
+			float m33 = l30 * r03 + l31 * r13 + l32 * r23 + l33 * r33;
+			
+			if(columnMajor)
+			{
+				res[d] = m00; res[d + 1] = m10; res[d + 2] = m20; res[d + 3] = m30;
+				res[d + 4] = m01; res[d + 5] = m11; res[d + 6] = m21; res[d + 7] = m31;
+				res[d + 8] = m02; res[d + 9] = m12; res[d + 10] = m22; res[d + 11] = m32;
+				res[d + 12] = m03; res[d + 13] = m13; res[d + 14] = m23; res[d + 15] = m33;
+			}
+			else
+			{
+				res[d] = m00; res[d + 1] = m01; res[d + 2] = m02; res[d + 3] = m03;
+				res[d + 4] = m10; res[d + 5] = m11; res[d + 6] = m12; res[d + 7] = m13;
+				res[d + 8] = m20; res[d + 9] = m21; res[d + 10] = m22; res[d + 11] = m23;
+				res[d + 12] = m30; res[d + 13] = m31; res[d + 14] = m32; res[d + 15] = m33;
+			}
+		}
+	}
+	
+	private static void mul(FloatBuffer l, int[] ll, int[] lIndices, FloatBuffer r, int[] rl, FloatBuffer res, int[] dl, int from, int to)
+	{
+		for(int i = from; i < to; i++)
+		{
+			int a = (lIndices != null ? lIndices[i] : i) * FLOATS;
+			int b = i * FLOATS;
+			int d = i * FLOATS;
+			
+			float l00 = l.get(a + ll[0]), l01 = l.get(a + ll[1]), l02 = l.get(a + ll[2]), l03 = l.get(a + ll[3]);
+			float l10 = l.get(a + ll[4]), l11 = l.get(a + ll[5]), l12 = l.get(a + ll[6]), l13 = l.get(a + ll[7]);
+			float l20 = l.get(a + ll[8]), l21 = l.get(a + ll[9]), l22 = l.get(a + ll[10]), l23 = l.get(a + ll[11]);
+			float l30 = l.get(a + ll[12]), l31 = l.get(a + ll[13]), l32 = l.get(a + ll[14]), l33 = l.get(a + ll[15]);
+			
+			float r00 = r.get(b + rl[0]), r01 = r.get(b + rl[1]), r02 = r.get(b + rl[2]), r03 = r.get(b + rl[3]);
+			float r10 = r.get(b + rl[4]), r11 = r.get(b + rl[5]), r12 = r.get(b + rl[6]), r13 = r.get(b + rl[7]);
+			float r20 = r.get(b + rl[8]), r21 = r.get(b + rl[9]), r22 = r.get(b + rl[10]), r23 = r.get(b + rl[11]);
+			float r30 = r.get(b + rl[12]), r31 = r.get(b + rl[13]), r32 = r.get(b + rl[14]), r33 = r.get(b + rl[15]);
+			
+			float m00 = l00 * r00 + l01 * r10 + l02 * r20 + l03 * r30;
+			float m01 = l00 * r01 + l01 * r11 + l02 * r21 + l03 * r31;
+			float m02 = l00 * r02 + l01 * r12 + l02 * r22 + l03 * r32;
+			float m03 = l00 * r03 + l01 * r13 + l02 * r23 + l03 * r33;
+			
+			float m10 = l10 * r00 + l11 * r10 + l12 * r20 + l13 * r30;
+			float m11 = l10 * r01 + l11 * r11 + l12 * r21 + l13 * r31;
+			float m12 = l10 * r02 + l11 * r12 + l12 * r22 + l13 * r32;
+			float m13 = l10 * r03 + l11 * r13 + l12 * r23 + l13 * r33;
+			
+			float m20 = l20 * r00 + l21 * r10 + l22 * r20 + l23 * r30;
+			float m21 = l20 * r01 + l21 * r11 + l22 * r21 + l23 * r31;
+			float m22 = l20 * r02 + l21 * r12 + l22 * r22 + l23 * r32;
+			float m23 = l20 * r03 + l21 * r13 + l22 * r23 + l23 * r33;
+			
+			float m30 = l30 * r00 + l31 * r10 + l32 * r20 + l33 * r30;
+			float m31 = l30 * r01 + l31 * r11 + l32 * r21 + l33 * r31;
+			float m32 = l30 * r02 + l31 * r12 + l32 * r22 + l33 * r32;
+			float m33 = l30 * r03 + l31 * r13 + l32 * r23 + l33 * r33;
+			
+			res.put(d + dl[0], m00); res.put(d + dl[1], m01); res.put(d + dl[2], m02); res.put(d + dl[3], m03);
+			res.put(d + dl[4], m10); res.put(d + dl[5], m11); res.put(d + dl[6], m12); res.put(d + dl[7], m13);
+			res.put(d + dl[8], m20); res.put(d + dl[9], m21); res.put(d + dl[10], m22); res.put(d + dl[11], m23);
+			res.put(d + dl[12], m30); res.put(d + dl[13], m31); res.put(d + dl[14], m32); res.put(d + dl[15], m33);
+		}
+	}
+	
+	private static class ArrayTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+		
+		private final float[] l;
+		private final int lOffset;
+		private final int[] lIndices;
+		private final int indexOffset;
+		private final float[] r;
+		private final int rOffset;
+		private final float[] res;
+		private final int resOffset;
+		private final int from;
+		private final int to;
+		private final boolean columnMajor;
+		
+		public ArrayTask(float[] l, int lOffset, int[] lIndices, int indexOffset, float[] r, int rOffset, float[] res, int resOffset, int from, int to, boolean columnMajor)
+		{
+			this.l = l;
+			this.lOffset = lOffset;
+			this.lIndices = lIndices;
+			this.indexOffset = indexOffset;
+			this.r = r;
+			this.rOffset = rOffset;
+			this.res = res;
+			this.resOffset = resOffset;
+			this.from = from;
+			this.to = to;
+			this.columnMajor = columnMajor;
+		}
+		
+		protected void compute()
+		{
+			if(this.to - this.from <= PARALLEL_THRESHOLD)
+			{
+				mul(this.l, this.lOffset, this.lIndices, this.indexOffset, this.r, this.rOffset, this.res, this.resOffset, this.from, this.to, this.columnMajor);
+				
+				return;
+			}
+			
+			int mid = (this.from + this.to) >>> 1;
+			
+			invokeAll(	new ArrayTask(this.l, this.lOffset, this.lIndices, this.indexOffset, this.r, this.rOffset, this.res, this.resOffset, this.from, mid, this.columnMajor),
+						new ArrayTask(this.l, this.lOffset, this.lIndices, this.indexOffset, this.r, this.rOffset, this.res, this.resOffset, mid, this.to, this.columnMajor));
+		}
+	}
+	
+	/**
+	 * Only uses absolute gets and puts, so the buffers can be shared between the threads.
+	 */
+	private static class BufferTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+		
+		private final FloatBuffer l;
+		private final int[] ll;
+		private final int[] lIndices;
+		private final FloatBuffer r;
+		private final int[] rl;
+		private final FloatBuffer res;
+		private final int[] dl;
+		private final int from;
+		private final int to;
+		
+		public BufferTask(FloatBuffer l, int[] ll, int[] lIndices, FloatBuffer r, int[] rl, FloatBuffer res, int[] dl, int from, int to)
+		{
+			this.l = l;
+			this.ll = ll;
+			this.lIndices = lIndices;
+			this.r = r;
+			this.rl = rl;
+			this.res = res;
+			this.dl = dl;
+			this.from = from;
+			this.to = to;
+		}
+		
+		protected void compute()
+		{
+			if(this.to - this.from <= PARALLEL_THRESHOLD)
+			{
+				mul(this.l, this.ll, this.lIndices, this.r, this.rl, this.res, this.dl, this.from, this.to);
+				
+				return;
+			}
+			
+			int mid = (this.from + this.to) >>> 1;
+			
+			invokeAll(	new BufferTask(this.l, this.ll, this.lIndices, this.r, this.rl, this.res, this.dl, this.from, mid),
+						new BufferTask(this.l, this.ll, this.lIndices, this.r, this.rl, this.res, this.dl, mid, this.to));
+		}
+	}
+}
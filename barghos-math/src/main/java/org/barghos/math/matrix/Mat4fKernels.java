@@ -0,0 +1,73 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.matrix;
+
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+import org.barghos.math.matrix.api.Mat4fKernel;
+
+/**
+ * Provides the {@link Mat4fKernel} used by {@link SimpleMat4f} and {@link Mat4f}.
+ * 
+ * The kernel is selected once when this class is initialized. The first implementation found via
+ * {@link ServiceLoader} is used, for example the Vector API backend of the barghos-math-vector module.
+ * If none is found, or it cannot be loaded on the running JVM, the {@link #SCALAR} kernel is used.
+ * Setting the system property {@value #PROPERTY} to "scalar" forces the scalar kernel.
+ * 
+ * @author picatrix1899
+ */
+public final class Mat4fKernels
+{
+	public static final String PROPERTY = "org.barghos.math.kernel";
+	
+	public static final Mat4fKernel SCALAR = new ScalarMat4fKernel();
+	
+	private static final Mat4fKernel KERNEL = load();
+	
+	private Mat4fKernels() { }
+	
+	public static Mat4fKernel get()
+	{
+		return KERNEL;
+	}
+	
+	private static Mat4fKernel load()
+	{
+		if("scalar".equals(System.getProperty(PROPERTY))) return SCALAR;
+		
+		try
+		{
+			for(Mat4fKernel kernel : ServiceLoader.load(Mat4fKernel.class))
+				return kernel;
+		}
+		catch(ServiceConfigurationError | LinkageError e)
+		{
+			// the backend is present but not supported by the running JVM.
+		}
+		
+		return SCALAR;
+	}
+}
@@ -0,0 +1,164 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.matrix;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import org.barghos.core.exception.ArgumentNullException;
+import org.barghos.math.BarghosMath;
+import org.barghos.math.matrix.api.Mat4fR;
+import org.barghos.math.matrix.api.Mat4fW;
+
+/**
+ * A stack of 4x4 matrices that stores the cumulative product at every level.
+ * Pushing a matrix costs one multiplication, popping and reading the product are constant time.
+ * The matrix pushed last is applied last, so the product is top * ... * bottom.
+ * 
+ * The levels are preallocated {@link Mat4f} instances, so the properties of the pushed matrices carry over
+ * to the products. They only grow if the stack gets deeper than its capacity.
+ * 
+ * @author picatrix1899
+ */
+public class Mat4fStack
+{
+	private Mat4f[] levels;
+	private int size;
+	
+	public Mat4fStack()
+	{
+		this(16);
+	}
+	
+	public Mat4fStack(int capacity)
+	{
+		if(capacity < 1) throw new IllegalArgumentException("capacity");
+		
+		this.levels = new Mat4f[capacity];
+		
+		for(int i = 0; i < capacity; i++)
+			this.levels[i] = new Mat4f();
+	}
+	
+	public void push(Mat4fR mat)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(mat == null) throw new ArgumentNullException("mat");
+		}
+		
+		if(this.size == this.levels.length) grow();
+		
+		if(this.size == 0)
+			this.levels[0].set(mat);
+		else
+			this.levels[this.size - 1].mul(mat, this.levels[this.size]);
+		
+		this.size++;
+	}
+	
+	public void pop()
+	{
+		if(this.size == 0) throw new NoSuchElementException();
+		
+		this.size--;
+	}
+	
+	public void clear()
+	{
+		this.size = 0;
+	}
+	
+	public int size()
+	{
+		return this.size;
+	}
+	
+	public boolean isEmpty()
+	{
+		return this.size == 0;
+	}
+	
+	/**
+	 * Writes the cumulative product of all matrices on the stack to res, or the identity if the stack is empty.
+	 */
+	public <T extends Mat4fW> T get(T res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		if(this.size == 0)
+		{
+			if(res instanceof Mat4f)
+			{
+				((Mat4f)res).initIdentity();
+			}
+			else
+			{
+				res.setRow(0, 1.0f, 0.0f, 0.0f, 0.0f);
+				res.setRow(1, 0.0f, 1.0f, 0.0f, 0.0f);
+				res.setRow(2, 0.0f, 0.0f, 1.0f, 0.0f);
+				res.setRow(3, 0.0f, 0.0f, 0.0f, 1.0f);
+			}
+			
+			return res;
+		}
+		
+		Mat4f top = this.levels[this.size - 1];
+		
+		if(res instanceof Mat4f)
+		{
+			((Mat4f)res).set(top);
+		}
+		else
+		{
+			float[][] m = top.m;
+			
+			res.setRow(0, m[0][0], m[0][1], m[0][2], m[0][3]);
+			res.setRow(1, m[1][0], m[1][1], m[1][2], m[1][3]);
+			res.setRow(2, m[2][0], m[2][1], m[2][2], m[2][3]);
+			res.setRow(3, m[3][0], m[3][1], m[3][2], m[3][3]);
+		}
+		
+		return res;
+	}
+	
+	public Mat4f get()
+	{
+		return get(new Mat4f());
+	}
+	
+	private void grow()
+	{
+		int capacity = this.levels.length;
+		
+		this.levels = Arrays.copyOf(this.levels, capacity * 2);
+		
+		for(int i = capacity; i < this.levels.length; i++)
+			this.levels[i] = new Mat4f();
+	}
+}
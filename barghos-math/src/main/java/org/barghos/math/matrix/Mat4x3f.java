@@ -0,0 +1,563 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.matrix;
+
+import org.barghos.core.exception.ArgumentNullException;
+import org.barghos.core.tuple3.api.Tup3fR;
+import org.barghos.core.tuple3.api.Tup3fW;
+import org.barghos.core.util.Nullable;
+import org.barghos.math.BarghosMath;
+import org.barghos.math.matrix.api.Mat4fR;
+import org.barghos.math.point.Point3f;
+import org.barghos.math.pool.MathStack;
+import org.barghos.math.quat.Quatf;
+import org.barghos.math.utils.api.Transform3f;
+import org.barghos.math.vec3.Vec3f;
+
+/**
+ * This class represents an affine 4x4 float matrix, of which only the upper three rows are stored.
+ * The last row is always (0, 0, 0, 1) and is neither stored nor multiplied, which saves a quarter of the memory
+ * and about a third of the operations of a {@link Mat4f} for transforms that are never projective.
+ * 
+ * Unlike {@link Mat4f} the multiplication calculates this * r, like {@link Mat4d}.
+ * The packed form used by {@link #set(float[], int)} and {@link #store(float[], int)} has 12 floats in row-major order.
+ * 
+ * @author picatrix1899
+ */
+public class Mat4x3f
+{
+	public static final int ROWS = 3;
+	public static final int COLUMNS = 4;
+	public static final int FLOATS = ROWS * COLUMNS;
+	
+	public final float[][] m = new float[ROWS][COLUMNS];
+	
+	public Mat4x3f() { }
+	
+	public Mat4x3f(Mat4x3f m)
+	{
+		set(m);
+	}
+	
+	public Mat4x3f(Mat4fR m)
+	{
+		set(m);
+	}
+	
+	public Mat4x3f set(Mat4x3f m)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(m == null) throw new ArgumentNullException("m");
+		}
+		
+		for(int row = 0; row < ROWS; row++)
+			System.arraycopy(m.m[row], 0, this.m[row], 0, COLUMNS);
+		
+		return this;
+	}
+	
+	/**
+	 * Takes the upper three rows of the given matrix. The last row is assumed to be (0, 0, 0, 1).
+	 */
+	public Mat4x3f set(Mat4fR m)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(m == null) throw new ArgumentNullException("m");
+		}
+		
+		if(m instanceof SimpleMat4f)
+		{
+			float[][] c = ((SimpleMat4f)m).m;
+			
+			for(int row = 0; row < ROWS; row++)
+				System.arraycopy(c[row], 0, this.m[row], 0, COLUMNS);
+			
+			return this;
+		}
+		
+		for(int row = 0; row < ROWS; row++)
+			setRow(row, m.getCell(row, 0), m.getCell(row, 1), m.getCell(row, 2), m.getCell(row, 3));
+		
+		return this;
+	}
+	
+	/**
+	 * Reads the 12 floats of a packed matrix starting at the given offset.
+	 */
+	public Mat4x3f set(float[] src, int offset)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(src == null) throw new ArgumentNullException("src");
+		}
+		
+		System.arraycopy(src, offset, this.m[0], 0, COLUMNS);
+		System.arraycopy(src, offset + 4, this.m[1], 0, COLUMNS);
+		System.arraycopy(src, offset + 8, this.m[2], 0, COLUMNS);
+		
+		return this;
+	}
+	
+	public Mat4x3f setRow(int index, float x, float y, float z, float w)
+	{
+		this.m[index][0] = x;
+		this.m[index][1] = y;
+		this.m[index][2] = z;
+		this.m[index][3] = w;
+		
+		return this;
+	}
+	
+	public Mat4x3f setCell(int row, int column, float value)
+	{
+		this.m[row][column] = value;
+		
+		return this;
+	}
+	
+	public float getCell(int row, int column)
+	{
+		return this.m[row][column];
+	}
+	
+	/**
+	 * Writes the 12 floats of this matrix to dst starting at the given offset.
+	 */
+	public float[] store(float[] dst, int offset)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(dst == null) throw new ArgumentNullException("dst");
+		}
+		
+		System.arraycopy(this.m[0], 0, dst, offset, COLUMNS);
+		System.arraycopy(this.m[1], 0, dst, offset + 4, COLUMNS);
+		System.arraycopy(this.m[2], 0, dst, offset + 8, COLUMNS);
+		
+		return dst;
+	}
+	
+	/**
+	 * Writes this matrix including the implicit last row to res and marks res as affine.
+	 */
+	public Mat4f toMat4f(Mat4f res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		for(int row = 0; row < ROWS; row++)
+			System.arraycopy(this.m[row], 0, res.m[row], 0, COLUMNS);
+		
+		res.m[3][0] = 0.0f; res.m[3][1] = 0.0f; res.m[3][2] = 0.0f; res.m[3][3] = 1.0f;
+		
+		return res.setProperties(Mat4f.PROPERTY_AFFINE);
+	}
+	
+	public Mat4x3f initIdentity()
+	{
+		setRow(0, 1.0f, 0.0f, 0.0f, 0.0f);
+		setRow(1, 0.0f, 1.0f, 0.0f, 0.0f);
+		setRow(2, 0.0f, 0.0f, 1.0f, 0.0f);
+		
+		return this;
+	}
+	
+	public Mat4x3f initTranslation(Tup3fR t)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return initTranslation(t.getX(), t.getY(), t.getZ());
+	}
+	
+	public Mat4x3f initTranslation(float x, float y, float z)
+	{
+		setRow(0, 1.0f, 0.0f, 0.0f, x);
+		setRow(1, 0.0f, 1.0f, 0.0f, y);
+		setRow(2, 0.0f, 0.0f, 1.0f, z);
+		
+		return this;
+	}
+	
+	public Mat4x3f initScaling(float x, float y, float z)
+	{
+		setRow(0, x, 0.0f, 0.0f, 0.0f);
+		setRow(1, 0.0f, y, 0.0f, 0.0f);
+		setRow(2, 0.0f, 0.0f, z, 0.0f);
+		
+		return this;
+	}
+	
+	public Mat4x3f initRotation(Quatf q)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(q == null) throw new ArgumentNullException("q");
+		}
+		
+		return initTransform(0.0f, 0.0f, 0.0f, q, 1.0f, 1.0f, 1.0f);
+	}
+	
+	/**
+	 * Calculates translation * rotation * scaling like {@link Mat4f#initTransformMatrix3D(Tup3fR, Quatf, Tup3fR)}.
+	 * If scale is null no scaling is applied.
+	 */
+	public Mat4x3f initTransform(Tup3fR pos, Quatf rot, @Nullable Tup3fR scale)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(pos == null) throw new ArgumentNullException("pos");
+			if(rot == null) throw new ArgumentNullException("rot");
+		}
+		
+		if(scale == null) return initTransform(pos.getX(), pos.getY(), pos.getZ(), rot, 1.0f, 1.0f, 1.0f);
+		
+		return initTransform(pos.getX(), pos.getY(), pos.getZ(), rot, scale.getX(), scale.getY(), scale.getZ());
+	}
+	
+	/**
+	 * Calculates translation * rotation * scaling directly into the three rows without any matrix product.
+	 */
+	public Mat4x3f initTransform(float posX, float posY, float posZ, Quatf rot, float scaleX, float scaleY, float scaleZ)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(rot == null) throw new ArgumentNullException("rot");
+		}
+		
+		float w = rot.getW(), x = rot.getX(), y = rot.getY(), z = rot.getZ();
+		
+		setRow(0,	(1.0f - 2.0f * (y * y + z * z)) * scaleX,	2.0f * (x * y - w * z) * scaleY,			2.0f * (x * z + w * y) * scaleZ,			posX);
+		setRow(1,	2.0f * (x * y + w * z) * scaleX,			(1.0f - 2.0f * (x * x + z * z)) * scaleY,	2.0f * (y * z - w * x) * scaleZ,			posY);
+		setRow(2,	2.0f * (x * z - w * y) * scaleX,			2.0f * (y * z + w * x) * scaleY,			(1.0f - 2.0f * (x * x + y * y)) * scaleZ,	posZ);
+		
+		return this;
+	}
+	
+	/**
+	 * Calculates the same matrix as {@link Mat4f#initTransformMatrix3D(Transform3f)}.
+	 */
+	public Mat4x3f initTransform(Transform3f t)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		try(MathStack s = MathStack.push())
+		{
+			Vec3f pos = t.getPosition(s.vec3());
+			Vec3f scale = t.getScale(s.vec3());
+			float[][] r = s.mat4().initRotation3D(t.getOrientation()).m;
+			
+			for(int row = 0; row < ROWS; row++)
+				setRow(row, r[row][0] * scale.getX(), r[row][1] * scale.getY(), r[row][2] * scale.getZ(), 0.0f);
+			
+			this.m[0][3] = pos.getX();
+			this.m[1][3] = pos.getY();
+			this.m[2][3] = pos.getZ();
+		}
+		
+		return this;
+	}
+	
+	public float determinant()
+	{
+		return MatUtils.det3x3f(this.m[0][0], this.m[0][1], this.m[0][2],
+								this.m[1][0], this.m[1][1], this.m[1][2],
+								this.m[2][0], this.m[2][1], this.m[2][2]);
+	}
+	
+	/**
+	 * Calculates this * r.
+	 */
+	public Mat4x3f mul(Mat4x3f r)
+	{
+		return mul(r, this);
+	}
+	
+	/**
+	 * Calculates this * r into res. res may be this or r.
+	 */
+	public Mat4x3f mul(Mat4x3f r, Mat4x3f res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(r == null) throw new ArgumentNullException("r");
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		mul(this.m, r.m, res.m);
+		
+		return res;
+	}
+	
+	/**
+	 * Inverts this matrix. Returns null and leaves this matrix unchanged if it is singular.
+	 */
+	public Mat4x3f invert()
+	{
+		return invert(this);
+	}
+	
+	public Mat4x3f invertN()
+	{
+		return invert(new Mat4x3f());
+	}
+	
+	/**
+	 * Writes the inverse of this matrix to res. Returns null and leaves res unchanged if this matrix is singular.
+	 */
+	public Mat4x3f invert(Mat4x3f res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		float[][] m = this.m;
+		
+		float m00 = m[0][0], m01 = m[0][1], m02 = m[0][2], t0 = m[0][3];
+		float m10 = m[1][0], m11 = m[1][1], m12 = m[1][2], t1 = m[1][3];
+		float m20 = m[2][0], m21 = m[2][1], m22 = m[2][2], t2 = m[2][3];
+		
+		float c00 = m11 * m22 - m12 * m21;
+		float c01 = m12 * m20 - m10 * m22;
+		float c02 = m10 * m21 - m11 * m20;
+		
+		float det = m00 * c00 + m01 * c01 + m02 * c02;
+		
+		if(det == 0.0f) return null;
+		
+		float invDet = 1.0f / det;
+		
+		float i00 = c00 * invDet, i01 = (m02 * m21 - m01 * m22) * invDet, i02 = (m01 * m12 - m02 * m11) * invDet;
+		float i10 = c01 * invDet, i11 = (m00 * m22 - m02 * m20) * invDet, i12 = (m02 * m10 - m00 * m12) * invDet;
+		float i20 = c02 * invDet, i21 = (m01 * m20 - m00 * m21) * invDet, i22 = (m00 * m11 - m01 * m10) * invDet;
+		
+		res.setRow(0, i00, i01, i02, -(i00 * t0 + i01 * t1 + i02 * t2));
+		res.setRow(1, i10, i11, i12, -(i10 * t0 + i11 * t1 + i12 * t2));
+		res.setRow(2, i20, i21, i22, -(i20 * t0 + i21 * t1 + i22 * t2));
+		
+		return res;
+	}
+	
+	/**
+	 * Inverts this matrix assuming the upper 3x3 part is a pure rotation, by transposing it.
+	 */
+	public Mat4x3f invertRigid()
+	{
+		return invertRigid(this);
+	}
+	
+	public Mat4x3f invertRigid(Mat4x3f res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		float[][] m = this.m;
+		
+		float m00 = m[0][0], m01 = m[0][1], m02 = m[0][2], t0 = m[0][3];
+		float m10 = m[1][0], m11 = m[1][1], m12 = m[1][2], t1 = m[1][3];
+		float m20 = m[2][0], m21 = m[2][1], m22 = m[2][2], t2 = m[2][3];
+		
+		res.setRow(0, m00, m10, m20, -(m00 * t0 + m10 * t1 + m20 * t2));
+		res.setRow(1, m01, m11, m21, -(m01 * t0 + m11 * t1 + m21 * t2));
+		res.setRow(2, m02, m12, m22, -(m02 * t0 + m12 * t1 + m22 * t2));
+		
+		return res;
+	}
+	
+	public Point3f transform(Point3f r)
+	{
+		return transform(r, true, r);
+	}
+	
+	public Vec3f transform(Vec3f r)
+	{
+		return transform(r, false, r);
+	}
+	
+	/**
+	 * Transforms r as a point (w = 1) or as a direction (w = 0). res may be r.
+	 */
+	public <T extends Tup3fW> T transform(Tup3fR r, boolean useLastColumn, T res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(r == null) throw new ArgumentNullException("r");
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		float[][] m = this.m;
+		
+		float x = r.getX(), y = r.getY(), z = r.getZ();
+		float w = useLastColumn ? 1.0f : 0.0f;
+		
+		res.set(m[0][0] * x + m[0][1] * y + m[0][2] * z + m[0][3] * w,
+				m[1][0] * x + m[1][1] * y + m[1][2] * z + m[1][3] * w,
+				m[2][0] * x + m[2][1] * y + m[2][2] * z + m[2][3] * w);
+		
+		return res;
+	}
+	
+	/**
+	 * Transforms count packed xyz tuples as points (w = 1) or directions (w = 0).
+	 * The ranges may be identical but must not overlap otherwise.
+	 */
+	public float[] transform(float[] src, int srcOffset, float[] dst, int dstOffset, int count, boolean useLastColumn)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(src == null) throw new ArgumentNullException("src");
+			if(dst == null) throw new ArgumentNullException("dst");
+		}
+		
+		float[][] m = this.m;
+		
+		float m00 = m[0][0], m01 = m[0][1], m02 = m[0][2];
+		float m10 = m[1][0], m11 = m[1][1], m12 = m[1][2];
+		float m20 = m[2][0], m21 = m[2][1], m22 = m[2][2];
+		
+		float w = useLastColumn ? 1.0f : 0.0f;
+		float tx = m[0][3] * w;
+		float ty = m[1][3] * w;
+		float tz = m[2][3] * w;
+		
+		for(int i = 0; i < count; i++)
+		{
+			int s = srcOffset + i * 3;
+			int d = dstOffset + i * 3;
+			
+			float x = src[s], y = src[s + 1], z = src[s + 2];
+			
+			dst[d] = m00 * x + m01 * y + m02 * z + tx;
+			dst[d + 1] = m10 * x + m11 * y + m12 * z + ty;
+			dst[d + 2] = m20 * x + m21 * y + m22 * z + tz;
+		}
+		
+		return dst;
+	}
+	
+	public String toString()
+	{
+		return 	"mat4x3f(" + this.m[0][0] + ", " + this.m[0][1] + ", " + this.m[0][2] + ", " + this.m[0][3] + "\n"
+			  + "        " + this.m[1][0] + ", " + this.m[1][1] + ", " + this.m[1][2] + ", " + this.m[1][3] + "\n"
+			  + "        " + this.m[2][0] + ", " + this.m[2][1] + ", " + this.m[2][2] + ", " + this.m[2][3] + ")";
+	}
+	
+	public Mat4x3f clone()
+	{
+		return new Mat4x3f(this);
+	}
+	
+	public static Mat4x3f identity()
+	{
+		return new Mat4x3f().initIdentity();
+	}
+	
+	/**
+	 * Calculates res = l * r for matrices in the layout of {@link #m}. res may alias l or r.
+	 */
+	public static void mul(float[][] l, float[][] r, float[][] res)
+	{
+		float l00 = l[0][0], l01 = l[0][1], l02 = l[0][2], l03 = l[0][3];
+		float l10 = l[1][0], l11 = l[1][1], l12 = l[1][2], l13 = l[1][3];
+		float l20 = l[2][0], l21 = l[2][1], l22 = l[2][2], l23 = l[2][3];
+		
+		float r00 = r[0][0], r01 = r[0][1], r02 = r[0][2], r03 = r[0][3];
+		float r10 = r[1][0], r11 = r[1][1], r12 = r[1][2], r13 = r[1][3];
+		float r20 = r[2][0], r21 = r[2][1], r22 = r[2][2], r23 = r[2][3];
+		
+		res[0][0] = l00 * r00 + l01 * r10 + l02 * r20;
+		res[0][1] = l00 * r01 + l01 * r11 + l02 * r21;
+		res[0][2] = l00 * r02 + l01 * r12 + l02 * r22;
+		res[0][3] = l00 * r03 + l01 * r13 + l02 * r23 + l03;
+		
+		res[1][0] = l10 * r00 + l11 * r10 + l12 * r20;
+		res[1][1] = l10 * r01 + l11 * r11 + l12 * r21;
+		res[1][2] = l10 * r02 + l11 * r12 + l12 * r22;
+		res[1][3] = l10 * r03 + l11 * r13 + l12 * r23 + l13;
+		
+		res[2][0] = l20 * r00 + l21 * r10 + l22 * r20;
+		res[2][1] = l20 * r01 + l21 * r11 + l22 * r21;
+		res[2][2] = l20 * r02 + l21 * r12 + l22 * r22;
+		res[2][3] = l20 * r03 + l21 * r13 + l22 * r23 + l23;
+	}
+	
+	/**
+	 * Calculates res[i] = l[i] * r[i] for count matrices packed with 12 floats each.
+	 * The result range may be identical to one of the operand ranges but must not overlap them otherwise.
+	 */
+	public static float[] mul(float[] l, int lOffset, float[] r, int rOffset, float[] res, int resOffset, int count)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(l == null) throw new ArgumentNullException("l");
+			if(r == null) throw new ArgumentNullException("r");
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		for(int i = 0; i < count; i++)
+		{
+			int a = lOffset + i * FLOATS;
+			int b = rOffset + i * FLOATS;
+			int d = resOffset + i * FLOATS;
+			
+			float l00 = l[a], l01 = l[a + 1], l02 = l[a + 2], l03 = l[a + 3];
+			float l10 = l[a + 4], l11 = l[a + 5], l12 = l[a + 6], l13 = l[a + 7];
+			float l20 = l[a + 8], l21 = l[a + 9], l22 = l[a + 10], l23 = l[a + 11];
+			
+			float r00 = r[b], r01 = r[b + 1], r02 = r[b + 2], r03 = r[b + 3];
+			float r10 = r[b + 4], r11 = r[b + 5], r12 = r[b + 6], r13 = r[b + 7];
+			float r20 = r[b + 8], r21 = r[b + 9], r22 = r[b + 10], r23 = r[b + 11];
+			
+			res[d] = l00 * r00 + l01 * r10 + l02 * r20;
+			res[d + 1] = l00 * r01 + l01 * r11 + l02 * r21;
+			res[d + 2] = l00 * r02 + l01 * r12 + l02 * r22;
+			res[d + 3] = l00 * r03 + l01 * r13 + l02 * r23 + l03;
+			
+			res[d + 4] = l10 * r00 + l11 * r10 + l12 * r20;
+			res[d + 5] = l10 * r01 + l11 * r11 + l12 * r21;
+			res[d + 6] = l10 * r02 + l11 * r12 + l12 * r22;
+			res[d + 7] = l10 * r03 + l11 * r13 + l12 * r23 + l13;
+			
+			res[d + 8] = l20 * r00 + l21 * r10 + l22 * r20;
+			res[d + 9] = l20 * r01 + l21 * r11 + l22 * r21;
+			res[d + 10] = l20 * r02 + l21 * r12 + l22 * r22;
+			res[d + 11] = l20 * r03 + l21 * r13 + l22 * r23 + l23;
+		}
+		
+		return res;
+	}
+}
@@ -24,7 +24,109 @@ SOFTWARE.
 
 package org.barghos.math.matrix;
 
-public class Mat5
+/**
+ * A 5x5 double matrix backed by the small matrix engine of {@link MatNd}.
+ * 
+ * @author picatrix1899
+ */
+public class Mat5 extends MatNd
 {
-
+	public static final int ROWS = 5;
+	public static final int COLUMNS = 5;
+	
+	public Mat5()
+	{
+		super(ROWS);
+	}
+	
+	public Mat5(Mat5 m)
+	{
+		super(m);
+	}
+	
+	public Mat5 set(MatNd m)
+	{
+		super.set(m);
+		
+		return this;
+	}
+	
+	public Mat5 set(double... values)
+	{
+		super.set(values);
+		
+		return this;
+	}
+	
+	public Mat5 setCell(int row, int column, double value)
+	{
+		super.setCell(row, column, value);
+		
+		return this;
+	}
+	
+	public Mat5 setRow(int index, double x, double y, double z, double w, double v)
+	{
+		int i = index * COLUMNS;
+		
+		this.m[i] = x;
+		this.m[i + 1] = y;
+		this.m[i + 2] = z;
+		this.m[i + 3] = w;
+		this.m[i + 4] = v;
+		
+		return this;
+	}
+	
+	public Mat5 setColumn(int index, double x, double y, double z, double w, double v)
+	{
+		this.m[index] = x;
+		this.m[COLUMNS + index] = y;
+		this.m[2 * COLUMNS + index] = z;
+		this.m[3 * COLUMNS + index] = w;
+		this.m[4 * COLUMNS + index] = v;
+		
+		return this;
+	}
+	
+	public Mat5 initIdentity()
+	{
+		super.initIdentity();
+		
+		return this;
+	}
+	
+	public Mat5 initZero()
+	{
+		super.initZero();
+		
+		return this;
+	}
+	
+	public Mat5 mul(MatNd r)
+	{
+		super.mul(r);
+		
+		return this;
+	}
+	
+	public Mat5 invert()
+	{
+		return super.invert() != null ? this : null;
+	}
+	
+	public Mat5 invertN()
+	{
+		return new Mat5(this).invert();
+	}
+	
+	public Mat5 clone()
+	{
+		return new Mat5(this);
+	}
+	
+	public static Mat5 identity()
+	{
+		return new Mat5().initIdentity();
+	}
 }
@@ -0,0 +1,481 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.matrix;
+
+import java.util.Arrays;
+
+import org.barghos.core.exception.ArgumentNullException;
+import org.barghos.math.BarghosMath;
+
+/**
+ * A dense NxN double matrix for small systems, stored row-major in a flat array.
+ * 
+ * Determinant, solve and inverse use an LU decomposition with partial pivoting, so they are O(n^3)
+ * instead of the O(n!) cofactor expansion. The instance methods keep the decomposition in a workspace that
+ * is allocated once per matrix. The static kernels work on caller provided arrays and never allocate,
+ * which allows to decompose once and solve for several right hand sides.
+ * 
+ * @author picatrix1899
+ */
+public class MatNd
+{
+	public final int n;
+	
+	public final double[] m;
+	
+	private double[] lu;
+	private int[] pivots;
+	
+	public MatNd(int n)
+	{
+		if(n < 1) throw new IllegalArgumentException("n");
+		
+		this.n = n;
+		this.m = new double[n * n];
+	}
+	
+	public MatNd(MatNd m)
+	{
+		this(m.n);
+		
+		set(m);
+	}
+	
+	public MatNd set(MatNd m)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(m == null) throw new ArgumentNullException("m");
+		}
+		
+		if(m.n != this.n) throw new IllegalArgumentException("m");
+		
+		System.arraycopy(m.m, 0, this.m, 0, this.m.length);
+		
+		return this;
+	}
+	
+	/**
+	 * Sets the cells from row-major values.
+	 */
+	public MatNd set(double... values)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(values == null) throw new ArgumentNullException("values");
+		}
+		
+		if(values.length != this.m.length) throw new IllegalArgumentException("values");
+		
+		System.arraycopy(values, 0, this.m, 0, this.m.length);
+		
+		return this;
+	}
+	
+	public MatNd setCell(int row, int column, double value)
+	{
+		this.m[row * this.n + column] = value;
+		
+		return this;
+	}
+	
+	public double getCell(int row, int column)
+	{
+		return this.m[row * this.n + column];
+	}
+	
+	public MatNd initIdentity()
+	{
+		identity(this.m, this.n);
+		
+		return this;
+	}
+	
+	public MatNd initZero()
+	{
+		Arrays.fill(this.m, 0.0);
+		
+		return this;
+	}
+	
+	public MatNd mul(MatNd r)
+	{
+		return mul(r, this);
+	}
+	
+	/**
+	 * Calculates this * r into res. If res is one of the operands, the product is formed in the workspace first.
+	 */
+	public MatNd mul(MatNd r, MatNd res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(r == null) throw new ArgumentNullException("r");
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		if(r.n != this.n || res.n != this.n) throw new IllegalArgumentException("r");
+		
+		if(res == this || res == r)
+		{
+			double[] tmp = workspace();
+			
+			mul(this.m, r.m, this.n, tmp);
+			
+			System.arraycopy(tmp, 0, res.m, 0, tmp.length);
+		}
+		else
+		{
+			mul(this.m, r.m, this.n, res.m);
+		}
+		
+		return res;
+	}
+	
+	/**
+	 * Calculates this * v into res. res must not be v.
+	 */
+	public double[] transform(double[] v, double[] res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(v == null) throw new ArgumentNullException("v");
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		int n = this.n;
+		
+		for(int row = 0; row < n; row++)
+		{
+			int r = row * n;
+			double sum = 0.0;
+			
+			for(int column = 0; column < n; column++)
+				sum += this.m[r + column] * v[column];
+			
+			res[row] = sum;
+		}
+		
+		return res;
+	}
+	
+	public double determinant()
+	{
+		if(!decomposeWorkspace()) return 0.0;
+		
+		return determinant(this.lu, this.n, this.pivots);
+	}
+	
+	/**
+	 * Solves this * x = b in place. Returns b holding x, or null if this matrix is singular.
+	 */
+	public double[] solve(double[] b)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(b == null) throw new ArgumentNullException("b");
+		}
+		
+		if(!decomposeWorkspace()) return null;
+		
+		solve(this.lu, this.n, this.pivots, b);
+		
+		return b;
+	}
+	
+	/**
+	 * Inverts this matrix. Returns null if it is singular.
+	 */
+	public MatNd invert()
+	{
+		return invert(this);
+	}
+	
+	public MatNd invert(MatNd res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		if(res.n != this.n) throw new IllegalArgumentException("res");
+		
+		if(!decomposeWorkspace()) return null;
+		
+		invert(this.lu, this.n, this.pivots, res.m);
+		
+		return res;
+	}
+	
+	private double[] workspace()
+	{
+		if(this.lu == null)
+		{
+			this.lu = new double[this.m.length];
+			this.pivots = new int[this.n];
+		}
+		
+		return this.lu;
+	}
+	
+	private boolean decomposeWorkspace()
+	{
+		System.arraycopy(this.m, 0, workspace(), 0, this.m.length);
+		
+		return decompose(this.lu, this.n, this.pivots);
+	}
+	
+	public String toString()
+	{
+		StringBuilder builder = new StringBuilder("mat" + this.n + "d(");
+		
+		for(int row = 0; row < this.n; row++)
+		{
+			if(row > 0) builder.append("\n      ");
+			
+			for(int column = 0; column < this.n; column++)
+			{
+				if(column > 0) builder.append(", ");
+				
+				builder.append(this.m[row * this.n + column]);
+			}
+		}
+		
+		return builder.append(")").toString();
+	}
+	
+	public static void identity(double[] res, int n)
+	{
+		for(int row = 0; row < n; row++)
+			for(int column = 0; column < n; column++)
+				res[row * n + column] = row == column ? 1.0 : 0.0;
+	}
+	
+	/**
+	 * Calculates l * r into res. res must be a different array than l and r.
+	 */
+	public static void mul(double[] l, double[] r, int n, double[] res)
+	{
+		for(int row = 0; row < n; row++)
+		{
+			int ri = row * n;
+			
+			for(int column = 0; column < n; column++)
+				res[ri + column] = 0.0;
+			
+			for(int k = 0; k < n; k++)
+			{
+				double f = l[ri + k];
+				int rk = k * n;
+				
+				for(int column = 0; column < n; column++)
+					res[ri + column] += f * r[rk + column];
+			}
+		}
+	}
+	
+	/**
+	 * Replaces a with its LU decomposition with partial pivoting, PA = LU. L has an implicit unit diagonal
+	 * and is stored below the diagonal, U on and above it. pivots[k] receives the row that was swapped with row k.
+	 * Returns false if the matrix is singular, in which case a and pivots are only partially decomposed.
+	 */
+	public static boolean decompose(double[] a, int n, int[] pivots)
+	{
+		for(int k = 0; k < n; k++)
+		{
+			int rk = k * n;
+			
+			int p = k;
+			double max = Math.abs(a[rk + k]);
+			
+			for(int row = k + 1; row < n; row++)
+			{
+				double v = Math.abs(a[row * n + k]);
+				
+				if(v > max)
+				{
+					max = v;
+					p = row;
+				}
+			}
+			
+			pivots[k] = p;
+			
+			if(max == 0.0) return false;
+			
+			if(p != k)
+			{
+				int rp = p * n;
+				
+				for(int column = 0; column < n; column++)
+				{
+					double t = a[rk + column];
+					a[rk + column] = a[rp + column];
+					a[rp + column] = t;
+				}
+			}
+			
+			double inv = 1.0 / a[rk + k];
+			
+			for(int row = k + 1; row < n; row++)
+			{
+				int ri = row * n;
+				
+				double f = a[ri + k] * inv;
+				a[ri + k] = f;
+				
+				if(f == 0.0) continue;
+				
+				for(int column = k + 1; column < n; column++)
+					a[ri + column] -= f * a[rk + column];
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * The determinant of a matrix from its decomposition by {@link #decompose(double[], int, int[])}.
+	 */
+	public static double determinant(double[] lu, int n, int[] pivots)
+	{
+		double det = 1.0;
+		
+		for(int k = 0; k < n; k++)
+		{
+			det *= lu[k * n + k];
+			
+			if(pivots[k] != k) det = -det;
+		}
+		
+		return det;
+	}
+	
+	/**
+	 * Solves Ax = b in place from the decomposition of A by {@link #decompose(double[], int, int[])}.
+	 */
+	public static void solve(double[] lu, int n, int[] pivots, double[] b)
+	{
+		for(int k = 0; k < n; k++)
+		{
+			int p = pivots[k];
+			
+			if(p != k)
+			{
+				double t = b[k];
+				b[k] = b[p];
+				b[p] = t;
+			}
+		}
+		
+		for(int row = 1; row < n; row++)
+		{
+			int ri = row * n;
+			double sum = b[row];
+			
+			for(int column = 0; column < row; column++)
+				sum -= lu[ri + column] * b[column];
+			
+			b[row] = sum;
+		}
+		
+		for(int row = n - 1; row >= 0; row--)
+		{
+			int ri = row * n;
+			double sum = b[row];
+			
+			for(int column = row + 1; column < n; column++)
+				sum -= lu[ri + column] * b[column];
+			
+			b[row] = sum / lu[ri + row];
+		}
+	}
+	
+	/**
+	 * Writes the inverse of A into res from the decomposition of A by {@link #decompose(double[], int, int[])}.
+	 * All columns are substituted at once, so no further workspace is needed. res must not be lu.
+	 */
+	public static void invert(double[] lu, int n, int[] pivots, double[] res)
+	{
+		identity(res, n);
+		
+		for(int k = 0; k < n; k++)
+		{
+			int p = pivots[k];
+			
+			if(p != k)
+			{
+				int rk = k * n;
+				int rp = p * n;
+				
+				for(int column = 0; column < n; column++)
+				{
+					double t = res[rk + column];
+					res[rk + column] = res[rp + column];
+					res[rp + column] = t;
+				}
+			}
+		}
+		
+		for(int row = 1; row < n; row++)
+		{
+			int ri = row * n;
+			
+			for(int k = 0; k < row; k++)
+			{
+				double f = lu[ri + k];
+				
+				if(f == 0.0) continue;
+				
+				int rk = k * n;
+				
+				for(int column = 0; column < n; column++)
+					res[ri + column] -= f * res[rk + column];
+			}
+		}
+		
+		for(int row = n - 1; row >= 0; row--)
+		{
+			int ri = row * n;
+			
+			for(int k = row + 1; k < n; k++)
+			{
+				double f = lu[ri + k];
+				
+				if(f == 0.0) continue;
+				
+				int rk = k * n;
+				
+				for(int column = 0; column < n; column++)
+					res[ri + column] -= f * res[rk + column];
+			}
+			
+			double inv = 1.0 / lu[ri + row];
+			
+			for(int column = 0; column < n; column++)
+				res[ri + column] *= inv;
+		}
+	}
+}
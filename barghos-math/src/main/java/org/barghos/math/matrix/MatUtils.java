@@ -24,15 +24,9 @@ SOFTWARE.
 
 package org.barghos.math.matrix;
 
-import org.barghos.core.tuple2.Tup2f;
 import org.barghos.core.tuple2.api.Tup2fR;
-import org.barghos.core.tuple2.pool.Tup2fPool;
-import org.barghos.core.tuple3.Tup3f;
 import org.barghos.core.tuple3.api.Tup3fR;
-import org.barghos.core.tuple3.helper.Tup3fHelper;
-import org.barghos.core.tuple3.pool.Tup3fPool;
 import org.barghos.core.tuple4.api.Tup4fR;
-import org.barghos.core.tuple4.helper.Tup4fHelper;
 
 public class MatUtils
 {
@@ -45,8 +39,7 @@ public class MatUtils
 	
 	public static float det2x2f(Tup2fR r0, Tup2fR r1)
 	{
-		return	r0.getX() * +r1.getY() +
-				r0.getY() * -r1.getX();
+		return det2x2f(r0.getX(), r0.getY(), r1.getX(), r1.getY());
 	}
 	
 	public static double det3x3( double m0x, double m0y, double m0z,
@@ -60,59 +53,41 @@ public class MatUtils
 	
 	public static float det3x3f(Tup3fR r0, Tup3fR r1, Tup3fR r2)
 	{
-		Tup2f t1 = Tup3fHelper.tupleFromYZ(r1, Tup2fPool.get());
-		Tup2f t2 = Tup3fHelper.tupleFromYZ(r2, Tup2fPool.get());
-		float det = r0.getX() * +det2x2f(t1, t2);
-				
-		Tup3fHelper.tupleFromXZ(r1, t1);
-		Tup3fHelper.tupleFromXZ(r1, t2);
-		det += r0.getY() * -det2x2f(t1, t2);
-		
-		Tup3fHelper.tupleFromXY(r2, t1);
-		Tup3fHelper.tupleFromXY(r2, t2);
-		det += r0.getZ() * +det2x2f(t1, t2);
-
-		Tup2fPool.store(t1, t2);
-		
-		return det;
+		return det3x3f(	r0.getX(), r0.getY(), r0.getZ(),
+						r1.getX(), r1.getY(), r1.getZ(),
+						r2.getX(), r2.getY(), r2.getZ());
 	}
 	
-	public static double det4x4(double m0x, double m0y, double m0z, double m0w,
-								double m1x, double m1y, double m1z, double m1w,
-								double m2x, double m2y, double m2z, double m2w,
-								double m3x, double m3y, double m3z, double m3w)
+	public static double det4x4(double m00, double m01, double m02, double m03,
+								double m10, double m11, double m12, double m13,
+								double m20, double m21, double m22, double m23,
+								double m30, double m31, double m32, double m33)
 	{
-		return	m0x * +det3x3(m1y, m1z, m1w, m2y, m2z, m2w, m3y, m3z, m3w) +
-				m0y * -det3x3(m1x, m1z, m1w, m2x, m2z, m2w, m3x, m3z, m3w) +
-				m0z * +det3x3(m1x, m1y, m1w, m2x, m2y, m2w, m3x, m3y, m3w) +
-				m0w * -det3x3(m1x, m1y, m1z, m2x, m2y, m2z, m3x, m3y, m3z);
+		// 2x2 minors of the upper and the lower two rows.
+		double s0 = m00 * m11 - m10 * m01;
+		double s1 = m00 * m12 - m10 * m02;
+		double s2 = m00 * m13 - m10 * m03;
+		double s3 = m01 * m12 - m11 * m02;
+		double s4 = m01 * m13 - m11 * m03;
+		double s5 = m02 * m13 - m12 * m03;
+		
+		double c5 = m22 * m33 - m32 * m23;
+		double c4 = m21 * m33 - m31 * m23;
+		double c3 = m21 * m32 - m31 * m22;
+		double c2 = m20 * m33 - m30 * m23;
+		double c1 = m20 * m32 - m30 * m22;
+		double c0 = m20 * m31 - m30 * m21;
+		
+		return s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
 	}
 	
+
 	public static float det4x4f(Tup4fR r0, Tup4fR r1, Tup4fR r2, Tup4fR r3)
 	{
-		Tup3f t1 = Tup4fHelper.tupleFromYZW(r1, Tup3fPool.get());
-		Tup3f t2 = Tup4fHelper.tupleFromYZW(r2, Tup3fPool.get());
-		Tup3f t3 = Tup4fHelper.tupleFromYZW(r3, Tup3fPool.get());
-		float det = r0.getX() * +det3x3f(t1, t2, t3);
-		
-		Tup4fHelper.tupleFromXZW(r1, t1);
-		Tup4fHelper.tupleFromXZW(r2, t2);
-		Tup4fHelper.tupleFromXZW(r3, t3);
-		det = r0.getY() * +det3x3f(t1, t2, t3);
-		
-		Tup4fHelper.tupleFromXYW(r1, t1);
-		Tup4fHelper.tupleFromXYW(r2, t2);
-		Tup4fHelper.tupleFromXYW(r3, t3);
-		det = r0.getZ() * +det3x3f(t1, t2, t3);
-		
-		Tup4fHelper.tupleFromXYZ(r1, t1);
-		Tup4fHelper.tupleFromXYZ(r2, t2);
-		Tup4fHelper.tupleFromXYZ(r3, t3);
-		det = r0.getW() * +det3x3f(t1, t2, t3);
-		
-		Tup3fPool.store(t1, t2, t3);
-		
-		return det;
+		return det4x4f(	r0.getX(), r0.getY(), r0.getZ(), r0.getW(),
+						r1.getX(), r1.getY(), r1.getZ(), r1.getW(),
+						r2.getX(), r2.getY(), r2.getZ(), r2.getW(),
+						r3.getX(), r3.getY(), r3.getZ(), r3.getW());
 	}
 	
 	public static double det5x5(double m0x, double m0y, double m0z, double m0w, double m0v,
@@ -127,4 +102,384 @@ public class MatUtils
 				m0w * -det4x4(m1x, m1y, m1z, m1v, m2x, m2y, m2z, m2v, m3x, m3y, m3z, m3v, m4x, m4y, m4z, m4v) +
 				m0v * +det4x4(m1x, m1y, m1z, m1w, m2x, m2y, m2z, m2w, m3x, m3y, m3z, m3w, m4x, m4y, m4z, m4w);
 	}
+
+	public static float det2x2f(float m00, float m01,
+								float m10, float m11)
+	{
+		return m00 * m11 - m01 * m10;
+	}
+	
+	public static float det3x3f(float m00, float m01, float m02,
+								float m10, float m11, float m12,
+								float m20, float m21, float m22)
+	{
+		return	m00 * (m11 * m22 - m12 * m21) +
+				m01 * (m12 * m20 - m10 * m22) +
+				m02 * (m10 * m21 - m11 * m20);
+	}
+	
+	public static float det4x4f(float m00, float m01, float m02, float m03,
+								float m10, float m11, float m12, float m13,
+								float m20, float m21, float m22, float m23,
+								float m30, float m31, float m32, float m33)
+	{
+		// 2x2 minors of the upper and the lower two rows.
+		float s0 = m00 * m11 - m10 * m01;
+		float s1 = m00 * m12 - m10 * m02;
+		float s2 = m00 * m13 - m10 * m03;
+		float s3 = m01 * m12 - m11 * m02;
+		float s4 = m01 * m13 - m11 * m03;
+		float s5 = m02 * m13 - m12 * m03;
+		
+		float c5 = m22 * m33 - m32 * m23;
+		float c4 = m21 * m33 - m31 * m23;
+		float c3 = m21 * m32 - m31 * m22;
+		float c2 = m20 * m33 - m30 * m23;
+		float c1 = m20 * m32 - m30 * m22;
+		float c0 = m20 * m31 - m30 * m21;
+		
+		return s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+	}
+	
+	public static float det2x2f(float[][] m)
+	{
+		return m[0][0] * m[1][1] - m[0][1] * m[1][0];
+	}
+	
+	public static float det3x3f(float[][] m)
+	{
+		return det3x3f(	m[0][0], m[0][1], m[0][2],
+						m[1][0], m[1][1], m[1][2],
+						m[2][0], m[2][1], m[2][2]);
+	}
+	
+	public static float det4x4f(float[][] m)
+	{
+		return det4x4f(	m[0][0], m[0][1], m[0][2], m[0][3],
+						m[1][0], m[1][1], m[1][2], m[1][3],
+						m[2][0], m[2][1], m[2][2], m[2][3],
+						m[3][0], m[3][1], m[3][2], m[3][3]);
+	}
+	
+	/**
+	 * Writes the adjugate of m to res and returns the determinant of m. res may be m.
+	 */
+	public static float adjugate2x2f(float[][] m, float[][] res)
+	{
+		float m00 = m[0][0], m01 = m[0][1];
+		float m10 = m[1][0], m11 = m[1][1];
+		
+		res[0][0] = m11; res[0][1] = -m01;
+		res[1][0] = -m10; res[1][1] = m00;
+		
+		return m00 * m11 - m01 * m10;
+	}
+	
+	/**
+	 * Writes the adjugate of m to res and returns the determinant of m, which shares the cofactors of the first column. res may be m.
+	 */
+	public static float adjugate3x3f(float[][] m, float[][] res)
+	{
+		float m00 = m[0][0], m01 = m[0][1], m02 = m[0][2];
+		float m10 = m[1][0], m11 = m[1][1], m12 = m[1][2];
+		float m20 = m[2][0], m21 = m[2][1], m22 = m[2][2];
+		
+		float c00 = m11 * m22 - m12 * m21;
+		float c01 = m12 * m20 - m10 * m22;
+		float c02 = m10 * m21 - m11 * m20;
+		
+		res[0][0] = c00; res[0][1] = m02 * m21 - m01 * m22; res[0][2] = m01 * m12 - m02 * m11;
+		res[1][0] = c01; res[1][1] = m00 * m22 - m02 * m20; res[1][2] = m02 * m10 - m00 * m12;
+		res[2][0] = c02; res[2][1] = m01 * m20 - m00 * m21; res[2][2] = m00 * m11 - m01 * m10;
+		
+		return m00 * c00 + m01 * c01 + m02 * c02;
+	}
+	
+	/**
+	 * Writes the adjugate of m to res and returns the determinant of m. res may be m.
+	 * The twelve 2x2 minors of the upper and the lower two rows are shared by the determinant and all cofactors.
+	 */
+	public static float adjugate4x4f(float[][] m, float[][] res)
+	{
+		return adjugate4x4f(m, res, 1.0f);
+	}
+	
+	public static boolean invert2x2f(float[][] m, float[][] res)
+	{
+		float m00 = m[0][0], m01 = m[0][1];
+		float m10 = m[1][0], m11 = m[1][1];
+		
+		float det = m00 * m11 - m01 * m10;
+		
+		if(det == 0.0f) return false;
+		
+		float invDet = 1.0f / det;
+		
+		res[0][0] = m11 * invDet; res[0][1] = -m01 * invDet;
+		res[1][0] = -m10 * invDet; res[1][1] = m00 * invDet;
+		
+		return true;
+	}
+	
+	/**
+	 * Writes the inverse of m to res. Returns false and leaves res untouched if m is singular. res may be m.
+	 */
+	public static boolean invert3x3f(float[][] m, float[][] res)
+	{
+		float m00 = m[0][0], m01 = m[0][1], m02 = m[0][2];
+		float m10 = m[1][0], m11 = m[1][1], m12 = m[1][2];
+		float m20 = m[2][0], m21 = m[2][1], m22 = m[2][2];
+		
+		float c00 = m11 * m22 - m12 * m21;
+		float c01 = m12 * m20 - m10 * m22;
+		float c02 = m10 * m21 - m11 * m20;
+		
+		float det = m00 * c00 + m01 * c01 + m02 * c02;
+		
+		if(det == 0.0f) return false;
+		
+		float invDet = 1.0f / det;
+		
+		res[0][0] = c00 * invDet; res[0][1] = (m02 * m21 - m01 * m22) * invDet; res[0][2] = (m01 * m12 - m02 * m11) * invDet;
+		res[1][0] = c01 * invDet; res[1][1] = (m00 * m22 - m02 * m20) * invDet; res[1][2] = (m02 * m10 - m00 * m12) * invDet;
+		res[2][0] = c02 * invDet; res[2][1] = (m01 * m20 - m00 * m21) * invDet; res[2][2] = (m00 * m11 - m01 * m10) * invDet;
+		
+		return true;
+	}
+	
+	/**
+	 * Writes the inverse of m to res. Returns false and leaves res untouched if m is singular. res may be m.
+	 */
+	public static boolean invert4x4f(float[][] m, float[][] res)
+	{
+		return adjugate4x4f(m, res, 0.0f) != 0.0f;
+	}
+	
+	/**
+	 * Shared by the adjugate and the inverse. With a scale of 0 the adjugate is divided by the determinant,
+	 * otherwise multiplied by the scale. Nothing is written if the determinant is 0 and the inverse was requested.
+	 */
+	private static float adjugate4x4f(float[][] m, float[][] res, float scale)
+	{
+		float m00 = m[0][0], m01 = m[0][1], m02 = m[0][2], m03 = m[0][3];
+		float m10 = m[1][0], m11 = m[1][1], m12 = m[1][2], m13 = m[1][3];
+		float m20 = m[2][0], m21 = m[2][1], m22 = m[2][2], m23 = m[2][3];
+		float m30 = m[3][0], m31 = m[3][1], m32 = m[3][2], m33 = m[3][3];
+		
+		float s0 = m00 * m11 - m10 * m01;
+		float s1 = m00 * m12 - m10 * m02;
+		float s2 = m00 * m13 - m10 * m03;
+		float s3 = m01 * m12 - m11 * m02;
+		float s4 = m01 * m13 - m11 * m03;
+		float s5 = m02 * m13 - m12 * m03;
+		
+		float c5 = m22 * m33 - m32 * m23;
+		float c4 = m21 * m33 - m31 * m23;
+		float c3 = m21 * m32 - m31 * m22;
+		float c2 = m20 * m33 - m30 * m23;
+		float c1 = m20 * m32 - m30 * m22;
+		float c0 = m20 * m31 - m30 * m21;
+		
+		float det = s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+		
+		if(scale == 0.0f)
+		{
+			if(det == 0.0f) return 0.0f;
+			
+			scale = 1.0f / det;
+		}
+		
+		res[0][0] = ( m11 * c5 - m12 * c4 + m13 * c3) * scale;
+		res[0][1] = (-m01 * c5 + m02 * c4 - m03 * c3) * scale;
+		res[0][2] = ( m31 * s5 - m32 * s4 + m33 * s3) * scale;
+		res[0][3] = (-m21 * s5 + m22 * s4 - m23 * s3) * scale;
+		
+		res[1][0] = (-m10 * c5 + m12 * c2 - m13 * c1) * scale;
+		res[1][1] = ( m00 * c5 - m02 * c2 + m03 * c1) * scale;
+		res[1][2] = (-m30 * s5 + m32 * s2 - m33 * s1) * scale;
+		res[1][3] = ( m20 * s5 - m22 * s2 + m23 * s1) * scale;
+		
+		res[2][0] = ( m10 * c4 - m11 * c2 + m13 * c0) * scale;
+		res[2][1] = (-m00 * c4 + m01 * c2 - m03 * c0) * scale;
+		res[2][2] = ( m30 * s4 - m31 * s2 + m33 * s0) * scale;
+		res[2][3] = (-m20 * s4 + m21 * s2 - m23 * s0) * scale;
+		
+		res[3][0] = (-m10 * c3 + m11 * c1 - m12 * c0) * scale;
+		res[3][1] = ( m00 * c3 - m01 * c1 + m02 * c0) * scale;
+		res[3][2] = (-m30 * s3 + m31 * s1 - m32 * s0) * scale;
+		res[3][3] = ( m20 * s3 - m21 * s1 + m22 * s0) * scale;
+		
+		return det;
+	}
+	
+	public static double det2x2(double[][] m)
+	{
+		return m[0][0] * m[1][1] - m[0][1] * m[1][0];
+	}
+	
+	public static double det3x3(double[][] m)
+	{
+		return det3x3(	m[0][0], m[0][1], m[0][2],
+						m[1][0], m[1][1], m[1][2],
+						m[2][0], m[2][1], m[2][2]);
+	}
+	
+	public static double det4x4(double[][] m)
+	{
+		return det4x4(	m[0][0], m[0][1], m[0][2], m[0][3],
+						m[1][0], m[1][1], m[1][2], m[1][3],
+						m[2][0], m[2][1], m[2][2], m[2][3],
+						m[3][0], m[3][1], m[3][2], m[3][3]);
+	}
+	
+	/**
+	 * Writes the adjugate of m to res and returns the determinant of m. res may be m.
+	 */
+	public static double adjugate2x2(double[][] m, double[][] res)
+	{
+		double m00 = m[0][0], m01 = m[0][1];
+		double m10 = m[1][0], m11 = m[1][1];
+		
+		res[0][0] = m11; res[0][1] = -m01;
+		res[1][0] = -m10; res[1][1] = m00;
+		
+		return m00 * m11 - m01 * m10;
+	}
+	
+	/**
+	 * Writes the adjugate of m to res and returns the determinant of m, which shares the cofactors of the first column. res may be m.
+	 */
+	public static double adjugate3x3(double[][] m, double[][] res)
+	{
+		double m00 = m[0][0], m01 = m[0][1], m02 = m[0][2];
+		double m10 = m[1][0], m11 = m[1][1], m12 = m[1][2];
+		double m20 = m[2][0], m21 = m[2][1], m22 = m[2][2];
+		
+		double c00 = m11 * m22 - m12 * m21;
+		double c01 = m12 * m20 - m10 * m22;
+		double c02 = m10 * m21 - m11 * m20;
+		
+		res[0][0] = c00; res[0][1] = m02 * m21 - m01 * m22; res[0][2] = m01 * m12 - m02 * m11;
+		res[1][0] = c01; res[1][1] = m00 * m22 - m02 * m20; res[1][2] = m02 * m10 - m00 * m12;
+		res[2][0] = c02; res[2][1] = m01 * m20 - m00 * m21; res[2][2] = m00 * m11 - m01 * m10;
+		
+		return m00 * c00 + m01 * c01 + m02 * c02;
+	}
+	
+	/**
+	 * Writes the adjugate of m to res and returns the determinant of m. res may be m.
+	 * The twelve 2x2 minors of the upper and the lower two rows are shared by the determinant and all cofactors.
+	 */
+	public static double adjugate4x4(double[][] m, double[][] res)
+	{
+		return adjugate4x4(m, res, 1.0);
+	}
+	
+	public static boolean invert2x2(double[][] m, double[][] res)
+	{
+		double m00 = m[0][0], m01 = m[0][1];
+		double m10 = m[1][0], m11 = m[1][1];
+		
+		double det = m00 * m11 - m01 * m10;
+		
+		if(det == 0.0) return false;
+		
+		double invDet = 1.0 / det;
+		
+		res[0][0] = m11 * invDet; res[0][1] = -m01 * invDet;
+		res[1][0] = -m10 * invDet; res[1][1] = m00 * invDet;
+		
+		return true;
+	}
+	
+	/**
+	 * Writes the inverse of m to res. Returns false and leaves res untouched if m is singular. res may be m.
+	 */
+	public static boolean invert3x3(double[][] m, double[][] res)
+	{
+		double m00 = m[0][0], m01 = m[0][1], m02 = m[0][2];
+		double m10 = m[1][0], m11 = m[1][1], m12 = m[1][2];
+		double m20 = m[2][0], m21 = m[2][1], m22 = m[2][2];
+		
+		double c00 = m11 * m22 - m12 * m21;
+		double c01 = m12 * m20 - m10 * m22;
+		double c02 = m10 * m21 - m11 * m20;
+		
+		double det = m00 * c00 + m01 * c01 + m02 * c02;
+		
+		if(det == 0.0) return false;
+		
+		double invDet = 1.0 / det;
+		
+		res[0][0] = c00 * invDet; res[0][1] = (m02 * m21 - m01 * m22) * invDet; res[0][2] = (m01 * m12 - m02 * m11) * invDet;
+		res[1][0] = c01 * invDet; res[1][1] = (m00 * m22 - m02 * m20) * invDet; res[1][2] = (m02 * m10 - m00 * m12) * invDet;
+		res[2][0] = c02 * invDet; res[2][1] = (m01 * m20 - m00 * m21) * invDet; res[2][2] = (m00 * m11 - m01 * m10) * invDet;
+		
+		return true;
+	}
+	
+	/**
+	 * Writes the inverse of m to res. Returns false and leaves res untouched if m is singular. res may be m.
+	 */
+	public static boolean invert4x4(double[][] m, double[][] res)
+	{
+		return adjugate4x4(m, res, 0.0) != 0.0;
+	}
+	
+	/**
+	 * Shared by the adjugate and the inverse. With a scale of 0 the adjugate is divided by the determinant,
+	 * otherwise multiplied by the scale. Nothing is written if the determinant is 0 and the inverse was requested.
+	 */
+	private static double adjugate4x4(double[][] m, double[][] res, double scale)
+	{
+		double m00 = m[0][0], m01 = m[0][1], m02 = m[0][2], m03 = m[0][3];
+		double m10 = m[1][0], m11 = m[1][1], m12 = m[1][2], m13 = m[1][3];
+		double m20 = m[2][0], m21 = m[2][1], m22 = m[2][2], m23 = m[2][3];
+		double m30 = m[3][0], m31 = m[3][1], m32 = m[3][2], m33 = m[3][3];
+		
+		double s0 = m00 * m11 - m10 * m01;
+		double s1 = m00 * m12 - m10 * m02;
+		double s2 = m00 * m13 - m10 * m03;
+		double s3 = m01 * m12 - m11 * m02;
+		double s4 = m01 * m13 - m11 * m03;
+		double s5 = m02 * m13 - m12 * m03;
+		
+		double c5 = m22 * m33 - m32 * m23;
+		double c4 = m21 * m33 - m31 * m23;
+		double c3 = m21 * m32 - m31 * m22;
+		double c2 = m20 * m33 - m30 * m23;
+		double c1 = m20 * m32 - m30 * m22;
+		double c0 = m20 * m31 - m30 * m21;
+		
+		double det = s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+		
+		if(scale == 0.0)
+		{
+			if(det == 0.0) return 0.0;
+			
+			scale = 1.0 / det;
+		}
+		
+		res[0][0] = ( m11 * c5 - m12 * c4 + m13 * c3) * scale;
+		res[0][1] = (-m01 * c5 + m02 * c4 - m03 * c3) * scale;
+		res[0][2] = ( m31 * s5 - m32 * s4 + m33 * s3) * scale;
+		res[0][3] = (-m21 * s5 + m22 * s4 - m23 * s3) * scale;
+		
+		res[1][0] = (-m10 * c5 + m12 * c2 - m13 * c1) * scale;
+		res[1][1] = ( m00 * c5 - m02 * c2 + m03 * c1) * scale;
+		res[1][2] = (-m30 * s5 + m32 * s2 - m33 * s1) * scale;
+		res[1][3] = ( m20 * s5 - m22 * s2 + m23 * s1) * scale;
+		
+		res[2][0] = ( m10 * c4 - m11 * c2 + m13 * c0) * scale;
+		res[2][1] = (-m00 * c4 + m01 * c2 - m03 * c0) * scale;
+		res[2][2] = ( m30 * s4 - m31 * s2 + m33 * s0) * scale;
+		res[2][3] = (-m20 * s4 + m21 * s2 - m23 * s0) * scale;
+		
+		res[3][0] = (-m10 * c3 + m11 * c1 - m12 * c0) * scale;
+		res[3][1] = ( m00 * c3 - m01 * c1 + m02 * c0) * scale;
+		res[3][2] = (-m30 * s3 + m31 * s1 - m32 * s0) * scale;
+		res[3][3] = ( m20 * s3 - m21 * s1 + m22 * s0) * scale;
+		
+		return det;
+	}
 }
@@ -0,0 +1,130 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.matrix;
+
+import org.barghos.math.matrix.api.Mat4fKernel;
+
+/**
+ * The default {@link Mat4fKernel} in plain scalar java.
+ * It can be extended by backends that only accelerate some of the routines.
+ * 
+ * @author picatrix1899
+ */
+public class ScalarMat4fKernel implements Mat4fKernel
+{
+	public void mul(float[][] l, float[][] r, float[][] res)
+	{
+		float r00 = r[0][0], r01 = r[0][1], r02 = r[0][2], r03 = r[0][3];
+		float r10 = r[1][0], r11 = r[1][1], r12 = r[1][2], r13 = r[1][3];
+		float r20 = r[2][0], r21 = r[2][1], r22 = r[2][2], r23 = r[2][3];
+		float r30 = r[3][0], r31 = r[3][1], r32 = r[3][2], r33 = r[3][3];
+		
+		for(int row = 0; row < 4; row++)
+		{
+			float[] lr = l[row];
+			float l0 = lr[0], l1 = lr[1], l2 = lr[2], l3 = lr[3];
+			
+			float[] o = res[row];
+			o[0] = l0 * r00 + l1 * r10 + l2 * r20 + l3 * r30;
+			o[1] = l0 * r01 + l1 * r11 + l2 * r21 + l3 * r31;
+			o[2] = l0 * r02 + l1 * r12 + l2 * r22 + l3 * r32;
+			o[3] = l0 * r03 + l1 * r13 + l2 * r23 + l3 * r33;
+		}
+	}
+	
+	public void transpose(float[][] m, float[][] res)
+	{
+		float m01 = m[0][1], m02 = m[0][2], m03 = m[0][3];
+		float m12 = m[1][2], m13 = m[1][3];
+		float m23 = m[2][3];
+		
+		res[0][0] = m[0][0];
+		res[1][1] = m[1][1];
+		res[2][2] = m[2][2];
+		res[3][3] = m[3][3];
+		
+		res[0][1] = m[1][0]; res[1][0] = m01;
+		res[0][2] = m[2][0]; res[2][0] = m02;
+		res[0][3] = m[3][0]; res[3][0] = m03;
+		res[1][2] = m[2][1]; res[2][1] = m12;
+		res[1][3] = m[3][1]; res[3][1] = m13;
+		res[2][3] = m[3][2]; res[3][2] = m23;
+	}
+	
+	public boolean invert(float[][] m, float[][] res)
+	{
+		return MatUtils.invert4x4f(m, res);
+	}
+	
+	public void transform(float[][] m, float[] src, int srcOffset, float[] dst, int dstOffset, int count, boolean useLastColumn)
+	{
+		float m00 = m[0][0], m01 = m[0][1], m02 = m[0][2];
+		float m10 = m[1][0], m11 = m[1][1], m12 = m[1][2];
+		float m20 = m[2][0], m21 = m[2][1], m22 = m[2][2];
+		
+		float w = useLastColumn ? 1.0f : 0.0f;
+		float tx = m[0][3] * w;
+		float ty = m[1][3] * w;
+		float tz = m[2][3] * w;
+		
+		for(int i = 0; i < count; i++)
+		{
+			int s = srcOffset + i * 3;
+			int d = dstOffset + i * 3;
+			
+			float x = src[s];
+			float y = src[s + 1];
+			float z = src[s + 2];
+			
+			dst[d] = m00 * x + m01 * y + m02 * z + tx;
+			dst[d + 1] = m10 * x + m11 * y + m12 * z + ty;
+			dst[d + 2] = m20 * x + m21 * y + m22 * z + tz;
+		}
+	}
+	
+	public void transform4(float[][] m, float[] src, int srcOffset, float[] dst, int dstOffset, int count)
+	{
+		float m00 = m[0][0], m01 = m[0][1], m02 = m[0][2], m03 = m[0][3];
+		float m10 = m[1][0], m11 = m[1][1], m12 = m[1][2], m13 = m[1][3];
+		float m20 = m[2][0], m21 = m[2][1], m22 = m[2][2], m23 = m[2][3];
+		float m30 = m[3][0], m31 = m[3][1], m32 = m[3][2], m33 = m[3][3];
+		
+		for(int i = 0; i < count; i++)
+		{
+			int s = srcOffset + i * 4;
+			int d = dstOffset + i * 4;
+			
+			float x = src[s];
+			float y = src[s + 1];
+			float z = src[s + 2];
+			float w = src[s + 3];
+			
+			dst[d] = m00 * x + m01 * y + m02 * z + m03 * w;
+			dst[d + 1] = m10 * x + m11 * y + m12 * z + m13 * w;
+			dst[d + 2] = m20 * x + m21 * y + m22 * z + m23 * w;
+			dst[d + 3] = m30 * x + m31 * y + m32 * z + m33 * w;
+		}
+	}
+}
@@ -356,6 +356,11 @@ public class SimpleMat3f implements Mat3fR, Mat3fW
 		return this;
 	}
 	
+	public float determinant()
+	{
+		return MatUtils.det3x3f(this.m);
+	}
+	
 	public SimpleMat3f transpose()
 	{
 		return transpose(this);
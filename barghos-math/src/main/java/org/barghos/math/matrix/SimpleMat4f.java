@@ -33,15 +33,14 @@ import org.barghos.core.tuple3.api.Tup3fW;
 import org.barghos.core.tuple4.Tup4f;
 import org.barghos.core.tuple4.api.Tup4fR;
 import org.barghos.core.tuple4.api.Tup4fW;
-import org.barghos.core.tuple4.pool.Tup4fPool;
 import org.barghos.math.BarghosMath;
 import org.barghos.math.matrix.api.Mat3fR;
 import org.barghos.math.matrix.api.Mat4fR;
 import org.barghos.math.matrix.api.Mat4fW;
+import org.barghos.math.pool.MathStack;
 import org.barghos.math.utils.LinearSystem3;
 import org.barghos.math.vec3.Vec3f;
 import org.barghos.math.vec4.Vec4f;
-import org.barghos.math.vec4.pool.Vec4fPool;
 
 /**
  * @author picatrix1899
@@ -130,26 +129,36 @@ public class SimpleMat4f implements Mat4fR, Mat4fW
 			if(res == null) throw new ArgumentNullException("res");
 		}
 		
-		float[][] m_ = new float[ROWS][COLUMNS];
-		
-		Vec4f rw = Vec4fPool.get();
-		Vec4f cl = Vec4fPool.get();
-
-		for(int row = 0; row < ROWS; row++)
+		if(left instanceof SimpleMat4f && res instanceof SimpleMat4f)
 		{
-			left.getRow(row, rw);
-
-			m_[row][0] = rw.dot(getColumn(0, cl));
-			m_[row][1] = rw.dot(getColumn(1, cl));
-			m_[row][2] = rw.dot(getColumn(2, cl));
-			m_[row][3] = rw.dot(getColumn(3, cl));
+			Mat4fKernels.get().mul(((SimpleMat4f)left).m, this.m, ((SimpleMat4f)res).m);
+			
+			if(res instanceof Mat4f) ((Mat4f)res).setProperties(0);
+			
+			return res;
 		}
 		
-		Vec4fPool.store(rw, cl);
-		
-		for(int row = 0; row < ROWS; row++)
+		try(MathStack s = MathStack.push())
 		{
-			res.setRow(row, m_[row][0], m_[row][1], m_[row][2], m_[row][3]);
+			float[][] m_ = s.mat4().m;
+			
+			Vec4f rw = s.vec4();
+			Vec4f cl = s.vec4();
+			
+			for(int row = 0; row < ROWS; row++)
+			{
+				left.getRow(row, rw);
+			
+				m_[row][0] = rw.dot(getColumn(0, cl));
+				m_[row][1] = rw.dot(getColumn(1, cl));
+				m_[row][2] = rw.dot(getColumn(2, cl));
+				m_[row][3] = rw.dot(getColumn(3, cl));
+			}
+			
+			for(int row = 0; row < ROWS; row++)
+			{
+				res.setRow(row, m_[row][0], m_[row][1], m_[row][2], m_[row][3]);
+			}
 		}
 
 		return res;
@@ -250,6 +259,172 @@ public class SimpleMat4f implements Mat4fR, Mat4fW
 
 		return res;
 	}
+	
+	/**
+	 * Transforms {@code count} packed xyz tuples of {@code data} starting at {@code offset} in place.
+	 * With {@code useLastColumn} the tuples are treated as points (w = 1), otherwise as directions (w = 0).
+	 */
+	public float[] transform(float[] data, int offset, int count, boolean useLastColumn)
+	{
+		return transform(data, offset, data, offset, count, useLastColumn);
+	}
+	
+	/**
+	 * Transforms {@code count} packed xyz tuples of {@code src} starting at {@code srcOffset}
+	 * and writes them to {@code dst} starting at {@code dstOffset}.
+	 * With {@code useLastColumn} the tuples are treated as points (w = 1), otherwise as directions (w = 0).
+	 * The ranges may be identical but must not overlap otherwise.
+	 */
+	public float[] transform(float[] src, int srcOffset, float[] dst, int dstOffset, int count, boolean useLastColumn)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(src == null) throw new ArgumentNullException("src");
+			if(dst == null) throw new ArgumentNullException("dst");
+		}
+		
+		Mat4fKernels.get().transform(this.m, src, srcOffset, dst, dstOffset, count, useLastColumn);
+		
+		return dst;
+	}
+	
+	/**
+	 * Transforms {@code count} packed xyzw tuples of {@code data} starting at {@code offset} in place.
+	 */
+	public float[] transform4(float[] data, int offset, int count)
+	{
+		return transform4(data, offset, data, offset, count);
+	}
+	
+	/**
+	 * Transforms {@code count} packed xyzw tuples of {@code src} starting at {@code srcOffset}
+	 * and writes them to {@code dst} starting at {@code dstOffset}.
+	 * The ranges may be identical but must not overlap otherwise.
+	 */
+	public float[] transform4(float[] src, int srcOffset, float[] dst, int dstOffset, int count)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(src == null) throw new ArgumentNullException("src");
+			if(dst == null) throw new ArgumentNullException("dst");
+		}
+		
+		Mat4fKernels.get().transform4(this.m, src, srcOffset, dst, dstOffset, count);
+		
+		return dst;
+	}
+	
+	/**
+	 * Transforms {@code count} packed xyz tuples of {@code data} starting at the absolute index {@code index} in place.
+	 * The position and limit of the buffer are not changed.
+	 * With {@code useLastColumn} the tuples are treated as points (w = 1), otherwise as directions (w = 0).
+	 */
+	public FloatBuffer transform(FloatBuffer data, int index, int count, boolean useLastColumn)
+	{
+		return transform(data, index, data, index, count, useLastColumn);
+	}
+	
+	/**
+	 * Transforms {@code count} packed xyz tuples of {@code src} starting at the absolute index {@code srcIndex}
+	 * and writes them to {@code dst} starting at the absolute index {@code dstIndex}.
+	 * The positions and limits of the buffers are not changed.
+	 * With {@code useLastColumn} the tuples are treated as points (w = 1), otherwise as directions (w = 0).
+	 * The ranges may be identical but must not overlap otherwise.
+	 */
+	public FloatBuffer transform(FloatBuffer src, int srcIndex, FloatBuffer dst, int dstIndex, int count, boolean useLastColumn)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(src == null) throw new ArgumentNullException("src");
+			if(dst == null) throw new ArgumentNullException("dst");
+		}
+		
+		if(src.hasArray() && dst.hasArray())
+		{
+			transform(src.array(), src.arrayOffset() + srcIndex, dst.array(), dst.arrayOffset() + dstIndex, count, useLastColumn);
+			
+			return dst;
+		}
+		
+		float m00 = this.m[0][0], m01 = this.m[0][1], m02 = this.m[0][2];
+		float m10 = this.m[1][0], m11 = this.m[1][1], m12 = this.m[1][2];
+		float m20 = this.m[2][0], m21 = this.m[2][1], m22 = this.m[2][2];
+		
+		float w = useLastColumn ? 1.0f : 0.0f;
+		float tx = this.m[0][3] * w;
+		float ty = this.m[1][3] * w;
+		float tz = this.m[2][3] * w;
+		
+		for(int i = 0; i < count; i++)
+		{
+			int s = srcIndex + i * 3;
+			int d = dstIndex + i * 3;
+			
+			float x = src.get(s);
+			float y = src.get(s + 1);
+			float z = src.get(s + 2);
+			
+			dst.put(d, m00 * x + m01 * y + m02 * z + tx);
+			dst.put(d + 1, m10 * x + m11 * y + m12 * z + ty);
+			dst.put(d + 2, m20 * x + m21 * y + m22 * z + tz);
+		}
+		
+		return dst;
+	}
+	
+	/**
+	 * Transforms {@code count} packed xyzw tuples of {@code data} starting at the absolute index {@code index} in place.
+	 * The position and limit of the buffer are not changed.
+	 */
+	public FloatBuffer transform4(FloatBuffer data, int index, int count)
+	{
+		return transform4(data, index, data, index, count);
+	}
+	
+	/**
+	 * Transforms {@code count} packed xyzw tuples of {@code src} starting at the absolute index {@code srcIndex}
+	 * and writes them to {@code dst} starting at the absolute index {@code dstIndex}.
+	 * The positions and limits of the buffers are not changed.
+	 * The ranges may be identical but must not overlap otherwise.
+	 */
+	public FloatBuffer transform4(FloatBuffer src, int srcIndex, FloatBuffer dst, int dstIndex, int count)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(src == null) throw new ArgumentNullException("src");
+			if(dst == null) throw new ArgumentNullException("dst");
+		}
+		
+		if(src.hasArray() && dst.hasArray())
+		{
+			transform4(src.array(), src.arrayOffset() + srcIndex, dst.array(), dst.arrayOffset() + dstIndex, count);
+			
+			return dst;
+		}
+		
+		float m00 = this.m[0][0], m01 = this.m[0][1], m02 = this.m[0][2], m03 = this.m[0][3];
+		float m10 = this.m[1][0], m11 = this.m[1][1], m12 = this.m[1][2], m13 = this.m[1][3];
+		float m20 = this.m[2][0], m21 = this.m[2][1], m22 = this.m[2][2], m23 = this.m[2][3];
+		float m30 = this.m[3][0], m31 = this.m[3][1], m32 = this.m[3][2], m33 = this.m[3][3];
+		
+		for(int i = 0; i < count; i++)
+		{
+			int s = srcIndex + i * 4;
+			int d = dstIndex + i * 4;
+			
+			float x = src.get(s);
+			float y = src.get(s + 1);
+			float z = src.get(s + 2);
+			float w = src.get(s + 3);
+			
+			dst.put(d, m00 * x + m01 * y + m02 * z + m03 * w);
+			dst.put(d + 1, m10 * x + m11 * y + m12 * z + m13 * w);
+			dst.put(d + 2, m20 * x + m21 * y + m22 * z + m23 * w);
+			dst.put(d + 3, m30 * x + m31 * y + m32 * z + m33 * w);
+		}
+		
+		return dst;
+	}
 
 	public SimpleMat4f set(Mat4fR m)
 	{
@@ -258,17 +433,22 @@ public class SimpleMat4f implements Mat4fR, Mat4fW
 			if(m == null) throw new ArgumentNullException("m");
 		}
 		
-		Tup4f r0 = m.getRow(0, Tup4fPool.get());
-		Tup4f r1 = m.getRow(1, Tup4fPool.get());
-		Tup4f r2 = m.getRow(2, Tup4fPool.get());
-		Tup4f r3 = m.getRow(3, Tup4fPool.get());
-
-		setRow(0, r0);
-		setRow(1, r1);
-		setRow(2, r2);
-		setRow(3, r3);
+		if(m instanceof SimpleMat4f)
+		{
+			float[][] c = ((SimpleMat4f)m).m;
+			
+			System.arraycopy(c[0], 0, this.m[0], 0, 4);
+			System.arraycopy(c[1], 0, this.m[1], 0, 4);
+			System.arraycopy(c[2], 0, this.m[2], 0, 4);
+			System.arraycopy(c[3], 0, this.m[3], 0, 4);
+			
+			return this;
+		}
 		
-		Tup4fPool.store(r0, r1, r2, r3);
+		for(int row = 0; row < 4; row++)
+		{
+			setRow(row, m.getCell(row, 0), m.getCell(row, 1), m.getCell(row, 2), m.getCell(row, 3));
+		}
 		
 		return this;
 	}
@@ -462,6 +642,11 @@ public class SimpleMat4f implements Mat4fR, Mat4fW
 		return this;
 	}
 	
+	public float determinant()
+	{
+		return MatUtils.det4x4f(this.m);
+	}
+	
 	public SimpleMat4f transpose()
 	{
 		return transpose(this);
@@ -469,14 +654,21 @@ public class SimpleMat4f implements Mat4fR, Mat4fW
 	
 	public <T extends Mat4fW> T transpose(T res)
 	{
-		Tup4f r0 = getRow(0, Tup4fPool.get());
-		Tup4f r1 = getRow(1, Tup4fPool.get());
-		Tup4f r2 = getRow(2, Tup4fPool.get());
-		Tup4f r3 = getRow(3, Tup4fPool.get());
+		if(res instanceof SimpleMat4f)
+		{
+			Mat4fKernels.get().transpose(this.m, ((SimpleMat4f)res).m);
+			
+			if(res instanceof Mat4f) ((Mat4f)res).setProperties(0);
+			
+			return res;
+		}
 		
-		res.setColumn(0, r0).setColumn(1, r1).setColumn(2, r2).setColumn(3, r3);
+		float[][] m = this.m;
 		
-		Tup4fPool.store(r0, r1, r2, r3);
+		res.setColumn(0, m[0][0], m[0][1], m[0][2], m[0][3]);
+		res.setColumn(1, m[1][0], m[1][1], m[1][2], m[1][3]);
+		res.setColumn(2, m[2][0], m[2][1], m[2][2], m[2][3]);
+		res.setColumn(3, m[3][0], m[3][1], m[3][2], m[3][3]);
 		
 		return res;
 	}
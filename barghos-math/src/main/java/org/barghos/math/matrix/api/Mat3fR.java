@@ -28,10 +28,8 @@ import java.nio.FloatBuffer;
 
 import org.barghos.core.tuple2.api.Tup2fR;
 import org.barghos.core.tuple2.api.Tup2fW;
-import org.barghos.core.tuple3.Tup3f;
 import org.barghos.core.tuple3.api.Tup3fR;
 import org.barghos.core.tuple3.api.Tup3fW;
-import org.barghos.core.tuple3.pool.Tup3fPool;
 import org.barghos.math.matrix.MatUtils;
 import org.barghos.math.utils.LinearSystem3;
 
@@ -53,15 +51,9 @@ public interface Mat3fR
 	
 	default float determinant()
 	{
-		Tup3f r0 = getRow(0, Tup3fPool.get());
-		Tup3f r1 = getRow(1, Tup3fPool.get());
-		Tup3f r2 = getRow(2, Tup3fPool.get());
-		
-		float det = MatUtils.det3x3f(r0, r1, r2);
-		
-		Tup3fPool.store(r0, r1, r2);
-		
-		return det;
+		return MatUtils.det3x3f(getCell(0, 0), getCell(0, 1), getCell(0, 2),
+								getCell(1, 0), getCell(1, 1), getCell(1, 2),
+								getCell(2, 0), getCell(2, 1), getCell(2, 2));
 	}
 	
 	<T extends Mat3fW> T mul(Mat3fR r, T res);
@@ -0,0 +1,62 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.matrix.api;
+
+/**
+ * This interface represents a set of low level routines for 4x4 float matrices stored as row-major float[4][4]
+ * arrays, as used by {@link org.barghos.math.matrix.SimpleMat4f}.
+ * The active implementation is provided by {@link org.barghos.math.matrix.Mat4fKernels}.
+ * 
+ * Every routine has to allow the result to alias any of its inputs.
+ * 
+ * @author picatrix1899
+ */
+public interface Mat4fKernel
+{
+	/**
+	 * Calculates res = l * r.
+	 */
+	void mul(float[][] l, float[][] r, float[][] res);
+	
+	void transpose(float[][] m, float[][] res);
+	
+	/**
+	 * Calculates the inverse of m into res.
+	 * Returns false and leaves res untouched if m is singular.
+	 */
+	boolean invert(float[][] m, float[][] res);
+	
+	/**
+	 * Transforms count packed xyz tuples as points (w = 1) or directions (w = 0).
+	 * The ranges may be identical but must not overlap otherwise.
+	 */
+	void transform(float[][] m, float[] src, int srcOffset, float[] dst, int dstOffset, int count, boolean useLastColumn);
+	
+	/**
+	 * Transforms count packed xyzw tuples.
+	 * The ranges may be identical but must not overlap otherwise.
+	 */
+	void transform4(float[][] m, float[] src, int srcOffset, float[] dst, int dstOffset, int count);
+}
@@ -28,10 +28,8 @@ import java.nio.FloatBuffer;
 
 import org.barghos.core.tuple3.api.Tup3fR;
 import org.barghos.core.tuple3.api.Tup3fW;
-import org.barghos.core.tuple4.Tup4f;
 import org.barghos.core.tuple4.api.Tup4fR;
 import org.barghos.core.tuple4.api.Tup4fW;
-import org.barghos.core.tuple4.pool.Tup4fPool;
 import org.barghos.math.matrix.MatUtils;
 
 /**
@@ -52,16 +50,10 @@ public interface Mat4fR
 	
 	default float determinant()
 	{
-		Tup4f r0 = getRow(0, Tup4fPool.get());
-		Tup4f r1 = getRow(1, Tup4fPool.get());
-		Tup4f r2 = getRow(2, Tup4fPool.get());
-		Tup4f r3 = getRow(3, Tup4fPool.get());
-		
-		float det = MatUtils.det4x4f(r0, r1, r2, r3);
-		
-		Tup4fPool.store(r0, r1, r2, r3);
-		
-		return det;
+		return MatUtils.det4x4f(getCell(0, 0), getCell(0, 1), getCell(0, 2), getCell(0, 3),
+								getCell(1, 0), getCell(1, 1), getCell(1, 2), getCell(1, 3),
+								getCell(2, 0), getCell(2, 1), getCell(2, 2), getCell(2, 3),
+								getCell(3, 0), getCell(3, 1), getCell(3, 2), getCell(3, 3));
 	}
 	
 	<T extends Mat4fW> T mul(Mat4fR r, T res);
@@ -0,0 +1,100 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.pool;
+
+import org.barghos.core.pool.DequePool;
+import org.barghos.math.point.Point3f;
+import org.barghos.math.point.Point3fPool;
+import org.barghos.math.quat.Quatd;
+import org.barghos.math.quat.Quatf;
+import org.barghos.math.quat.pool.QuatdPool;
+import org.barghos.math.quat.pool.QuatfPool;
+import org.barghos.math.vec2.Vec2d;
+import org.barghos.math.vec2.Vec2f;
+import org.barghos.math.vec2.Vec2i;
+import org.barghos.math.vec2.pool.Vec2dPool;
+import org.barghos.math.vec2.pool.Vec2fPool;
+import org.barghos.math.vec2.pool.Vec2iPool;
+import org.barghos.math.vec3.Vec3d;
+import org.barghos.math.vec3.Vec3f;
+import org.barghos.math.vec3.Vec3fWrapper;
+import org.barghos.math.vec3.pool.Vec3dPool;
+import org.barghos.math.vec3.pool.Vec3fPool;
+import org.barghos.math.vec3.pool.Vec3fWrapperPool;
+import org.barghos.math.vec4.Vec4f;
+import org.barghos.math.vec4.pool.Vec4fPool;
+
+/**
+ * This class switches the internal pools of all pool singletons of this library at once.
+ * 
+ * The pools default to {@link DequePool}, which is fast but must not be used by more than one thread.
+ * Applications that use the library from several threads, e.g. a physics step running on a ForkJoinPool,
+ * should call {@link #useThreadLocalPools()} once during startup before any worker touches the library.
+ * 
+ * @author picatrix1899
+ */
+public final class MathPools
+{
+	private MathPools() { }
+	
+	public static void useThreadLocalPools()
+	{
+		useThreadLocalPools(ThreadLocalPool.DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Installs a {@link ThreadLocalPool} with the given capacity per thread into every pool.
+	 */
+	public static void useThreadLocalPools(int capacity)
+	{
+		Vec2fPool.setInternalPool(new ThreadLocalPool<>(Vec2f::new, capacity));
+		Vec2dPool.setInternalPool(new ThreadLocalPool<>(Vec2d::new, capacity));
+		Vec2iPool.setInternalPool(new ThreadLocalPool<>(Vec2i::new, capacity));
+		Vec3fPool.setInternalPool(new ThreadLocalPool<>(Vec3f::new, capacity));
+		Vec3dPool.setInternalPool(new ThreadLocalPool<>(Vec3d::new, capacity));
+		Vec3fWrapperPool.setInternalPool(new ThreadLocalPool<>(Vec3fWrapper::new, capacity));
+		Vec4fPool.setInternalPool(new ThreadLocalPool<>(Vec4f::new, capacity));
+		QuatfPool.setInternalPool(new ThreadLocalPool<>(Quatf::new, capacity));
+		QuatdPool.setInternalPool(new ThreadLocalPool<>(Quatd::new, capacity));
+		Point3fPool.setInternalPool(new ThreadLocalPool<>(Point3f::new, capacity));
+	}
+	
+	/**
+	 * Restores the single threaded default pools.
+	 */
+	public static void useDequePools()
+	{
+		Vec2fPool.setInternalPool(new DequePool<>(Vec2f.class));
+		Vec2dPool.setInternalPool(new DequePool<>(Vec2d.class));
+		Vec2iPool.setInternalPool(new DequePool<>(Vec2i.class));
+		Vec3fPool.setInternalPool(new DequePool<>(Vec3f.class));
+		Vec3dPool.setInternalPool(new DequePool<>(Vec3d.class));
+		Vec3fWrapperPool.setInternalPool(new DequePool<>(Vec3fWrapper.class));
+		Vec4fPool.setInternalPool(new DequePool<>(Vec4f.class));
+		QuatfPool.setInternalPool(new DequePool<>(Quatf.class));
+		QuatdPool.setInternalPool(new DequePool<>(Quatd.class));
+		Point3fPool.setInternalPool(new DequePool<>(Point3f.class));
+	}
+}
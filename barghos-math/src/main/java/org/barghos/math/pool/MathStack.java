@@ -0,0 +1,231 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.pool;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import org.barghos.core.exception.ArgumentNullException;
+import org.barghos.core.tuple3.api.Tup3fR;
+import org.barghos.math.BarghosMath;
+import org.barghos.math.matrix.Mat4f;
+import org.barghos.math.point.Point3f;
+import org.barghos.math.quat.Quatf;
+import org.barghos.math.vec2.Vec2f;
+import org.barghos.math.vec3.Vec3f;
+import org.barghos.math.vec4.Vec4f;
+
+/**
+ * This class represents a per-thread stack of temporary objects organized in scopes.
+ * 
+ * A scope is opened with {@link #push()} and closed with {@link #close()}, ideally in a try-with-resources block:
+ * <pre>
+ * try(MathStack s = MathStack.push())
+ * {
+ *     Vec3f a = s.vec3();
+ *     ...
+ * }
+ * </pre>
+ * All temporaries taken within a scope are released at once in O(1) when it closes, no matter which path
+ * left the block. The instances are reused by later scopes and never garbage collected, so temporaries must not
+ * escape their scope. Every thread has its own stack, so no synchronization is involved.
+ * 
+ * @author picatrix1899
+ */
+public final class MathStack implements AutoCloseable
+{
+	private static final ThreadLocal<MathStack> STACKS = ThreadLocal.withInitial(MathStack::new);
+	
+	private static final int INITIAL_CAPACITY = 16;
+	
+	private final Slot<Vec2f> vec2 = new Slot<>(Vec2f::new);
+	private final Slot<Vec3f> vec3 = new Slot<>(Vec3f::new);
+	private final Slot<Vec4f> vec4 = new Slot<>(Vec4f::new);
+	private final Slot<Quatf> quat = new Slot<>(Quatf::new);
+	private final Slot<Point3f> point3 = new Slot<>(Point3f::new);
+	private final Slot<Mat4f> mat4 = new Slot<>(Mat4f::new);
+	
+	private final Slot<?>[] slots = { this.vec2, this.vec3, this.vec4, this.quat, this.point3, this.mat4 };
+	
+	private int[] frames = new int[INITIAL_CAPACITY * this.slots.length];
+	private int depth;
+	
+	private MathStack() { }
+	
+	/**
+	 * Opens a new scope on the stack of the calling thread and returns the stack.
+	 */
+	public static MathStack push()
+	{
+		MathStack stack = STACKS.get();
+		
+		stack.pushFrame();
+		
+		return stack;
+	}
+	
+	private void pushFrame()
+	{
+		Slot<?>[] slots = this.slots;
+		int base = this.depth * slots.length;
+		
+		if(base + slots.length > this.frames.length) this.frames = Arrays.copyOf(this.frames, this.frames.length * 2);
+		
+		for(int i = 0; i < slots.length; i++)
+			this.frames[base + i] = slots[i].top;
+		
+		this.depth++;
+	}
+	
+	/**
+	 * Closes the innermost scope and releases all temporaries taken since it was opened.
+	 */
+	public void close()
+	{
+		if(this.depth == 0) throw new IllegalStateException("There is no open scope.");
+		
+		this.depth--;
+		
+		Slot<?>[] slots = this.slots;
+		int base = this.depth * slots.length;
+		
+		for(int i = 0; i < slots.length; i++)
+			slots[i].top = this.frames[base + i];
+	}
+	
+	/**
+	 * Returns the number of open scopes.
+	 */
+	public int depth()
+	{
+		return this.depth;
+	}
+	
+	public Vec2f vec2()
+	{
+		return this.vec2.next().set(0.0f, 0.0f);
+	}
+	
+	public Vec2f vec2(float x, float y)
+	{
+		return this.vec2.next().set(x, y);
+	}
+	
+	public Vec3f vec3()
+	{
+		return this.vec3.next().set(0.0f, 0.0f, 0.0f);
+	}
+	
+	public Vec3f vec3(Tup3fR t)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return this.vec3.next().set(t);
+	}
+	
+	public Vec3f vec3(float x, float y, float z)
+	{
+		return this.vec3.next().set(x, y, z);
+	}
+	
+	public Vec4f vec4()
+	{
+		return this.vec4.next().set(0.0f, 0.0f, 0.0f, 0.0f);
+	}
+	
+	public Vec4f vec4(float x, float y, float z, float w)
+	{
+		return this.vec4.next().set(x, y, z, w);
+	}
+	
+	/**
+	 * Returns an identity quaternion.
+	 */
+	public Quatf quat()
+	{
+		return this.quat.next().set(1.0f, 0.0f, 0.0f, 0.0f);
+	}
+	
+	public Quatf quat(Quatf q)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(q == null) throw new ArgumentNullException("q");
+		}
+		
+		return this.quat.next().set(q);
+	}
+	
+	public Point3f point3()
+	{
+		return this.point3.next().set(0.0f, 0.0f, 0.0f);
+	}
+	
+	public Point3f point3(float x, float y, float z)
+	{
+		return this.point3.next().set(x, y, z);
+	}
+	
+	/**
+	 * Returns an identity matrix.
+	 */
+	public Mat4f mat4()
+	{
+		return this.mat4.next().initIdentity();
+	}
+	
+	private static final class Slot<T>
+	{
+		private final Supplier<T> factory;
+		private Object[] items = new Object[INITIAL_CAPACITY];
+		private int top;
+		
+		private Slot(Supplier<T> factory)
+		{
+			this.factory = factory;
+		}
+		
+		@SuppressWarnings("unchecked")
+		private T next()
+		{
+			if(this.top == this.items.length) this.items = Arrays.copyOf(this.items, this.items.length * 2);
+			
+			Object item = this.items[this.top];
+			
+			if(item == null)
+			{
+				item = this.factory.get();
+				this.items[this.top] = item;
+			}
+			
+			this.top++;
+			
+			return (T)item;
+		}
+	}
+}
@@ -0,0 +1,152 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.pool;
+
+import java.util.function.Supplier;
+
+import org.barghos.core.exception.ArgumentNullException;
+import org.barghos.core.pool.api.Pool;
+import org.barghos.math.BarghosMath;
+
+/**
+ * This class represents a pool that keeps a separate bounded stack of instances for every thread.
+ * 
+ * Threads never share a stack, so the pool can be used concurrently without any synchronization
+ * and without contention. Instances may be stored by a different thread than the one that got them,
+ * they simply move to the stack of the storing thread. Instances stored while the stack is full are dropped
+ * and left to the garbage collector, so a thread can never hold more than the capacity.
+ * 
+ * It can be installed into the pools of this library via their setInternalPool function,
+ * or for all of them at once via {@link MathPools#useThreadLocalPools(int)}.
+ * 
+ * @author picatrix1899
+ */
+public class ThreadLocalPool<T> implements Pool<T>
+{
+	public static final int DEFAULT_CAPACITY = 64;
+	
+	private final Supplier<T> factory;
+	private final int capacity;
+	private final ThreadLocal<Stack> stacks;
+	
+	public ThreadLocalPool(Supplier<T> factory)
+	{
+		this(factory, DEFAULT_CAPACITY);
+	}
+	
+	public ThreadLocalPool(Supplier<T> factory, int capacity)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(factory == null) throw new ArgumentNullException("factory");
+		}
+		
+		if(capacity < 0) throw new IllegalArgumentException("The capacity must not be negative.");
+		
+		this.factory = factory;
+		this.capacity = capacity;
+		this.stacks = ThreadLocal.withInitial(() -> new Stack(capacity));
+	}
+	
+	public int getCapacity()
+	{
+		return this.capacity;
+	}
+	
+	/**
+	 * Returns the number of instances currently stored for the calling thread.
+	 */
+	public int size()
+	{
+		return this.stacks.get().size;
+	}
+	
+	@SuppressWarnings("unchecked")
+	public T get()
+	{
+		Stack stack = this.stacks.get();
+		
+		if(stack.size == 0) return this.factory.get();
+		
+		Object[] items = stack.items;
+		int index = --stack.size;
+		
+		T instance = (T)items[index];
+		items[index] = null;
+		
+		return instance;
+	}
+	
+	@SuppressWarnings("unchecked")
+	public void store(T... instances)
+	{
+		Stack stack = this.stacks.get();
+		
+		Object[] items = stack.items;
+		int size = stack.size;
+		
+		for(int i = 0; i < instances.length && size < items.length; i++)
+		{
+			if(instances[i] != null) items[size++] = instances[i];
+		}
+		
+		stack.size = size;
+	}
+	
+	/**
+	 * Fills the stack of the calling thread up to the given count, limited by the capacity.
+	 * Other threads are not affected.
+	 */
+	public void ensure(int count)
+	{
+		Stack stack = this.stacks.get();
+		
+		int target = Math.min(count, stack.items.length);
+		
+		while(stack.size < target)
+		{
+			stack.items[stack.size++] = this.factory.get();
+		}
+	}
+	
+	/**
+	 * Drops all instances stored for the calling thread.
+	 */
+	public void clear()
+	{
+		this.stacks.remove();
+	}
+	
+	private static final class Stack
+	{
+		private final Object[] items;
+		private int size;
+		
+		private Stack(int capacity)
+		{
+			this.items = new Object[capacity];
+		}
+	}
+}
@@ -0,0 +1,524 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.quat;
+
+import org.barghos.core.exception.ArgumentNullException;
+import org.barghos.core.tuple3.api.Tup3fR;
+import org.barghos.core.tuple3.api.Tup3fW;
+import org.barghos.math.BarghosMath;
+import org.barghos.math.matrix.Mat4f;
+import org.barghos.math.matrix.Mat4x3f;
+import org.barghos.math.point.Point3f;
+import org.barghos.math.utils.Maths;
+import org.barghos.math.vec3.Vec3f;
+
+/**
+ * A dual quaternion representing a rigid transform, a rotation followed by a translation.
+ * It consists of the real part, which is the rotation, and the dual part, which is half the translation
+ * multiplied with the rotation. With 8 floats it is half the size of a {@link Mat4f}.
+ * 
+ * Blending dual quaternions linearly and normalizing the result (DLB) keeps the volume of skinned meshes
+ * at twisted joints, unlike the linear blending of matrices. {@link #blend(float[], int, int[], float[], int, float[], int, int)}
+ * and {@link #transform(float[], int, int[], float[], int, float[], int, float[], int, int)} run it over whole meshes
+ * with the dual quaternions packed as 8 floats (real w, x, y, z, dual w, x, y, z) per joint.
+ * 
+ * @author picatrix1899
+ */
+public class DualQuatf
+{
+	public static final int FLOATS = 8;
+	
+	protected float rw, rx, ry, rz;
+	protected float dw, dx, dy, dz;
+	
+	/**
+	 * The default constructor. It creates the identity transform.
+	 */
+	public DualQuatf()
+	{
+		setIdentity();
+	}
+	
+	public DualQuatf(DualQuatf q)
+	{
+		set(q);
+	}
+	
+	public DualQuatf(Quatf rot, Tup3fR t)
+	{
+		set(rot, t);
+	}
+	
+	public float getRealW() { return this.rw; }
+	
+	public float getRealX() { return this.rx; }
+	
+	public float getRealY() { return this.ry; }
+	
+	public float getRealZ() { return this.rz; }
+	
+	public float getDualW() { return this.dw; }
+	
+	public float getDualX() { return this.dx; }
+	
+	public float getDualY() { return this.dy; }
+	
+	public float getDualZ() { return this.dz; }
+	
+	public Quatf getReal(Quatf res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		return res.set(this.rw, this.rx, this.ry, this.rz);
+	}
+	
+	public Quatf getDual(Quatf res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		return res.set(this.dw, this.dx, this.dy, this.dz);
+	}
+	
+	/**
+	 * Returns the translation of this dual quaternion, which has to be normalized.
+	 */
+	public <T extends Tup3fW> T getTranslation(T res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		// 2 * dual * conjugate(real)
+		res.set(2.0f * (this.rw * this.dx - this.dw * this.rx + this.ry * this.dz - this.rz * this.dy),
+				2.0f * (this.rw * this.dy - this.dw * this.ry + this.rz * this.dx - this.rx * this.dz),
+				2.0f * (this.rw * this.dz - this.dw * this.rz + this.rx * this.dy - this.ry * this.dx));
+		
+		return res;
+	}
+	
+	public DualQuatf set(DualQuatf q)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(q == null) throw new ArgumentNullException("q");
+		}
+		
+		return set(q.rw, q.rx, q.ry, q.rz, q.dw, q.dx, q.dy, q.dz);
+	}
+	
+	public DualQuatf set(float rw, float rx, float ry, float rz, float dw, float dx, float dy, float dz)
+	{
+		this.rw = rw; this.rx = rx; this.ry = ry; this.rz = rz;
+		this.dw = dw; this.dx = dx; this.dy = dy; this.dz = dz;
+		
+		return this;
+	}
+	
+	/**
+	 * Reads the 8 floats of a packed dual quaternion starting at the given offset.
+	 */
+	public DualQuatf set(float[] src, int offset)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(src == null) throw new ArgumentNullException("src");
+		}
+		
+		return set(	src[offset], src[offset + 1], src[offset + 2], src[offset + 3],
+					src[offset + 4], src[offset + 5], src[offset + 6], src[offset + 7]);
+	}
+	
+	/**
+	 * Sets this dual quaternion to the rotation rot followed by the translation t.
+	 */
+	public DualQuatf set(Quatf rot, Tup3fR t)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return set(rot, t.getX(), t.getY(), t.getZ());
+	}
+	
+	public DualQuatf set(Quatf rot, float tx, float ty, float tz)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(rot == null) throw new ArgumentNullException("rot");
+		}
+		
+		float w = rot.getW(), x = rot.getX(), y = rot.getY(), z = rot.getZ();
+		
+		// 0.5 * (0, t) * rot
+		return set(	w, x, y, z,
+					-0.5f * (tx * x + ty * y + tz * z),
+					 0.5f * (tx * w + ty * z - tz * y),
+					 0.5f * (ty * w + tz * x - tx * z),
+					 0.5f * (tz * w + tx * y - ty * x));
+	}
+	
+	public DualQuatf setIdentity()
+	{
+		return set(1.0f, 0.0f, 0.0f, 0.0f, 0.0f, 0.0f, 0.0f, 0.0f);
+	}
+	
+	/**
+	 * Writes the 8 floats of this dual quaternion to dst starting at the given offset.
+	 */
+	public float[] store(float[] dst, int offset)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(dst == null) throw new ArgumentNullException("dst");
+		}
+		
+		dst[offset] = this.rw; dst[offset + 1] = this.rx; dst[offset + 2] = this.ry; dst[offset + 3] = this.rz;
+		dst[offset + 4] = this.dw; dst[offset + 5] = this.dx; dst[offset + 6] = this.dy; dst[offset + 7] = this.dz;
+		
+		return dst;
+	}
+	
+	public DualQuatf mul(DualQuatf q)
+	{
+		return mul(q, this);
+	}
+	
+	/**
+	 * Calculates this * q, the transform that applies q first and this afterwards. res may be this or q.
+	 */
+	public DualQuatf mul(DualQuatf q, DualQuatf res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(q == null) throw new ArgumentNullException("q");
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		float aw = this.rw, ax = this.rx, ay = this.ry, az = this.rz;
+		float bw = this.dw, bx = this.dx, by = this.dy, bz = this.dz;
+		float cw = q.rw, cx = q.rx, cy = q.ry, cz = q.rz;
+		float ew = q.dw, ex = q.dx, ey = q.dy, ez = q.dz;
+		
+		// real = a * c, dual = a * e + b * c
+		return res.set(	aw * cw - ax * cx - ay * cy - az * cz,
+						aw * cx + ax * cw + ay * cz - az * cy,
+						aw * cy + ay * cw + az * cx - ax * cz,
+						aw * cz + az * cw + ax * cy - ay * cx,
+						
+						aw * ew - ax * ex - ay * ey - az * ez + bw * cw - bx * cx - by * cy - bz * cz,
+						aw * ex + ax * ew + ay * ez - az * ey + bw * cx + bx * cw + by * cz - bz * cy,
+						aw * ey + ay * ew + az * ex - ax * ez + bw * cy + by * cw + bz * cx - bx * cz,
+						aw * ez + az * ew + ax * ey - ay * ex + bw * cz + bz * cw + bx * cy - by * cx);
+	}
+	
+	/**
+	 * Conjugates both parts. For a normalized dual quaternion this is the inverse transform.
+	 */
+	public DualQuatf conjugate()
+	{
+		return conjugate(this);
+	}
+	
+	public DualQuatf conjugate(DualQuatf res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		return res.set(this.rw, -this.rx, -this.ry, -this.rz, this.dw, -this.dx, -this.dy, -this.dz);
+	}
+	
+	public DualQuatf normal()
+	{
+		return normal(this);
+	}
+	
+	/**
+	 * Scales the real part to unit length and makes the dual part orthogonal to it.
+	 */
+	public DualQuatf normal(DualQuatf res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		float l = 1.0f / Maths.sqrt(this.rw * this.rw + this.rx * this.rx + this.ry * this.ry + this.rz * this.rz);
+		
+		float rw = this.rw * l, rx = this.rx * l, ry = this.ry * l, rz = this.rz * l;
+		float dw = this.dw * l, dx = this.dx * l, dy = this.dy * l, dz = this.dz * l;
+		
+		float d = rw * dw + rx * dx + ry * dy + rz * dz;
+		
+		return res.set(rw, rx, ry, rz, dw - rw * d, dx - rx * d, dy - ry * d, dz - rz * d);
+	}
+	
+	public Point3f transform(Point3f r)
+	{
+		return transform(r, true, r);
+	}
+	
+	public Vec3f transform(Vec3f r)
+	{
+		return transform(r, false, r);
+	}
+	
+	/**
+	 * Transforms r as a point, or as a direction without the translation. res may be r.
+	 * The dual quaternion has to be normalized.
+	 */
+	public <T extends Tup3fW> T transform(Tup3fR r, boolean useLastColumn, T res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(r == null) throw new ArgumentNullException("r");
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		float w = this.rw, x = this.rx, y = this.ry, z = this.rz;
+		float vx = r.getX(), vy = r.getY(), vz = r.getZ();
+		
+		// v + w * t + q x t with t = 2 * (q x v)
+		float tx = 2.0f * (y * vz - z * vy);
+		float ty = 2.0f * (z * vx - x * vz);
+		float tz = 2.0f * (x * vy - y * vx);
+		
+		float px = vx + w * tx + y * tz - z * ty;
+		float py = vy + w * ty + z * tx - x * tz;
+		float pz = vz + w * tz + x * ty - y * tx;
+		
+		if(useLastColumn)
+		{
+			px += 2.0f * (w * this.dx - this.dw * x + y * this.dz - z * this.dy);
+			py += 2.0f * (w * this.dy - this.dw * y + z * this.dx - x * this.dz);
+			pz += 2.0f * (w * this.dz - this.dw * z + x * this.dy - y * this.dx);
+		}
+		
+		res.set(px, py, pz);
+		
+		return res;
+	}
+	
+	/**
+	 * Writes the rigid transform of this dual quaternion, which has to be normalized, to res.
+	 */
+	public Mat4x3f toMat4x3f(Mat4x3f res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		float w = this.rw, x = this.rx, y = this.ry, z = this.rz;
+		
+		res.setRow(0, 1.0f - 2.0f * (y * y + z * z),	2.0f * (x * y - w * z),			2.0f * (x * z + w * y),			2.0f * (w * this.dx - this.dw * x + y * this.dz - z * this.dy));
+		res.setRow(1, 2.0f * (x * y + w * z),			1.0f - 2.0f * (x * x + z * z),	2.0f * (y * z - w * x),			2.0f * (w * this.dy - this.dw * y + z * this.dx - x * this.dz));
+		res.setRow(2, 2.0f * (x * z - w * y),			2.0f * (y * z + w * x),			1.0f - 2.0f * (x * x + y * y),	2.0f * (w * this.dz - this.dw * z + x * this.dy - y * this.dx));
+		
+		return res;
+	}
+	
+	public Mat4f toMat4f(Mat4f res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		float w = this.rw, x = this.rx, y = this.ry, z = this.rz;
+		
+		res.setRow(0, 1.0f - 2.0f * (y * y + z * z),	2.0f * (x * y - w * z),			2.0f * (x * z + w * y),			2.0f * (w * this.dx - this.dw * x + y * this.dz - z * this.dy));
+		res.setRow(1, 2.0f * (x * y + w * z),			1.0f - 2.0f * (x * x + z * z),	2.0f * (y * z - w * x),			2.0f * (w * this.dy - this.dw * y + z * this.dx - x * this.dz));
+		res.setRow(2, 2.0f * (x * z - w * y),			2.0f * (y * z + w * x),			1.0f - 2.0f * (x * x + y * y),	2.0f * (w * this.dz - this.dw * z + x * this.dy - y * this.dx));
+		res.setRow(3, 0.0f, 0.0f, 0.0f, 1.0f);
+		
+		return res.setProperties(Mat4f.PROPERTY_AFFINE);
+	}
+	
+	public String toString()
+	{
+		return "dualQuat(real=(" + this.rw + ", " + this.rx + ", " + this.ry + ", " + this.rz + "), dual=(" + this.dw + ", " + this.dx + ", " + this.dy + ", " + this.dz + "))";
+	}
+	
+	public DualQuatf clone()
+	{
+		return new DualQuatf(this);
+	}
+	
+	/**
+	 * Blends count dual quaternions with the given weights (DLB) and normalizes the result.
+	 * Quaternions on the other hemisphere than the first one are negated, so the blend takes the shortest path.
+	 */
+	public static DualQuatf blend(DualQuatf[] q, float[] weights, int count, DualQuatf res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(q == null) throw new ArgumentNullException("q");
+			if(weights == null) throw new ArgumentNullException("weights");
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		float rw = 0.0f, rx = 0.0f, ry = 0.0f, rz = 0.0f;
+		float dw = 0.0f, dx = 0.0f, dy = 0.0f, dz = 0.0f;
+		
+		DualQuatf first = q[0];
+		
+		for(int i = 0; i < count; i++)
+		{
+			DualQuatf c = q[i];
+			float w = weights[i];
+			
+			if(c.rw * first.rw + c.rx * first.rx + c.ry * first.ry + c.rz * first.rz < 0.0f) w = -w;
+			
+			rw += c.rw * w; rx += c.rx * w; ry += c.ry * w; rz += c.rz * w;
+			dw += c.dw * w; dx += c.dx * w; dy += c.dy * w; dz += c.dz * w;
+		}
+		
+		return res.set(rw, rx, ry, rz, dw, dx, dy, dz).normal();
+	}
+	
+	/**
+	 * Blends the packed dual quaternions of the joints influencing each of count vertices and writes the
+	 * normalized results packed to dst. Vertex i is influenced by the joints
+	 * {@code joints[i * influences]} to {@code joints[i * influences + influences - 1]} with the weights at the same indices.
+	 */
+	public static float[] blend(float[] q, int qOffset, int[] joints, float[] weights, int influences, float[] dst, int dstOffset, int count)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(q == null) throw new ArgumentNullException("q");
+			if(joints == null) throw new ArgumentNullException("joints");
+			if(weights == null) throw new ArgumentNullException("weights");
+			if(dst == null) throw new ArgumentNullException("dst");
+		}
+		
+		for(int i = 0; i < count; i++)
+		{
+			int k = i * influences;
+			int first = qOffset + joints[k] * FLOATS;
+			
+			float fw = q[first], fx = q[first + 1], fy = q[first + 2], fz = q[first + 3];
+			
+			float rw = 0.0f, rx = 0.0f, ry = 0.0f, rz = 0.0f;
+			float dw = 0.0f, dx = 0.0f, dy = 0.0f, dz = 0.0f;
+			
+			for(int j = 0; j < influences; j++)
+			{
+				int c = qOffset + joints[k + j] * FLOATS;
+				float w = weights[k + j];
+				
+				if(q[c] * fw + q[c + 1] * fx + q[c + 2] * fy + q[c + 3] * fz < 0.0f) w = -w;
+				
+				rw += q[c] * w; rx += q[c + 1] * w; ry += q[c + 2] * w; rz += q[c + 3] * w;
+				dw += q[c + 4] * w; dx += q[c + 5] * w; dy += q[c + 6] * w; dz += q[c + 7] * w;
+			}
+			
+			float l = 1.0f / Maths.sqrt(rw * rw + rx * rx + ry * ry + rz * rz);
+			
+			rw *= l; rx *= l; ry *= l; rz *= l;
+			dw *= l; dx *= l; dy *= l; dz *= l;
+			
+			float d = rw * dw + rx * dx + ry * dy + rz * dz;
+			
+			int o = dstOffset + i * FLOATS;
+			
+			dst[o] = rw; dst[o + 1] = rx; dst[o + 2] = ry; dst[o + 3] = rz;
+			dst[o + 4] = dw - rw * d; dst[o + 5] = dx - rx * d; dst[o + 6] = dy - ry * d; dst[o + 7] = dz - rz * d;
+		}
+		
+		return dst;
+	}
+	
+	/**
+	 * Skins count packed xyz positions from src into dst. Every position is transformed by the blend of
+	 * the packed dual quaternions of its joints, with the joints and weights laid out like in
+	 * {@link #blend(float[], int, int[], float[], int, float[], int, int)}.
+	 * The ranges of src and dst may be identical but must not overlap otherwise.
+	 */
+	public static float[] transform(float[] q, int qOffset, int[] joints, float[] weights, int influences, float[] src, int srcOffset, float[] dst, int dstOffset, int count)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(q == null) throw new ArgumentNullException("q");
+			if(joints == null) throw new ArgumentNullException("joints");
+			if(weights == null) throw new ArgumentNullException("weights");
+			if(src == null) throw new ArgumentNullException("src");
+			if(dst == null) throw new ArgumentNullException("dst");
+		}
+		
+		for(int i = 0; i < count; i++)
+		{
+			int k = i * influences;
+			int first = qOffset + joints[k] * FLOATS;
+			
+			float fw = q[first], fx = q[first + 1], fy = q[first + 2], fz = q[first + 3];
+			
+			float rw = 0.0f, rx = 0.0f, ry = 0.0f, rz = 0.0f;
+			float dw = 0.0f, dx = 0.0f, dy = 0.0f, dz = 0.0f;
+			
+			for(int j = 0; j < influences; j++)
+			{
+				int c = qOffset + joints[k + j] * FLOATS;
+				float w = weights[k + j];
+				
+				if(q[c] * fw + q[c + 1] * fx + q[c + 2] * fy + q[c + 3] * fz < 0.0f) w = -w;
+				
+				rw += q[c] * w; rx += q[c + 1] * w; ry += q[c + 2] * w; rz += q[c + 3] * w;
+				dw += q[c + 4] * w; dx += q[c + 5] * w; dy += q[c + 6] * w; dz += q[c + 7] * w;
+			}
+			
+			float l = 1.0f / Maths.sqrt(rw * rw + rx * rx + ry * ry + rz * rz);
+			
+			// The part of the dual quaternion parallel to the real one does not change the translation,
+			// so scaling both parts is enough here.
+			rw *= l; rx *= l; ry *= l; rz *= l;
+			dw *= l; dx *= l; dy *= l; dz *= l;
+			
+			int s = srcOffset + i * 3;
+			int o = dstOffset + i * 3;
+			
+			float vx = src[s], vy = src[s + 1], vz = src[s + 2];
+			
+			float tx = 2.0f * (ry * vz - rz * vy);
+			float ty = 2.0f * (rz * vx - rx * vz);
+			float tz = 2.0f * (rx * vy - ry * vx);
+			
+			dst[o] = vx + rw * tx + ry * tz - rz * ty + 2.0f * (rw * dx - dw * rx + ry * dz - rz * dy);
+			dst[o + 1] = vy + rw * ty + rz * tx - rx * tz + 2.0f * (rw * dy - dw * ry + rz * dx - rx * dz);
+			dst[o + 2] = vz + rw * tz + rx * ty - ry * tx + 2.0f * (rw * dz - dw * rz + rx * dy - ry * dx);
+		}
+		
+		return dst;
+	}
+}
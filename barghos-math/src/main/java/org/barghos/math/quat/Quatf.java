@@ -26,13 +26,13 @@ package org.barghos.math.quat;
 
 import org.barghos.core.exception.ArgumentNullException;
 import org.barghos.core.tuple3.api.Tup3fR;
+import org.barghos.core.tuple3.api.Tup3fW;
 import org.barghos.core.util.Nullable;
 import org.barghos.math.BarghosMath;
 import org.barghos.math.matrix.Mat4f;
-import org.barghos.math.quat.pool.QuatfPool;
+import org.barghos.math.pool.MathStack;
 import org.barghos.math.utils.Maths;
 import org.barghos.math.vec3.Vec3f;
-import org.barghos.math.vec3.pool.Vec3fPool;
 import org.barghos.math.vec4.api.Vec4fR;
 
 /** A 3-Dimensional Quaternion */
@@ -118,52 +118,80 @@ public class Quatf implements Vec4fR
 		return res.set(rW, rX, rY, rZ).normal();
 	}
 	
-	public static Quatf getFromVectors(Vec3f v1, Vec3f v2)
+	public static Quatf getFromVectors(Tup3fR v1, Tup3fR v2)
+	{
+		return getFromVectors(v1, v2, new Quatf());
+	}
+	
+	/**
+	 * Calculates the shortest rotation from the direction of v1 to the direction of v2.
+	 * If they point in opposite directions the rotation is by 180 degrees around an arbitrary perpendicular axis.
+	 */
+	public static Quatf getFromVectors(Tup3fR v1, Tup3fR v2, Quatf res)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
 			if(v1 == null) throw new ArgumentNullException("v1");
 			if(v2 == null) throw new ArgumentNullException("v2");
+			if(res == null) throw new ArgumentNullException("res");
 		}
 		
+		float ax = v1.getX(), ay = v1.getY(), az = v1.getZ();
 		
-		Vec3f a = v1.normal(Vec3fPool.get());
-		Vec3f b = v2.normal(Vec3fPool.get());
-
-		Vec3f axis = a.cross(b, Vec3fPool.get());
-		axis.normal(axis);
-		
-		float angle = 1.0f + a.dot(b);
-
-		Quatf out = new Quatf(angle, axis.getX(), axis.getY(), axis.getZ()).normal();
+		// Any axis perpendicular to v1 will do for opposite directions.
+		float px = 0.0f, py = -az, pz = ay;
 		
-		Vec3fPool.store(a, b, axis);
+		if(py * py + pz * pz < BarghosMath.DEFAULT_ZERO_THRESHOLD_F)
+		{
+			px = az;
+			py = 0.0f;
+			pz = -ax;
+		}
 		
-		return out;
+		return fromVectors(ax, ay, az, v2.getX(), v2.getY(), v2.getZ(), px, py, pz, res);
 	}
 	
 	public static Quatf lookAt(Tup3fR source, Tup3fR dest)
 	{
-		Vec3f forwardVector = new Vec3f(dest).subN(source);
-
-		Vec3f forward = BarghosMath.DEFAULT_SYSTEM.getForward();
-		Vec3f up = BarghosMath.DEFAULT_SYSTEM.getUp();
+		return lookAt(source, dest, new Quatf());
+	}
+	
+	/**
+	 * Calculates the rotation that turns the forward direction of {@link BarghosMath#DEFAULT_SYSTEM} towards dest as seen from source.
+	 * If dest is behind source the rotation is by 180 degrees around the up direction.
+	 */
+	public static Quatf lookAt(Tup3fR source, Tup3fR dest, Quatf res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(source == null) throw new ArgumentNullException("source");
+			if(dest == null) throw new ArgumentNullException("dest");
+			if(res == null) throw new ArgumentNullException("res");
+		}
 		
-	    float dot = forward.dot(forwardVector);
-
-	    if (Math.abs(dot - (-1.0f)) < 0.000001f)
-	    {
-	        return new Quatf(Maths.PIf, up.getX(), up.getY(), up.getZ());
-	    }
-	    if (Math.abs(dot - (1.0f)) < 0.000001f)
-	    {
-	        return new Quatf();
-	    }
-
-	    float rotAngle = (float)Math.acos(dot);
-	    Vec3f rotAxis = forward.cross(forwardVector);
-	    rotAxis.normal();
-	    return getFromAxis(rotAxis, rotAngle);
+		try(MathStack s = MathStack.push())
+		{
+			Vec3f forward = BarghosMath.DEFAULT_SYSTEM.getForward(s.vec3());
+			Vec3f up = BarghosMath.DEFAULT_SYSTEM.getUp(s.vec3());
+			
+			return fromVectors(	forward.getX(), forward.getY(), forward.getZ(),
+								dest.getX() - source.getX(), dest.getY() - source.getY(), dest.getZ() - source.getZ(),
+								up.getX(), up.getY(), up.getZ(), res);
+		}
+	}
+	
+	/**
+	 * Uses the half-way quaternion (|a||b| + a . b, a x b), which needs neither trigonometry nor normalized inputs.
+	 * p is the rotation axis used if a and b point in opposite directions.
+	 */
+	private static Quatf fromVectors(float ax, float ay, float az, float bx, float by, float bz, float px, float py, float pz, Quatf res)
+	{
+		float w = Maths.sqrt((ax * ax + ay * ay + az * az) * (bx * bx + by * by + bz * bz)) + ax * bx + ay * by + az * bz;
+		
+		if(w < BarghosMath.DEFAULT_ZERO_THRESHOLD_F)
+			return res.set(0.0f, px, py, pz).normal();
+		
+		return res.set(w, ay * bz - az * by, az * bx - ax * bz, ax * by - ay * bx).normal();
 	}
 	
 	public float getW() { return this.w; }
@@ -181,12 +209,28 @@ public class Quatf implements Vec4fR
 			if(axis == null) throw new ArgumentNullException("axis");
 		}
 		
-		return rotate(angle, axis.getX(), axis.getY(), axis.getZ());
+		return rotate(axis.getX(), axis.getY(), axis.getZ(), angle);
 	}
 	
+	/**
+	 * Applies the rotation around the given axis by angle degrees after this rotation, like {@link #rotate(Quatf)}.
+	 */
 	public Quatf rotate(float ax, float ay, float az, float angle)
 	{
-		return getFromAxis(angle, ax, ay, az).mul(this, this);
+		float halfAngle = angle * 0.5f * Maths.DEG_TO_RADf;
+		float sinHalfAngle = Maths.sin(halfAngle);
+		
+		float l = 1.0f / Maths.sqrt(ax * ax + ay * ay + az * az);
+		
+		float qw = Maths.cos(halfAngle);
+		float qx = ax * l * sinHalfAngle;
+		float qy = ay * l * sinHalfAngle;
+		float qz = az * l * sinHalfAngle;
+		
+		return set(	qw * this.w - qx * this.x - qy * this.y - qz * this.z,
+					qw * this.x + this.w * qx + qy * this.z - qz * this.y,
+					qw * this.y + this.w * qy + qz * this.x - qx * this.z,
+					qw * this.z + this.w * qz + qx * this.y - qy * this.x);
 	}
 	
 	public Quatf rotate(Quatf q)
@@ -291,17 +335,37 @@ public class Quatf implements Vec4fR
 		return inverse(this);
 	}
 	
+	/**
+	 * The conjugate divided by the squared length. For unit quaternions this is the conjugate.
+	 */
 	public Quatf inverse(@Nullable Quatf res)
 	{
 		if(res == null) res = new Quatf();
 
-		float l = reciprocalLength();
+		float l = 1.0f / squaredLength();
 		
 		res.set(this.w * l, -this.x * l, -this.y * l, -this.z * l);
 		
 		return res;
 	}
 	
+	/**
+	 * Negates all components. The result represents the same rotation from the other hemisphere.
+	 */
+	public Quatf negate()
+	{
+		return negate(this);
+	}
+	
+	public Quatf negate(@Nullable Quatf res)
+	{
+		if(res == null) res = new Quatf();
+		
+		res.set(-this.w, -this.x, -this.y, -this.z);
+		
+		return res;
+	}
+	
 	public Quatf mul(Quatf q)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
@@ -364,23 +428,41 @@ public class Quatf implements Vec4fR
 		return res;
 	}
 	
+	public <T extends Tup3fR & Tup3fW> T transform(T v)
+	{
+		return transform(v, v);
+	}
+	
 	public Vec3f transform(Tup3fR v, @Nullable Vec3f res)
+	{
+		if(res == null) res = new Vec3f();
+		
+		transform(v, (Tup3fW)res);
+		
+		return res;
+	}
+	
+	/**
+	 * Rotates v by this quaternion, which has to be normalized. res may be v.
+	 * Uses v + w * t + q x t with t = 2 * (q x v) instead of the two products q * v * conjugate(q).
+	 */
+	public <T extends Tup3fW> T transform(Tup3fR v, T res)
 	{
 		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
 		{
 			if(v == null) throw new ArgumentNullException("v");
+			if(res == null) throw new ArgumentNullException("res");
 		}
 		
-		if(res == null) res = new Vec3f();
-		
-		Quatf r = mul(v, QuatfPool.get());
-		Quatf c = conjugate(QuatfPool.get());
-		
-		r.mul(c, r);
+		float vx = v.getX(), vy = v.getY(), vz = v.getZ();
 		
-		res.set(r.getX(),r.getY(), r.getZ());
+		float tx = 2.0f * (this.y * vz - this.z * vy);
+		float ty = 2.0f * (this.z * vx - this.x * vz);
+		float tz = 2.0f * (this.x * vy - this.y * vx);
 		
-		QuatfPool.store(r, c);
+		res.set(vx + this.w * tx + this.y * tz - this.z * ty,
+				vy + this.w * ty + this.z * tx - this.x * tz,
+				vz + this.w * tz + this.x * ty - this.y * tx);
 		
 		return res;
 	}
@@ -24,12 +24,17 @@ SOFTWARE.
 
 package org.barghos.math.utils;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import org.barghos.core.exception.ArgumentNullException;
 import org.barghos.core.tuple3.api.Tup3fR;
 import org.barghos.core.tuple3.api.Tup3fW;
 import org.barghos.math.BarghosMath;
 import org.barghos.math.matrix.Mat4f;
 import org.barghos.math.point.Point3f;
+import org.barghos.math.pool.MathStack;
 import org.barghos.math.utils.api.EulerAngles3fR;
 import org.barghos.math.utils.api.EulerAngles3fW;
 import org.barghos.math.utils.api.HirarchicalTransform3f;
@@ -38,6 +43,9 @@ import org.barghos.math.utils.api.Transformable3f;
 import org.barghos.math.vec3.Vec3f;
 
 /**
+ * The local and world matrices are cached and only rebuilt after a change to this transform or one of its ancestors.
+ * As queries refresh these caches, a hirarchy must not be queried from multiple threads at once.
+ * 
  * @author picatrix1899
  *
  */
@@ -49,6 +57,29 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 	
 	private Transformable3f parent;
 	
+	private final List<StaticHirarchicalTransform3f> children = new ArrayList<>();
+	
+	private final Mat4f localMatrix = new Mat4f();
+	private final Mat4f worldMatrix = new Mat4f();
+	private final Mat4f worldOrientationMatrix = new Mat4f();
+	private final Mat4f worldScalingMatrix = new Mat4f();
+	
+	private static final int DIRTY_LOCAL = 1;
+	private static final int DIRTY_WORLD = 2;
+	private static final int DIRTY_WORLD_ORIENTATION = 4;
+	private static final int DIRTY_WORLD_SCALING = 8;
+	private static final int DIRTY_HIRARCHY = DIRTY_WORLD | DIRTY_WORLD_ORIENTATION | DIRTY_WORLD_SCALING;
+	
+	private static final ThreadLocal<Path> PATH = ThreadLocal.withInitial(Path::new);
+	
+	private int dirty = DIRTY_LOCAL | DIRTY_HIRARCHY;
+	
+	/**
+	 * Only true if every ancestor is a StaticHirarchicalTransform3f, because only those notify their children about changes.
+	 * Otherwise the world matrices are rebuilt on every query.
+	 */
+	private boolean cacheable = true;
+	
 	public StaticHirarchicalTransform3f()
 	{
 		this.scale.set(1.0f, 1.0f, 1.0f);
@@ -201,6 +232,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 		t.getOrientation(this.orientation);
 		t.getScale(this.scale);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -215,6 +248,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 		t.getRelativeOrientation(this.orientation);
 		t.getRelativeScale(this.scale);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -231,6 +266,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 		this.orientation.set(orientation);
 		this.scale.set(scale);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -246,6 +283,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 		this.orientation.set(orientation);
 		this.scale.set(scale);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -261,6 +300,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 		this.orientation.setDeg(pitch, yaw, roll);
 		this.scale.set(scale);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -275,6 +316,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 		this.orientation.setDeg(pitch, yaw, roll);
 		this.scale.set(scale);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -290,6 +333,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 		this.orientation.set(orientation);
 		this.scale.set(scale);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -304,6 +349,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 		this.orientation.set(orientation);
 		this.scale.set(scale);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -318,6 +365,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 		this.orientation.setDeg(pitch, yaw, roll);
 		this.scale.set(scale);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -327,6 +376,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 		this.orientation.setDeg(pitch, yaw, roll);
 		this.scale.set(scale);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -343,6 +394,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 		this.orientation.set(orientation);
 		this.scale.set(scaleX, scaleY, scaleZ);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -358,6 +411,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 		this.orientation.set(orientation);
 		this.scale.set(scaleX, scaleY, scaleZ);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -372,6 +427,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 		this.orientation.setDeg(pitch, yaw, roll);
 		this.scale.set(scaleX, scaleY, scaleZ);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -381,6 +438,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 		this.orientation.setDeg(pitch, yaw, roll);
 		this.scale.set(scaleX, scaleY, scaleZ);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -438,7 +497,7 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 	public Point3f getPosition()
 	{
 		if(hasParent())
-			return getParent().getTransform().getTransformationMatrix4f().transform(getRelativePosition());
+			return parentMatrix().transform(getRelativePosition());
 		
 		return getRelativePosition(new Point3f());
 	}
@@ -451,7 +510,7 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 		}
 		
 		if(hasParent())
-			return getParent().getTransform().getTransformationMatrix4f().transform(getRelativePosition(), res);
+			return parentMatrix().transform(this.position, true, res);
 		
 		return getRelativePosition(res);
 	}
@@ -459,7 +518,7 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 	public EulerAngles3fR getOrientation()
 	{
 		if(hasParent())
-			return new EulerAnglesRad3f(Mat4f.rotation3D(getRelativeOrientation()).mul(getParent().getTransform().getTransformationMatrix4f()));
+			return new EulerAnglesRad3f(Mat4f.rotation3D(getRelativeOrientation()).mul(parentMatrix()));
 		
 		return getRelativeOrientation();
 	}
@@ -473,7 +532,7 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 		
 		if(hasParent())
 		{
-			res.set(new EulerAnglesDeg3f(Mat4f.rotation3D(getRelativeOrientation()).mul(getParent().getTransform().getTransformationMatrix4f())));
+			res.set(new EulerAnglesDeg3f(Mat4f.rotation3D(getRelativeOrientation()).mul(parentMatrix())));
 			
 			return res;
 		}
@@ -484,7 +543,7 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 	public Vec3f getScale()
 	{
 		if(hasParent())
-			return getParent().getTransform().getScalingMatrix4f().transform(getRelativeScale());
+			return parentScalingMatrix().transform(getRelativeScale());
 		
 		return getRelativeScale();
 	}
@@ -497,7 +556,7 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 		}
 		
 		if(hasParent())
-			return getParent().getTransform().getScalingMatrix4f().transform(getRelativeScale(), res);
+			return parentScalingMatrix().transform(this.scale, false, res);
 		
 		return getRelativeScale(res);
 	}
@@ -511,6 +570,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 		
 		this.position.set(pos);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -518,6 +579,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 	{
 		this.position.set(x, y, z);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -525,6 +588,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 	{
 		this.position.setX(x);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -532,6 +597,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 	{
 		this.position.setY(y);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -539,6 +606,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 	{
 		this.position.setZ(z);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -551,6 +620,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 		
 		this.orientation.set(orientation);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -558,6 +629,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 	{
 		this.orientation.setDeg(pitch, yaw, roll);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -565,6 +638,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 	{
 		this.orientation.setPitchDeg(pitch);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -572,6 +647,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 	{
 		this.orientation.setYawDeg(yaw);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -579,6 +656,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 	{
 		this.orientation.setRollDeg(roll);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -591,6 +670,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 		
 		this.scale.set(scale);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -598,6 +679,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 	{
 		this.scale.set(factor);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -605,6 +688,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 	{
 		this.scale.set(x, y, z);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -612,6 +697,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 	{
 		this.scale.setX(x);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -619,6 +706,8 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 	{
 		this.scale.setY(y);
 		
+		invalidate();
+		
 		return this;
 	}
 	
@@ -626,13 +715,15 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 	{
 		this.scale.setZ(z);
 		
+		invalidate();
+		
 		return this;
 	}
 	
 	public Mat4f getTranslationMatrix4f()
 	{
 		if(hasParent())
-			return Mat4f.translation3D(getParent().getTransform().getTransformationMatrix4f().transform(this.position.clone()));
+			return Mat4f.translation3D(parentMatrix().transform(this.position.clone()));
 		
 		return getRelativeTranslationMatrix4f();
 	}
@@ -645,17 +736,19 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 		}
 		
 		if(hasParent())
-			return res.initTranslation3D(getParent().getTransform().getTransformationMatrix4f().transform(this.position.clone()));
+		{
+			try(MathStack s = MathStack.push())
+			{
+				return res.initTranslation3D(parentMatrix().transform(this.position, true, s.vec3()));
+			}
+		}
 		
 		return getRelativeTranslationMatrix4f(res);
 	}
 	
 	public Mat4f getOrientationMatrix4f()
 	{
-		if(hasParent())
-			return getRelativeOrientationMatrix4f().mul(getParent().getTransform().getOrientationMatrix4f());
-		
-		return getRelativeOrientationMatrix4f();
+		return new Mat4f(worldOrientationMatrix());
 	}
 	
 	public Mat4f getOrientationMatrix4f(Mat4f res)
@@ -665,18 +758,12 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 			if(res == null) throw new ArgumentNullException("res");
 		}
 		
-		if(hasParent())
-			return getRelativeOrientationMatrix4f(res).mul(getParent().getTransform().getOrientationMatrix4f());
-		
-		return getRelativeOrientationMatrix4f(res);
+		return res.set(worldOrientationMatrix());
 	}
 	
 	public Mat4f getScalingMatrix4f()
 	{
-		if(hasParent())
-			return getRelativeScalingMatrix4f().mul(getParent().getTransform().getScalingMatrix4f());
-		
-		return getRelativeScalingMatrix4f();
+		return new Mat4f(worldScalingMatrix());
 	}
 	
 	public Mat4f getScalingMatrix4f(Mat4f res)
@@ -686,18 +773,12 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 			if(res == null) throw new ArgumentNullException("res");
 		}
 		
-		if(hasParent())
-			return getRelativeScalingMatrix4f(res).mul(getParent().getTransform().getScalingMatrix4f());
-		
-		return getRelativeScalingMatrix4f(res);
+		return res.set(worldScalingMatrix());
 	}
 	
 	public Mat4f getTransformationMatrix4f()
 	{
-		if(hasParent())
-			return getRelativeTransformationMatrix4f().mul(getParent().getTransform().getTransformationMatrix4f());
-			
-		return getRelativeTransformationMatrix4f();
+		return new Mat4f(worldMatrix());
 	}
 	
 	public Mat4f getTransformationMatrix4f(Mat4f res)
@@ -707,10 +788,7 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 			if(res == null) throw new ArgumentNullException("res");
 		}
 		
-		if(hasParent())
-			return getRelativeTransformationMatrix4f(res).mul(getParent().getTransform().getTransformationMatrix4f());
-			
-		return getRelativeTransformationMatrix4f(res);
+		return res.set(worldMatrix());
 	}
 	
 	public Mat4f getRelativeTranslationMatrix4f()
@@ -760,7 +838,7 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 	
 	public Mat4f getRelativeTransformationMatrix4f()
 	{
-		return Mat4f.transformMatrix3D(this);
+		return new Mat4f(localMatrix());
 	}
 	
 	public Mat4f getRelativeTransformationMatrix4f(Mat4f res)
@@ -770,7 +848,7 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 			if(res == null) throw new ArgumentNullException("res");
 		}
 		
-		return res.initTransformMatrix3D(this);
+		return res.set(localMatrix());
 	}
 	
 	public Transformable3f getParent()
@@ -785,8 +863,21 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 			if(parent == null) throw new ArgumentNullException("parent");
 		}
 		
+		if(this.parent != null && this.parent.getTransform() instanceof StaticHirarchicalTransform3f)
+		{
+			((StaticHirarchicalTransform3f)this.parent.getTransform()).children.remove(this);
+		}
+		
 		this.parent = parent;
 		
+		if(parent != null && parent.getTransform() instanceof StaticHirarchicalTransform3f)
+		{
+			((StaticHirarchicalTransform3f)parent.getTransform()).children.add(this);
+		}
+		
+		updateCacheable();
+		invalidateHirarchy();
+		
 		return this;
 	}
 	
@@ -804,4 +895,203 @@ public class StaticHirarchicalTransform3f implements HirarchicalTransform3f
 	{
 		return "staticTransform3f(position= " + this.position + ", orientation=" + this.orientation + ", scale=" + this.scale + ")";
 	}
+	
+	/**
+	 * Invalidates the local matrix and the world matrices of this transform and all its descendants.
+	 */
+	protected void invalidate()
+	{
+		this.dirty |= DIRTY_LOCAL;
+		
+		invalidateHirarchy();
+	}
+	
+	/**
+	 * Invalidates the world matrices of this transform and all its descendants.
+	 * A transform with invalid world matrices never has descendants with valid ones,
+	 * so the propagation stops at the first one that is already invalid.
+	 * Chains of single children are walked iteratively to support very deep hirarchies.
+	 */
+	protected void invalidateHirarchy()
+	{
+		StaticHirarchicalTransform3f t = this;
+		
+		while((t.dirty & DIRTY_HIRARCHY) != DIRTY_HIRARCHY)
+		{
+			t.dirty |= DIRTY_HIRARCHY;
+			
+			List<StaticHirarchicalTransform3f> children = t.children;
+			
+			if(children.isEmpty()) return;
+			
+			for(int i = 1; i < children.size(); i++)
+				children.get(i).invalidateHirarchy();
+			
+			t = children.get(0);
+		}
+	}
+	
+	private void updateCacheable()
+	{
+		Transform3f parent = this.parent != null ? this.parent.getTransform() : null;
+		
+		boolean cacheable = parent == null || parent instanceof StaticHirarchicalTransform3f && ((StaticHirarchicalTransform3f)parent).cacheable;
+		
+		if(cacheable == this.cacheable) return;
+		
+		this.cacheable = cacheable;
+		
+		for(int i = 0; i < this.children.size(); i++)
+			this.children.get(i).updateCacheable();
+	}
+	
+	private boolean isValid(int flag)
+	{
+		return (this.dirty & flag) == 0 && (this.cacheable || flag == DIRTY_LOCAL);
+	}
+	
+	private Mat4f localMatrix()
+	{
+		if(!isValid(DIRTY_LOCAL))
+		{
+			this.localMatrix.initTransformMatrix3D(this.position, this.orientation, this.scale);
+			this.dirty &= ~DIRTY_LOCAL;
+		}
+		
+		return this.localMatrix;
+	}
+	
+	private Mat4f worldMatrix()
+	{
+		if(!isValid(DIRTY_WORLD)) update(DIRTY_WORLD);
+		
+		return this.worldMatrix;
+	}
+	
+	private Mat4f worldOrientationMatrix()
+	{
+		if(!isValid(DIRTY_WORLD_ORIENTATION)) update(DIRTY_WORLD_ORIENTATION);
+		
+		return this.worldOrientationMatrix;
+	}
+	
+	private Mat4f worldScalingMatrix()
+	{
+		if(!isValid(DIRTY_WORLD_SCALING)) update(DIRTY_WORLD_SCALING);
+		
+		return this.worldScalingMatrix;
+	}
+	
+	/**
+	 * Rebuilds the given world matrix of this transform and all invalid ancestors from the top down.
+	 * The ancestors are collected into a reused buffer instead of recursing, so deep hirarchies cannot overflow the stack.
+	 */
+	private void update(int flag)
+	{
+		Path path = PATH.get();
+		
+		if(path.busy) path = new Path();
+		
+		path.busy = true;
+		
+		StaticHirarchicalTransform3f[] nodes = path.nodes;
+		int length = 0;
+		
+		StaticHirarchicalTransform3f t = this;
+		
+		while(true)
+		{
+			if(length == nodes.length) nodes = path.nodes = Arrays.copyOf(nodes, length * 2);
+			
+			nodes[length++] = t;
+			
+			Transform3f parent = t.parent != null ? t.parent.getTransform() : null;
+			
+			if(!(parent instanceof StaticHirarchicalTransform3f)) break;
+			
+			t = (StaticHirarchicalTransform3f)parent;
+			
+			if(t.isValid(flag)) break;
+		}
+		
+		for(int i = length - 1; i >= 0; i--)
+		{
+			nodes[i].compute(flag);
+			nodes[i] = null;
+		}
+		
+		path.busy = false;
+	}
+	
+	/**
+	 * Rebuilds the given world matrix of this transform. The matrix of a StaticHirarchicalTransform3f parent must be up to date.
+	 */
+	private void compute(int flag)
+	{
+		Transform3f parent = this.parent != null ? this.parent.getTransform() : null;
+		StaticHirarchicalTransform3f cached = parent instanceof StaticHirarchicalTransform3f ? (StaticHirarchicalTransform3f)parent : null;
+		
+		switch(flag)
+		{
+			case DIRTY_WORLD:
+			{
+				if(parent == null)
+					this.worldMatrix.set(localMatrix());
+				else
+					localMatrix().mul(cached != null ? cached.worldMatrix : parent.getTransformationMatrix4f(), this.worldMatrix);
+				
+				break;
+			}
+			case DIRTY_WORLD_ORIENTATION:
+			{
+				this.worldOrientationMatrix.initRotation3D(this.orientation);
+				
+				if(parent != null)
+					this.worldOrientationMatrix.mul(cached != null ? cached.worldOrientationMatrix : parent.getOrientationMatrix4f());
+				
+				break;
+			}
+			case DIRTY_WORLD_SCALING:
+			{
+				this.worldScalingMatrix.initScaling3D(this.scale);
+				
+				if(parent != null)
+					this.worldScalingMatrix.mul(cached != null ? cached.worldScalingMatrix : parent.getScalingMatrix4f());
+				
+				break;
+			}
+		}
+		
+		this.dirty &= ~flag;
+	}
+	
+	/**
+	 * Returns the world matrix of the parent. It must not be modified.
+	 */
+	private Mat4f parentMatrix()
+	{
+		Transform3f parent = getParent().getTransform();
+		
+		if(parent instanceof StaticHirarchicalTransform3f) return ((StaticHirarchicalTransform3f)parent).worldMatrix();
+		
+		return parent.getTransformationMatrix4f();
+	}
+	
+	/**
+	 * Returns the world scaling matrix of the parent. It must not be modified.
+	 */
+	private Mat4f parentScalingMatrix()
+	{
+		Transform3f parent = getParent().getTransform();
+		
+		if(parent instanceof StaticHirarchicalTransform3f) return ((StaticHirarchicalTransform3f)parent).worldScalingMatrix();
+		
+		return parent.getScalingMatrix4f();
+	}
+	
+	private static final class Path
+	{
+		private StaticHirarchicalTransform3f[] nodes = new StaticHirarchicalTransform3f[16];
+		private boolean busy;
+	}
 }
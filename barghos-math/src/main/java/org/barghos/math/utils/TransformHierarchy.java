@@ -0,0 +1,1234 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.utils;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.barghos.core.exception.ArgumentNullException;
+import org.barghos.core.tuple3.api.Tup3fR;
+import org.barghos.core.tuple3.api.Tup3fW;
+import org.barghos.math.BarghosMath;
+import org.barghos.math.matrix.Mat4f;
+import org.barghos.math.point.Point3f;
+import org.barghos.math.utils.api.EulerAngles3fR;
+import org.barghos.math.utils.api.EulerAngles3fW;
+import org.barghos.math.utils.api.HirarchicalTransform3f;
+import org.barghos.math.utils.api.Transform3f;
+import org.barghos.math.utils.api.Transformable3f;
+import org.barghos.math.vec3.Vec3f;
+
+/**
+ * This class stores a whole hirarchy of transforms in flat arrays, so that the world matrices of all nodes
+ * can be calculated in one linear pass instead of walking the parent chain of every node.
+ * 
+ * The parent indices and the local position, orientation (in degrees) and scale of the nodes are kept sorted by depth.
+ * That way every parent is calculated before its children, and all nodes of one level can be calculated
+ * independently of each other. {@link #update(ForkJoinPool)} uses this to split large levels across the threads of a pool.
+ * 
+ * The nodes are exposed as {@link Node} handles implementing {@link HirarchicalTransform3f}.
+ * Changes to the structure are only applied to the arrays with the next update, and querying a world value
+ * of a node implicitly calls {@link #update()} if anything changed since the last one.
+ * Therefore the intended usage is to change all nodes first, call {@link #update()} or {@link #update(ForkJoinPool)}
+ * once and query the world values afterwards.
+ * This class is not thread-safe.
+ * 
+ * @author picatrix1899
+ */
+public class TransformHierarchy
+{
+	public static final int DEFAULT_CAPACITY = 64;
+	
+	/**
+	 * The number of nodes below which a level is not split further in {@link #update(ForkJoinPool)}.
+	 */
+	public static final int PARALLEL_THRESHOLD = 1024;
+	
+	private static final int UNKNOWN = -1;
+	private static final int REMOVED = -2;
+	
+	private int size;
+	
+	private Node[] nodes;
+	private int[] parents;
+	private int[] depths;
+	
+	private float[] positions;
+	private float[] angles;
+	private float[] scales;
+	
+	private float[] worldMatrices;
+	private float[] worldRotations;
+	private float[] worldScales;
+	
+	private int[] levelStarts = new int[2];
+	private int levelCount;
+	
+	private boolean unordered;
+	private boolean dirty;
+	
+	private final Mat4f rotation = new Mat4f();
+	private final EulerAnglesDeg3f orientation = new EulerAnglesDeg3f();
+	
+	public TransformHierarchy()
+	{
+		this(DEFAULT_CAPACITY);
+	}
+	
+	public TransformHierarchy(int capacity)
+	{
+		if(capacity < 1) throw new IllegalArgumentException("The capacity must be positive.");
+		
+		allocate(capacity);
+	}
+	
+	/**
+	 * Creates a new root node with an identity transform.
+	 */
+	public Node create()
+	{
+		return append(null);
+	}
+	
+	/**
+	 * Creates a new node with an identity transform as child of the given node.
+	 */
+	public Node create(Node parent)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(parent == null) throw new ArgumentNullException("parent");
+		}
+		
+		checkNode(parent);
+		
+		return append(parent);
+	}
+	
+	/**
+	 * Removes the given node and all its descendants from this hirarchy.
+	 * The handles of the removed nodes must not be used anymore.
+	 */
+	public void remove(Node node)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(node == null) throw new ArgumentNullException("node");
+		}
+		
+		checkNode(node);
+		
+		node.removed = true;
+		
+		this.unordered = true;
+		this.dirty = true;
+	}
+	
+	/**
+	 * Returns the number of nodes in this hirarchy.
+	 */
+	public int size()
+	{
+		if(this.unordered) order();
+		
+		return this.size;
+	}
+	
+	/**
+	 * Returns the number of depth levels of this hirarchy.
+	 */
+	public int getLevelCount()
+	{
+		if(this.unordered) order();
+		
+		return this.levelCount;
+	}
+	
+	/**
+	 * Returns the node at the given index. The nodes are sorted by depth.
+	 */
+	public Node get(int index)
+	{
+		if(this.unordered) order();
+		
+		if(index < 0 || index >= this.size) throw new IndexOutOfBoundsException(index);
+		
+		return this.nodes[index];
+	}
+	
+	/**
+	 * Returns the backing array of the world matrices.
+	 * It contains 16 floats per node in row-major order, in the order of {@link #get(int)}.
+	 * The content is only valid after a call to {@link #update()} or {@link #update(ForkJoinPool)}
+	 * and is replaced if the hirarchy grows or changes its structure.
+	 */
+	public float[] getWorldMatrices()
+	{
+		return this.worldMatrices;
+	}
+	
+	/**
+	 * Calculates the world matrices of all nodes in one linear pass on the calling thread.
+	 */
+	public void update()
+	{
+		if(this.unordered) order();
+		
+		if(!this.dirty) return;
+		
+		calculate(0, this.size, this.rotation, this.orientation);
+		
+		this.dirty = false;
+	}
+	
+	/**
+	 * Calculates the world matrices of all nodes level by level.
+	 * Levels with more than {@link #PARALLEL_THRESHOLD} nodes are split across the threads of the given pool.
+	 */
+	public void update(ForkJoinPool pool)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(pool == null) throw new ArgumentNullException("pool");
+		}
+		
+		if(this.unordered) order();
+		
+		if(!this.dirty) return;
+		
+		for(int level = 0; level < this.levelCount; level++)
+		{
+			int from = this.levelStarts[level];
+			int to = this.levelStarts[level + 1];
+			
+			if(to - from <= PARALLEL_THRESHOLD)
+				calculate(from, to, this.rotation, this.orientation);
+			else
+				pool.invoke(new LevelTask(this, from, to));
+		}
+		
+		this.dirty = false;
+	}
+	
+	private void validate()
+	{
+		if(this.unordered || this.dirty) update();
+	}
+	
+	private void checkNode(Node node)
+	{
+		if(node.hierarchy != this) throw new IllegalArgumentException("The node does not belong to this hirarchy.");
+		if(node.removed || node.index < 0) throw new IllegalStateException("The node has been removed.");
+	}
+	
+	private Node append(Node parent)
+	{
+		if(this.size == this.nodes.length) grow(this.size * 2);
+		
+		int index = this.size++;
+		
+		Node node = new Node(this, index);
+		
+		this.nodes[index] = node;
+		this.parents[index] = parent != null ? parent.index : -1;
+		
+		this.positions[index * 3] = 0.0f;
+		this.positions[index * 3 + 1] = 0.0f;
+		this.positions[index * 3 + 2] = 0.0f;
+		
+		this.angles[index * 3] = 0.0f;
+		this.angles[index * 3 + 1] = 0.0f;
+		this.angles[index * 3 + 2] = 0.0f;
+		
+		this.scales[index * 3] = 1.0f;
+		this.scales[index * 3 + 1] = 1.0f;
+		this.scales[index * 3 + 2] = 1.0f;
+		
+		this.dirty = true;
+		
+		if(this.unordered) return node;
+		
+		// As long as the new node is not above the last one the depth order is kept and the levels can be extended.
+		int depth = parent != null ? this.depths[parent.index] + 1 : 0;
+		int lastDepth = index > 0 ? this.depths[index - 1] : -1;
+		
+		if(depth < lastDepth)
+		{
+			this.unordered = true;
+			
+			return node;
+		}
+		
+		this.depths[index] = depth;
+		
+		if(depth > lastDepth)
+		{
+			this.levelCount++;
+			
+			if(this.levelStarts.length <= this.levelCount) this.levelStarts = Arrays.copyOf(this.levelStarts, this.levelCount * 2);
+		}
+		
+		this.levelStarts[this.levelCount] = this.size;
+		
+		return node;
+	}
+	
+	private void setParent(Node node, Node parent)
+	{
+		if(parent != null)
+		{
+			checkNode(parent);
+			
+			for(int i = parent.index; i != -1; i = this.parents[i])
+				if(i == node.index) throw new IllegalArgumentException("The parent must not be a descendant of the node.");
+		}
+		
+		this.parents[node.index] = parent != null ? parent.index : -1;
+		
+		this.unordered = true;
+		this.dirty = true;
+	}
+	
+	/**
+	 * Sorts the nodes by depth with a counting sort and drops removed nodes and their descendants.
+	 */
+	private void order()
+	{
+		int n = this.size;
+		
+		int[] depth = new int[n];
+		int[] stack = new int[n];
+		
+		Arrays.fill(depth, UNKNOWN);
+		
+		int levels = 0;
+		
+		for(int i = 0; i < n; i++)
+		{
+			if(depth[i] != UNKNOWN) continue;
+			
+			int top = 0;
+			int j = i;
+			
+			while(j != -1 && depth[j] == UNKNOWN)
+			{
+				stack[top++] = j;
+				j = this.parents[j];
+			}
+			
+			int d = j != -1 ? depth[j] : -1;
+			
+			while(top > 0)
+			{
+				int k = stack[--top];
+				
+				d = d == REMOVED || this.nodes[k].removed ? REMOVED : d + 1;
+				
+				depth[k] = d;
+				
+				if(d >= levels) levels = d + 1;
+			}
+		}
+		
+		int[] starts = new int[levels + 1];
+		
+		for(int i = 0; i < n; i++)
+			if(depth[i] != REMOVED) starts[depth[i] + 1]++;
+		
+		for(int level = 0; level < levels; level++)
+			starts[level + 1] += starts[level];
+		
+		int[] next = Arrays.copyOf(starts, levels);
+		int[] target = stack;
+		
+		for(int i = 0; i < n; i++)
+			target[i] = depth[i] != REMOVED ? next[depth[i]]++ : -1;
+		
+		int capacity = this.nodes.length;
+		
+		Node[] nodes = new Node[capacity];
+		int[] parents = new int[capacity];
+		int[] depths = new int[capacity];
+		float[] positions = new float[capacity * 3];
+		float[] angles = new float[capacity * 3];
+		float[] scales = new float[capacity * 3];
+		
+		for(int i = 0; i < n; i++)
+		{
+			int t = target[i];
+			
+			Node node = this.nodes[i];
+			
+			node.index = t;
+			
+			if(t == -1) continue;
+			
+			int parent = this.parents[i];
+			
+			nodes[t] = node;
+			parents[t] = parent != -1 ? target[parent] : -1;
+			depths[t] = depth[i];
+			
+			System.arraycopy(this.positions, i * 3, positions, t * 3, 3);
+			System.arraycopy(this.angles, i * 3, angles, t * 3, 3);
+			System.arraycopy(this.scales, i * 3, scales, t * 3, 3);
+		}
+		
+		this.size = starts[levels];
+		
+		this.nodes = nodes;
+		this.parents = parents;
+		this.depths = depths;
+		this.positions = positions;
+		this.angles = angles;
+		this.scales = scales;
+		
+		this.levelStarts = starts;
+		this.levelCount = levels;
+		
+		this.unordered = false;
+		this.dirty = true;
+	}
+	
+	/**
+	 * Calculates the world values of the nodes in the given range. The parents of these nodes must already be calculated.
+	 */
+	private void calculate(int from, int to, Mat4f rotation, EulerAnglesDeg3f orientation)
+	{
+		float[] w = this.worldMatrices;
+		float[] wr = this.worldRotations;
+		float[] ws = this.worldScales;
+		
+		float[][] r = rotation.m;
+		
+		for(int i = from; i < to; i++)
+		{
+			int i3 = i * 3;
+			int i9 = i * 9;
+			int i16 = i * 16;
+			
+			orientation.setDeg(this.angles[i3], this.angles[i3 + 1], this.angles[i3 + 2]);
+			rotation.initRotation3D(orientation);
+			
+			float sX = this.scales[i3];
+			float sY = this.scales[i3 + 1];
+			float sZ = this.scales[i3 + 2];
+			
+			// The local matrix is T * R * S.
+			float l00 = r[0][0] * sX, l01 = r[0][1] * sY, l02 = r[0][2] * sZ, l03 = this.positions[i3];
+			float l10 = r[1][0] * sX, l11 = r[1][1] * sY, l12 = r[1][2] * sZ, l13 = this.positions[i3 + 1];
+			float l20 = r[2][0] * sX, l21 = r[2][1] * sY, l22 = r[2][2] * sZ, l23 = this.positions[i3 + 2];
+			
+			int p = this.parents[i];
+			
+			if(p == -1)
+			{
+				w[i16] = l00; w[i16 + 1] = l01; w[i16 + 2] = l02; w[i16 + 3] = l03;
+				w[i16 + 4] = l10; w[i16 + 5] = l11; w[i16 + 6] = l12; w[i16 + 7] = l13;
+				w[i16 + 8] = l20; w[i16 + 9] = l21; w[i16 + 10] = l22; w[i16 + 11] = l23;
+				w[i16 + 12] = 0.0f; w[i16 + 13] = 0.0f; w[i16 + 14] = 0.0f; w[i16 + 15] = 1.0f;
+				
+				for(int row = 0; row < 3; row++)
+				{
+					wr[i9 + row * 3] = r[row][0];
+					wr[i9 + row * 3 + 1] = r[row][1];
+					wr[i9 + row * 3 + 2] = r[row][2];
+				}
+				
+				ws[i3] = sX;
+				ws[i3 + 1] = sY;
+				ws[i3 + 2] = sZ;
+				
+				continue;
+			}
+			
+			int p3 = p * 3;
+			int p9 = p * 9;
+			int p16 = p * 16;
+			
+			// world = parentWorld * local
+			for(int row = 0; row < 4; row++)
+			{
+				int o = row * 4;
+				
+				float a0 = w[p16 + o], a1 = w[p16 + o + 1], a2 = w[p16 + o + 2], a3 = w[p16 + o + 3];
+				
+				w[i16 + o] = a0 * l00 + a1 * l10 + a2 * l20;
+				w[i16 + o + 1] = a0 * l01 + a1 * l11 + a2 * l21;
+				w[i16 + o + 2] = a0 * l02 + a1 * l12 + a2 * l22;
+				w[i16 + o + 3] = a0 * l03 + a1 * l13 + a2 * l23 + a3;
+			}
+			
+			// worldRotation = parentWorldRotation * rotation
+			for(int row = 0; row < 3; row++)
+			{
+				int o = row * 3;
+				
+				float a0 = wr[p9 + o], a1 = wr[p9 + o + 1], a2 = wr[p9 + o + 2];
+				
+				wr[i9 + o] = a0 * r[0][0] + a1 * r[1][0] + a2 * r[2][0];
+				wr[i9 + o + 1] = a0 * r[0][1] + a1 * r[1][1] + a2 * r[2][1];
+				wr[i9 + o + 2] = a0 * r[0][2] + a1 * r[1][2] + a2 * r[2][2];
+			}
+			
+			ws[i3] = ws[p3] * sX;
+			ws[i3 + 1] = ws[p3 + 1] * sY;
+			ws[i3 + 2] = ws[p3 + 2] * sZ;
+		}
+	}
+	
+	private void allocate(int capacity)
+	{
+		this.nodes = new Node[capacity];
+		this.parents = new int[capacity];
+		this.depths = new int[capacity];
+		
+		this.positions = new float[capacity * 3];
+		this.angles = new float[capacity * 3];
+		this.scales = new float[capacity * 3];
+		
+		this.worldMatrices = new float[capacity * 16];
+		this.worldRotations = new float[capacity * 9];
+		this.worldScales = new float[capacity * 3];
+	}
+	
+	private void grow(int capacity)
+	{
+		this.nodes = Arrays.copyOf(this.nodes, capacity);
+		this.parents = Arrays.copyOf(this.parents, capacity);
+		this.depths = Arrays.copyOf(this.depths, capacity);
+		
+		this.positions = Arrays.copyOf(this.positions, capacity * 3);
+		this.angles = Arrays.copyOf(this.angles, capacity * 3);
+		this.scales = Arrays.copyOf(this.scales, capacity * 3);
+		
+		this.worldMatrices = Arrays.copyOf(this.worldMatrices, capacity * 16);
+		this.worldRotations = Arrays.copyOf(this.worldRotations, capacity * 9);
+		this.worldScales = Arrays.copyOf(this.worldScales, capacity * 3);
+	}
+	
+	private static class LevelTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+		
+		private final TransformHierarchy hierarchy;
+		private final int from;
+		private final int to;
+		
+		public LevelTask(TransformHierarchy hierarchy, int from, int to)
+		{
+			this.hierarchy = hierarchy;
+			this.from = from;
+			this.to = to;
+		}
+		
+		protected void compute()
+		{
+			if(this.to - this.from <= PARALLEL_THRESHOLD)
+			{
+				this.hierarchy.calculate(this.from, this.to, new Mat4f(), new EulerAnglesDeg3f());
+				
+				return;
+			}
+			
+			int mid = (this.from + this.to) >>> 1;
+			
+			invokeAll(new LevelTask(this.hierarchy, this.from, mid), new LevelTask(this.hierarchy, mid, this.to));
+		}
+	}
+	
+	/**
+	 * A handle to a node of a {@link TransformHierarchy}.
+	 * All values are read from and written to the arrays of the hirarchy.
+	 * 
+	 * @author picatrix1899
+	 */
+	public static final class Node implements HirarchicalTransform3f
+	{
+		private final TransformHierarchy hierarchy;
+		
+		private int index;
+		private boolean removed;
+		
+		private Node(TransformHierarchy hierarchy, int index)
+		{
+			this.hierarchy = hierarchy;
+			this.index = index;
+		}
+		
+		public TransformHierarchy getHierarchy()
+		{
+			return this.hierarchy;
+		}
+		
+		public Node set(Transform3f t)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(t == null) throw new ArgumentNullException("t");
+			}
+			
+			EulerAngles3fR orientation = t.getOrientation();
+			
+			return set(t.getPosition(), orientation.getPitchDeg(), orientation.getYawDeg(), orientation.getRollDeg(), t.getScale());
+		}
+		
+		public Node set(HirarchicalTransform3f t)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(t == null) throw new ArgumentNullException("t");
+			}
+			
+			EulerAngles3fR orientation = t.getRelativeOrientation();
+			
+			return set(t.getRelativePosition(), orientation.getPitchDeg(), orientation.getYawDeg(), orientation.getRollDeg(), t.getRelativeScale());
+		}
+		
+		public Node set(Tup3fR pos, EulerAngles3fR orientation, Tup3fR scale)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(pos == null) throw new ArgumentNullException("pos");
+				if(orientation == null) throw new ArgumentNullException("orientation");
+				if(scale == null) throw new ArgumentNullException("scale");
+			}
+			
+			return set(pos.getX(), pos.getY(), pos.getZ(), orientation.getPitchDeg(), orientation.getYawDeg(), orientation.getRollDeg(), scale.getX(), scale.getY(), scale.getZ());
+		}
+		
+		public Node set(float posX, float posY, float posZ, EulerAngles3fR orientation, Tup3fR scale)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(orientation == null) throw new ArgumentNullException("orientation");
+				if(scale == null) throw new ArgumentNullException("scale");
+			}
+			
+			return set(posX, posY, posZ, orientation.getPitchDeg(), orientation.getYawDeg(), orientation.getRollDeg(), scale.getX(), scale.getY(), scale.getZ());
+		}
+		
+		public Node set(Tup3fR pos, float pitch, float yaw, float roll, Tup3fR scale)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(pos == null) throw new ArgumentNullException("pos");
+				if(scale == null) throw new ArgumentNullException("scale");
+			}
+			
+			return set(pos.getX(), pos.getY(), pos.getZ(), pitch, yaw, roll, scale.getX(), scale.getY(), scale.getZ());
+		}
+		
+		public Node set(float posX, float posY, float posZ, float pitch, float yaw, float roll, Tup3fR scale)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(scale == null) throw new ArgumentNullException("scale");
+			}
+			
+			return set(posX, posY, posZ, pitch, yaw, roll, scale.getX(), scale.getY(), scale.getZ());
+		}
+		
+		public Node set(Tup3fR pos, EulerAngles3fR orientation, float scale)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(pos == null) throw new ArgumentNullException("pos");
+				if(orientation == null) throw new ArgumentNullException("orientation");
+			}
+			
+			return set(pos.getX(), pos.getY(), pos.getZ(), orientation.getPitchDeg(), orientation.getYawDeg(), orientation.getRollDeg(), scale, scale, scale);
+		}
+		
+		public Node set(float posX, float posY, float posZ, EulerAngles3fR orientation, float scale)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(orientation == null) throw new ArgumentNullException("orientation");
+			}
+			
+			return set(posX, posY, posZ, orientation.getPitchDeg(), orientation.getYawDeg(), orientation.getRollDeg(), scale, scale, scale);
+		}
+		
+		public Node set(Tup3fR pos, float pitch, float yaw, float roll, float scale)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(pos == null) throw new ArgumentNullException("pos");
+			}
+			
+			return set(pos.getX(), pos.getY(), pos.getZ(), pitch, yaw, roll, scale, scale, scale);
+		}
+		
+		public Node set(float posX, float posY, float posZ, float pitch, float yaw, float roll, float scale)
+		{
+			return set(posX, posY, posZ, pitch, yaw, roll, scale, scale, scale);
+		}
+		
+		public Node set(Tup3fR pos, EulerAngles3fR orientation, float scaleX, float scaleY, float scaleZ)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(pos == null) throw new ArgumentNullException("pos");
+				if(orientation == null) throw new ArgumentNullException("orientation");
+			}
+			
+			return set(pos.getX(), pos.getY(), pos.getZ(), orientation.getPitchDeg(), orientation.getYawDeg(), orientation.getRollDeg(), scaleX, scaleY, scaleZ);
+		}
+		
+		public Node set(float posX, float posY, float posZ, EulerAngles3fR orientation, float scaleX, float scaleY, float scaleZ)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(orientation == null) throw new ArgumentNullException("orientation");
+			}
+			
+			return set(posX, posY, posZ, orientation.getPitchDeg(), orientation.getYawDeg(), orientation.getRollDeg(), scaleX, scaleY, scaleZ);
+		}
+		
+		public Node set(Tup3fR pos, float pitch, float yaw, float roll, float scaleX, float scaleY, float scaleZ)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(pos == null) throw new ArgumentNullException("pos");
+			}
+			
+			return set(pos.getX(), pos.getY(), pos.getZ(), pitch, yaw, roll, scaleX, scaleY, scaleZ);
+		}
+		
+		public Node set(float posX, float posY, float posZ, float pitch, float yaw, float roll, float scaleX, float scaleY, float scaleZ)
+		{
+			setPosition(posX, posY, posZ);
+			setOrientation(pitch, yaw, roll);
+			setScale(scaleX, scaleY, scaleZ);
+			
+			return this;
+		}
+		
+		public Point3f getRelativePosition()
+		{
+			return getRelativePosition(new Point3f());
+		}
+		
+		public <T extends Tup3fW> T getRelativePosition(T res)
+		{
+			check();
+			
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(res == null) throw new ArgumentNullException("res");
+			}
+			
+			float[] p = this.hierarchy.positions;
+			int i = this.index * 3;
+			
+			res.set(p[i], p[i + 1], p[i + 2]);
+			
+			return res;
+		}
+		
+		public EulerAngles3fR getRelativeOrientation()
+		{
+			return getRelativeOrientation(new EulerAnglesDeg3f());
+		}
+		
+		public <T extends EulerAngles3fW> T getRelativeOrientation(T res)
+		{
+			check();
+			
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(res == null) throw new ArgumentNullException("res");
+			}
+			
+			float[] a = this.hierarchy.angles;
+			int i = this.index * 3;
+			
+			res.setDeg(a[i], a[i + 1], a[i + 2]);
+			
+			return res;
+		}
+		
+		public Vec3f getRelativeScale()
+		{
+			return getRelativeScale(new Vec3f());
+		}
+		
+		public <T extends Tup3fW> T getRelativeScale(T res)
+		{
+			check();
+			
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(res == null) throw new ArgumentNullException("res");
+			}
+			
+			float[] s = this.hierarchy.scales;
+			int i = this.index * 3;
+			
+			res.set(s[i], s[i + 1], s[i + 2]);
+			
+			return res;
+		}
+		
+		public Point3f getPosition()
+		{
+			return getPosition(new Point3f());
+		}
+		
+		public <T extends Tup3fW> T getPosition(T res)
+		{
+			check();
+			
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(res == null) throw new ArgumentNullException("res");
+			}
+			
+			this.hierarchy.validate();
+			
+			float[] w = this.hierarchy.worldMatrices;
+			int i = this.index * 16;
+			
+			res.set(w[i + 3], w[i + 7], w[i + 11]);
+			
+			return res;
+		}
+		
+		public EulerAngles3fR getOrientation()
+		{
+			return getOrientation(new EulerAnglesDeg3f());
+		}
+		
+		public <T extends EulerAngles3fW> T getOrientation(T res)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(res == null) throw new ArgumentNullException("res");
+			}
+			
+			if(!hasParent()) return getRelativeOrientation(res);
+			
+			res.set(getOrientationMatrix4f());
+			
+			return res;
+		}
+		
+		public Vec3f getScale()
+		{
+			return getScale(new Vec3f());
+		}
+		
+		public <T extends Tup3fW> T getScale(T res)
+		{
+			check();
+			
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(res == null) throw new ArgumentNullException("res");
+			}
+			
+			this.hierarchy.validate();
+			
+			float[] s = this.hierarchy.worldScales;
+			int i = this.index * 3;
+			
+			res.set(s[i], s[i + 1], s[i + 2]);
+			
+			return res;
+		}
+		
+		public Node setPosition(Tup3fR pos)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(pos == null) throw new ArgumentNullException("pos");
+			}
+			
+			return setPosition(pos.getX(), pos.getY(), pos.getZ());
+		}
+		
+		public Node setPosition(float x, float y, float z)
+		{
+			check();
+			
+			float[] p = this.hierarchy.positions;
+			int i = this.index * 3;
+			
+			p[i] = x;
+			p[i + 1] = y;
+			p[i + 2] = z;
+			
+			this.hierarchy.dirty = true;
+			
+			return this;
+		}
+		
+		public Node setPosX(float x)
+		{
+			return setComponent(this.hierarchy.positions, 0, x);
+		}
+		
+		public Node setPosY(float y)
+		{
+			return setComponent(this.hierarchy.positions, 1, y);
+		}
+		
+		public Node setPosZ(float z)
+		{
+			return setComponent(this.hierarchy.positions, 2, z);
+		}
+		
+		/**
+		 * Sets the orientation from a tuple of angles in radians, as {@link EulerAnglesDeg3f#set(Tup3fR)} does.
+		 */
+		public Node setOrientation(Tup3fR orientation)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(orientation == null) throw new ArgumentNullException("orientation");
+			}
+			
+			return setOrientation(orientation.getX() * Maths.RAD_TO_DEGf, orientation.getY() * Maths.RAD_TO_DEGf, orientation.getZ() * Maths.RAD_TO_DEGf);
+		}
+		
+		public Node setOrientation(float pitch, float yaw, float roll)
+		{
+			check();
+			
+			float[] a = this.hierarchy.angles;
+			int i = this.index * 3;
+			
+			a[i] = pitch;
+			a[i + 1] = yaw;
+			a[i + 2] = roll;
+			
+			this.hierarchy.dirty = true;
+			
+			return this;
+		}
+		
+		public Node setPitch(float pitch)
+		{
+			return setComponent(this.hierarchy.angles, 0, pitch);
+		}
+		
+		public Node setYaw(float yaw)
+		{
+			return setComponent(this.hierarchy.angles, 1, yaw);
+		}
+		
+		public Node setRoll(float roll)
+		{
+			return setComponent(this.hierarchy.angles, 2, roll);
+		}
+		
+		public Node setScale(Tup3fR scale)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(scale == null) throw new ArgumentNullException("scale");
+			}
+			
+			return setScale(scale.getX(), scale.getY(), scale.getZ());
+		}
+		
+		public Node setScale(float factor)
+		{
+			return setScale(factor, factor, factor);
+		}
+		
+		public Node setScale(float x, float y, float z)
+		{
+			check();
+			
+			float[] s = this.hierarchy.scales;
+			int i = this.index * 3;
+			
+			s[i] = x;
+			s[i + 1] = y;
+			s[i + 2] = z;
+			
+			this.hierarchy.dirty = true;
+			
+			return this;
+		}
+		
+		public Node setScaleX(float x)
+		{
+			return setComponent(this.hierarchy.scales, 0, x);
+		}
+		
+		public Node setScaleY(float y)
+		{
+			return setComponent(this.hierarchy.scales, 1, y);
+		}
+		
+		public Node setScaleZ(float z)
+		{
+			return setComponent(this.hierarchy.scales, 2, z);
+		}
+		
+		public Mat4f getTranslationMatrix4f()
+		{
+			return getTranslationMatrix4f(new Mat4f());
+		}
+		
+		public Mat4f getTranslationMatrix4f(Mat4f res)
+		{
+			check();
+			
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(res == null) throw new ArgumentNullException("res");
+			}
+			
+			this.hierarchy.validate();
+			
+			float[] w = this.hierarchy.worldMatrices;
+			int i = this.index * 16;
+			
+			return res.initTranslation3D(w[i + 3], w[i + 7], w[i + 11]);
+		}
+		
+		public Mat4f getOrientationMatrix4f()
+		{
+			return getOrientationMatrix4f(new Mat4f());
+		}
+		
+		public Mat4f getOrientationMatrix4f(Mat4f res)
+		{
+			check();
+			
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(res == null) throw new ArgumentNullException("res");
+			}
+			
+			this.hierarchy.validate();
+			
+			float[] r = this.hierarchy.worldRotations;
+			int i = this.index * 9;
+			
+			res.setRow(0, r[i], r[i + 1], r[i + 2], 0.0f);
+			res.setRow(1, r[i + 3], r[i + 4], r[i + 5], 0.0f);
+			res.setRow(2, r[i + 6], r[i + 7], r[i + 8], 0.0f);
+			res.setRow(3, 0.0f, 0.0f, 0.0f, 1.0f);
+			
+			return res;
+		}
+		
+		public Mat4f getScalingMatrix4f()
+		{
+			return getScalingMatrix4f(new Mat4f());
+		}
+		
+		public Mat4f getScalingMatrix4f(Mat4f res)
+		{
+			check();
+			
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(res == null) throw new ArgumentNullException("res");
+			}
+			
+			this.hierarchy.validate();
+			
+			float[] s = this.hierarchy.worldScales;
+			int i = this.index * 3;
+			
+			return res.initScaling3D(s[i], s[i + 1], s[i + 2]);
+		}
+		
+		public Mat4f getTransformationMatrix4f()
+		{
+			return getTransformationMatrix4f(new Mat4f());
+		}
+		
+		public Mat4f getTransformationMatrix4f(Mat4f res)
+		{
+			check();
+			
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(res == null) throw new ArgumentNullException("res");
+			}
+			
+			this.hierarchy.validate();
+			
+			float[] w = this.hierarchy.worldMatrices;
+			int i = this.index * 16;
+			
+			res.setRow(0, w[i], w[i + 1], w[i + 2], w[i + 3]);
+			res.setRow(1, w[i + 4], w[i + 5], w[i + 6], w[i + 7]);
+			res.setRow(2, w[i + 8], w[i + 9], w[i + 10], w[i + 11]);
+			res.setRow(3, w[i + 12], w[i + 13], w[i + 14], w[i + 15]);
+			
+			return res;
+		}
+		
+		public Mat4f getRelativeTranslationMatrix4f()
+		{
+			return getRelativeTranslationMatrix4f(new Mat4f());
+		}
+		
+		public Mat4f getRelativeTranslationMatrix4f(Mat4f res)
+		{
+			check();
+			
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(res == null) throw new ArgumentNullException("res");
+			}
+			
+			float[] p = this.hierarchy.positions;
+			int i = this.index * 3;
+			
+			return res.initTranslation3D(p[i], p[i + 1], p[i + 2]);
+		}
+		
+		public Mat4f getRelativeOrientationMatrix4f()
+		{
+			return getRelativeOrientationMatrix4f(new Mat4f());
+		}
+		
+		public Mat4f getRelativeOrientationMatrix4f(Mat4f res)
+		{
+			check();
+			
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(res == null) throw new ArgumentNullException("res");
+			}
+			
+			float[] a = this.hierarchy.angles;
+			int i = this.index * 3;
+			
+			return res.initRotation3D(new EulerAnglesDeg3f(a[i], a[i + 1], a[i + 2]));
+		}
+		
+		public Mat4f getRelativeScalingMatrix4f()
+		{
+			return getRelativeScalingMatrix4f(new Mat4f());
+		}
+		
+		public Mat4f getRelativeScalingMatrix4f(Mat4f res)
+		{
+			check();
+			
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(res == null) throw new ArgumentNullException("res");
+			}
+			
+			float[] s = this.hierarchy.scales;
+			int i = this.index * 3;
+			
+			return res.initScaling3D(s[i], s[i + 1], s[i + 2]);
+		}
+		
+		public Mat4f getRelativeTransformationMatrix4f()
+		{
+			return getRelativeTransformationMatrix4f(new Mat4f());
+		}
+		
+		public Mat4f getRelativeTransformationMatrix4f(Mat4f res)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(res == null) throw new ArgumentNullException("res");
+			}
+			
+			return res.initTransformMatrix3D(getRelativePosition(), getRelativeOrientation(), getRelativeScale());
+		}
+		
+		public Node getParent()
+		{
+			check();
+			
+			int parent = this.hierarchy.parents[this.index];
+			
+			return parent != -1 ? this.hierarchy.nodes[parent] : null;
+		}
+		
+		/**
+		 * Sets the parent of this node. The parent has to be a node of the same {@link TransformHierarchy}.
+		 */
+		public Node setParent(Transformable3f parent)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(parent == null) throw new ArgumentNullException("parent");
+			}
+			
+			this.hierarchy.checkNode(this);
+			
+			Transform3f transform = parent != null ? parent.getTransform() : null;
+			
+			if(transform != null && !(transform instanceof Node)) throw new IllegalArgumentException("The parent has to be a node of the same hirarchy.");
+			
+			this.hierarchy.setParent(this, (Node)transform);
+			
+			return this;
+		}
+		
+		public boolean hasParent()
+		{
+			check();
+			
+			return this.hierarchy.parents[this.index] != -1;
+		}
+		
+		public Node getTransform()
+		{
+			return this;
+		}
+		
+		public String toString()
+		{
+			return "transformHierarchy.node(position= " + getRelativePosition() + ", orientation=" + getRelativeOrientation() + ", scale=" + getRelativeScale() + ")";
+		}
+		
+		private void check()
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				this.hierarchy.checkNode(this);
+			}
+		}
+		
+		private Node setComponent(float[] values, int component, float value)
+		{
+			check();
+			
+			values[this.index * 3 + component] = value;
+			
+			this.hierarchy.dirty = true;
+			
+			return this;
+		}
+	}
+}
@@ -29,8 +29,8 @@ import org.barghos.core.tuple3.api.Tup3fR;
 import org.barghos.core.tuple3.api.Tup3fW;
 import org.barghos.core.util.Nullable;
 import org.barghos.math.point.Point3f;
+import org.barghos.math.pool.MathStack;
 import org.barghos.math.quat.Quatf;
-import org.barghos.math.quat.pool.QuatfPool;
 import org.barghos.math.utils.api.EulerAngles3fR;
 import org.barghos.math.utils.api.EulerAngles3fW;
 import org.barghos.math.utils.api.Transform3f;
@@ -72,38 +72,41 @@ public class VectorInterpolation
 		
 		if(res == null) res = new Quatf();
 		
-		q1 = q1.normal(QuatfPool.get());
-		q2 = q2.normal(QuatfPool.get());
+		try(MathStack s = MathStack.push())
+		{
+			q1 = q1.normal(s.quat());
+			q2 = q2.normal(s.quat());
 		
-		float dot = q1.dot(q2);
+			float dot = q1.dot(q2);
 		
-		if(dot < 0)
-		{
-			q1 = q1.inverse();
-			dot = -dot;
-		}
-
-		if(dot > 0.9995)
-		{
-			lerp(q1, q2, alpha, res);
-		}
-		else
-		{
-			float theta_0 = (float)Math.acos(dot);
-			float theta = theta_0 * alpha;
-			float sin_theta = (float)Math.sin(theta);
-			float sin_theta_0 = (float)Math.sin(theta_0);
+			if(dot < 0)
+			{
+				// Take the shorter path through the other hemisphere.
+				q1.negate();
+				dot = -dot;
+			}
 			
-			float s0 = (float)Math.cos(theta) - dot * sin_theta / sin_theta_0;
-			float s1 = sin_theta / sin_theta_0;
+			if(dot > 0.9995)
+			{
+				lerp(q1, q2, alpha, res);
+			}
+			else
+			{
+				float theta_0 = (float)Math.acos(dot);
+				float theta = theta_0 * alpha;
+				float sin_theta = (float)Math.sin(theta);
+				float sin_theta_0 = (float)Math.sin(theta_0);
 			
-			res.setX(q1.getX() * s0 + q2.getX() * s1);
-			res.setY(q1.getY() * s0 + q2.getY() * s1);
-			res.setZ(q1.getZ() * s0 + q2.getZ() * s1);
-			res.setW(q1.getW() * s0 + q2.getW() * s1);
-		}
+				float s0 = (float)Math.cos(theta) - dot * sin_theta / sin_theta_0;
+				float s1 = sin_theta / sin_theta_0;
+			
+				res.setX(q1.getX() * s0 + q2.getX() * s1);
+				res.setY(q1.getY() * s0 + q2.getY() * s1);
+				res.setZ(q1.getZ() * s0 + q2.getZ() * s1);
+				res.setW(q1.getW() * s0 + q2.getW() * s1);
+			}
 		
-		QuatfPool.store(q1, q2);
+		}
 		
 		return res.normal();
 	}
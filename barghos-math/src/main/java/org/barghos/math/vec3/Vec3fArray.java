@@ -0,0 +1,321 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.vec3;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.barghos.core.exception.ArgumentNullException;
+import org.barghos.core.tuple3.api.Tup3fR;
+import org.barghos.core.tuple3.api.Tup3fW;
+import org.barghos.math.BarghosMath;
+import org.barghos.math.matrix.Mat4f;
+import org.barghos.math.vec3.api.Vec3fR;
+
+/**
+ * This class represents a fixed size array of 3-dimensional float vectors stored off-heap in a direct {@link ByteBuffer}.
+ * 
+ * The vectors are addressed by a byte stride and a byte offset, so the array can be either tightly packed
+ * or a view on a single attribute of interleaved vertex data, e.g. the positions of a position-normal-uv layout.
+ * Writes go straight to the buffer, so it can be uploaded without copying.
+ * 
+ * @author picatrix1899
+ */
+public class Vec3fArray
+{
+	public static final int BYTES = 3 * Float.BYTES;
+	
+	protected final ByteBuffer buffer;
+	protected final int count;
+	protected final int stride;
+	protected final int offset;
+	
+	public Vec3fArray(int count)
+	{
+		this(ByteBuffer.allocateDirect(byteCount(count)).order(ByteOrder.nativeOrder()), count, BYTES, 0);
+	}
+	
+	/**
+	 * Uses the content of the given buffer starting at its current position as storage.
+	 * The vector i starts at the byte (offset + i * stride) relative to that position.
+	 * The byte order of the buffer is kept.
+	 */
+	public Vec3fArray(ByteBuffer buffer, int count, int stride, int offset)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(buffer == null) throw new ArgumentNullException("buffer");
+		}
+		
+		if(stride < BYTES) throw new IllegalArgumentException("The stride must be at least " + BYTES + " bytes.");
+		if(offset < 0) throw new IllegalArgumentException("The offset must not be negative.");
+		if(count < 0) throw new IllegalArgumentException("The count must not be negative.");
+		if(count > 0 && buffer.remaining() < offset + (long)(count - 1) * stride + BYTES) throw new IllegalArgumentException("The buffer is too small for " + count + " vectors.");
+		
+		this.buffer = buffer.slice().order(buffer.order());
+		this.count = count;
+		this.stride = stride;
+		this.offset = offset;
+	}
+	
+	public int count()
+	{
+		return this.count;
+	}
+	
+	public int getStride()
+	{
+		return this.stride;
+	}
+	
+	public int getOffset()
+	{
+		return this.offset;
+	}
+	
+	/**
+	 * Returns the storage. Position and limit of the returned buffer span the whole underlying region.
+	 */
+	public ByteBuffer getBuffer()
+	{
+		return this.buffer;
+	}
+	
+	public float getX(int index)
+	{
+		return this.buffer.getFloat(this.offset + index * this.stride);
+	}
+	
+	public float getY(int index)
+	{
+		return this.buffer.getFloat(this.offset + index * this.stride + 4);
+	}
+	
+	public float getZ(int index)
+	{
+		return this.buffer.getFloat(this.offset + index * this.stride + 8);
+	}
+	
+	public <T extends Tup3fW> T get(int index, T res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		int i = this.offset + index * this.stride;
+		
+		res.set(this.buffer.getFloat(i), this.buffer.getFloat(i + 4), this.buffer.getFloat(i + 8));
+		
+		return res;
+	}
+	
+	public Vec3fArray set(int index, Tup3fR t)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return set(index, t.getX(), t.getY(), t.getZ());
+	}
+	
+	public Vec3fArray set(int index, float x, float y, float z)
+	{
+		int i = this.offset + index * this.stride;
+		
+		this.buffer.putFloat(i, x).putFloat(i + 4, y).putFloat(i + 8, z);
+		
+		return this;
+	}
+	
+	/**
+	 * Copies the elements [from, to) of the given array to the elements starting at the given index of this array.
+	 * If src is this array, overlapping ranges are copied as if through a temporary copy, like {@link System#arraycopy}.
+	 * Other arrays that share the buffer of this one must not overlap the target range.
+	 */
+	public Vec3fArray set(int index, Vec3fArray src, int from, int to)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(src == null) throw new ArgumentNullException("src");
+		}
+		
+		checkRange(from, to, src.count);
+		checkRange(index, index + to - from, this.count);
+		
+		ByteBuffer sb = src.buffer;
+		ByteBuffer db = this.buffer;
+		
+		// a copy to higher indices within this array runs backwards, so that no element is overwritten before it is read.
+		boolean backwards = src == this && index > from;
+		
+		for(int k = 0; k < to - from; k++)
+		{
+			int i = backwards ? to - 1 - k : from + k;
+			
+			int s = src.offset + i * src.stride;
+			int d = this.offset + (index + i - from) * this.stride;
+			
+			db.putFloat(d, sb.getFloat(s)).putFloat(d + 4, sb.getFloat(s + 4)).putFloat(d + 8, sb.getFloat(s + 8));
+		}
+		
+		return this;
+	}
+	
+	/**
+	 * Transforms the elements [from, to) in place. The matrix cells are loaded once for the whole range.
+	 */
+	public Vec3fArray transform(int from, int to, Mat4f t, boolean useLastColumn)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		checkRange(from, to, this.count);
+		
+		float[][] m = t.m;
+		
+		float m00 = m[0][0], m01 = m[0][1], m02 = m[0][2];
+		float m10 = m[1][0], m11 = m[1][1], m12 = m[1][2];
+		float m20 = m[2][0], m21 = m[2][1], m22 = m[2][2];
+		
+		float w = useLastColumn ? 1.0f : 0.0f;
+		float tx = m[0][3] * w;
+		float ty = m[1][3] * w;
+		float tz = m[2][3] * w;
+		
+		ByteBuffer b = this.buffer;
+		
+		for(int i = from, p = this.offset + from * this.stride; i < to; i++, p += this.stride)
+		{
+			float x = b.getFloat(p), y = b.getFloat(p + 4), z = b.getFloat(p + 8);
+			
+			b.putFloat(p, m00 * x + m01 * y + m02 * z + tx);
+			b.putFloat(p + 4, m10 * x + m11 * y + m12 * z + ty);
+			b.putFloat(p + 8, m20 * x + m21 * y + m22 * z + tz);
+		}
+		
+		return this;
+	}
+	
+	public Cursor cursor()
+	{
+		return new Cursor(this);
+	}
+	
+	public Cursor cursor(int index)
+	{
+		return new Cursor(this).at(index);
+	}
+	
+	/**
+	 * Returns the number of bytes of count tightly packed vectors.
+	 */
+	private static int byteCount(int count)
+	{
+		if(count < 0 || count > Integer.MAX_VALUE / BYTES) throw new IllegalArgumentException("The count must be between 0 and " + Integer.MAX_VALUE / BYTES + ".");
+		
+		return count * BYTES;
+	}
+	
+	private static void checkRange(int from, int to, int count)
+	{
+		if(from < 0 || to > count || from > to) throw new IndexOutOfBoundsException("[" + from + ", " + to + ") is out of bounds for " + count + " elements.");
+	}
+	
+	/**
+	 * A movable view on a single element of a {@link Vec3fArray}.
+	 * 
+	 * @author picatrix1899
+	 */
+	public static class Cursor implements Vec3fR
+	{
+		private final Vec3fArray array;
+		private int index;
+		
+		public Cursor(Vec3fArray array)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(array == null) throw new ArgumentNullException("array");
+			}
+			
+			this.array = array;
+		}
+		
+		public Cursor at(int index)
+		{
+			this.index = index;
+			
+			return this;
+		}
+		
+		public int getIndex()
+		{
+			return this.index;
+		}
+		
+		public Vec3fArray getArray()
+		{
+			return this.array;
+		}
+		
+		public float getX()
+		{
+			return this.array.getX(this.index);
+		}
+		
+		public float getY()
+		{
+			return this.array.getY(this.index);
+		}
+		
+		public float getZ()
+		{
+			return this.array.getZ(this.index);
+		}
+		
+		public Cursor set(Tup3fR t)
+		{
+			this.array.set(this.index, t);
+			
+			return this;
+		}
+		
+		public Cursor set(float x, float y, float z)
+		{
+			this.array.set(this.index, x, y, z);
+			
+			return this;
+		}
+		
+		public String toString()
+		{
+			return "vec3(" + getX() + ", " + getY() + ", " + getZ() + ")";
+		}
+	}
+}
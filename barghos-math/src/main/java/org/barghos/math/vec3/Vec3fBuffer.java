@@ -0,0 +1,759 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.vec3;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.barghos.core.exception.ArgumentNullException;
+import org.barghos.core.tuple3.api.Tup3fR;
+import org.barghos.core.tuple3.api.Tup3fW;
+import org.barghos.math.BarghosMath;
+import org.barghos.math.matrix.Mat4f;
+import org.barghos.math.vec3.api.Vec3fR;
+
+/**
+ * This class represents a growable list of 3-dimensional float vectors stored in primitive arrays
+ * instead of single {@link Vec3f} objects.
+ * 
+ * The vectors are either stored as structure of arrays with one array per component ({@link Layout#SOA}),
+ * or interleaved as packed xyz tuples in a single array ({@link Layout#INTERLEAVED}).
+ * The range kernels work on the elements [from, to) and have a unit stride fast path if all participating
+ * buffers use the structure of arrays layout. Operands and result may be the same buffer.
+ * 
+ * A {@link Cursor} can be used to pass a single element to APIs that expect a {@link Vec3fR} without copying it.
+ * 
+ * @author picatrix1899
+ */
+public class Vec3fBuffer
+{
+	public enum Layout
+	{
+		SOA,
+		INTERLEAVED
+	}
+	
+	protected final Layout layout;
+	
+	/*
+	 * Component c of element i is stored at c[i * stride + offsetC].
+	 * In the interleaved layout all three component arrays reference the same array.
+	 */
+	protected float[] x;
+	protected float[] y;
+	protected float[] z;
+	
+	protected final int stride;
+	protected final int offsetY;
+	protected final int offsetZ;
+	
+	protected int size;
+	
+	public Vec3fBuffer(int capacity)
+	{
+		this(Layout.SOA, capacity);
+	}
+	
+	public Vec3fBuffer(Layout layout, int capacity)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(layout == null) throw new ArgumentNullException("layout");
+		}
+		
+		this.layout = layout;
+		
+		if(layout == Layout.SOA)
+		{
+			this.stride = 1;
+			this.offsetY = 0;
+			this.offsetZ = 0;
+		}
+		else
+		{
+			this.stride = 3;
+			this.offsetY = 1;
+			this.offsetZ = 2;
+		}
+		
+		allocate(capacity);
+	}
+	
+	public Layout getLayout()
+	{
+		return this.layout;
+	}
+	
+	public int size()
+	{
+		return this.size;
+	}
+	
+	public int capacity()
+	{
+		return this.x.length / this.stride;
+	}
+	
+	/**
+	 * Sets the number of elements. New elements are zero if the buffer grows.
+	 */
+	public Vec3fBuffer setSize(int size)
+	{
+		ensureCapacity(size);
+		
+		if(size > this.size)
+		{
+			fill(this.size, size, 0.0f, 0.0f, 0.0f);
+		}
+		
+		this.size = size;
+		
+		return this;
+	}
+	
+	public Vec3fBuffer clear()
+	{
+		this.size = 0;
+		
+		return this;
+	}
+	
+	public Vec3fBuffer ensureCapacity(int capacity)
+	{
+		int current = capacity();
+		
+		if(capacity > current)
+		{
+			allocate(Math.max(capacity, current * 2));
+		}
+		
+		return this;
+	}
+	
+	private void allocate(int capacity)
+	{
+		if(this.layout == Layout.SOA)
+		{
+			this.x = this.x == null ? new float[capacity] : Arrays.copyOf(this.x, capacity);
+			this.y = this.y == null ? new float[capacity] : Arrays.copyOf(this.y, capacity);
+			this.z = this.z == null ? new float[capacity] : Arrays.copyOf(this.z, capacity);
+		}
+		else
+		{
+			float[] data = this.x == null ? new float[capacity * 3] : Arrays.copyOf(this.x, capacity * 3);
+			
+			this.x = data;
+			this.y = data;
+			this.z = data;
+		}
+	}
+	
+	/**
+	 * Returns the array holding the x components, or all components in the interleaved layout.
+	 * The array is replaced if the buffer grows.
+	 */
+	public float[] getArrayX()
+	{
+		return this.x;
+	}
+	
+	public float[] getArrayY()
+	{
+		return this.y;
+	}
+	
+	public float[] getArrayZ()
+	{
+		return this.z;
+	}
+	
+	/**
+	 * Appends a vector and returns its index.
+	 */
+	public int add(float x, float y, float z)
+	{
+		ensureCapacity(this.size + 1);
+		
+		int index = this.size++;
+		
+		set(index, x, y, z);
+		
+		return index;
+	}
+	
+	public int add(Tup3fR t)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return add(t.getX(), t.getY(), t.getZ());
+	}
+	
+	public float getX(int index)
+	{
+		return this.x[index * this.stride];
+	}
+	
+	public float getY(int index)
+	{
+		return this.y[index * this.stride + this.offsetY];
+	}
+	
+	public float getZ(int index)
+	{
+		return this.z[index * this.stride + this.offsetZ];
+	}
+	
+	public <T extends Tup3fW> T get(int index, T res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(res == null) throw new ArgumentNullException("res");
+			
+			Objects.checkIndex(index, this.size);
+		}
+		
+		int i = index * this.stride;
+		
+		res.set(this.x[i], this.y[i + this.offsetY], this.z[i + this.offsetZ]);
+		
+		return res;
+	}
+	
+	public Vec3fBuffer set(int index, Tup3fR t)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return set(index, t.getX(), t.getY(), t.getZ());
+	}
+	
+	public Vec3fBuffer set(int index, float x, float y, float z)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			Objects.checkIndex(index, this.size);
+		}
+		
+		int i = index * this.stride;
+		
+		this.x[i] = x;
+		this.y[i + this.offsetY] = y;
+		this.z[i + this.offsetZ] = z;
+		
+		return this;
+	}
+	
+	public Vec3fBuffer fill(int from, int to, float x, float y, float z)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			Objects.checkFromToIndex(from, to, capacity());
+		}
+		
+		int s = this.stride, oy = this.offsetY, oz = this.offsetZ;
+		
+		for(int i = from; i < to; i++)
+		{
+			int j = i * s;
+			
+			this.x[j] = x;
+			this.y[j + oy] = y;
+			this.z[j + oz] = z;
+		}
+		
+		return this;
+	}
+	
+	/**
+	 * res[i] = this[i] + b[i]
+	 */
+	public Vec3fBuffer add(int from, int to, Vec3fBuffer b, Vec3fBuffer res)
+	{
+		checkRange(from, to, b, res);
+		
+		float[] ax = this.x, ay = this.y, az = this.z;
+		float[] bx = b.x, by = b.y, bz = b.z;
+		float[] rx = res.x, ry = res.y, rz = res.z;
+		
+		if(isSoA(b, res))
+		{
+			for(int i = from; i < to; i++)
+			{
+				rx[i] = ax[i] + bx[i];
+				ry[i] = ay[i] + by[i];
+				rz[i] = az[i] + bz[i];
+			}
+		}
+		else
+		{
+			int as = this.stride, aoy = this.offsetY, aoz = this.offsetZ;
+			int bs = b.stride, boy = b.offsetY, boz = b.offsetZ;
+			int rs = res.stride, roy = res.offsetY, roz = res.offsetZ;
+			
+			for(int i = from; i < to; i++)
+			{
+				int a = i * as, c = i * bs, r = i * rs;
+				
+				rx[r] = ax[a] + bx[c];
+				ry[r + roy] = ay[a + aoy] + by[c + boy];
+				rz[r + roz] = az[a + aoz] + bz[c + boz];
+			}
+		}
+		
+		return res;
+	}
+	
+	/**
+	 * res[i] = this[i] + t
+	 */
+	public Vec3fBuffer add(int from, int to, Tup3fR t, Vec3fBuffer res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return fma(from, to, 1.0f, t.getX(), t.getY(), t.getZ(), res);
+	}
+	
+	/**
+	 * res[i] = this[i] - b[i]
+	 */
+	public Vec3fBuffer sub(int from, int to, Vec3fBuffer b, Vec3fBuffer res)
+	{
+		checkRange(from, to, b, res);
+		
+		float[] ax = this.x, ay = this.y, az = this.z;
+		float[] bx = b.x, by = b.y, bz = b.z;
+		float[] rx = res.x, ry = res.y, rz = res.z;
+		
+		if(isSoA(b, res))
+		{
+			for(int i = from; i < to; i++)
+			{
+				rx[i] = ax[i] - bx[i];
+				ry[i] = ay[i] - by[i];
+				rz[i] = az[i] - bz[i];
+			}
+		}
+		else
+		{
+			int as = this.stride, aoy = this.offsetY, aoz = this.offsetZ;
+			int bs = b.stride, boy = b.offsetY, boz = b.offsetZ;
+			int rs = res.stride, roy = res.offsetY, roz = res.offsetZ;
+			
+			for(int i = from; i < to; i++)
+			{
+				int a = i * as, c = i * bs, r = i * rs;
+				
+				rx[r] = ax[a] - bx[c];
+				ry[r + roy] = ay[a + aoy] - by[c + boy];
+				rz[r + roz] = az[a + aoz] - bz[c + boz];
+			}
+		}
+		
+		return res;
+	}
+	
+	/**
+	 * res[i] = this[i] - t
+	 */
+	public Vec3fBuffer sub(int from, int to, Tup3fR t, Vec3fBuffer res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		return fma(from, to, 1.0f, -t.getX(), -t.getY(), -t.getZ(), res);
+	}
+	
+	/**
+	 * res[i] = this[i] * scalar
+	 */
+	public Vec3fBuffer scale(int from, int to, float scalar, Vec3fBuffer res)
+	{
+		return fma(from, to, scalar, 0.0f, 0.0f, 0.0f, res);
+	}
+	
+	/**
+	 * res[i] = this[i] * scalar + (x, y, z)
+	 */
+	private Vec3fBuffer fma(int from, int to, float scalar, float x, float y, float z, Vec3fBuffer res)
+	{
+		checkRange(from, to, this, res);
+		
+		float[] ax = this.x, ay = this.y, az = this.z;
+		float[] rx = res.x, ry = res.y, rz = res.z;
+		
+		if(isSoA(this, res))
+		{
+			for(int i = from; i < to; i++)
+			{
+				rx[i] = ax[i] * scalar + x;
+				ry[i] = ay[i] * scalar + y;
+				rz[i] = az[i] * scalar + z;
+			}
+		}
+		else
+		{
+			int as = this.stride, aoy = this.offsetY, aoz = this.offsetZ;
+			int rs = res.stride, roy = res.offsetY, roz = res.offsetZ;
+			
+			for(int i = from; i < to; i++)
+			{
+				int a = i * as, r = i * rs;
+				
+				rx[r] = ax[a] * scalar + x;
+				ry[r + roy] = ay[a + aoy] * scalar + y;
+				rz[r + roz] = az[a + aoz] * scalar + z;
+			}
+		}
+		
+		return res;
+	}
+	
+	/**
+	 * res[i - from + resOffset] = dot(this[i], b[i])
+	 */
+	public float[] dot(int from, int to, Vec3fBuffer b, float[] res, int resOffset)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(res == null) throw new ArgumentNullException("res");
+		}
+		
+		checkRange(from, to, b, this);
+		
+		float[] ax = this.x, ay = this.y, az = this.z;
+		float[] bx = b.x, by = b.y, bz = b.z;
+		
+		int shift = resOffset - from;
+		
+		if(isSoA(b, this))
+		{
+			for(int i = from; i < to; i++)
+			{
+				res[i + shift] = ax[i] * bx[i] + ay[i] * by[i] + az[i] * bz[i];
+			}
+		}
+		else
+		{
+			int as = this.stride, aoy = this.offsetY, aoz = this.offsetZ;
+			int bs = b.stride, boy = b.offsetY, boz = b.offsetZ;
+			
+			for(int i = from; i < to; i++)
+			{
+				int a = i * as, c = i * bs;
+				
+				res[i + shift] = ax[a] * bx[c] + ay[a + aoy] * by[c + boy] + az[a + aoz] * bz[c + boz];
+			}
+		}
+		
+		return res;
+	}
+	
+	/**
+	 * res[i] = cross(this[i], b[i])
+	 */
+	public Vec3fBuffer cross(int from, int to, Vec3fBuffer b, Vec3fBuffer res)
+	{
+		checkRange(from, to, b, res);
+		
+		float[] ax = this.x, ay = this.y, az = this.z;
+		float[] bx = b.x, by = b.y, bz = b.z;
+		float[] rx = res.x, ry = res.y, rz = res.z;
+		
+		if(isSoA(b, res))
+		{
+			for(int i = from; i < to; i++)
+			{
+				float x1 = ax[i], y1 = ay[i], z1 = az[i];
+				float x2 = bx[i], y2 = by[i], z2 = bz[i];
+				
+				rx[i] = y1 * z2 - z1 * y2;
+				ry[i] = z1 * x2 - x1 * z2;
+				rz[i] = x1 * y2 - y1 * x2;
+			}
+		}
+		else
+		{
+			int as = this.stride, aoy = this.offsetY, aoz = this.offsetZ;
+			int bs = b.stride, boy = b.offsetY, boz = b.offsetZ;
+			int rs = res.stride, roy = res.offsetY, roz = res.offsetZ;
+			
+			for(int i = from; i < to; i++)
+			{
+				int a = i * as, c = i * bs, r = i * rs;
+				
+				float x1 = ax[a], y1 = ay[a + aoy], z1 = az[a + aoz];
+				float x2 = bx[c], y2 = by[c + boy], z2 = bz[c + boz];
+				
+				rx[r] = y1 * z2 - z1 * y2;
+				ry[r + roy] = z1 * x2 - x1 * z2;
+				rz[r + roz] = x1 * y2 - y1 * x2;
+			}
+		}
+		
+		return res;
+	}
+	
+	/**
+	 * res[i] = normal(this[i]). Vectors of length zero stay zero.
+	 */
+	public Vec3fBuffer normal(int from, int to, Vec3fBuffer res)
+	{
+		checkRange(from, to, this, res);
+		
+		float[] ax = this.x, ay = this.y, az = this.z;
+		float[] rx = res.x, ry = res.y, rz = res.z;
+		
+		if(isSoA(this, res))
+		{
+			for(int i = from; i < to; i++)
+			{
+				float x = ax[i], y = ay[i], z = az[i];
+				float sq = x * x + y * y + z * z;
+				float f = sq > 0.0f ? 1.0f / (float)Math.sqrt(sq) : 0.0f;
+				
+				rx[i] = x * f;
+				ry[i] = y * f;
+				rz[i] = z * f;
+			}
+		}
+		else
+		{
+			int as = this.stride, aoy = this.offsetY, aoz = this.offsetZ;
+			int rs = res.stride, roy = res.offsetY, roz = res.offsetZ;
+			
+			for(int i = from; i < to; i++)
+			{
+				int a = i * as, r = i * rs;
+				
+				float x = ax[a], y = ay[a + aoy], z = az[a + aoz];
+				float sq = x * x + y * y + z * z;
+				float f = sq > 0.0f ? 1.0f / (float)Math.sqrt(sq) : 0.0f;
+				
+				rx[r] = x * f;
+				ry[r + roy] = y * f;
+				rz[r + roz] = z * f;
+			}
+		}
+		
+		return res;
+	}
+	
+	/**
+	 * res[i] = this[i] + (b[i] - this[i]) * alpha
+	 */
+	public Vec3fBuffer lerp(int from, int to, Vec3fBuffer b, float alpha, Vec3fBuffer res)
+	{
+		checkRange(from, to, b, res);
+		
+		float[] ax = this.x, ay = this.y, az = this.z;
+		float[] bx = b.x, by = b.y, bz = b.z;
+		float[] rx = res.x, ry = res.y, rz = res.z;
+		
+		if(isSoA(b, res))
+		{
+			for(int i = from; i < to; i++)
+			{
+				rx[i] = ax[i] + (bx[i] - ax[i]) * alpha;
+				ry[i] = ay[i] + (by[i] - ay[i]) * alpha;
+				rz[i] = az[i] + (bz[i] - az[i]) * alpha;
+			}
+		}
+		else
+		{
+			int as = this.stride, aoy = this.offsetY, aoz = this.offsetZ;
+			int bs = b.stride, boy = b.offsetY, boz = b.offsetZ;
+			int rs = res.stride, roy = res.offsetY, roz = res.offsetZ;
+			
+			for(int i = from; i < to; i++)
+			{
+				int a = i * as, c = i * bs, r = i * rs;
+				
+				float x = ax[a], y = ay[a + aoy], z = az[a + aoz];
+				
+				rx[r] = x + (bx[c] - x) * alpha;
+				ry[r + roy] = y + (by[c + boy] - y) * alpha;
+				rz[r + roz] = z + (bz[c + boz] - z) * alpha;
+			}
+		}
+		
+		return res;
+	}
+	
+	/**
+	 * Transforms the elements [from, to) in place as points (w = 1) or directions (w = 0).
+	 * The interleaved layout is handed to the packed transform of {@link Mat4f}.
+	 */
+	public Vec3fBuffer transform(int from, int to, Mat4f t, boolean useLastColumn)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(t == null) throw new ArgumentNullException("t");
+		}
+		
+		checkRange(from, to, this, this);
+		
+		if(this.layout == Layout.INTERLEAVED)
+		{
+			t.transform(this.x, from * 3, to - from, useLastColumn);
+			
+			return this;
+		}
+		
+		float[][] m = t.m;
+		
+		float m00 = m[0][0], m01 = m[0][1], m02 = m[0][2];
+		float m10 = m[1][0], m11 = m[1][1], m12 = m[1][2];
+		float m20 = m[2][0], m21 = m[2][1], m22 = m[2][2];
+		
+		float w = useLastColumn ? 1.0f : 0.0f;
+		float tx = m[0][3] * w;
+		float ty = m[1][3] * w;
+		float tz = m[2][3] * w;
+		
+		float[] ax = this.x, ay = this.y, az = this.z;
+		
+		for(int i = from; i < to; i++)
+		{
+			float x = ax[i], y = ay[i], z = az[i];
+			
+			ax[i] = m00 * x + m01 * y + m02 * z + tx;
+			ay[i] = m10 * x + m11 * y + m12 * z + ty;
+			az[i] = m20 * x + m21 * y + m22 * z + tz;
+		}
+		
+		return this;
+	}
+	
+	public Cursor cursor()
+	{
+		return new Cursor(this);
+	}
+	
+	public Cursor cursor(int index)
+	{
+		return new Cursor(this).at(index);
+	}
+	
+	private boolean isSoA(Vec3fBuffer b, Vec3fBuffer res)
+	{
+		return this.stride == 1 && b.stride == 1 && res.stride == 1;
+	}
+	
+	private void checkRange(int from, int to, Vec3fBuffer b, Vec3fBuffer res)
+	{
+		if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+		{
+			if(b == null) throw new ArgumentNullException("b");
+			if(res == null) throw new ArgumentNullException("res");
+			
+			Objects.checkFromToIndex(from, to, this.size);
+			Objects.checkFromToIndex(from, to, b.size);
+			Objects.checkFromToIndex(from, to, res.size);
+		}
+	}
+	
+	/**
+	 * A movable view on a single element of a {@link Vec3fBuffer}.
+	 * It always reflects the current content of the element it points at and can be reused for any index.
+	 * 
+	 * @author picatrix1899
+	 */
+	public static class Cursor implements Vec3fR
+	{
+		private final Vec3fBuffer buffer;
+		private int index;
+		
+		public Cursor(Vec3fBuffer buffer)
+		{
+			if(BarghosMath.BUILD_FLAG__PARAMETER_CHECKS)
+			{
+				if(buffer == null) throw new ArgumentNullException("buffer");
+			}
+			
+			this.buffer = buffer;
+		}
+		
+		public Cursor at(int index)
+		{
+			this.index = index;
+			
+			return this;
+		}
+		
+		public int getIndex()
+		{
+			return this.index;
+		}
+		
+		public Vec3fBuffer getBuffer()
+		{
+			return this.buffer;
+		}
+		
+		public float getX()
+		{
+			return this.buffer.getX(this.index);
+		}
+		
+		public float getY()
+		{
+			return this.buffer.getY(this.index);
+		}
+		
+		public float getZ()
+		{
+			return this.buffer.getZ(this.index);
+		}
+		
+		public Cursor set(Tup3fR t)
+		{
+			this.buffer.set(this.index, t);
+			
+			return this;
+		}
+		
+		public Cursor set(float x, float y, float z)
+		{
+			this.buffer.set(this.index, x, y, z);
+			
+			return this;
+		}
+		
+		public String toString()
+		{
+			return "vec3(" + getX() + ", " + getY() + ", " + getZ() + ")";
+		}
+	}
+}
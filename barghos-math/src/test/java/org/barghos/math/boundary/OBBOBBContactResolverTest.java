@@ -0,0 +1,168 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.boundary;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import org.barghos.math.matrix.Mat4f;
+import org.barghos.math.point.Point3f;
+import org.barghos.math.vec3.Vec3f;
+
+/**
+ * @author picatrix1899
+ */
+class OBBOBBContactResolverTest
+{
+	private static final int SAMPLES = 100000;
+	
+	/**
+	 * The distance b is moved beyond the minimum translation vector when checking that it separates the boxes.
+	 */
+	private static final float SEPARATION_EPSILON = 1.0e-3f;
+	
+	@Test
+	void intersectionMatchesIntersectionTest()
+	{
+		Random rnd = new Random(RandomOBBs.SEED);
+		ContactManifold3f manifold = new ContactManifold3f();
+		
+		int mismatches = 0;
+		
+		for(int i = 0; i < SAMPLES; i++)
+		{
+			OBB3f a = RandomOBBs.next(rnd);
+			OBB3f b = RandomOBBs.next(rnd);
+			
+			if(OBBOBBContactResolver.cOBBOBB3f(a, b, manifold) != OBBOBBResolver.iOBBOBB3f(a, b)) mismatches++;
+		}
+		
+		assertEquals(0, mismatches);
+	}
+	
+	@Test
+	void separatedBoxesClearTheManifold()
+	{
+		Random rnd = new Random(RandomOBBs.SEED);
+		ContactManifold3f manifold = new ContactManifold3f();
+		
+		for(int i = 0; i < SAMPLES; i++)
+		{
+			OBB3f a = RandomOBBs.next(rnd);
+			OBB3f b = RandomOBBs.next(rnd);
+			
+			if(!OBBOBBContactResolver.cOBBOBB3f(a, b, manifold))
+			{
+				assertEquals(0, manifold.getPointCount());
+			}
+		}
+	}
+	
+	@Test
+	void intersectingPairsHaveOneToFourPoints()
+	{
+		Random rnd = new Random(RandomOBBs.SEED);
+		ContactManifold3f manifold = new ContactManifold3f();
+		
+		int intersecting = 0;
+		
+		for(int i = 0; i < SAMPLES; i++)
+		{
+			OBB3f a = RandomOBBs.next(rnd);
+			OBB3f b = RandomOBBs.next(rnd);
+			
+			if(!OBBOBBContactResolver.cOBBOBB3f(a, b, manifold)) continue;
+			
+			intersecting++;
+			
+			int count = manifold.getPointCount();
+			
+			assertTrue(count > 0 && count <= 4, "point count " + count + " for " + a + " and " + b);
+		}
+		
+		assertTrue(intersecting > SAMPLES / 10);
+	}
+	
+	@Test
+	void minimumTranslationSeparatesTheBoxes()
+	{
+		Random rnd = new Random(RandomOBBs.SEED);
+		ContactManifold3f manifold = new ContactManifold3f();
+		Vec3f mtv = new Vec3f();
+		Vec3f normal = new Vec3f();
+		Point3f center = new Point3f();
+		
+		int intersecting = 0;
+		int failures = 0;
+		
+		for(int i = 0; i < SAMPLES; i++)
+		{
+			OBB3f a = RandomOBBs.next(rnd);
+			OBB3f b = RandomOBBs.next(rnd);
+			
+			if(!OBBOBBContactResolver.cOBBOBB3f(a, b, manifold)) continue;
+			
+			intersecting++;
+			
+			// the normal points from a to b, so moving b by the minimum translation vector pushes it out of a.
+			manifold.getMTV(mtv);
+			manifold.getNormal(normal);
+			b.getCenter(center);
+			
+			b.setCenter(center.getX() + mtv.getX() + normal.getX() * SEPARATION_EPSILON,
+				center.getY() + mtv.getY() + normal.getY() * SEPARATION_EPSILON,
+				center.getZ() + mtv.getZ() + normal.getZ() * SEPARATION_EPSILON);
+			
+			if(OBBOBBResolver.iOBBOBB3f(a, b)) failures++;
+		}
+		
+		assertEquals(0, failures);
+		assertTrue(intersecting > SAMPLES / 10);
+	}
+	
+	@Test
+	void stackedBoxesHaveFourFaceContacts()
+	{
+		OBB3f a = new OBB3f(0.0f, 0.0f, 0.0f, 1.0f, 1.0f, 1.0f, Mat4f.identity());
+		OBB3f b = new OBB3f(0.0f, 1.9f, 0.0f, 1.0f, 1.0f, 1.0f, Mat4f.identity());
+		
+		ContactManifold3f manifold = new ContactManifold3f();
+		Vec3f normal = new Vec3f();
+		
+		assertTrue(OBBOBBContactResolver.cOBBOBB3f(a, b, manifold));
+		
+		manifold.getNormal(normal);
+		
+		assertEquals(0.0f, normal.getX(), 1.0e-6f);
+		assertEquals(1.0f, normal.getY(), 1.0e-6f);
+		assertEquals(0.0f, normal.getZ(), 1.0e-6f);
+		assertEquals(0.1f, manifold.getDepth(), 1.0e-5f);
+		assertEquals(4, manifold.getPointCount());
+	}
+}
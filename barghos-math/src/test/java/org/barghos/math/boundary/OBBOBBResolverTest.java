@@ -0,0 +1,101 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.boundary;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import org.barghos.math.matrix.Mat4f;
+import org.barghos.math.vec3.Vec3fAxis;
+
+/**
+ * @author picatrix1899
+ */
+class OBBOBBResolverTest
+{
+	private static final int SAMPLES = 200000;
+	
+	/**
+	 * Pairs whose separation or overlap is within this distance are skipped, the float test may go either way for them.
+	 */
+	private static final double TOLERANCE = 1.0e-4;
+	
+	@Test
+	void intersectionMatchesBruteForceProjection()
+	{
+		Random rnd = new Random(RandomOBBs.SEED);
+		
+		int intersecting = 0;
+		int mismatches = 0;
+		
+		for(int i = 0; i < SAMPLES; i++)
+		{
+			OBB3f a = RandomOBBs.next(rnd);
+			OBB3f b = RandomOBBs.next(rnd);
+			
+			double separation = RandomOBBs.separation(a, b);
+			
+			if(Math.abs(separation) <= TOLERANCE) continue;
+			
+			boolean expected = separation < 0.0;
+			
+			if(expected) intersecting++;
+			
+			if(OBBOBBResolver.iOBBOBB3f(a, b) != expected) mismatches++;
+		}
+		
+		assertEquals(0, mismatches);
+		
+		// both outcomes have to be covered for the comparison to mean anything.
+		assertTrue(intersecting > SAMPLES / 10);
+		assertTrue(intersecting < SAMPLES - SAMPLES / 10);
+	}
+	
+	@Test
+	void edgeAxisSeparatesBoxesThatOverlapOnAllFaceAxes()
+	{
+		// a is turned about z and b about x, so the world y axis is the cross product of an edge of each.
+		// Both reach about 1.41 along y, so a gap of about 0.17 remains, while all six face axes overlap.
+		OBB3f a = new OBB3f(0.0f, 0.0f, 0.0f, 1.0f, 1.0f, 1.0f, Mat4f.rotation3D(Vec3fAxis.AXIS_Z, 45.0f));
+		OBB3f b = new OBB3f(0.0f, 3.0f, 0.0f, 1.0f, 1.0f, 1.0f, Mat4f.rotation3D(Vec3fAxis.AXIS_X, 45.0f));
+		
+		assertTrue(RandomOBBs.separation(a, b) > TOLERANCE);
+		assertFalse(OBBOBBResolver.iOBBOBB3f(a, b));
+	}
+	
+	@Test
+	void touchingBoxesIntersect()
+	{
+		OBB3f a = new OBB3f(0.0f, 0.0f, 0.0f, 1.0f, 1.0f, 1.0f, Mat4f.identity());
+		OBB3f b = new OBB3f(2.0f, 0.0f, 0.0f, 1.0f, 1.0f, 1.0f, Mat4f.identity());
+		
+		assertTrue(OBBOBBResolver.iOBBOBB3f(a, b));
+	}
+}
@@ -0,0 +1,156 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.boundary;
+
+import java.util.Random;
+
+import org.barghos.math.matrix.Mat4f;
+import org.barghos.math.vec3.Vec3f;
+
+/**
+ * Random boxes for the resolver tests. The boxes have half extends between 0.25 and 1.25 and their centers lie
+ * within [-2, 2] on every axis, so about a third of all pairs intersect.
+ * 
+ * @author picatrix1899
+ */
+final class RandomOBBs
+{
+	static final long SEED = 0x5EED_0BB0L;
+	
+	private RandomOBBs() { }
+	
+	static OBB3f next(Random rnd)
+	{
+		Vec3f axis;
+		
+		do
+		{
+			axis = new Vec3f(rnd.nextFloat() * 2.0f - 1.0f, rnd.nextFloat() * 2.0f - 1.0f, rnd.nextFloat() * 2.0f - 1.0f);
+		}
+		while(axis.squaredLength() < 0.01f);
+		
+		Mat4f rotation = Mat4f.rotation3D(axis.normal(), rnd.nextFloat() * 360.0f);
+		
+		float x = (rnd.nextFloat() * 2.0f - 1.0f) * 2.0f;
+		float y = (rnd.nextFloat() * 2.0f - 1.0f) * 2.0f;
+		float z = (rnd.nextFloat() * 2.0f - 1.0f) * 2.0f;
+		
+		return new OBB3f(x, y, z, 0.25f + rnd.nextFloat(), 0.25f + rnd.nextFloat(), 0.25f + rnd.nextFloat(), rotation);
+	}
+	
+	/**
+	 * Returns the largest gap between the projections of the two boxes over all 15 candidate axes of the separating axis theorem,
+	 * calculated in double precision from the eight corners of each box.
+	 * A positive value means the boxes are separated by at least that distance, otherwise they intersect.
+	 */
+	static double separation(OBB3f a, OBB3f b)
+	{
+		double[][] ua = axes(a);
+		double[][] ub = axes(b);
+		
+		double[][] ca = corners(a, ua);
+		double[][] cb = corners(b, ub);
+		
+		double[][] candidates = new double[15][];
+		
+		for(int i = 0; i < 3; i++)
+		{
+			candidates[i] = ua[i];
+			candidates[3 + i] = ub[i];
+			
+			for(int j = 0; j < 3; j++)
+			{
+				double[] u = ua[i];
+				double[] v = ub[j];
+				
+				candidates[6 + i * 3 + j] = new double[] { u[1] * v[2] - u[2] * v[1], u[2] * v[0] - u[0] * v[2], u[0] * v[1] - u[1] * v[0] };
+			}
+		}
+		
+		double separation = Double.NEGATIVE_INFINITY;
+		
+		for(double[] axis : candidates)
+		{
+			double length = Math.sqrt(axis[0] * axis[0] + axis[1] * axis[1] + axis[2] * axis[2]);
+			
+			// parallel edges, the face axes already cover this direction.
+			if(length < 1.0e-9) continue;
+			
+			double minA = Double.POSITIVE_INFINITY, maxA = Double.NEGATIVE_INFINITY;
+			double minB = Double.POSITIVE_INFINITY, maxB = Double.NEGATIVE_INFINITY;
+			
+			for(int k = 0; k < 8; k++)
+			{
+				double pa = (ca[k][0] * axis[0] + ca[k][1] * axis[1] + ca[k][2] * axis[2]) / length;
+				double pb = (cb[k][0] * axis[0] + cb[k][1] * axis[1] + cb[k][2] * axis[2]) / length;
+				
+				minA = Math.min(minA, pa);
+				maxA = Math.max(maxA, pa);
+				minB = Math.min(minB, pb);
+				maxB = Math.max(maxB, pb);
+			}
+			
+			separation = Math.max(separation, Math.max(minB - maxA, minA - maxB));
+		}
+		
+		return separation;
+	}
+	
+	private static double[][] axes(OBB3f obb)
+	{
+		double[][] axes = new double[3][];
+		
+		for(int i = 0; i < 3; i++)
+		{
+			Vec3f axis = obb.getAxis(i, null);
+			
+			axes[i] = new double[] { axis.getX(), axis.getY(), axis.getZ() };
+		}
+		
+		return axes;
+	}
+	
+	private static double[][] corners(OBB3f obb, double[][] axes)
+	{
+		Vec3f e = obb.getHalfExtend();
+		Vec3f center = obb.getCenter((Vec3f)null);
+		
+		double[] c = { center.getX(), center.getY(), center.getZ() };
+		
+		double[][] corners = new double[8][3];
+		
+		for(int k = 0; k < 8; k++)
+		{
+			double sx = (k & 1) == 0 ? -e.getX() : e.getX();
+			double sy = (k & 2) == 0 ? -e.getY() : e.getY();
+			double sz = (k & 4) == 0 ? -e.getZ() : e.getZ();
+			
+			for(int d = 0; d < 3; d++)
+				corners[k][d] = c[d] + sx * axes[0][d] + sy * axes[1][d] + sz * axes[2][d];
+		}
+		
+		return corners;
+	}
+}
@@ -0,0 +1,306 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.broadphase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import org.barghos.math.boundary.AABB3f;
+
+/**
+ * @author picatrix1899
+ */
+class DynamicAABBTree3fTest
+{
+	private static final int COUNT = 400;
+	private static final int ROUNDS = 4;
+	private static final int QUERIES = 200;
+	
+	private static final float EXTEND = 30.0f;
+	
+	@Test
+	void queriesMatchBruteForce()
+	{
+		Random rnd = new Random(RandomBoxes.SEED);
+		DynamicAABBTree3f tree = new DynamicAABBTree3f();
+		List<Integer> proxies = new ArrayList<>();
+		Map<Integer, float[]> boxes = new HashMap<>();
+		
+		for(int i = 0; i < COUNT; i++)
+		{
+			proxies.add(insert(tree, boxes, rnd, i));
+		}
+		
+		for(int round = 0; round < ROUNDS; round++)
+		{
+			check(tree, proxies, boxes, rnd);
+			
+			for(int proxy : proxies)
+			{
+				float[] box = boxes.get(proxy);
+				float[] d = RandomBoxes.move(rnd, box, 2.0f);
+				
+				tree.move(proxy, box[0], box[1], box[2], box[3], box[4], box[5], d[0], d[1], d[2]);
+			}
+			
+			// replace a tenth of the objects, the freed proxies are reused by the insertions.
+			for(int i = 0; i < COUNT / 10; i++)
+			{
+				int proxy = proxies.remove(rnd.nextInt(proxies.size()));
+				
+				boxes.remove(proxy);
+				tree.remove(proxy);
+			}
+			
+			for(int i = 0; i < COUNT / 10; i++)
+			{
+				proxies.add(insert(tree, boxes, rnd, COUNT + round * COUNT + i));
+			}
+		}
+		
+		check(tree, proxies, boxes, rnd);
+	}
+	
+	@Test
+	void pairCallbackMayQueryTheTree()
+	{
+		Random rnd = new Random(RandomBoxes.SEED);
+		DynamicAABBTree3f tree = new DynamicAABBTree3f();
+		List<Integer> proxies = new ArrayList<>();
+		Map<Integer, float[]> boxes = new HashMap<>();
+		
+		for(int i = 0; i < COUNT; i++)
+		{
+			proxies.add(insert(tree, boxes, rnd, i));
+		}
+		
+		AABB3f box = new AABB3f();
+		Set<Long> pairs = new TreeSet<>();
+		int[] missing = new int[1];
+		
+		tree.queryPairs((a, b) ->
+		{
+			pairs.add(RandomBoxes.pair(a, b));
+			
+			// b has to be among the objects overlapping the box of a.
+			boolean[] found = new boolean[1];
+			
+			tree.getFatAABB(a, box);
+			tree.query(box, (proxy) -> { if(proxy == b) found[0] = true; return true; });
+			
+			if(!found[0]) missing[0]++;
+		});
+		
+		assertEquals(0, missing[0]);
+		assertEquals(RandomBoxes.pairs(fatBoxes(tree, proxies)), pairs);
+	}
+	
+	/**
+	 * Checks that every fat box contains the box of its object, and compares the queries with brute force
+	 * over the fat boxes, which are what the tree reports.
+	 */
+	private static void check(DynamicAABBTree3f tree, List<Integer> proxies, Map<Integer, float[]> boxes, Random rnd)
+	{
+		assertEquals(proxies.size(), tree.size());
+		
+		Map<Integer, float[]> fat = fatBoxes(tree, proxies);
+		
+		for(int proxy : proxies)
+		{
+			assertTrue(RandomBoxes.contains(fat.get(proxy), boxes.get(proxy)), "proxy " + proxy + " left its fat box");
+		}
+		
+		Set<Long> pairs = new TreeSet<>();
+		int[] reports = new int[1];
+		
+		tree.queryPairs((a, b) ->
+		{
+			assertTrue(a < b);
+			
+			pairs.add(RandomBoxes.pair(a, b));
+			reports[0]++;
+		});
+		
+		assertEquals(pairs.size(), reports[0], "pairs reported more than once");
+		assertEquals(RandomBoxes.pairs(fat), pairs);
+		
+		for(int i = 0; i < QUERIES; i++)
+		{
+			float[] box = RandomBoxes.next(rnd, 3, EXTEND, 0.0f, 8.0f);
+			
+			Set<Integer> expected = RandomBoxes.overlapping(fat, box);
+			Set<Integer> actual = new TreeSet<>();
+			
+			tree.query(box[0], box[1], box[2], box[3], box[4], box[5], (proxy) -> { assertTrue(actual.add(proxy)); return true; });
+			
+			assertEquals(expected, actual);
+			
+			int[] res = new int[expected.size()];
+			
+			assertEquals(expected.size(), tree.query(new AABB3f(box[0], box[1], box[2], box[3], box[4], box[5]), res));
+			
+			actual.clear();
+			
+			for(int proxy : res) actual.add(proxy);
+			
+			assertEquals(expected, actual);
+		}
+		
+		for(int i = 0; i < QUERIES; i++)
+		{
+			float oX = (rnd.nextFloat() * 2.0f - 1.0f) * EXTEND;
+			float oY = (rnd.nextFloat() * 2.0f - 1.0f) * EXTEND;
+			float oZ = (rnd.nextFloat() * 2.0f - 1.0f) * EXTEND;
+			
+			// every fourth ray is parallel to the x axis.
+			float dX = rnd.nextFloat() * 2.0f - 1.0f;
+			float dY = i % 4 == 0 ? 0.0f : rnd.nextFloat() * 2.0f - 1.0f;
+			float dZ = i % 4 == 0 ? 0.0f : rnd.nextFloat() * 2.0f - 1.0f;
+			
+			float maxFraction = rnd.nextFloat() * EXTEND;
+			
+			Set<Integer> expected = new TreeSet<>();
+			
+			for(Map.Entry<Integer, float[]> entry : fat.entrySet())
+			{
+				if(hits(entry.getValue(), oX, oY, oZ, dX, dY, dZ, maxFraction)) expected.add(entry.getKey());
+			}
+			
+			Set<Integer> actual = new TreeSet<>();
+			
+			tree.raycast(oX, oY, oZ, dX, dY, dZ, maxFraction, (proxy, fraction) -> { assertTrue(actual.add(proxy)); return fraction; });
+			
+			assertEquals(expected, actual);
+		}
+		
+		float[] planes = new float[4 * 4];
+		
+		for(int i = 0; i < QUERIES; i++)
+		{
+			for(int p = 0; p < 4; p++)
+			{
+				planes[p * 4] = rnd.nextFloat() * 2.0f - 1.0f;
+				planes[p * 4 + 1] = rnd.nextFloat() * 2.0f - 1.0f;
+				planes[p * 4 + 2] = rnd.nextFloat() * 2.0f - 1.0f;
+				planes[p * 4 + 3] = rnd.nextFloat() * EXTEND;
+			}
+			
+			Set<Integer> expected = new TreeSet<>();
+			
+			for(Map.Entry<Integer, float[]> entry : fat.entrySet())
+			{
+				if(!outside(entry.getValue(), planes)) expected.add(entry.getKey());
+			}
+			
+			Set<Integer> actual = new TreeSet<>();
+			
+			tree.queryFrustum(planes, 4, (proxy) -> { assertTrue(actual.add(proxy)); return true; });
+			
+			assertEquals(expected, actual);
+		}
+	}
+	
+	private static Map<Integer, float[]> fatBoxes(DynamicAABBTree3f tree, List<Integer> proxies)
+	{
+		Map<Integer, float[]> res = new HashMap<>();
+		AABB3f fat = new AABB3f();
+		
+		for(int proxy : proxies)
+		{
+			tree.getFatAABB(proxy, fat);
+			
+			res.put(proxy, new float[] { fat.getMinX(), fat.getMinY(), fat.getMinZ(), fat.getMaxX(), fat.getMaxY(), fat.getMaxZ() });
+		}
+		
+		return res;
+	}
+	
+	/**
+	 * Slab test with the same arithmetic as the tree, so that rays grazing a box give the same result.
+	 */
+	private static boolean hits(float[] box, float oX, float oY, float oZ, float dX, float dY, float dZ, float maxFraction)
+	{
+		float[] o = { oX, oY, oZ };
+		float[] d = { dX, dY, dZ };
+		
+		float tMin = 0.0f;
+		float tMax = maxFraction;
+		
+		for(int i = 0; i < 3; i++)
+		{
+			if(d[i] == 0.0f)
+			{
+				if(o[i] < box[i] || o[i] > box[i + 3]) return false;
+				
+				continue;
+			}
+			
+			float inv = 1.0f / d[i];
+			float t1 = (box[i] - o[i]) * inv;
+			float t2 = (box[i + 3] - o[i]) * inv;
+			
+			tMin = Math.max(tMin, Math.min(t1, t2));
+			tMax = Math.min(tMax, Math.max(t1, t2));
+		}
+		
+		return tMin <= tMax;
+	}
+	
+	private static boolean outside(float[] box, float[] planes)
+	{
+		for(int p = 0; p < planes.length / 4; p++)
+		{
+			float a = planes[p * 4], b = planes[p * 4 + 1], c = planes[p * 4 + 2], d = planes[p * 4 + 3];
+			
+			float far = a * (a > 0.0f ? box[3] : box[0]) + b * (b > 0.0f ? box[4] : box[1]) + c * (c > 0.0f ? box[5] : box[2]) + d;
+			
+			if(far < 0.0f) return true;
+		}
+		
+		return false;
+	}
+	
+	private static int insert(DynamicAABBTree3f tree, Map<Integer, float[]> boxes, Random rnd, int userData)
+	{
+		float[] box = RandomBoxes.next(rnd, 3, EXTEND, 0.5f, 2.5f);
+		
+		int proxy = tree.insert(box[0], box[1], box[2], box[3], box[4], box[5], userData);
+		
+		assertTrue(boxes.put(proxy, box) == null);
+		assertEquals(userData, tree.getUserData(proxy));
+		
+		return proxy;
+	}
+}
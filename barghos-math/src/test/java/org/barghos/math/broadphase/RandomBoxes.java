@@ -0,0 +1,155 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.broadphase;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Random boxes and brute-force overlap tests shared by the broad phase tests.
+ * A box is a float array with the minimum on every axis followed by the maximum on every axis,
+ * so minX, minY, maxX, maxY in 2D and minX, minY, minZ, maxX, maxY, maxZ in 3D.
+ * Touching boxes overlap, like in the broad phases.
+ * 
+ * @author picatrix1899
+ */
+final class RandomBoxes
+{
+	static final long SEED = 0x5EED_B0C5L;
+	
+	private RandomBoxes() { }
+	
+	/**
+	 * Returns a cube or square with its minimum corner in [-extend, extend] on every axis and an edge length in [minSize, maxSize).
+	 */
+	static float[] next(Random rnd, int dimensions, float extend, float minSize, float maxSize)
+	{
+		float[] box = new float[dimensions * 2];
+		
+		for(int i = 0; i < dimensions; i++)
+		{
+			box[i] = (rnd.nextFloat() * 2.0f - 1.0f) * extend;
+		}
+		
+		float size = minSize + rnd.nextFloat() * (maxSize - minSize);
+		
+		for(int i = 0; i < dimensions; i++)
+		{
+			box[dimensions + i] = box[i] + size;
+		}
+		
+		return box;
+	}
+	
+	/**
+	 * Moves the box by a random displacement in [-range, range] on every axis and returns the displacement.
+	 */
+	static float[] move(Random rnd, float[] box, float range)
+	{
+		int dimensions = box.length / 2;
+		
+		float[] displacement = new float[dimensions];
+		
+		for(int i = 0; i < dimensions; i++)
+		{
+			displacement[i] = (rnd.nextFloat() * 2.0f - 1.0f) * range;
+			
+			box[i] += displacement[i];
+			box[dimensions + i] += displacement[i];
+		}
+		
+		return displacement;
+	}
+	
+	static boolean overlaps(float[] a, float[] b)
+	{
+		int dimensions = a.length / 2;
+		
+		for(int i = 0; i < dimensions; i++)
+		{
+			if(a[i] > b[dimensions + i] || a[dimensions + i] < b[i]) return false;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Returns true if the outer box contains the inner box.
+	 */
+	static boolean contains(float[] outer, float[] inner)
+	{
+		int dimensions = outer.length / 2;
+		
+		for(int i = 0; i < dimensions; i++)
+		{
+			if(inner[i] < outer[i] || inner[dimensions + i] > outer[dimensions + i]) return false;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Returns the keys of all boxes that overlap the given box.
+	 */
+	static Set<Integer> overlapping(Map<Integer, float[]> boxes, float[] box)
+	{
+		Set<Integer> res = new TreeSet<>();
+		
+		for(Map.Entry<Integer, float[]> entry : boxes.entrySet())
+		{
+			if(overlaps(entry.getValue(), box)) res.add(entry.getKey());
+		}
+		
+		return res;
+	}
+	
+	/**
+	 * Returns the pair keys of all overlapping boxes by testing every pair.
+	 */
+	static Set<Long> pairs(Map<Integer, float[]> boxes)
+	{
+		Set<Long> pairs = new TreeSet<>();
+		
+		for(Map.Entry<Integer, float[]> a : boxes.entrySet())
+		{
+			for(Map.Entry<Integer, float[]> b : boxes.entrySet())
+			{
+				if(a.getKey() < b.getKey() && overlaps(a.getValue(), b.getValue())) pairs.add(pair(a.getKey(), b.getKey()));
+			}
+		}
+		
+		return pairs;
+	}
+	
+	/**
+	 * Returns a key for the unordered pair of the two handles.
+	 */
+	static long pair(int a, int b)
+	{
+		return a < b ? (long)a << 32 | b : (long)b << 32 | a;
+	}
+}
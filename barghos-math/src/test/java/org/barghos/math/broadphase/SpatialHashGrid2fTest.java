@@ -0,0 +1,235 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.broadphase;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author picatrix1899
+ */
+class SpatialHashGrid2fTest
+{
+	private static final float CELL_SIZE = 2.0f;
+	private static final float EXTEND = 50.0f;
+	
+	private static final int COUNT = 1000;
+	private static final int STEPS = 10;
+	private static final int QUERIES = 200;
+	
+	@Test
+	void queriesMatchBruteForce()
+	{
+		Random rnd = new Random(RandomBoxes.SEED);
+		SpatialHashGrid2f grid = new SpatialHashGrid2f(CELL_SIZE);
+		
+		Map<Integer, float[]> boxes = new HashMap<>();
+		List<Integer> handles = new ArrayList<>();
+		
+		for(int i = 0; i < COUNT; i++)
+		{
+			insert(grid, boxes, handles, rnd);
+		}
+		
+		int[] res = new int[COUNT * 2];
+		
+		for(int step = 0; step < STEPS; step++)
+		{
+			assertEquals(boxes.size(), grid.size());
+			
+			for(int i = 0; i < QUERIES; i++)
+			{
+				float[] box = RandomBoxes.next(rnd, 2, EXTEND, 0.0f, 10.0f);
+				
+				int count = grid.query(box[0], box[1], box[2], box[3], res);
+				
+				assertEquals(RandomBoxes.overlapping(boxes, box), sorted(res, count));
+				
+				float x = box[0];
+				float y = box[1];
+				float radius = rnd.nextFloat() * 10.0f;
+				
+				count = grid.queryRadius(x, y, radius, res);
+				
+				assertEquals(withinRadius(boxes, x, y, radius), sorted(res, count));
+			}
+			
+			// some objects move within their cells, some to other cells and some jump across the grid.
+			for(int handle : handles)
+			{
+				float[] box = boxes.get(handle);
+				
+				int kind = rnd.nextInt(4);
+				
+				if(kind == 0) continue;
+				
+				RandomBoxes.move(rnd, box, kind == 1 ? 0.05f : kind == 2 ? CELL_SIZE : EXTEND);
+				
+				grid.update(handle, box[0], box[1], box[2], box[3]);
+			}
+			
+			for(int i = 0; i < COUNT / 20; i++)
+			{
+				int handle = handles.remove(rnd.nextInt(handles.size()));
+				
+				boxes.remove(handle);
+				grid.remove(handle);
+			}
+			
+			for(int i = 0; i < COUNT / 20; i++)
+			{
+				insert(grid, boxes, handles, rnd);
+			}
+			
+			// every other step queries the grid in the state left by the updates, the others after a rebuild.
+			if(step % 2 == 0) grid.rebuild();
+		}
+	}
+	
+	@Test
+	void parallelRebuildMatchesSequentialRebuild()
+	{
+		int count = SpatialHashGrid2f.PARALLEL_THRESHOLD * 3;
+		
+		SpatialHashGrid2f sequential = new SpatialHashGrid2f(CELL_SIZE, count);
+		SpatialHashGrid2f parallel = new SpatialHashGrid2f(CELL_SIZE, count);
+		
+		Random rnd = new Random(RandomBoxes.SEED);
+		
+		float[][] boxes = new float[count][];
+		int[] handles = new int[count];
+		
+		for(int i = 0; i < count; i++)
+		{
+			float[] box = boxes[i] = RandomBoxes.next(rnd, 2, EXTEND * 4.0f, 0.1f, 0.1f + CELL_SIZE * 2.0f);
+			
+			handles[i] = sequential.insert(box[0], box[1], box[2], box[3], i);
+			
+			assertEquals(handles[i], parallel.insert(box[0], box[1], box[2], box[3], i));
+		}
+		
+		ForkJoinPool pool = new ForkJoinPool(4);
+		
+		try
+		{
+			for(int round = 0; round < 3; round++)
+			{
+				sequential.rebuild();
+				parallel.rebuild(pool);
+				
+				assertEquals(0, sequential.getLooseCount());
+				assertEquals(sequential.getLooseCount(), parallel.getLooseCount());
+				
+				int[] expected = new int[count];
+				int[] actual = new int[count];
+				
+				for(int i = 0; i < QUERIES; i++)
+				{
+					float[] box = RandomBoxes.next(rnd, 2, EXTEND * 4.0f, 0.0f, 20.0f);
+					
+					int n = sequential.query(box[0], box[1], box[2], box[3], expected);
+					
+					assertEquals(n, parallel.query(box[0], box[1], box[2], box[3], actual));
+					
+					// the order of the results depends on the order within the buckets, which has to be the same.
+					assertArrayEquals(Arrays.copyOf(expected, n), Arrays.copyOf(actual, n));
+				}
+				
+				for(int i = 0; i < count; i++)
+				{
+					float[] box = boxes[i];
+					
+					RandomBoxes.move(rnd, box, CELL_SIZE);
+					
+					sequential.update(handles[i], box[0], box[1], box[2], box[3]);
+					parallel.update(handles[i], box[0], box[1], box[2], box[3]);
+				}
+			}
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
+	
+	/**
+	 * Returns the objects whose box is at most radius away from the point, with the same arithmetic as the grid.
+	 */
+	private static Set<Integer> withinRadius(Map<Integer, float[]> boxes, float x, float y, float radius)
+	{
+		Set<Integer> res = RandomBoxes.overlapping(boxes, new float[] { x - radius, y - radius, x + radius, y + radius });
+		
+		res.removeIf((handle) ->
+		{
+			float[] b = boxes.get(handle);
+			
+			float dx = Math.max(Math.max(b[0] - x, x - b[2]), 0.0f);
+			float dy = Math.max(Math.max(b[1] - y, y - b[3]), 0.0f);
+			
+			return dx * dx + dy * dy > radius * radius;
+		});
+		
+		return res;
+	}
+	
+	private static Set<Integer> sorted(int[] res, int count)
+	{
+		assertTrue(count <= res.length);
+		
+		Set<Integer> set = new TreeSet<>();
+		
+		for(int i = 0; i < count; i++)
+		{
+			assertTrue(set.add(res[i]), "handle " + res[i] + " reported twice");
+		}
+		
+		return set;
+	}
+	
+	private static void insert(SpatialHashGrid2f grid, Map<Integer, float[]> boxes, List<Integer> handles, Random rnd)
+	{
+		// one object in fifty covers more cells than are stored in the buckets.
+		float[] box = rnd.nextInt(50) == 0 ? RandomBoxes.next(rnd, 2, EXTEND, 20.0f, 40.0f) : RandomBoxes.next(rnd, 2, EXTEND, 0.1f, 0.1f + CELL_SIZE * 2.0f);
+		
+		int handle = grid.insert(box[0], box[1], box[2], box[3], handles.size());
+		
+		assertTrue(boxes.put(handle, box) == null);
+		
+		handles.add(handle);
+	}
+}
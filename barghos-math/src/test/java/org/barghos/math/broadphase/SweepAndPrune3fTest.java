@@ -0,0 +1,207 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.broadphase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author picatrix1899
+ */
+class SweepAndPrune3fTest
+{
+	private static final int COUNT = 300;
+	private static final int STEPS = 40;
+	
+	/**
+	 * The number of objects added and removed per step.
+	 */
+	private static final int CHURN = 6;
+	
+	private static final float EXTEND = 20.0f;
+	
+	@Test
+	void allAxesMatchBruteForce()
+	{
+		run(SweepAndPrune3f.AxisMode.ALL);
+	}
+	
+	@Test
+	void varianceAxisMatchesBruteForce()
+	{
+		run(SweepAndPrune3f.AxisMode.VARIANCE);
+	}
+	
+	@Test
+	void boxesTouchingAtSignedZeroOverlap()
+	{
+		for(SweepAndPrune3f.AxisMode mode : SweepAndPrune3f.AxisMode.values())
+		{
+			SweepAndPrune3f sap = new SweepAndPrune3f(mode);
+			
+			int a = sap.add(-1.0f, 0.0f, 0.0f, -0.0f, 1.0f, 1.0f, 0);
+			int b = sap.add(0.0f, 0.0f, 0.0f, 1.0f, 1.0f, 1.0f, 1);
+			
+			sap.update();
+			
+			assertEquals(1, sap.getPairCount(), mode.name());
+			assertTrue(sap.isOverlapping(a, b), mode.name());
+			
+			// the incremental path of the update has to keep the pair as well.
+			sap.move(b, 0.0f, 0.0f, 0.0f, 1.0f, 1.0f, 1.0f);
+			sap.update();
+			
+			assertEquals(1, sap.getPairCount(), mode.name());
+		}
+	}
+	
+	private static void run(SweepAndPrune3f.AxisMode mode)
+	{
+		Random rnd = new Random(RandomBoxes.SEED);
+		SweepAndPrune3f sap = new SweepAndPrune3f(mode);
+		
+		Map<Integer, float[]> boxes = new HashMap<>();
+		List<Integer> handles = new ArrayList<>();
+		
+		Set<Long> begins = new TreeSet<>();
+		Set<Long> ends = new TreeSet<>();
+		
+		sap.setListener(new SweepAndPrune3f.OverlapListener()
+		{
+			@Override
+			public void begin(int a, int b)
+			{
+				assertTrue(a < b);
+				assertTrue(begins.add(RandomBoxes.pair(a, b)), "begin reported twice");
+			}
+			
+			@Override
+			public void end(int a, int b)
+			{
+				assertTrue(a < b);
+				assertTrue(ends.add(RandomBoxes.pair(a, b)), "end reported twice");
+			}
+		});
+		
+		for(int i = 0; i < COUNT; i++)
+		{
+			add(sap, boxes, handles, rnd);
+		}
+		
+		Set<Long> previous = new TreeSet<>();
+		
+		for(int step = 0; step < STEPS; step++)
+		{
+			begins.clear();
+			ends.clear();
+			
+			sap.update();
+			
+			Set<Long> expected = RandomBoxes.pairs(boxes);
+			
+			Set<Long> pairs = new TreeSet<>();
+			int[] reports = new int[1];
+			
+			sap.forEachPair((a, b) ->
+			{
+				assertTrue(a < b);
+				
+				pairs.add(RandomBoxes.pair(a, b));
+				reports[0]++;
+			});
+			
+			assertEquals(expected, pairs);
+			assertEquals(pairs.size(), reports[0], "pairs reported more than once");
+			assertEquals(expected.size(), sap.getPairCount());
+			assertEquals(boxes.size(), sap.size());
+			
+			for(long pair : expected)
+			{
+				assertTrue(sap.isOverlapping((int)(pair >>> 32), (int)pair));
+			}
+			
+			// the events have to be exactly the difference between the pairs of the last and this update.
+			Set<Long> started = new TreeSet<>(expected);
+			started.removeAll(previous);
+			
+			Set<Long> stopped = new TreeSet<>(previous);
+			stopped.removeAll(expected);
+			
+			assertEquals(started, begins);
+			assertEquals(stopped, ends);
+			
+			previous = expected;
+			
+			for(int handle : handles)
+			{
+				float[] box = boxes.get(handle);
+				
+				// most objects move a little, some jump across the scene.
+				RandomBoxes.move(rnd, box, rnd.nextInt(10) == 0 ? EXTEND : 0.2f);
+				
+				sap.move(handle, box[0], box[1], box[2], box[3], box[4], box[5]);
+			}
+			
+			// every other step stays free of additions, so that the incremental path of the update is covered as well.
+			if(step % 2 == 1)
+			{
+				for(int i = 0; i < CHURN; i++)
+				{
+					int handle = handles.remove(rnd.nextInt(handles.size()));
+					
+					boxes.remove(handle);
+					sap.remove(handle);
+				}
+				
+				for(int i = 0; i < CHURN; i++)
+				{
+					add(sap, boxes, handles, rnd);
+				}
+			}
+		}
+	}
+	
+	private static void add(SweepAndPrune3f sap, Map<Integer, float[]> boxes, List<Integer> handles, Random rnd)
+	{
+		float[] box = RandomBoxes.next(rnd, 3, EXTEND, 0.5f, 2.5f);
+		
+		int handle = sap.add(box[0], box[1], box[2], box[3], box[4], box[5], handles.size());
+		
+		// handles of removed objects are only released by the update, so a handle is never in use twice.
+		assertTrue(boxes.put(handle, box) == null);
+		
+		handles.add(handle);
+	}
+}
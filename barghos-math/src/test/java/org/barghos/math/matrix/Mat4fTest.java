@@ -0,0 +1,254 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.matrix;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.function.UnaryOperator;
+
+import org.junit.jupiter.api.Test;
+
+import org.barghos.math.point.Point3f;
+import org.barghos.math.utils.EulerAnglesDeg3f;
+import org.barghos.math.vec3.Vec3f;
+
+/**
+ * @author picatrix1899
+ */
+class Mat4fTest
+{
+	private static final long SEED = 0x5EED_4F4FL;
+	
+	private static final int SAMPLES = 20000;
+	
+	/**
+	 * The largest deviation allowed from the general paths and of M * inverse from the identity.
+	 * Values larger than 1 are compared relative to their magnitude.
+	 */
+	private static final float BOUND = 1.0e-4f;
+	
+	private static final int TRS = 0;
+	private static final int RIGID = 1;
+	private static final int ROTATION = 2;
+	
+	@Test
+	void specialisedInversesMatchGeneralInverse()
+	{
+		for(int kind = TRS; kind <= ROTATION; kind++)
+		{
+			// every path is only valid for the kinds of matrices it assumes.
+			check(kind, "affine", Mat4f::invertAffineN);
+			check(kind, "auto", Mat4f::invertAutoN);
+			
+			if(kind >= RIGID) check(kind, "rigid", Mat4f::invertRigidN);
+			if(kind >= ROTATION) check(kind, "orthonormal", Mat4f::invertOrthonormalN);
+		}
+	}
+	
+	@Test
+	void propertyShortcutsMatchGeneralPaths()
+	{
+		Random rnd = new Random(SEED);
+		
+		float[] points = new float[3 * 4];
+		float[] expected = new float[points.length];
+		float[] actual = new float[points.length];
+		
+		for(int i = 0; i < SAMPLES; i++)
+		{
+			Mat4f a = flagged(rnd);
+			Mat4f b = flagged(rnd);
+			
+			assertPropertiesHold(a);
+			
+			// the same cells without properties take the general paths.
+			Mat4f plainA = new Mat4f(a).setProperties(0);
+			Mat4f plainB = new Mat4f(b).setProperties(0);
+			
+			Mat4f product = a.mul(b, new Mat4f());
+			
+			assertClose(plainA.mul(plainB, new Mat4f()), product, "b * a");
+			assertPropertiesHold(product);
+			
+			Mat4f inverse = a.invertN();
+			
+			assertClose(plainA.invertN(), inverse, "inverse");
+			assertIdentity(inverse.mul(plainA, new Mat4f()), "a * inverse");
+			assertPropertiesHold(inverse);
+			
+			for(int k = 0; k < points.length; k++)
+			{
+				points[k] = (rnd.nextFloat() * 2.0f - 1.0f) * 10.0f;
+			}
+			
+			boolean useLastColumn = rnd.nextBoolean();
+			
+			plainA.transform(points, 0, expected, 0, 4, useLastColumn);
+			a.transform(points, 0, actual, 0, 4, useLastColumn);
+			
+			for(int k = 0; k < points.length; k++)
+			{
+				assertClose(expected[k], actual[k], "transform");
+			}
+			
+			Point3f point = new Point3f(points[0], points[1], points[2]);
+			
+			assertClose(plainA.transform(point, new Vec3f()), a.transform(point, new Vec3f()));
+		}
+	}
+	
+	private static void check(int kind, String path, UnaryOperator<Mat4f> inverse)
+	{
+		Random rnd = new Random(SEED);
+		
+		for(int i = 0; i < SAMPLES; i++)
+		{
+			Mat4f m = matrix(kind, rnd);
+			
+			Mat4f expected = new Mat4f(m).invert();
+			Mat4f actual = inverse.apply(m);
+			
+			assertClose(expected, actual, path);
+			assertIdentity(actual.mul(m, new Mat4f()), path);
+		}
+	}
+	
+	/**
+	 * Returns a TRS, rigid or rotation matrix without properties, so that invertAuto has to classify it.
+	 */
+	private static Mat4f matrix(int kind, Random rnd)
+	{
+		Vec3f position = kind == ROTATION ? new Vec3f() : vector(rnd, 10.0f);
+		Vec3f scale = kind == TRS ? new Vec3f(0.5f + rnd.nextFloat(), 0.5f + rnd.nextFloat(), 0.5f + rnd.nextFloat()) : new Vec3f(1.0f, 1.0f, 1.0f);
+		
+		return new Mat4f().initTransformMatrix3D(position, angles(rnd), scale).setProperties(0);
+	}
+	
+	/**
+	 * Returns a matrix from one of the init functions, with the properties they set.
+	 */
+	private static Mat4f flagged(Random rnd)
+	{
+		Vec3f v = vector(rnd, 10.0f);
+		EulerAnglesDeg3f angles = angles(rnd);
+		
+		switch(rnd.nextInt(7))
+		{
+			case 0: return new Mat4f().initIdentity();
+			case 1: return new Mat4f().initTranslation3D(v.getX(), v.getY(), v.getZ());
+			case 2: return new Mat4f().initRotation3D(angles);
+			case 3: return new Mat4f().initScaling3D(0.5f + rnd.nextFloat(), 0.5f + rnd.nextFloat(), 0.5f + rnd.nextFloat());
+			case 4: return new Mat4f().initTransformMatrix3D(v, angles, new Vec3f(0.5f + rnd.nextFloat(), 0.5f + rnd.nextFloat(), 0.5f + rnd.nextFloat()));
+			case 5: return new Mat4f().initViewMatrix(v.getX(), v.getY(), v.getZ(), angles.getPitchDeg(), angles.getYawDeg(), angles.getRollDeg());
+			default: return new Mat4f().initPerspective(16.0f, 9.0f, 30.0f + rnd.nextFloat() * 60.0f, 0.1f, 100.0f);
+		}
+	}
+	
+	private static EulerAnglesDeg3f angles(Random rnd)
+	{
+		return new EulerAnglesDeg3f(new Vec3f(rnd.nextFloat() * 360.0f, rnd.nextFloat() * 360.0f, rnd.nextFloat() * 360.0f));
+	}
+	
+	private static Vec3f vector(Random rnd, float extend)
+	{
+		return new Vec3f((rnd.nextFloat() * 2.0f - 1.0f) * extend, (rnd.nextFloat() * 2.0f - 1.0f) * extend, (rnd.nextFloat() * 2.0f - 1.0f) * extend);
+	}
+	
+	/**
+	 * Checks that the properties of the matrix are true for its cells.
+	 */
+	private static void assertPropertiesHold(Mat4f m)
+	{
+		int p = m.getProperties();
+		float[][] c = m.m;
+		
+		if((p & Mat4f.PROPERTY_IDENTITY) != 0) assertIdentity(m, "identity property");
+		
+		if((p & Mat4f.PROPERTY_AFFINE) != 0)
+		{
+			assertTrue(c[3][0] == 0.0f && c[3][1] == 0.0f && c[3][2] == 0.0f && c[3][3] == 1.0f, "affine property with last row " + m);
+		}
+		
+		for(int row = 0; row < 3; row++)
+		{
+			for(int column = 0; column < 3; column++)
+			{
+				float identity = row == column ? 1.0f : 0.0f;
+				
+				if((p & Mat4f.PROPERTY_TRANSLATION) != 0) assertClose(identity, c[row][column], "translation property");
+				
+				if((p & Mat4f.PROPERTY_ORTHONORMAL) != 0)
+				{
+					float dot = c[row][0] * c[column][0] + c[row][1] * c[column][1] + c[row][2] * c[column][2];
+					
+					assertClose(identity, dot, "orthonormal property");
+				}
+			}
+		}
+		
+		if((p & Mat4f.PROPERTY_PERSPECTIVE) != 0)
+		{
+			assertTrue(c[0][1] == 0.0f && c[0][2] == 0.0f && c[0][3] == 0.0f && c[1][0] == 0.0f && c[1][2] == 0.0f && c[1][3] == 0.0f
+				&& c[2][0] == 0.0f && c[2][1] == 0.0f && c[3][0] == 0.0f && c[3][1] == 0.0f && c[3][2] == -1.0f && c[3][3] == 0.0f,
+				"perspective property with " + m);
+		}
+	}
+	
+	private static void assertIdentity(Mat4f m, String message)
+	{
+		for(int row = 0; row < 4; row++)
+		{
+			for(int column = 0; column < 4; column++)
+			{
+				assertClose(row == column ? 1.0f : 0.0f, m.m[row][column], message);
+			}
+		}
+	}
+	
+	private static void assertClose(Mat4f expected, Mat4f actual, String message)
+	{
+		for(int row = 0; row < 4; row++)
+		{
+			for(int column = 0; column < 4; column++)
+			{
+				assertClose(expected.m[row][column], actual.m[row][column], message);
+			}
+		}
+	}
+	
+	private static void assertClose(Vec3f expected, Vec3f actual)
+	{
+		assertClose(expected.getX(), actual.getX(), "point");
+		assertClose(expected.getY(), actual.getY(), "point");
+		assertClose(expected.getZ(), actual.getZ(), "point");
+	}
+	
+	private static void assertClose(float expected, float actual, String message)
+	{
+		assertEquals(expected, actual, BOUND * Math.max(1.0f, Math.abs(expected)), message);
+	}
+}
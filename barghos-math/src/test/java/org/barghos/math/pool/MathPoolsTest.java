@@ -0,0 +1,173 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.pool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import org.barghos.math.boundary.OBB3f;
+import org.barghos.math.matrix.Mat4f;
+import org.barghos.math.quat.Quatf;
+import org.barghos.math.utils.VectorInterpolation;
+import org.barghos.math.vec3.Vec3f;
+import org.barghos.math.vec3.pool.Vec3fPool;
+
+/**
+ * Runs the pooled paths of the library from a ForkJoinPool after {@link MathPools#useThreadLocalPools()}
+ * was installed. The default pools are restored after every test.
+ * 
+ * @author picatrix1899
+ */
+class MathPoolsTest
+{
+	private static final int THREADS = 8;
+	private static final int ROUNDS = 50;
+	private static final int SAMPLES = 4096;
+	
+	@Test
+	void threadLocalPoolsNeverHandOutAnInstanceTwice()
+	{
+		Set<Vec3f> inUse = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+		AtomicInteger violations = new AtomicInteger();
+		
+		run(i -> {
+			Vec3f a = Vec3fPool.get(i, i, i);
+			Vec3f b = Vec3fPool.get(-i, -i, -i);
+			
+			if(!inUse.add(a)) violations.incrementAndGet();
+			if(!inUse.add(b)) violations.incrementAndGet();
+			
+			// another thread holding the same instance would have overwritten it by now.
+			Thread.yield();
+			
+			if(a.getX() != i || b.getX() != -i) violations.incrementAndGet();
+			
+			inUse.remove(a);
+			inUse.remove(b);
+			
+			Vec3fPool.store(a, b);
+		});
+		
+		assertEquals(0, violations.get());
+	}
+	
+	@Test
+	void pooledFunctionsMatchSingleThreadedResults()
+	{
+		Random rnd = new Random(0x5EED_9001L);
+		
+		Quatf[] from = new Quatf[SAMPLES];
+		Quatf[] to = new Quatf[SAMPLES];
+		Quatf[] slerp = new Quatf[SAMPLES];
+		OBB3f[] obbs = new OBB3f[SAMPLES];
+		Mat4f[] modelSpace = new Mat4f[SAMPLES];
+		
+		for(int i = 0; i < SAMPLES; i++)
+		{
+			from[i] = Quatf.getFromAxis(axis(rnd), rnd.nextFloat() * 360.0f);
+			to[i] = Quatf.getFromAxis(axis(rnd), rnd.nextFloat() * 360.0f);
+			slerp[i] = VectorInterpolation.slerp(from[i], to[i], 0.5f, null);
+			obbs[i] = new OBB3f(rnd.nextFloat(), rnd.nextFloat(), rnd.nextFloat(), 1.0f, 1.0f, 1.0f, Mat4f.rotation3D(axis(rnd), rnd.nextFloat() * 360.0f));
+			modelSpace[i] = obbs[i].getModelSpaceMatrix();
+		}
+		
+		AtomicInteger differences = new AtomicInteger();
+		
+		run(i -> {
+			Quatf q = VectorInterpolation.slerp(from[i], to[i], 0.5f, null);
+			
+			if(!equal(q, slerp[i])) differences.incrementAndGet();
+			
+			Mat4f m = new OBB3f(obbs[i]).getModelSpaceMatrix();
+			
+			if(!equal(m, modelSpace[i])) differences.incrementAndGet();
+		});
+		
+		assertEquals(0, differences.get());
+	}
+	
+	private static void run(Sample sample)
+	{
+		MathPools.useThreadLocalPools();
+		
+		ForkJoinPool executor = new ForkJoinPool(THREADS);
+		
+		try
+		{
+			for(int round = 0; round < ROUNDS; round++)
+				executor.submit(() -> IntStream.range(0, SAMPLES).parallel().forEach(sample::run)).join();
+			
+			assertTrue(executor.getPoolSize() > 1, "The samples ran on a single thread.");
+		}
+		finally
+		{
+			executor.shutdown();
+			
+			MathPools.useDequePools();
+		}
+	}
+	
+	private static Vec3f axis(Random rnd)
+	{
+		Vec3f v;
+		
+		do
+		{
+			v = new Vec3f(rnd.nextFloat() * 2.0f - 1.0f, rnd.nextFloat() * 2.0f - 1.0f, rnd.nextFloat() * 2.0f - 1.0f);
+		}
+		while(v.squaredLength() < 0.01f);
+		
+		return v.normal();
+	}
+	
+	private static boolean equal(Quatf a, Quatf b)
+	{
+		return a.getX() == b.getX() && a.getY() == b.getY() && a.getZ() == b.getZ() && a.getW() == b.getW();
+	}
+	
+	private static boolean equal(Mat4f a, Mat4f b)
+	{
+		for(int row = 0; row < 4; row++)
+			for(int column = 0; column < 4; column++)
+				if(a.getCell(row, column) != b.getCell(row, column)) return false;
+		
+		return true;
+	}
+	
+	private interface Sample
+	{
+		void run(int i);
+	}
+}
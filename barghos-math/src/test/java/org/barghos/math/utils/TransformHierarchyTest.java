@@ -0,0 +1,204 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import org.barghos.math.matrix.Mat4f;
+
+/**
+ * @author picatrix1899
+ */
+class TransformHierarchyTest
+{
+	private static final long SEED = 0x5EED_7A55L;
+	
+	@Test
+	void worldMatricesMatchStaticTransforms()
+	{
+		run(500, 5, 500, null);
+	}
+	
+	@Test
+	void parallelUpdateMatchesStaticTransforms()
+	{
+		ForkJoinPool pool = new ForkJoinPool(4);
+		
+		try
+		{
+			// all parents among the first nodes, so that the levels below them hold more than PARALLEL_THRESHOLD nodes.
+			run(TransformHierarchy.PARALLEL_THRESHOLD * 4, 8, 16, pool);
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
+	
+	/**
+	 * Builds the same random forest as a TransformHierarchy and as StaticHirarchicalTransform3f instances and compares
+	 * the world matrices, then changes and reparents some nodes and compares them again.
+	 * Every node gets a parent among the nodes with a smaller index below spread, so reparenting never creates a cycle.
+	 */
+	private static void run(int count, int roots, int spread, ForkJoinPool pool)
+	{
+		Random rnd = new Random(SEED);
+		
+		TransformHierarchy hierarchy = new TransformHierarchy();
+		TransformHierarchy.Node[] nodes = new TransformHierarchy.Node[count];
+		StaticHirarchicalTransform3f[] transforms = new StaticHirarchicalTransform3f[count];
+		
+		for(int i = 0; i < count; i++)
+		{
+			transforms[i] = new StaticHirarchicalTransform3f();
+			
+			if(i < roots)
+			{
+				nodes[i] = hierarchy.create();
+			}
+			else
+			{
+				int parent = rnd.nextInt(Math.min(i, spread));
+				
+				nodes[i] = hierarchy.create(nodes[parent]);
+				transforms[i].setParent(transforms[parent]);
+			}
+			
+			set(nodes[i], transforms[i], rnd);
+		}
+		
+		for(int round = 0; round < 3; round++)
+		{
+			if(pool != null)
+				hierarchy.update(pool);
+			else
+				hierarchy.update();
+			
+			assertEquals(count, hierarchy.size());
+			
+			compare(hierarchy, nodes, transforms);
+			
+			for(int i = 0; i < count / 10; i++)
+			{
+				int index = rnd.nextInt(count);
+				
+				set(nodes[index], transforms[index], rnd);
+			}
+			
+			for(int i = 0; i < count / 50; i++)
+			{
+				int index = roots + rnd.nextInt(count - roots);
+				int parent = rnd.nextInt(Math.min(index, spread));
+				
+				nodes[index].setParent(nodes[parent]);
+				transforms[index].setParent(transforms[parent]);
+			}
+		}
+	}
+	
+	private static void compare(TransformHierarchy hierarchy, TransformHierarchy.Node[] nodes, StaticHirarchicalTransform3f[] transforms)
+	{
+		Mat4f expected = new Mat4f();
+		Mat4f actual = new Mat4f();
+		
+		float[] world = hierarchy.getWorldMatrices();
+		
+		for(int i = 0; i < nodes.length; i++)
+		{
+			transforms[i].getTransformationMatrix4f(expected);
+			nodes[i].getTransformationMatrix4f(actual);
+			
+			assertEqual(expected, actual, i);
+		}
+		
+		// the backing array is sorted by depth, the matrices are found through get(index).
+		for(int index = 0; index < hierarchy.size(); index++)
+		{
+			TransformHierarchy.Node node = hierarchy.get(index);
+			
+			int i = indexOf(nodes, node);
+			
+			transforms[i].getTransformationMatrix4f(expected);
+			
+			for(int row = 0; row < 4; row++)
+			{
+				actual.setRow(row, world[index * 16 + row * 4], world[index * 16 + row * 4 + 1], world[index * 16 + row * 4 + 2], world[index * 16 + row * 4 + 3]);
+			}
+			
+			assertEqual(expected, actual, i);
+		}
+	}
+	
+	/**
+	 * Compares with == instead of assertEquals, since the two implementations may differ in the sign of zeros.
+	 */
+	private static void assertEqual(Mat4f expected, Mat4f actual, int node)
+	{
+		for(int row = 0; row < 4; row++)
+		{
+			for(int column = 0; column < 4; column++)
+			{
+				float e = expected.m[row][column];
+				float a = actual.m[row][column];
+				
+				assertTrue(e == a, "node " + node + " [" + row + "][" + column + "]: expected " + e + " but was " + a);
+			}
+		}
+	}
+	
+	private static int indexOf(TransformHierarchy.Node[] nodes, TransformHierarchy.Node node)
+	{
+		for(int i = 0; i < nodes.length; i++)
+		{
+			if(nodes[i] == node) return i;
+		}
+		
+		throw new AssertionError("unknown node");
+	}
+	
+	private static void set(TransformHierarchy.Node node, StaticHirarchicalTransform3f transform, Random rnd)
+	{
+		float x = (rnd.nextFloat() * 2.0f - 1.0f) * 5.0f;
+		float y = (rnd.nextFloat() * 2.0f - 1.0f) * 5.0f;
+		float z = (rnd.nextFloat() * 2.0f - 1.0f) * 5.0f;
+		
+		float pitch = rnd.nextFloat() * 360.0f;
+		float yaw = rnd.nextFloat() * 360.0f;
+		float roll = rnd.nextFloat() * 360.0f;
+		
+		float sX = 0.5f + rnd.nextFloat();
+		float sY = 0.5f + rnd.nextFloat();
+		float sZ = 0.5f + rnd.nextFloat();
+		
+		node.set(x, y, z, pitch, yaw, roll, sX, sY, sZ);
+		transform.set(x, y, z, pitch, yaw, roll, sX, sY, sZ);
+	}
+}
@@ -0,0 +1,89 @@
+/*
+MIT License
+
+Copyright (c) 2019 picatrix1899
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package org.barghos.math.vec3;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author picatrix1899
+ */
+class Vec3fArrayTest
+{
+	private static final int COUNT = 16;
+	
+	@Test
+	void overlappingCopyToHigherIndices()
+	{
+		check(2, 0, 10);
+	}
+	
+	@Test
+	void overlappingCopyToLowerIndices()
+	{
+		check(0, 2, 12);
+	}
+	
+	@Test
+	void copyOntoItself()
+	{
+		check(3, 3, 9);
+	}
+	
+	/**
+	 * Copies within one array and compares with System.arraycopy on the same values.
+	 */
+	private static void check(int index, int from, int to)
+	{
+		Vec3fArray array = new Vec3fArray(COUNT);
+		float[] expected = new float[COUNT * 3];
+		
+		for(int i = 0; i < COUNT * 3; i++)
+		{
+			expected[i] = i;
+		}
+		
+		for(int i = 0; i < COUNT; i++)
+		{
+			array.set(i, expected[i * 3], expected[i * 3 + 1], expected[i * 3 + 2]);
+		}
+		
+		System.arraycopy(expected, from * 3, expected, index * 3, (to - from) * 3);
+		
+		array.set(index, array, from, to);
+		
+		float[] actual = new float[COUNT * 3];
+		
+		for(int i = 0; i < COUNT; i++)
+		{
+			actual[i * 3] = array.getX(i);
+			actual[i * 3 + 1] = array.getY(i);
+			actual[i * 3 + 2] = array.getZ(i);
+		}
+		
+		assertArrayEquals(expected, actual);
+	}
+}